@@ -0,0 +1,17 @@
+-- ===================================================
+-- Catalog Version for Smart E-Commerce System
+-- Purpose: Let every process sharing the database tell whether the catalog changed
+-- Bumped by ProductDAO and CategoryDAO in the same transaction as each catalog write
+-- ===================================================
+
+USE smart_ecommerce;
+
+DROP TABLE IF EXISTS CatalogVersion;
+
+CREATE TABLE CatalogVersion (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO CatalogVersion (id, version) VALUES (1, 0);
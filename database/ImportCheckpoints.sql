@@ -0,0 +1,15 @@
+-- ===================================================
+-- Import Checkpoints for Smart E-Commerce System
+-- Purpose: Resume bulk catalog imports from the last committed chunk
+-- Updated by CatalogImportService in the same transaction as each chunk
+-- ===================================================
+
+USE smart_ecommerce;
+
+DROP TABLE IF EXISTS ImportCheckpoints;
+
+CREATE TABLE ImportCheckpoints (
+    source_name VARCHAR(255) PRIMARY KEY,
+    records_committed BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,112 @@
+-- ===================================================
+-- Sales Rollup Tables for Smart E-Commerce System
+-- Purpose: Pre-aggregated order statistics for dashboards
+-- Maintained incrementally by OrderDAO on order creation and
+-- status changes; rebuilt for history by SalesRollupService.backfill()
+-- (com.smartecommerce.app.RollupBackfill). Seeded below from the
+-- orders already loaded; reports read the rollups once a backfill
+-- is recorded in SalesRollupBackfills
+-- ===================================================
+
+USE smart_ecommerce;
+
+DROP TABLE IF EXISTS SalesRollupBackfills;
+DROP TABLE IF EXISTS ProductSalesRollupDaily;
+DROP TABLE IF EXISTS ProductSalesRollupHourly;
+DROP TABLE IF EXISTS SalesRollupDaily;
+DROP TABLE IF EXISTS SalesRollupHourly;
+
+-- ===================================================
+-- Table: SalesRollupHourly
+-- Purpose: Order count and revenue per hour and status
+-- ===================================================
+CREATE TABLE SalesRollupHourly (
+    bucket_start DATETIME NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_start, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===================================================
+-- Table: SalesRollupDaily
+-- Purpose: Order count and revenue per day and status
+-- ===================================================
+CREATE TABLE SalesRollupDaily (
+    bucket_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===================================================
+-- Table: ProductSalesRollupHourly
+-- Purpose: Items sold and revenue per hour, status and product
+-- ===================================================
+CREATE TABLE ProductSalesRollupHourly (
+    bucket_start DATETIME NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    product_id INT NOT NULL,
+    category_id INT NOT NULL,
+    items_sold INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_start, status, product_id),
+    INDEX idx_psrh_category (category_id, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===================================================
+-- Table: ProductSalesRollupDaily
+-- Purpose: Items sold and revenue per day, status and product
+-- ===================================================
+CREATE TABLE ProductSalesRollupDaily (
+    bucket_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    product_id INT NOT NULL,
+    category_id INT NOT NULL,
+    items_sold INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, status, product_id),
+    INDEX idx_psrd_product (product_id),
+    INDEX idx_psrd_category (category_id, bucket_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===================================================
+-- Table: SalesRollupBackfills
+-- Purpose: Completed backfills; the rollups are read only once one exists
+-- ===================================================
+CREATE TABLE SalesRollupBackfills (
+    backfill_id INT AUTO_INCREMENT PRIMARY KEY,
+    completed_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===================================================
+-- Seed the rollups from the orders already loaded
+-- ===================================================
+INSERT INTO SalesRollupHourly (bucket_start, status, order_count, revenue)
+SELECT DATE_FORMAT(o.order_date, '%Y-%m-%d %H:00:00'), o.status, COUNT(*), SUM(o.total_amount)
+FROM Orders o GROUP BY 1, 2;
+
+INSERT INTO SalesRollupDaily (bucket_date, status, order_count, revenue)
+SELECT CAST(o.order_date AS DATE), o.status, COUNT(*), SUM(o.total_amount)
+FROM Orders o GROUP BY 1, 2;
+
+INSERT INTO ProductSalesRollupHourly (bucket_start, status, product_id, category_id, items_sold, revenue)
+SELECT DATE_FORMAT(o.order_date, '%Y-%m-%d %H:00:00'), o.status, oi.product_id, p.category_id,
+       SUM(oi.quantity), SUM(oi.quantity * oi.unit_price)
+FROM Orders o
+JOIN OrderItems oi ON oi.order_id = o.order_id
+JOIN Products p ON p.product_id = oi.product_id
+GROUP BY 1, 2, 3, 4;
+
+INSERT INTO ProductSalesRollupDaily (bucket_date, status, product_id, category_id, items_sold, revenue)
+SELECT CAST(o.order_date AS DATE), o.status, oi.product_id, p.category_id,
+       SUM(oi.quantity), SUM(oi.quantity * oi.unit_price)
+FROM Orders o
+JOIN OrderItems oi ON oi.order_id = o.order_id
+JOIN Products p ON p.product_id = oi.product_id
+GROUP BY 1, 2, 3, 4;
+
+INSERT INTO SalesRollupBackfills (completed_at) VALUES (CURRENT_TIMESTAMP);
+
+SHOW TABLES LIKE '%Rollup%';
@@ -95,7 +95,9 @@ CREATE TABLE Orders (
     FOREIGN KEY (user_id) REFERENCES Users(user_id) ON DELETE RESTRICT,
     INDEX idx_user_id (user_id),
     INDEX idx_status (status),
-    INDEX idx_order_date (order_date)
+    INDEX idx_order_date (order_date),
+    -- Incremental analytics refreshes read status changes by updated_at
+    INDEX idx_orders_updated (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- ===================================================
@@ -83,6 +83,7 @@ CREATE TABLE OrderItems (
 -- Table: OrderItems
 -- ===================================================
 
+CREATE INDEX idx_orders_updated ON Orders(updated_at);
 CREATE INDEX idx_orders_date ON Orders(order_date);
 CREATE INDEX idx_orders_status ON Orders(status);
 CREATE INDEX idx_orders_user ON Orders(user_id);
@@ -0,0 +1,91 @@
+-- ===================================================
+-- Sales Rollup Tables for Smart E-Commerce System
+-- PostgreSQL Version
+-- Maintained incrementally by OrderDAO on order creation and
+-- status changes; rebuilt for history by SalesRollupService.backfill()
+-- (com.smartecommerce.app.RollupBackfill). Seeded below from the
+-- orders already loaded; reports read the rollups once a backfill
+-- is recorded in SalesRollupBackfills
+-- ===================================================
+
+DROP TABLE IF EXISTS SalesRollupBackfills;
+DROP TABLE IF EXISTS ProductSalesRollupDaily;
+DROP TABLE IF EXISTS ProductSalesRollupHourly;
+DROP TABLE IF EXISTS SalesRollupDaily;
+DROP TABLE IF EXISTS SalesRollupHourly;
+
+CREATE TABLE SalesRollupHourly (
+    bucket_start TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_start, status)
+);
+
+CREATE TABLE SalesRollupDaily (
+    bucket_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, status)
+);
+
+CREATE TABLE ProductSalesRollupHourly (
+    bucket_start TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    product_id INT NOT NULL,
+    category_id INT NOT NULL,
+    items_sold INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_start, status, product_id)
+);
+
+CREATE INDEX idx_psrh_category ON ProductSalesRollupHourly(category_id, bucket_start);
+
+CREATE TABLE ProductSalesRollupDaily (
+    bucket_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    product_id INT NOT NULL,
+    category_id INT NOT NULL,
+    items_sold INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, status, product_id)
+);
+
+CREATE INDEX idx_psrd_product ON ProductSalesRollupDaily(product_id);
+CREATE INDEX idx_psrd_category ON ProductSalesRollupDaily(category_id, bucket_date);
+
+CREATE TABLE SalesRollupBackfills (
+    backfill_id SERIAL PRIMARY KEY,
+    completed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Seed the rollups from the sample orders
+INSERT INTO SalesRollupHourly (bucket_start, status, order_count, revenue)
+SELECT date_trunc('hour', o.order_date), o.status, COUNT(*), SUM(o.total_amount)
+FROM Orders o GROUP BY 1, 2;
+
+INSERT INTO SalesRollupDaily (bucket_date, status, order_count, revenue)
+SELECT CAST(o.order_date AS DATE), o.status, COUNT(*), SUM(o.total_amount)
+FROM Orders o GROUP BY 1, 2;
+
+INSERT INTO ProductSalesRollupHourly (bucket_start, status, product_id, category_id, items_sold, revenue)
+SELECT date_trunc('hour', o.order_date), o.status, oi.product_id, p.category_id,
+       SUM(oi.quantity), SUM(oi.quantity * oi.price)
+FROM Orders o
+JOIN OrderItems oi ON oi.order_id = o.order_id
+JOIN Products p ON p.product_id = oi.product_id
+GROUP BY 1, 2, 3, 4;
+
+INSERT INTO ProductSalesRollupDaily (bucket_date, status, product_id, category_id, items_sold, revenue)
+SELECT CAST(o.order_date AS DATE), o.status, oi.product_id, p.category_id,
+       SUM(oi.quantity), SUM(oi.quantity * oi.price)
+FROM Orders o
+JOIN OrderItems oi ON oi.order_id = o.order_id
+JOIN Products p ON p.product_id = oi.product_id
+GROUP BY 1, 2, 3, 4;
+
+INSERT INTO SalesRollupBackfills (completed_at) VALUES (CURRENT_TIMESTAMP);
+
+GRANT ALL PRIVILEGES ON ALL SEQUENCES IN SCHEMA public TO CURRENT_USER;
+GRANT ALL PRIVILEGES ON ALL TABLES IN SCHEMA public TO CURRENT_USER;
@@ -0,0 +1,13 @@
+-- ===================================================
+-- Import Checkpoints for Smart E-Commerce System
+-- PostgreSQL Version
+-- Updated by CatalogImportService in the same transaction as each chunk
+-- ===================================================
+
+DROP TABLE IF EXISTS ImportCheckpoints;
+
+CREATE TABLE ImportCheckpoints (
+    source_name VARCHAR(255) PRIMARY KEY,
+    records_committed BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
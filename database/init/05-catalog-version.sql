@@ -0,0 +1,15 @@
+-- ===================================================
+-- Catalog Version for Smart E-Commerce System
+-- PostgreSQL Version
+-- Bumped by ProductDAO and CategoryDAO in the same transaction as each catalog write
+-- ===================================================
+
+DROP TABLE IF EXISTS CatalogVersion;
+
+CREATE TABLE CatalogVersion (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO CatalogVersion (id, version) VALUES (1, 0);
@@ -0,0 +1,22 @@
+@echo off
+rem Starts the shaded jar, using the class data sharing archive from "mvn -Pcds package" if present.
+rem Usage: scripts\launch.cmd [app arguments]   (JAVA_OPTS adds JVM options)
+setlocal
+set "DIR=%~dp0.."
+set "JAR="
+for %%f in ("%DIR%\target\smart-ecommerce-system-*.jar") do set "JAR=%%f"
+set "ARCHIVE=%DIR%\target\app-cds.jsa"
+
+if not defined JAR (
+    echo No jar in %DIR%\target; build it with: mvn -Pcds -DskipTests package 1>&2
+    exit /b 1
+)
+
+set "CDS="
+rem -Xshare:auto falls back to normal class loading if the archive does not match this JDK or jar
+if exist "%ARCHIVE%" set "CDS=-XX:SharedArchiveFile=%ARCHIVE% -Xshare:auto"
+
+set "JAVA=java"
+if defined JAVA_HOME set "JAVA=%JAVA_HOME%\bin\java"
+
+"%JAVA%" %CDS% %JAVA_OPTS% -cp "%JAR%" com.smartecommerce.app.Launcher %*
@@ -0,0 +1,19 @@
+#!/usr/bin/env sh
+# Starts the shaded jar, using the class data sharing archive from `mvn -Pcds package` if present.
+# Usage: scripts/launch.sh [app arguments]   (JAVA_OPTS adds JVM options)
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$(ls "$DIR"/target/smart-ecommerce-system-*.jar 2>/dev/null | head -n 1)"
+ARCHIVE="$DIR/target/app-cds.jsa"
+
+if [ -z "$JAR" ]; then
+    echo "No jar in $DIR/target; build it with: mvn -Pcds -DskipTests package" >&2
+    exit 1
+fi
+
+CDS=""
+if [ -f "$ARCHIVE" ]; then
+    # -Xshare:auto falls back to normal class loading if the archive does not match this JDK or jar
+    CDS="-XX:SharedArchiveFile=$ARCHIVE -Xshare:auto"
+fi
+
+exec "${JAVA_HOME:+$JAVA_HOME/bin/}java" $CDS $JAVA_OPTS -cp "$JAR" com.smartecommerce.app.Launcher "$@"
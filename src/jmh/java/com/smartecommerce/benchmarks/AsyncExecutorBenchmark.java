@@ -0,0 +1,68 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.utils.AsyncTaskManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of AsyncTaskManager under 1000 concurrent blocking tasks, per executor mode
+ *
+ * Each task sleeps for blockMillis, standing in for a JDBC round trip. The platform pool
+ * runs availableProcessors() of them at a time; virtual mode runs as many as the bulkhead
+ * allows (database.pool.maxPoolSize by default). Each mode gets its own fork because the
+ * executor is chosen when AsyncTaskManager is first loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class AsyncExecutorBenchmark {
+    private static final int TASKS = 1000;
+
+    @Param({"platform", "virtual"})
+    public String executor;
+
+    @Param({"2"})
+    public int blockMillis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Read by ConfigManager through the ${ASYNC_EXECUTOR} placeholder in app.properties
+        System.setProperty("ASYNC_EXECUTOR", executor);
+        if (!AsyncTaskManager.getMode().name().equalsIgnoreCase(executor)) {
+            throw new IllegalStateException("AsyncTaskManager started in " + AsyncTaskManager.getMode() + " mode");
+        }
+    }
+
+    /**
+     * Submit 1000 blocking tasks at once and wait for all of them; the score is tasks per second
+     */
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void blockingTasks() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            futures[i] = AsyncTaskManager.supplyAsync(() -> {
+                Thread.sleep(blockMillis);
+                return null;
+            });
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
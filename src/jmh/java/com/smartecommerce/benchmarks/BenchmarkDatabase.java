@@ -0,0 +1,106 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.utils.JdbcUtils.QueryResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.smartecommerce.utils.JdbcUtils.executeBatchTransaction;
+import static com.smartecommerce.utils.JdbcUtils.executePreparedQuery;
+
+/**
+ * BenchmarkDatabase creates and fills the in-memory H2 database used by the JDBC benchmarks
+ * and the load generator
+ *
+ * Benchmarks that use it fork with -DDB_TYPE=h2, which makes ConfigManager build an
+ * H2 URL in MySQL mode; the DAOs and JdbcUtils then run unchanged against it.
+ */
+final class BenchmarkDatabase {
+    static final String H2_FORK_ARGS = "-DDB_TYPE=h2";
+
+    private static final String[] SCHEMA = {
+            "DROP TABLE IF EXISTS Orders",
+            "DROP TABLE IF EXISTS Users",
+            "DROP TABLE IF EXISTS Products",
+            "DROP TABLE IF EXISTS Categories",
+            "CREATE TABLE Categories (" +
+                    "category_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "category_name VARCHAR(100) NOT NULL UNIQUE, " +
+                    "description TEXT)",
+            "CREATE TABLE Products (" +
+                    "product_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "product_name VARCHAR(200) NOT NULL, " +
+                    "description TEXT, " +
+                    "price DECIMAL(10, 2) NOT NULL, " +
+                    "category_id INT NOT NULL, " +
+                    "stock_quantity INT NOT NULL DEFAULT 0, " +
+                    "image_url VARCHAR(500), " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "FOREIGN KEY (category_id) REFERENCES Categories(category_id))",
+            "CREATE INDEX idx_product_name ON Products(product_name)",
+            "CREATE INDEX idx_category_id ON Products(category_id)",
+            "CREATE TABLE Users (" +
+                    "user_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "username VARCHAR(50) NOT NULL UNIQUE, " +
+                    "email VARCHAR(100) NOT NULL UNIQUE, " +
+                    "password_hash VARCHAR(255) NOT NULL, " +
+                    "role VARCHAR(20) NOT NULL DEFAULT 'CUSTOMER', " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+            "CREATE TABLE Orders (" +
+                    "order_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "user_id INT NOT NULL, " +
+                    "total_amount DECIMAL(10, 2) NOT NULL, " +
+                    "status VARCHAR(20) NOT NULL DEFAULT 'PENDING', " +
+                    "order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "FOREIGN KEY (user_id) REFERENCES Users(user_id))",
+            "CREATE INDEX idx_order_user ON Orders(user_id)"
+    };
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Recreate the schema and load a catalog of the given size
+     */
+    static void load(int productCount) {
+        load(productCount, 0);
+    }
+
+    /**
+     * Recreate the schema and load a catalog and customer accounts (user IDs 1..userCount)
+     */
+    static void load(int productCount, int userCount) {
+        for (String statement : SCHEMA) {
+            check(executePreparedQuery(statement), statement);
+        }
+        for (int id = 1; id <= CatalogFixtures.CATEGORY_COUNT; id++) {
+            check(executePreparedQuery("INSERT INTO Categories (category_name, description) VALUES (?, ?)",
+                    "Category " + id, "Benchmark category " + id), "insert category");
+        }
+
+        List<Product> products = CatalogFixtures.products(productCount);
+        if (new ProductDAO().createBatch(products, List.of(), List.of()) != productCount) {
+            throw new IllegalStateException("Could not load " + productCount + " benchmark products");
+        }
+
+        List<Object[]> users = new ArrayList<>(userCount);
+        for (int id = 1; id <= userCount; id++) {
+            users.add(new Object[]{"loaduser" + id, "loaduser" + id + "@example.com", "not-a-real-hash"});
+        }
+        if (userCount > 0) {
+            check(executeBatchTransaction("INSERT INTO Users (username, email, password_hash) VALUES (?, ?, ?)",
+                    users, List.of(), List.of()), "insert users");
+        }
+    }
+
+    private static void check(QueryResult result, String statement) {
+        if (result.hasError()) {
+            throw new IllegalStateException("Benchmark schema setup failed on '" + statement + "': " + result.getError());
+        }
+    }
+}
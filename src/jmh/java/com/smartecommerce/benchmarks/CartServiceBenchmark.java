@@ -0,0 +1,81 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.models.CartItem;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CartService operations on carts of increasing size
+ * Every mutation notifies one observer, like the cart badge in the top bar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class CartServiceBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int cartSize;
+
+    private CartService cartService;
+    private List<Product> products;
+    private int nextIndex;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        CartService.resetInstance();
+        cartService = CartService.getInstance();
+        cartService.addObserver(items -> {
+        });
+        products = CatalogFixtures.products(cartSize);
+        products.forEach(cartService::addProduct);
+    }
+
+    @Benchmark
+    public int addExistingProduct() {
+        // Increments quantity of an item already in the cart
+        nextIndex = (nextIndex + 1) % cartSize;
+        cartService.addProduct(products.get(nextIndex));
+        return cartService.getUniqueProductCount();
+    }
+
+    @Benchmark
+    public void updateQuantity() {
+        nextIndex = (nextIndex + 1) % cartSize;
+        cartService.updateQuantity(products.get(nextIndex).getProductId(), 1 + (nextIndex & 3));
+    }
+
+    @Benchmark
+    public boolean containsProduct() {
+        nextIndex = (nextIndex + 1) % cartSize;
+        return cartService.containsProduct(products.get(nextIndex).getProductId());
+    }
+
+    @Benchmark
+    public BigDecimal getTotalPrice() {
+        return cartService.getTotalPrice();
+    }
+
+    @Benchmark
+    public List<CartItem> getCartItems() {
+        return cartService.getCartItems();
+    }
+}
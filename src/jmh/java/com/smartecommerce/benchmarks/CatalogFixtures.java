@@ -0,0 +1,95 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.models.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * CatalogFixtures builds deterministic product catalogs for the benchmarks
+ * The same size always produces the same products, so runs are comparable
+ */
+final class CatalogFixtures {
+    static final int CATEGORY_COUNT = 8;
+    static final String[] SEARCH_TERMS = {"laptop", "phone", "desk", "shoes", "camera", "lamp", "watch", "book"};
+
+    private static final String[] ADJECTIVES = {"Premium", "Compact", "Wireless", "Classic", "Smart", "Ergonomic", "Portable", "Deluxe"};
+    private static final String[] COLOURS = {"Black", "Silver", "Blue", "Red", "White", "Green"};
+
+    private CatalogFixtures() {
+    }
+
+    /**
+     * Products with IDs 1..count in random (shuffled) name and price order
+     */
+    static List<Product> products(int count) {
+        Random random = new Random(42L * count);
+        List<Product> products = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            String noun = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + COLOURS[random.nextInt(COLOURS.length)] + " "
+                    + Character.toUpperCase(noun.charAt(0)) + noun.substring(1) + " " + random.nextInt(1000);
+            BigDecimal price = BigDecimal.valueOf(99 + random.nextInt(250_000), 2);
+            Product product = new Product(id, name, "A " + noun + " for everyday use", price,
+                    1 + random.nextInt(CATEGORY_COUNT), "https://cdn.example.com/products/" + id + ".webp",
+                    random.nextInt(500));
+            product.setCategoryName("Category " + product.getCategoryId());
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * ProductDAO backed by a list, so service benchmarks measure the service and not a database
+     */
+    static final class InMemoryProductDAO extends ProductDAO {
+        private final List<Product> products;
+        private final Map<Integer, Product> byId = new HashMap<>();
+
+        InMemoryProductDAO(List<Product> products) {
+            this.products = products;
+            products.forEach(product -> byId.put(product.getProductId(), product));
+        }
+
+        @Override
+        public Product findById(int productId) {
+            return byId.get(productId);
+        }
+
+        @Override
+        public List<Product> findAll() {
+            return new ArrayList<>(products);
+        }
+
+        @Override
+        public List<Product> searchByName(String searchTerm) {
+            String term = searchTerm.toLowerCase(Locale.ROOT);
+            List<Product> results = new ArrayList<>();
+            for (Product product : products) {
+                if (product.getProductName().toLowerCase(Locale.ROOT).contains(term)
+                        || product.getDescription().toLowerCase(Locale.ROOT).contains(term)) {
+                    results.add(product);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public List<Product> findByCategory(int categoryId) {
+            List<Product> results = new ArrayList<>();
+            for (Product product : products) {
+                if (product.getCategoryId() == categoryId) {
+                    results.add(product);
+                }
+            }
+            return results;
+        }
+    }
+}
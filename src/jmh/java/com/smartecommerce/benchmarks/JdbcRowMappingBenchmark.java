@@ -0,0 +1,74 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.utils.JdbcUtils;
+import com.smartecommerce.utils.JdbcUtils.QueryResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JdbcUtils result mapping and ProductDAO row mapping against in-memory H2
+ *
+ * rawSelect isolates JdbcUtils (ResultSet to List of Maps), findAll adds the DAO's
+ * Map to Product conversion, and streamingSelect shows the cost without materializing rows.
+ * findById is sampled per call so the regression gate can compare latency percentiles.
+ * Each call opens a connection like the application does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.H2_FORK_ARGS, "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"})
+public class JdbcRowMappingBenchmark {
+    private static final String SELECT_PRODUCTS = "SELECT p.*, c.category_name FROM Products p " +
+            "JOIN Categories c ON p.category_id = c.category_id ORDER BY p.product_name";
+
+    @Param({"100", "1000", "10000"})
+    public int catalogSize;
+
+    private ProductDAO productDAO;
+    private int nextId;
+
+    @Setup
+    public void setUp() {
+        BenchmarkDatabase.load(catalogSize);
+        productDAO = new ProductDAO();
+    }
+
+    @Benchmark
+    public QueryResult rawSelect() {
+        return JdbcUtils.executePreparedQuery(SELECT_PRODUCTS);
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return productDAO.findAll();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Product findById() {
+        nextId = nextId % catalogSize + 1;
+        return productDAO.findById(nextId);
+    }
+
+    @Benchmark
+    public QueryResult streamingSelect(Blackhole blackhole) {
+        return JdbcUtils.executeStreamingQuery(SELECT_PRODUCTS, rs -> blackhole.consume(rs.getObject(1)));
+    }
+}
@@ -0,0 +1,360 @@
+package com.smartecommerce.benchmarks;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.smartecommerce.benchmarks.StorefrontUser.Action;
+import com.smartecommerce.config.DatabaseConfig;
+import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.dao.UserDAO;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.models.User;
+import com.smartecommerce.performance.LatencyHistogram;
+import com.smartecommerce.performance.QueryTimer;
+import com.smartecommerce.performance.QueryTimer.QueryStats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator replays storefront traffic against the service layer with many simulated users
+ *
+ * Requests arrive at a fixed rate (open model), independent of how fast earlier ones finish.
+ * Response time is measured from when a request was scheduled, not from when a worker picked
+ * it up, so queueing behind a slow system is counted (no coordinated omission). Service time,
+ * from actual start to finish, is reported alongside for comparison.
+ *
+ * Usage: LoadGenerator [--h2] [--catalog-size N] [--users N] [--rate R] [--arrival poisson|constant]
+ *                      [--duration 60s] [--warmup 10s] [--mix browse=30,search=25,...] [--report file.json]
+ * --h2 loads an in-memory H2 catalog; without it the configured MySQL/PostgreSQL database is used.
+ */
+public class LoadGenerator {
+    private static final String DEFAULT_MIX = "browse=30,search=25,view=30,add_to_cart=10,checkout=5";
+    private static final long DRAIN_SECONDS = 30;
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    private boolean h2;
+    private int catalogSize = 1000;
+    private int users = 50;
+    private double rate = 100;
+    private boolean poisson = true;
+    private long durationNanos = TimeUnit.SECONDS.toNanos(60);
+    private long warmupNanos = TimeUnit.SECONDS.toNanos(10);
+    private final Map<Action, Integer> mix = new EnumMap<>(Action.class);
+    private Path reportFile;
+
+    private final Map<Action, ActionStats> stats = new EnumMap<>(Action.class);
+    private final LongAdder scheduled = new LongAdder();
+
+    public static void main(String[] args) {
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            // Services log every cache hit and cart change at INFO
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+
+        LoadGenerator generator = new LoadGenerator();
+        try {
+            generator.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadGenerator [--h2] [--catalog-size N] [--users N] [--rate R] "
+                    + "[--arrival poisson|constant] [--duration 60s] [--warmup 10s] [--mix " + DEFAULT_MIX + "] "
+                    + "[--report file.json]");
+            System.exit(2);
+        }
+        System.exit(generator.run() ? 0 : 1);
+    }
+
+    private void parseArgs(String[] args) {
+        parseMix(DEFAULT_MIX);
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--h2")) {
+                h2 = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--catalog-size" -> catalogSize = Integer.parseInt(value);
+                case "--users" -> users = Integer.parseInt(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--arrival" -> poisson = switch (value) {
+                    case "poisson" -> true;
+                    case "constant" -> false;
+                    default -> throw new IllegalArgumentException("Arrival must be poisson or constant");
+                };
+                case "--duration" -> durationNanos = parseDuration(value);
+                case "--warmup" -> warmupNanos = parseDuration(value);
+                case "--mix" -> parseMix(value);
+                case "--report" -> reportFile = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (users <= 0 || rate <= 0 || catalogSize <= 0 || durationNanos <= 0) {
+            throw new IllegalArgumentException("Users, rate, catalog size and duration must be positive");
+        }
+    }
+
+    /**
+     * Parse "browse=30,search=25,..." into action weights
+     */
+    private void parseMix(String value) {
+        mix.clear();
+        for (String part : value.split(",")) {
+            String[] weight = part.split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like action=weight: " + part);
+            }
+            mix.put(Action.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix weights must add up to more than 0");
+        }
+    }
+
+    private static long parseDuration(String value) {
+        String number = value.replaceAll("[a-zA-Z]+$", "");
+        String unit = value.substring(number.length());
+        long amount = Long.parseLong(number);
+        return switch (unit) {
+            case "", "s" -> TimeUnit.SECONDS.toNanos(amount);
+            case "ms" -> TimeUnit.MILLISECONDS.toNanos(amount);
+            case "m" -> TimeUnit.MINUTES.toNanos(amount);
+            default -> throw new IllegalArgumentException("Unknown duration unit: " + value);
+        };
+    }
+
+    /**
+     * Set up the data, drive the load and print the summary
+     * @return false if setup failed or requests did not finish
+     */
+    private boolean run() {
+        if (h2) {
+            System.setProperty("DB_TYPE", "h2");
+            BenchmarkDatabase.load(catalogSize, users);
+        } else if (!DatabaseConfig.testConnection()) {
+            System.err.println("Database connection failed - check config/app.properties or use --h2");
+            return false;
+        }
+
+        int[] productIds = new ProductDAO().findAll().stream().mapToInt(Product::getProductId).toArray();
+        List<Integer> customerIds = new UserDAO().findAll().stream().map(User::getUserId).toList();
+        if (productIds.length == 0 || customerIds.isEmpty()) {
+            System.err.println("The database needs at least one product and one user");
+            return false;
+        }
+
+        BlockingQueue<StorefrontUser> idleUsers = new ArrayBlockingQueue<>(users);
+        for (int i = 0; i < users; i++) {
+            idleUsers.add(new StorefrontUser(customerIds.get(i % customerIds.size()), productIds));
+        }
+        for (Action action : Action.values()) {
+            stats.put(action, new ActionStats());
+        }
+        QueryTimer.reset();
+
+        System.out.printf("Driving %.1f req/s (%s arrivals) with %d users for %d s after %d s warmup%n",
+                rate, poisson ? "poisson" : "constant", users,
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos));
+
+        ExecutorService workers = Executors.newFixedThreadPool(users);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        schedule(workers, idleUsers, start, measureFrom, end);
+
+        workers.shutdown();
+        boolean drained;
+        try {
+            drained = workers.awaitTermination(DRAIN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        }
+        if (!drained) {
+            workers.shutdownNow();
+        }
+
+        printSummary();
+        if (reportFile != null) {
+            writeReport();
+        }
+        return drained;
+    }
+
+    /**
+     * Issue requests at their scheduled times until the end of the run
+     * A request is scheduled even if the workers are behind, so backlog shows up as latency
+     */
+    private void schedule(ExecutorService workers, BlockingQueue<StorefrontUser> idleUsers,
+                          long start, long measureFrom, long end) {
+        Random random = new Random();
+        Action[] weighted = weightedActions();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        long intended = start;
+        while (intended < end) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            long scheduledAt = intended;
+            Action action = weighted[random.nextInt(weighted.length)];
+            boolean measured = scheduledAt >= measureFrom;
+            if (measured) {
+                scheduled.increment();
+            }
+            workers.execute(() -> perform(idleUsers, action, scheduledAt, measured));
+
+            double interval = poisson ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+            intended += Math.max(1, (long) interval);
+        }
+    }
+
+    private void perform(BlockingQueue<StorefrontUser> idleUsers, Action action, long scheduledAt, boolean measured) {
+        StorefrontUser user;
+        try {
+            user = idleUsers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean ok;
+        try {
+            ok = user.perform(action);
+        } catch (RuntimeException e) {
+            ok = false;
+        } finally {
+            idleUsers.add(user);
+        }
+        long finished = System.nanoTime();
+
+        if (measured) {
+            stats.get(action).record(finished - scheduledAt, finished - started, ok);
+        }
+    }
+
+    private Action[] weightedActions() {
+        List<Action> weighted = new ArrayList<>();
+        mix.forEach((action, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(action);
+            }
+        });
+        return weighted.toArray(new Action[0]);
+    }
+
+    private void printSummary() {
+        double seconds = durationNanos / 1_000_000_000.0;
+        long completed = stats.values().stream().mapToLong(s -> s.count.sum()).sum();
+        long errors = stats.values().stream().mapToLong(s -> s.errors.sum()).sum();
+
+        System.out.println();
+        System.out.println("=".repeat(100));
+        System.out.printf("Target %.1f req/s, achieved %.1f req/s: %d completed, %d errors, %d not completed%n",
+                rate, completed / seconds, completed, errors, scheduled.sum() - completed);
+        System.out.println("-".repeat(100));
+        System.out.printf("%-12s %8s %7s %10s %10s %10s %10s %10s %12s%n",
+                "Action", "Count", "Errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms", "Service p99");
+        for (Map.Entry<Action, ActionStats> entry : stats.entrySet()) {
+            ActionStats actionStats = entry.getValue();
+            if (actionStats.count.sum() == 0) {
+                continue;
+            }
+            System.out.printf("%-12s %8d %7d %10.2f %10.2f %10.2f %10.2f %10.2f %12.2f%n",
+                    entry.getKey().name().toLowerCase(Locale.ROOT), actionStats.count.sum(), actionStats.errors.sum(),
+                    millis(actionStats.responseTime.getPercentile(50)),
+                    millis(actionStats.responseTime.getPercentile(90)),
+                    millis(actionStats.responseTime.getPercentile(99)),
+                    millis(actionStats.responseTime.getPercentile(99.9)),
+                    millis(actionStats.responseTime.getMax()),
+                    millis(actionStats.serviceTime.getPercentile(99)));
+        }
+        System.out.println("-".repeat(100));
+        System.out.println("Response times count from each request's scheduled start (queueing included)");
+
+        System.out.println();
+        System.out.println("Top queries by total time:");
+        QueryTimer.getAllQueryStats().entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<String, QueryStats> e) -> e.getValue().getTotalMillis()).reversed())
+                .limit(5)
+                .forEach(e -> System.out.println("  " + e.getKey() + System.lineSeparator() + "    " + e.getValue()));
+        System.out.println("=".repeat(100));
+    }
+
+    private void writeReport() {
+        JsonObject json = new JsonObject();
+        json.addProperty("targetRate", rate);
+        json.addProperty("arrival", poisson ? "poisson" : "constant");
+        json.addProperty("users", users);
+        json.addProperty("durationSeconds", durationNanos / 1_000_000_000.0);
+        json.addProperty("scheduled", scheduled.sum());
+
+        JsonArray actions = new JsonArray();
+        stats.forEach((action, actionStats) -> {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("action", action.name().toLowerCase(Locale.ROOT));
+            entry.addProperty("count", actionStats.count.sum());
+            entry.addProperty("errors", actionStats.errors.sum());
+            for (double percentile : REPORTED_PERCENTILES) {
+                entry.addProperty("p" + String.valueOf(percentile).replace(".0", "") + "Ms",
+                        millis(actionStats.responseTime.getPercentile(percentile)));
+            }
+            entry.addProperty("maxMs", millis(actionStats.responseTime.getMax()));
+            entry.addProperty("serviceP99Ms", millis(actionStats.serviceTime.getPercentile(99)));
+            actions.add(entry);
+        });
+        json.add("actions", actions);
+
+        try {
+            Files.writeString(reportFile, new GsonBuilder().setPrettyPrinting().create().toJson(json));
+            System.out.println("Report written to " + reportFile);
+        } catch (IOException e) {
+            System.err.println("Could not write report: " + e.getMessage());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Counters and latency histograms for one action
+     */
+    private static final class ActionStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+        void record(long responseNanos, long serviceNanos, boolean ok) {
+            count.increment();
+            if (!ok) {
+                errors.increment();
+            }
+            responseTime.record(responseNanos);
+            serviceTime.record(serviceNanos);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.models.Product;
+import com.smartecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductService caching, sorting and searching over an in-memory catalog
+ * The JDK sort is included as a baseline for the hand-written QuickSort and MergeSort
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class ProductServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int catalogSize;
+
+    private ProductService productService;
+    private List<Product> products;
+    private List<Product> productsById;
+    private int nextId;
+    private int nextTerm;
+
+    @Setup
+    public void setUp() {
+        products = CatalogFixtures.products(catalogSize);
+        productsById = new ArrayList<>(products);
+        productService = new ProductService(new CatalogFixtures.InMemoryProductDAO(products));
+
+        // Warm both caches so the cached benchmarks only measure hits
+        productService.getAllProducts();
+        for (String term : CatalogFixtures.SEARCH_TERMS) {
+            productService.searchProducts(term);
+        }
+    }
+
+    @Benchmark
+    public Product getProductByIdCached() {
+        nextId = nextId % catalogSize + 1;
+        return productService.getProductById(nextId);
+    }
+
+    @Benchmark
+    public List<Product> searchProductsCached() {
+        nextTerm = (nextTerm + 1) % CatalogFixtures.SEARCH_TERMS.length;
+        return productService.searchProducts(CatalogFixtures.SEARCH_TERMS[nextTerm]);
+    }
+
+    @Benchmark
+    public List<Product> sortByNameQuickSort() {
+        return productService.sortProductsByName(products, true);
+    }
+
+    @Benchmark
+    public List<Product> sortByPriceMergeSort() {
+        return productService.sortProductsByPrice(products, true);
+    }
+
+    @Benchmark
+    public List<Product> sortByNameJdkBaseline() {
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(Comparator.comparing(Product::getProductName, String.CASE_INSENSITIVE_ORDER));
+        return sorted;
+    }
+
+    @Benchmark
+    public Product binarySearchById() {
+        // binarySearchById re-sorts its input on every call; the list stays sorted after the first one
+        nextId = nextId % catalogSize + 1;
+        return productService.binarySearchById(productsById, nextId);
+    }
+}
@@ -0,0 +1,75 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.utils.SecurityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SecurityUtils hashing, token and input checks used on login and signup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SecurityBenchmark {
+    private static final String PASSWORD = "Str0ng!Passw0rd";
+    private static final String USER_INPUT = "Wireless <b>headphones</b> with 'noise' cancelling";
+
+    private String salt;
+    private String hash;
+    private String saltedHash;
+
+    @Setup
+    public void setUp() {
+        salt = SecurityUtils.generateSalt();
+        hash = SecurityUtils.hashPassword(PASSWORD);
+        saltedHash = SecurityUtils.hashPasswordWithSalt(PASSWORD, salt);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return SecurityUtils.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return SecurityUtils.verifyPassword(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean verifyPasswordWithSalt() {
+        return SecurityUtils.verifyPasswordWithSalt(PASSWORD, salt, saltedHash);
+    }
+
+    @Benchmark
+    public String generateSalt() {
+        return SecurityUtils.generateSalt();
+    }
+
+    @Benchmark
+    public String generateSessionId() {
+        return SecurityUtils.generateSessionId();
+    }
+
+    @Benchmark
+    public String sanitizeInput() {
+        return SecurityUtils.sanitizeInput(USER_INPUT);
+    }
+
+    @Benchmark
+    public boolean containsSQLInjection() {
+        return SecurityUtils.containsSQLInjection(USER_INPUT);
+    }
+}
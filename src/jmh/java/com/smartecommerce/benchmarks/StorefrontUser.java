@@ -0,0 +1,98 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.models.Order;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.service.CartService;
+import com.smartecommerce.service.OrderService;
+import com.smartecommerce.service.ProductService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * StorefrontUser is one simulated customer for the load generator
+ *
+ * Each user owns its services, like one running copy of the desktop app, so the
+ * non-thread-safe ProductService caches are never shared. The generator makes sure
+ * a user runs one action at a time.
+ */
+final class StorefrontUser {
+
+    /**
+     * Storefront actions and the service calls they make
+     */
+    enum Action {
+        BROWSE, SEARCH, VIEW, ADD_TO_CART, CHECKOUT
+    }
+
+    private final int userId;
+    private final int[] productIds;
+    private final ProductService productService;
+    private final CartService cartService;
+    private final OrderService orderService;
+
+    StorefrontUser(int userId, int[] productIds) {
+        this.userId = userId;
+        this.productIds = productIds;
+        this.productService = new ProductService();
+        this.cartService = CartService.newDetachedInstance();
+        this.orderService = new OrderService();
+    }
+
+    /**
+     * Run one action
+     * @return false if the service reported a failure
+     */
+    boolean perform(Action action) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (action) {
+            case BROWSE -> {
+                List<Product> products = random.nextInt(4) == 0
+                        ? productService.getAllProducts()
+                        : productService.getProductsByCategory(1 + random.nextInt(CatalogFixtures.CATEGORY_COUNT));
+                yield products != null;
+            }
+            case SEARCH -> productService.searchProducts(
+                    CatalogFixtures.SEARCH_TERMS[random.nextInt(CatalogFixtures.SEARCH_TERMS.length)]) != null;
+            case VIEW -> productService.getProductById(randomProductId(random)) != null;
+            case ADD_TO_CART -> addRandomProduct(random);
+            case CHECKOUT -> checkout(random);
+        };
+    }
+
+    private boolean addRandomProduct(ThreadLocalRandom random) {
+        Product product = productService.getProductById(randomProductId(random));
+        if (product == null) {
+            return false;
+        }
+        cartService.addProduct(product);
+        return true;
+    }
+
+    /**
+     * Place an order for the cart, like CartController's checkout (adds an item first if empty)
+     */
+    private boolean checkout(ThreadLocalRandom random) {
+        if (cartService.isEmpty() && !addRandomProduct(random)) {
+            return false;
+        }
+        BigDecimal total = cartService.getTotalPrice();
+
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setTotalAmount(total);
+        order.setStatus("PENDING");
+        if (!orderService.createOrder(order)) {
+            return false;
+        }
+        cartService.clearCart();
+        return true;
+    }
+
+    private int randomProductId(ThreadLocalRandom random) {
+        // Skewed towards the front of the catalog, so some products are "popular"
+        double skewed = Math.pow(random.nextDouble(), 2);
+        return productIds[(int) (skewed * productIds.length)];
+    }
+}
@@ -0,0 +1,88 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.utils.ThumbnailStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Image decode cost of a cold landing grid (9 cards): full-size sources vs stored thumbnails
+ *
+ * Uses the 9 largest product images under src/main/resources/images, as the first page of
+ * the landing grid would on a catalog of photos. Decoding uses ImageIO, standing in for the
+ * JavaFX decoder, which also has to read the whole source before it can downsample.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThumbnailBenchmark {
+    private static final int CARDS = 9;
+
+    private List<Path> sources;
+    private Path[] thumbnails;
+    private Path storeDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (Stream<Path> files = Files.walk(Path.of("src/main/resources/images"))) {
+            sources = files.filter(file -> file.toString().matches("(?i).*\\.(png|jpe?g)"))
+                    .sorted(Comparator.comparingLong((Path file) -> file.toFile().length()).reversed())
+                    .limit(CARDS)
+                    .toList();
+        }
+        storeDirectory = Files.createTempDirectory("thumbnails");
+        ThumbnailStore store = new ThumbnailStore(storeDirectory);
+        thumbnails = new Path[sources.size()];
+        for (int i = 0; i < thumbnails.length; i++) {
+            thumbnails[i] = store.generate(sources.get(i).toUri().toString(), 200, 150);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(storeDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void decodeSources(Blackhole blackhole) throws IOException {
+        for (Path source : sources) {
+            blackhole.consume(ImageIO.read(source.toFile()));
+        }
+    }
+
+    @Benchmark
+    public void decodeThumbnails(Blackhole blackhole) throws IOException {
+        for (Path thumbnail : thumbnails) {
+            ByteBuffer mapped = ThumbnailStore.map(thumbnail);
+            byte[] bytes = new byte[mapped.remaining()];
+            mapped.get(bytes);
+            blackhole.consume(ImageIO.read(new ByteArrayInputStream(bytes)));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartecommerce.benchmarks;
+
+import com.smartecommerce.utils.ValidationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationUtil checks with a mix of valid and invalid input
+ * The same checks run per field on every form submit and per record in the catalog import
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValidationBenchmark {
+    private static final String[] EMAILS = {"jane.doe@example.com", "not-an-email", "a@b.co", "user+tag@shop.example.org"};
+    private static final String[] USERNAMES = {"jane_doe", "x", "admin2024", "bad name!"};
+    private static final String[] PASSWORDS = {"Str0ng!Passw0rd", "weak", "NoDigits!!", "Another1$Good"};
+    private static final String[] PRICES = {"19.99", "-5", "abc", "1299.00"};
+    private static final String[] URLS = {"https://cdn.example.com/p/1.webp", "ftp//broken", "http://localhost/a.png", ""};
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private int next;
+
+    private int nextIndex() {
+        next = (next + 1) & 3;
+        return next;
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return ValidationUtil.isValidEmail(EMAILS[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isValidUsername() {
+        return ValidationUtil.isValidUsername(USERNAMES[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isStrongPassword() {
+        return ValidationUtil.isStrongPassword(PASSWORDS[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isValidPrice() {
+        return ValidationUtil.isValidPrice(PRICES[nextIndex()], MAX_PRICE);
+    }
+
+    @Benchmark
+    public boolean isValidUrl() {
+        return ValidationUtil.isValidUrl(URLS[nextIndex()]);
+    }
+
+    @Benchmark
+    public String sanitize() {
+        return ValidationUtil.sanitize(EMAILS[nextIndex()]);
+    }
+}
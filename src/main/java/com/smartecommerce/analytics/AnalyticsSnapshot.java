@@ -0,0 +1,74 @@
+package com.smartecommerce.analytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * AnalyticsSnapshot is an immutable, consistent view of the analytics columns
+ * Readers keep using a snapshot while the store builds the next one
+ */
+public final class AnalyticsSnapshot {
+    private final OrderColumns orders;
+    private final UserColumns users;
+    private final ProductColumns products;
+    private final DailySketches buyerSketches;
+    private final DailySketches registrationSketches;
+    private final LocalDateTime refreshedAt;
+
+    AnalyticsSnapshot(OrderColumns orders, UserColumns users, ProductColumns products,
+                      DailySketches buyerSketches, DailySketches registrationSketches, LocalDateTime refreshedAt) {
+        this.orders = orders;
+        this.users = users;
+        this.products = products;
+        this.buyerSketches = buyerSketches;
+        this.registrationSketches = registrationSketches;
+        this.refreshedAt = refreshedAt;
+    }
+
+    static AnalyticsSnapshot empty() {
+        return new AnalyticsSnapshot(OrderColumns.empty(), UserColumns.empty(), ProductColumns.empty(),
+                new DailySketches(), new DailySketches(), null);
+    }
+
+    public OrderColumns getOrders() {
+        return orders;
+    }
+
+    public UserColumns getUsers() {
+        return users;
+    }
+
+    public ProductColumns getProducts() {
+        return products;
+    }
+
+    /**
+     * Approximate number of distinct users who placed an order on fromDay <= day < toDay
+     * Sketches are shared with the store, so rows added after this snapshot may be counted
+     */
+    public long estimateUniqueBuyers(int fromDay, int toDay) {
+        return buyerSketches.estimate(fromDay, toDay);
+    }
+
+    /**
+     * Approximate number of distinct users who registered or placed an order on fromDay <= day < toDay
+     */
+    public long estimateActiveUsers(int fromDay, int toDay) {
+        HyperLogLog active = buyerSketches.merge(fromDay, toDay);
+        registrationSketches.mergeInto(active, fromDay, toDay);
+        return active.estimate();
+    }
+
+    /**
+     * Relative standard error of the distinct count estimates
+     */
+    public double getDistinctCountError() {
+        return buyerSketches.getStandardError();
+    }
+
+    /**
+     * Time of the refresh that produced this snapshot, or null if never loaded
+     */
+    public LocalDateTime getRefreshedAt() {
+        return refreshedAt;
+    }
+}
@@ -0,0 +1,367 @@
+package com.smartecommerce.analytics;
+
+import com.smartecommerce.utils.JdbcUtils.QueryResult;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.smartecommerce.utils.AppUtils.*;
+import static com.smartecommerce.utils.JdbcUtils.executePreparedQuery;
+import static com.smartecommerce.utils.JdbcUtils.executeStreamingQuery;
+
+/**
+ * AnalyticsStore keeps the admin dashboard data in memory as primitive columns
+ * Implements Singleton pattern so all dashboard views share one copy of the data
+ *
+ * Loading is incremental: each refresh streams only orders and users with IDs above
+ * the highest one already loaded, plus orders whose updated_at moved past the last
+ * seen value (status changes, read through idx_orders_updated). Products are small and
+ * reloaded in full. The app never deletes orders; if the newest loaded order is gone (e.g.
+ * the database was reset), all orders are loaded again. Other deletions need reload().
+ *
+ * Every appended order and user also feeds per-day HyperLogLog sketches, which
+ * answer distinct buyer and active user counts for any date range.
+ *
+ * Readers get an immutable AnalyticsSnapshot. New rows are appended past the size of
+ * the published snapshot and status changes copy the status column first, so a
+ * snapshot never changes underneath its reader.
+ */
+public class AnalyticsStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    // Re-read status changes this far behind the newest updated_at seen,
+    // to catch transactions that committed late with an older timestamp
+    private static final long STATUS_WATERMARK_SLACK_MILLIS = 5 * 60 * 1000L;
+
+    private static volatile AnalyticsStore instance;
+
+    private volatile AnalyticsSnapshot snapshot = AnalyticsSnapshot.empty();
+
+    // Writer state, guarded by this
+    private int orderCount;
+    private int[] orderIds = new int[INITIAL_CAPACITY];
+    private int[] orderUserIds = new int[INITIAL_CAPACITY];
+    private int[] orderDays = new int[INITIAL_CAPACITY];
+    private long[] orderCents = new long[INITIAL_CAPACITY];
+    private byte[] orderStatus = new byte[INITIAL_CAPACITY];
+    private boolean statusShared;
+    private Timestamp statusWatermark;
+
+    private int userCount;
+    private int[] userIds = new int[INITIAL_CAPACITY];
+    private int[] userDays = new int[INITIAL_CAPACITY];
+
+    private ProductColumns products = ProductColumns.empty();
+    private DailySketches buyerSketches = new DailySketches();
+    private DailySketches registrationSketches = new DailySketches();
+
+    AnalyticsStore() {
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static AnalyticsStore getInstance() {
+        if (instance == null) {
+            synchronized (AnalyticsStore.class) {
+                if (instance == null) {
+                    instance = new AnalyticsStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Store that never loads: its snapshot stays empty, for services unit-tested without a database
+     */
+    public static AnalyticsStore disabled() {
+        return new AnalyticsStore() {
+            @Override
+            public synchronized AnalyticsSnapshot refresh() {
+                return getSnapshot();
+            }
+        };
+    }
+
+    /**
+     * Reset instance for testing
+     */
+    public static void resetInstance() {
+        synchronized (AnalyticsStore.class) {
+            instance = null;
+        }
+    }
+
+    /**
+     * Get the latest published snapshot without touching the database
+     */
+    public AnalyticsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Load rows added or changed since the last refresh and publish a new snapshot
+     * If a load fails the rows read so far are kept and the next refresh continues from there
+     */
+    public synchronized AnalyticsSnapshot refresh() {
+        long start = System.nanoTime();
+        if (orderCount > 0 && !newestOrderStillPresent()) {
+            println("Orders were deleted since the last analytics refresh - reloading all orders");
+            clearOrders();
+        }
+
+        int oldOrders = orderCount;
+        int oldUsers = userCount;
+        int statusChanges = loadStatusChanges();
+        loadNewOrders();
+        loadNewUsers();
+        loadProducts();
+
+        AnalyticsSnapshot published = publish();
+        println(String.format("Analytics refresh: +%d orders, %d status updates, +%d users in %.1f ms",
+                orderCount - oldOrders, statusChanges, userCount - oldUsers,
+                (System.nanoTime() - start) / 1_000_000.0));
+        return published;
+    }
+
+    /**
+     * Get the latest snapshot, refreshing first if it is older than maxAge
+     */
+    public AnalyticsSnapshot getSnapshot(Duration maxAge) {
+        AnalyticsSnapshot current = snapshot;
+        LocalDateTime refreshedAt = current.getRefreshedAt();
+        if (refreshedAt != null && refreshedAt.plus(maxAge).isAfter(LocalDateTime.now())) {
+            return current;
+        }
+        return refresh();
+    }
+
+    /**
+     * Drop all loaded rows and load everything again
+     */
+    public synchronized AnalyticsSnapshot reload() {
+        clearOrders();
+        clearUsers();
+        return refresh();
+    }
+
+    /**
+     * Append an order; order IDs must arrive in ascending order
+     */
+    synchronized void appendOrder(int orderId, int userId, int epochDay, long amountCents, byte statusCode) {
+        if (orderCount > 0 && orderId <= orderIds[orderCount - 1]) {
+            throw new IllegalArgumentException("Order IDs must be appended in ascending order");
+        }
+        if (orderCount == orderIds.length) {
+            int capacity = orderIds.length * 2;
+            orderIds = Arrays.copyOf(orderIds, capacity);
+            orderUserIds = Arrays.copyOf(orderUserIds, capacity);
+            orderDays = Arrays.copyOf(orderDays, capacity);
+            orderCents = Arrays.copyOf(orderCents, capacity);
+            orderStatus = Arrays.copyOf(orderStatus, capacity);
+            statusShared = false;
+        }
+        orderIds[orderCount] = orderId;
+        orderUserIds[orderCount] = userId;
+        orderDays[orderCount] = epochDay;
+        orderCents[orderCount] = amountCents;
+        orderStatus[orderCount] = statusCode;
+        orderCount++;
+        if (epochDay != Integer.MIN_VALUE) {
+            buyerSketches.add(epochDay, userId);
+        }
+    }
+
+    /**
+     * Change the status of a loaded order
+     * @return false if the order has not been loaded yet
+     */
+    synchronized boolean updateOrderStatus(int orderId, byte statusCode) {
+        int row = Arrays.binarySearch(orderIds, 0, orderCount, orderId);
+        if (row < 0) {
+            return false;
+        }
+        if (orderStatus[row] != statusCode) {
+            if (statusShared) {
+                orderStatus = orderStatus.clone();
+                statusShared = false;
+            }
+            orderStatus[row] = statusCode;
+        }
+        return true;
+    }
+
+    /**
+     * Append a user; user IDs must arrive in ascending order
+     */
+    synchronized void appendUser(int userId, int createdEpochDay) {
+        if (userCount == userIds.length) {
+            userIds = Arrays.copyOf(userIds, userIds.length * 2);
+            userDays = Arrays.copyOf(userDays, userDays.length * 2);
+        }
+        userIds[userCount] = userId;
+        userDays[userCount] = createdEpochDay;
+        userCount++;
+        if (createdEpochDay != Integer.MIN_VALUE) {
+            registrationSketches.add(createdEpochDay, userId);
+        }
+    }
+
+    synchronized void setProducts(ProductColumns products) {
+        this.products = products;
+    }
+
+    /**
+     * Publish the current columns as a new snapshot
+     */
+    synchronized AnalyticsSnapshot publish() {
+        statusShared = true;
+        snapshot = new AnalyticsSnapshot(
+                new OrderColumns(orderCount, orderIds, orderUserIds, orderDays, orderCents, orderStatus),
+                new UserColumns(userCount, userIds, userDays),
+                products,
+                buyerSketches,
+                registrationSketches,
+                LocalDateTime.now());
+        return snapshot;
+    }
+
+    private void clearOrders() {
+        orderCount = 0;
+        statusWatermark = null;
+        // The published snapshot still reads the old arrays
+        orderIds = new int[INITIAL_CAPACITY];
+        orderUserIds = new int[INITIAL_CAPACITY];
+        orderDays = new int[INITIAL_CAPACITY];
+        orderCents = new long[INITIAL_CAPACITY];
+        orderStatus = new byte[INITIAL_CAPACITY];
+        statusShared = false;
+        buyerSketches = new DailySketches();
+    }
+
+    private void clearUsers() {
+        userCount = 0;
+        // The published snapshot still reads the old arrays
+        userIds = new int[INITIAL_CAPACITY];
+        userDays = new int[INITIAL_CAPACITY];
+        registrationSketches = new DailySketches();
+    }
+
+    /**
+     * Check that the newest loaded order still exists, with one primary key lookup
+     * MAX(order_id) is read from the end of the index, however many orders there are
+     */
+    private boolean newestOrderStillPresent() {
+        QueryResult result = executePreparedQuery("SELECT MAX(order_id) as max_order_id FROM Orders");
+        if (result.hasError() || result.getResultSet() == null || result.getResultSet().isEmpty()) {
+            return true;
+        }
+        Object maxOrderId = result.getResultSet().get(0).get("max_order_id");
+        return maxOrderId != null && asInt(maxOrderId) >= orderIds[orderCount - 1];
+    }
+
+    private void loadNewOrders() {
+        int lastOrderId = orderCount > 0 ? orderIds[orderCount - 1] : 0;
+        QueryResult result = executeStreamingQuery(
+                "SELECT order_id, user_id, total_amount, status, order_date, updated_at " +
+                        "FROM Orders WHERE order_id > ? ORDER BY order_id",
+                rs -> {
+                    Timestamp orderDate = rs.getTimestamp("order_date");
+                    appendOrder(rs.getInt("order_id"), rs.getInt("user_id"),
+                            orderDate != null ? (int) orderDate.toLocalDateTime().toLocalDate().toEpochDay() : Integer.MIN_VALUE,
+                            toCents(rs.getBigDecimal("total_amount")),
+                            OrderStatusCodes.of(rs.getString("status")));
+                    advanceWatermark(rs.getTimestamp("updated_at"));
+                },
+                lastOrderId);
+
+        if (result.hasError()) {
+            printE("Error loading orders into analytics store: " + result.getError());
+        }
+    }
+
+    private int loadStatusChanges() {
+        if (orderCount == 0 || statusWatermark == null) {
+            return 0;
+        }
+        int[] changes = new int[1];
+        Timestamp since = new Timestamp(statusWatermark.getTime() - STATUS_WATERMARK_SLACK_MILLIS);
+        QueryResult result = executeStreamingQuery(
+                "SELECT order_id, status, updated_at FROM Orders WHERE updated_at >= ? AND order_id <= ?",
+                rs -> {
+                    byte code = OrderStatusCodes.of(rs.getString("status"));
+                    int row = Arrays.binarySearch(orderIds, 0, orderCount, rs.getInt("order_id"));
+                    if (row >= 0 && orderStatus[row] != code) {
+                        updateOrderStatus(orderIds[row], code);
+                        changes[0]++;
+                    }
+                    advanceWatermark(rs.getTimestamp("updated_at"));
+                },
+                since, orderIds[orderCount - 1]);
+
+        if (result.hasError()) {
+            printE("Error loading order status changes into analytics store: " + result.getError());
+        }
+        return changes[0];
+    }
+
+    private void loadNewUsers() {
+        int lastUserId = userCount > 0 ? userIds[userCount - 1] : 0;
+        QueryResult result = executeStreamingQuery(
+                "SELECT user_id, created_at FROM Users WHERE user_id > ? ORDER BY user_id",
+                rs -> {
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    appendUser(rs.getInt("user_id"),
+                            createdAt != null ? (int) createdAt.toLocalDateTime().toLocalDate().toEpochDay() : Integer.MIN_VALUE);
+                },
+                lastUserId);
+
+        if (result.hasError()) {
+            printE("Error loading users into analytics store: " + result.getError());
+        }
+    }
+
+    private void loadProducts() {
+        QueryResult result = executePreparedQuery(
+                "SELECT p.product_id, p.category_id, c.category_name FROM Products p " +
+                        "LEFT JOIN Categories c ON p.category_id = c.category_id ORDER BY p.product_id");
+
+        if (result.hasError()) {
+            printE("Error loading products into analytics store: " + result.getError());
+            return;
+        }
+
+        List<Map<String, Object>> rows = result.getResultSet();
+        int size = rows != null ? rows.size() : 0;
+        int[] productIds = new int[size];
+        int[] categoryIds = new int[size];
+        Map<Integer, String> categoryNames = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> row = rows.get(i);
+            productIds[i] = asInt(row.get("product_id"));
+            categoryIds[i] = asInt(row.get("category_id"));
+            String categoryName = asString(row.get("category_name"));
+            if (categoryName != null) {
+                categoryNames.put(categoryIds[i], categoryName);
+            }
+        }
+        products = new ProductColumns(size, productIds, categoryIds, categoryNames);
+    }
+
+    private void advanceWatermark(Timestamp updatedAt) {
+        if (updatedAt != null && (statusWatermark == null || updatedAt.after(statusWatermark))) {
+            statusWatermark = updatedAt;
+        }
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : 0L;
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartecommerce.analytics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DailySketches keeps one HyperLogLog per epoch day for approximate distinct counts
+ * A date range is answered by merging the day sketches into one scratch sketch, so
+ * memory per query is a single sketch and time depends only on the number of days,
+ * never on the number of orders or users.
+ *
+ * Written by a single thread (the analytics store); readers may query concurrently.
+ */
+public final class DailySketches {
+    private final int precision;
+    private final Map<Integer, HyperLogLog> days = new ConcurrentHashMap<>();
+
+    public DailySketches() {
+        this(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    public DailySketches(int precision) {
+        this.precision = precision;
+    }
+
+    /**
+     * Record a value (e.g. a user ID) seen on the given day
+     */
+    public void add(int epochDay, long value) {
+        days.computeIfAbsent(epochDay, day -> new HyperLogLog(precision)).add(value);
+    }
+
+    /**
+     * Merge the sketches for fromDay <= day < toDay into a new sketch
+     */
+    public HyperLogLog merge(int fromDay, int toDay) {
+        HyperLogLog merged = new HyperLogLog(precision);
+        mergeInto(merged, fromDay, toDay);
+        return merged;
+    }
+
+    /**
+     * Merge the sketches for fromDay <= day < toDay into an existing sketch
+     */
+    public void mergeInto(HyperLogLog target, int fromDay, int toDay) {
+        // Walk whichever is shorter: the requested range or the days actually recorded
+        if ((long) toDay - fromDay <= days.size()) {
+            for (int day = fromDay; day < toDay; day++) {
+                HyperLogLog sketch = days.get(day);
+                if (sketch != null) {
+                    target.merge(sketch);
+                }
+            }
+        } else {
+            for (Map.Entry<Integer, HyperLogLog> entry : days.entrySet()) {
+                int day = entry.getKey();
+                if (day >= fromDay && day < toDay) {
+                    target.merge(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimate the distinct values recorded for fromDay <= day < toDay
+     */
+    public long estimate(int fromDay, int toDay) {
+        return merge(fromDay, toDay).estimate();
+    }
+
+    /**
+     * Relative standard error of the estimates
+     */
+    public double getStandardError() {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+}
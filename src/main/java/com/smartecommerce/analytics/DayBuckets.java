@@ -0,0 +1,74 @@
+package com.smartecommerce.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * DayBuckets assigns epoch days to consecutive buckets (e.g. months) for group-by aggregation
+ * The day-to-bucket lookup is a flat array, so grouping a column costs one array read per row
+ */
+public final class DayBuckets {
+    private final int firstDay;
+    private final int[] bucketOfDay;
+    private final String[] labels;
+
+    private DayBuckets(int firstDay, int[] bucketOfDay, String[] labels) {
+        this.firstDay = firstDay;
+        this.bucketOfDay = bucketOfDay;
+        this.labels = labels;
+    }
+
+    /**
+     * Buckets for the given number of calendar months ending with the month containing today
+     * Labels are short month names, e.g. "Jan"
+     */
+    public static DayBuckets lastMonths(LocalDate today, int months) {
+        if (months <= 0) {
+            throw new IllegalArgumentException("Number of months must be positive");
+        }
+        YearMonth first = YearMonth.from(today).minusMonths(months - 1L);
+        int firstDay = (int) first.atDay(1).toEpochDay();
+        int endDay = (int) YearMonth.from(today).plusMonths(1).atDay(1).toEpochDay();
+
+        int[] bucketOfDay = new int[endDay - firstDay];
+        String[] labels = new String[months];
+        for (int bucket = 0; bucket < months; bucket++) {
+            YearMonth month = first.plusMonths(bucket);
+            labels[bucket] = month.getMonth().getDisplayName(TextStyle.SHORT, Locale.US);
+            int start = (int) month.atDay(1).toEpochDay() - firstDay;
+            int end = start + month.lengthOfMonth();
+            for (int day = start; day < end; day++) {
+                bucketOfDay[day] = bucket;
+            }
+        }
+        return new DayBuckets(firstDay, bucketOfDay, labels);
+    }
+
+    /**
+     * Get the bucket for an epoch day, or -1 if the day falls outside all buckets
+     */
+    public int bucketOf(int epochDay) {
+        int offset = epochDay - firstDay;
+        return offset >= 0 && offset < bucketOfDay.length ? bucketOfDay[offset] : -1;
+    }
+
+    /** First epoch day covered (inclusive) */
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /** Last epoch day covered (exclusive) */
+    public int getEndDay() {
+        return firstDay + bucketOfDay.length;
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    public String getLabel(int bucket) {
+        return labels[bucket];
+    }
+}
@@ -0,0 +1,168 @@
+package com.smartecommerce.analytics;
+
+import java.util.Arrays;
+
+/**
+ * OrderColumns is a read-only, column-oriented snapshot of the Orders table
+ * Each attribute is a primitive array indexed by row; rows are sorted by order ID.
+ *
+ * Queries run column-at-a-time: filter() produces a selection vector of row indexes,
+ * and the aggregate methods scan only the columns they need for those rows.
+ * A null selection means "all rows" and skips the indirection entirely.
+ *
+ * Arrays may be longer than size() and shared with the store that built them;
+ * only the first size() rows belong to this snapshot.
+ */
+public final class OrderColumns {
+    private final int size;
+    private final int[] orderIds;
+    private final int[] userIds;
+    private final int[] epochDays;
+    private final long[] amountCents;
+    private final byte[] statusCodes;
+
+    OrderColumns(int size, int[] orderIds, int[] userIds, int[] epochDays, long[] amountCents, byte[] statusCodes) {
+        this.size = size;
+        this.orderIds = orderIds;
+        this.userIds = userIds;
+        this.epochDays = epochDays;
+        this.amountCents = amountCents;
+        this.statusCodes = statusCodes;
+    }
+
+    static OrderColumns empty() {
+        return new OrderColumns(0, new int[0], new int[0], new int[0], new long[0], new byte[0]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the row of an order, or -1 if the order is not in this snapshot
+     */
+    public int rowOf(int orderId) {
+        int row = Arrays.binarySearch(orderIds, 0, size, orderId);
+        return row >= 0 ? row : -1;
+    }
+
+    public int getOrderId(int row) {
+        return orderIds[row];
+    }
+
+    public int getUserId(int row) {
+        return userIds[row];
+    }
+
+    public int getEpochDay(int row) {
+        return epochDays[row];
+    }
+
+    public long getAmountCents(int row) {
+        return amountCents[row];
+    }
+
+    public byte getStatusCode(int row) {
+        return statusCodes[row];
+    }
+
+    /**
+     * Select the rows with fromDay <= order day < toDay whose status is in the mask
+     * @param statusMask bit set of status codes (see OrderStatusCodes.mask), or OrderStatusCodes.ALL
+     * @return selection vector of matching row indexes, in row order
+     */
+    public int[] filter(int fromDay, int toDay, int statusMask) {
+        int[] selection = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            int day = epochDays[row];
+            boolean match = day >= fromDay & day < toDay & ((statusMask >>> statusCodes[row]) & 1) != 0;
+            selection[count] = row;
+            count += match ? 1 : 0;
+        }
+        return Arrays.copyOf(selection, count);
+    }
+
+    /**
+     * Sum the order amounts in cents over the selected rows (null selects all rows)
+     */
+    public long sumAmountCents(int[] selection) {
+        long sum = 0;
+        if (selection == null) {
+            for (int row = 0; row < size; row++) {
+                sum += amountCents[row];
+            }
+        } else {
+            for (int row : selection) {
+                sum += amountCents[row];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Count the selected rows per status code (null selects all rows)
+     * @return counts indexed by status code, of length OrderStatusCodes.COUNT
+     */
+    public int[] countByStatus(int[] selection) {
+        int[] counts = new int[OrderStatusCodes.COUNT];
+        if (selection == null) {
+            for (int row = 0; row < size; row++) {
+                counts[statusCodes[row]]++;
+            }
+        } else {
+            for (int row : selection) {
+                counts[statusCodes[row]]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Sum the order amounts in cents per day bucket over the selected rows (null selects all rows)
+     * Rows outside the buckets are ignored
+     */
+    public long[] sumAmountCentsByBucket(int[] selection, DayBuckets buckets) {
+        long[] sums = new long[buckets.size()];
+        if (selection == null) {
+            for (int row = 0; row < size; row++) {
+                int bucket = buckets.bucketOf(epochDays[row]);
+                if (bucket >= 0) {
+                    sums[bucket] += amountCents[row];
+                }
+            }
+        } else {
+            for (int row : selection) {
+                int bucket = buckets.bucketOf(epochDays[row]);
+                if (bucket >= 0) {
+                    sums[bucket] += amountCents[row];
+                }
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * Count the selected rows per day bucket (null selects all rows)
+     * Rows outside the buckets are ignored
+     */
+    public int[] countByBucket(int[] selection, DayBuckets buckets) {
+        int[] counts = new int[buckets.size()];
+        if (selection == null) {
+            for (int row = 0; row < size; row++) {
+                int bucket = buckets.bucketOf(epochDays[row]);
+                if (bucket >= 0) {
+                    counts[bucket]++;
+                }
+            }
+        } else {
+            for (int row : selection) {
+                int bucket = buckets.bucketOf(epochDays[row]);
+                if (bucket >= 0) {
+                    counts[bucket]++;
+                }
+            }
+        }
+        return counts;
+    }
+}
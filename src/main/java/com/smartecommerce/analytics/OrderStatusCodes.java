@@ -0,0 +1,58 @@
+package com.smartecommerce.analytics;
+
+/**
+ * OrderStatusCodes maps order status names to the byte codes stored in the status column
+ * Codes are dense so per-status counts fit in a small int array indexed by code
+ */
+public final class OrderStatusCodes {
+    public static final byte PENDING = 0;
+    public static final byte CONFIRMED = 1;
+    public static final byte SHIPPED = 2;
+    public static final byte DELIVERED = 3;
+    public static final byte CANCELLED = 4;
+    public static final byte OTHER = 5;
+
+    /** Number of distinct codes, including OTHER */
+    public static final int COUNT = 6;
+
+    /** Status mask matching every code */
+    public static final int ALL = (1 << COUNT) - 1;
+
+    private static final String[] NAMES = {"PENDING", "CONFIRMED", "SHIPPED", "DELIVERED", "CANCELLED", "OTHER"};
+
+    private OrderStatusCodes() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Get the code for a status name (case-insensitive); unknown or null names map to OTHER
+     */
+    public static byte of(String status) {
+        if (status != null) {
+            for (byte code = 0; code < OTHER; code++) {
+                if (NAMES[code].equalsIgnoreCase(status.trim())) {
+                    return code;
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * Get the status name for a code
+     */
+    public static String name(int code) {
+        return code >= 0 && code < COUNT ? NAMES[code] : NAMES[OTHER];
+    }
+
+    /**
+     * Build a status mask for filtering, e.g. mask(PENDING, CONFIRMED)
+     */
+    public static int mask(byte... codes) {
+        int mask = 0;
+        for (byte code : codes) {
+            mask |= 1 << code;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartecommerce.analytics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductColumns is a read-only, column-oriented snapshot of product categories
+ * Category IDs are stored per product; names are kept once per category
+ */
+public final class ProductColumns {
+    private final int size;
+    private final int[] productIds;
+    private final int[] categoryIds;
+    private final Map<Integer, String> categoryNames;
+
+    ProductColumns(int size, int[] productIds, int[] categoryIds, Map<Integer, String> categoryNames) {
+        this.size = size;
+        this.productIds = productIds;
+        this.categoryIds = categoryIds;
+        this.categoryNames = Collections.unmodifiableMap(categoryNames);
+    }
+
+    static ProductColumns empty() {
+        return new ProductColumns(0, new int[0], new int[0], Map.of());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getProductId(int row) {
+        return productIds[row];
+    }
+
+    /**
+     * Get the categories with the most products, largest first
+     * @return category name to product count, in descending count order
+     */
+    public Map<String, Integer> topCategories(int limit) {
+        Map<Integer, int[]> counts = new LinkedHashMap<>();
+        for (int row = 0; row < size; row++) {
+            counts.computeIfAbsent(categoryIds[row], id -> new int[1])[0]++;
+        }
+
+        List<Map.Entry<Integer, int[]>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]));
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (Map.Entry<Integer, int[]> entry : entries) {
+            if (top.size() >= limit) {
+                break;
+            }
+            String name = categoryNames.get(entry.getKey());
+            if (name != null) {
+                top.put(name, entry.getValue()[0]);
+            }
+        }
+        return top;
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartecommerce.analytics;
+
+/**
+ * UserColumns is a read-only, column-oriented snapshot of the Users table
+ * Rows are sorted by user ID; only the first size() entries of each array are valid
+ */
+public final class UserColumns {
+    private final int size;
+    private final int[] userIds;
+    private final int[] createdEpochDays;
+
+    UserColumns(int size, int[] userIds, int[] createdEpochDays) {
+        this.size = size;
+        this.userIds = userIds;
+        this.createdEpochDays = createdEpochDays;
+    }
+
+    static UserColumns empty() {
+        return new UserColumns(0, new int[0], new int[0]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getUserId(int row) {
+        return userIds[row];
+    }
+
+    /**
+     * Count registrations per day bucket; users outside the buckets are ignored
+     */
+    public int[] countByBucket(DayBuckets buckets) {
+        int[] counts = new int[buckets.size()];
+        for (int row = 0; row < size; row++) {
+            int bucket = buckets.bucketOf(createdEpochDays[row]);
+            if (bucket >= 0) {
+                counts[bucket]++;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,30 @@
+package com.smartecommerce.api;
+
+/**
+ * ApiException ends a request with an HTTP error status and a JSON {"error": message} body
+ */
+public class ApiException extends RuntimeException {
+    private final int status;
+    private final long retryAfterSeconds;
+
+    public ApiException(int status, String message) {
+        this(status, message, 0);
+    }
+
+    /**
+     * @param retryAfterSeconds sent as Retry-After when positive, e.g. with 429 Too Many Requests
+     */
+    public ApiException(int status, String message, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
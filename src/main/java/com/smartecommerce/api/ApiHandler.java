@@ -0,0 +1,586 @@
+package com.smartecommerce.api;
+
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.dao.CatalogVersion;
+import com.smartecommerce.dao.CategoryDAO;
+import com.smartecommerce.dao.UserDAO;
+import com.smartecommerce.metrics.Counter;
+import com.smartecommerce.metrics.MetricsRegistry;
+import com.smartecommerce.models.CartItem;
+import com.smartecommerce.models.Order;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.service.CartService;
+import com.smartecommerce.service.LoginService;
+import com.smartecommerce.service.LoginService.LoginResult;
+import com.smartecommerce.service.OrderService;
+import com.smartecommerce.service.ProductService;
+import com.smartecommerce.service.ReportService;
+import com.smartecommerce.service.TokenService;
+import com.smartecommerce.service.TokenSession;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.Fields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * ApiHandler routes /api requests to the services and answers with JSON
+ *
+ * Catalog reads and /api/health are public. POST /api/auth/login exchanges a username (or
+ * email) and password for a session token from TokenService; the other endpoints take it as
+ * "Authorization: Bearer <token>". Checking a token needs no database or session lookup.
+ * Logins go through LoginService, which rate limits them per client address and per name; a
+ * limited attempt is answered with 429 and Retry-After.
+ * Cart and order endpoints act on the caller's own data; every user gets a cart of their own,
+ * held in memory by the CartRegistry until it sits idle.
+ * Catalog writes, reports and order status changes are for admins only.
+ *
+ * Catalog reads carry an ETag and Last-Modified taken from the CatalogVersion, and conditional
+ * requests for an unchanged catalog are answered with 304 before anything is loaded. Other
+ * catalog reads are served from the CatalogResponseCache, gzipped when the client accepts it.
+ *
+ * Requests run on virtual threads (see ApiServer), so handlers call the blocking services
+ * and JDBC directly.
+ */
+public class ApiHandler extends Handler.Abstract {
+    private static final Logger logger = LoggerFactory.getLogger(ApiHandler.class);
+    private static final String API_PREFIX = "/api/";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int DEFAULT_TOP_PRODUCTS = 10;
+    private static final long DEFAULT_CACHE_MAX_BYTES = 32L * 1024 * 1024;
+    private static final long DEFAULT_CART_IDLE_MINUTES = 120;
+    private static final int DEFAULT_MAX_CARTS = 100_000;
+    private static final String GZIP = "gzip";
+    // Clients may keep catalog responses but must revalidate them, which is a cheap 304
+    private static final String CATALOG_CACHE_CONTROL = "no-cache";
+
+    private static final Counter NOT_MODIFIED = MetricsRegistry.getInstance().counter(
+            "smartecommerce_cache_lookups_total", "Cache lookups by cache and result", "cache", "api", "result", "not_modified");
+    private static final Set<String> ORDER_STATUSES = Set.of("PENDING", "CONFIRMED", "SHIPPED", "DELIVERED", "CANCELLED");
+
+    private final ProductService productService;
+    private final OrderService orderService;
+    private final ReportService reportService;
+    private final CategoryDAO categoryDAO;
+    private final LoginService loginService;
+    private final TokenService tokenService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogResponseCache catalogCache;
+    private final CartRegistry carts;
+
+    public ApiHandler() {
+        this(new ProductService(), new OrderService(), new ReportService(), new CategoryDAO(), LoginService.getInstance(),
+                CatalogVersion.getInstance(), ConfigManager.getInstance().getLong("api.cache.maxBytes", DEFAULT_CACHE_MAX_BYTES),
+                new CartRegistry(ConfigManager.getInstance().getLong("api.carts.idleTtlMinutes", DEFAULT_CART_IDLE_MINUTES) * 60_000,
+                        ConfigManager.getInstance().getInt("api.carts.maxEntries", DEFAULT_MAX_CARTS), System::currentTimeMillis));
+    }
+
+    // Constructor for testing with mock services
+    ApiHandler(ProductService productService, OrderService orderService, ReportService reportService,
+               CategoryDAO categoryDAO, UserDAO userDAO, CatalogVersion catalogVersion) {
+        this(productService, orderService, reportService, categoryDAO, new LoginService(userDAO), catalogVersion,
+                DEFAULT_CACHE_MAX_BYTES, new CartRegistry(DEFAULT_CART_IDLE_MINUTES * 60_000, DEFAULT_MAX_CARTS,
+                        System::currentTimeMillis));
+    }
+
+    private ApiHandler(ProductService productService, OrderService orderService, ReportService reportService,
+                       CategoryDAO categoryDAO, LoginService loginService, CatalogVersion catalogVersion,
+                       long cacheMaxBytes, CartRegistry carts) {
+        this.productService = productService;
+        this.orderService = orderService;
+        this.reportService = reportService;
+        this.categoryDAO = categoryDAO;
+        this.loginService = loginService;
+        this.tokenService = TokenService.getInstance();
+        this.catalogVersion = catalogVersion;
+        this.catalogCache = new CatalogResponseCache(cacheMaxBytes);
+        this.carts = carts;
+    }
+
+    @Override
+    public boolean handle(Request request, Response response, Callback callback) throws Exception {
+        String path = Request.getPathInContext(request);
+        if (!path.startsWith(API_PREFIX)) {
+            return false;
+        }
+        try {
+            Reply reply = route(request, path.substring(API_PREFIX.length()).split("/"));
+            if (reply.stamp != null) {
+                writeCatalog(request, response, callback, reply);
+                return true;
+            }
+            Json.write(response, reply.status, reply.body);
+            callback.succeeded();
+        } catch (ApiException e) {
+            writeError(response, callback, e.getStatus(), e.getMessage(), e.getRetryAfterSeconds());
+        } catch (Exception e) {
+            logger.error("{} {} failed", request.getMethod(), path, e);
+            writeError(response, callback, HttpStatus.INTERNAL_SERVER_ERROR_500, "Internal server error", 0);
+        }
+        return true;
+    }
+
+    /**
+     * Write a catalog reply: validators, then the cached body (none for 304)
+     */
+    private void writeCatalog(Request request, Response response, Callback callback, Reply reply) {
+        HttpFields.Mutable headers = response.getHeaders();
+        headers.put(HttpHeader.ETAG, catalogCache.etag(reply.stamp));
+        headers.putDate(HttpHeader.LAST_MODIFIED, reply.stamp.getLastModifiedSeconds() * 1000);
+        headers.put(HttpHeader.CACHE_CONTROL, CATALOG_CACHE_CONTROL);
+        headers.put(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING.asString());
+        response.setStatus(reply.status);
+        if (reply.cached == null) {
+            callback.succeeded();
+            return;
+        }
+        boolean gzip = request.getHeaders().getQualityCSV(HttpHeader.ACCEPT_ENCODING).stream()
+                .anyMatch(GZIP::equalsIgnoreCase);
+        byte[] body = gzip ? reply.cached.getGzip() : reply.cached.getJson();
+        headers.put(HttpHeader.CONTENT_TYPE, Json.CONTENT_TYPE);
+        if (gzip) {
+            headers.put(HttpHeader.CONTENT_ENCODING, GZIP);
+        }
+        headers.put(HttpHeader.CONTENT_LENGTH, body.length);
+        response.write(true, ByteBuffer.wrap(body), callback);
+    }
+
+    private static void writeError(Response response, Callback callback, int status, String message,
+                                   long retryAfterSeconds) {
+        if (response.isCommitted()) {
+            // Part of the body is already sent; all that is left is to abort the response
+            callback.failed(new IllegalStateException(message));
+            return;
+        }
+        try {
+            response.reset();
+            if (status == HttpStatus.UNAUTHORIZED_401) {
+                response.getHeaders().put(HttpHeader.WWW_AUTHENTICATE, "Bearer realm=\"smartecommerce\"");
+            }
+            if (retryAfterSeconds > 0) {
+                response.getHeaders().put(HttpHeader.RETRY_AFTER, retryAfterSeconds);
+            }
+            Json.write(response, status, Map.of("error", message));
+            callback.succeeded();
+        } catch (Exception e) {
+            callback.failed(e);
+        }
+    }
+
+    private Reply route(Request request, String[] path) {
+        String method = request.getMethod();
+        switch (path[0]) {
+            case "health":
+                return Reply.ok(Map.of("status", "UP"));
+            case "auth":
+                return auth(request, method, path);
+            case "products":
+                return products(request, method, path);
+            case "categories":
+                requireMethod(method, HttpMethod.GET);
+                return catalog(request, "categories", categoryDAO::findAll);
+            case "cart":
+                return cart(request, method, path, authenticate(request));
+            case "orders":
+                return orders(request, method, path, authenticate(request));
+            case "reports":
+                requireAdmin(authenticate(request));
+                requireMethod(method, HttpMethod.GET);
+                return reports(request, path);
+            default:
+                throw notFound();
+        }
+    }
+
+    // ---- Catalog ----
+
+    private Reply products(Request request, String method, String[] path) {
+        if (path.length == 1) {
+            if (HttpMethod.POST.is(method)) {
+                requireAdmin(authenticate(request));
+                Product product = Json.read(request, Product.class);
+                if (!productService.addProduct(product)) {
+                    throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY_422, "Product could not be created");
+                }
+                return Reply.created(product);
+            }
+            requireMethod(method, HttpMethod.GET);
+            Fields query = Request.extractQueryParameters(request);
+            String searchTerm = query.getValue("q");
+            if (searchTerm != null) {
+                return catalog(request, "products?q=" + searchTerm, () -> productService.searchProducts(searchTerm));
+            }
+            if (query.getValue("category") != null) {
+                int categoryId = intParam(query.getValue("category"));
+                return catalog(request, "products?category=" + categoryId,
+                        () -> productService.getProductsByCategory(categoryId));
+            }
+            return catalog(request, "products", productService::getAllProducts);
+        }
+        if (path.length == 2 && path[1].equals("top")) {
+            requireMethod(method, HttpMethod.GET);
+            String limit = Request.extractQueryParameters(request).getValue("limit");
+            return Reply.ok(productService.getTopPurchasedProducts(limit != null ? intParam(limit) : DEFAULT_TOP_PRODUCTS));
+        }
+        if (path.length != 2) {
+            throw notFound();
+        }
+        int productId = intParam(path[1]);
+        if (HttpMethod.GET.is(method)) {
+            return catalog(request, "products/" + productId, () -> existingProduct(productId));
+        }
+        requireAdmin(authenticate(request));
+        if (HttpMethod.PUT.is(method)) {
+            existingProduct(productId);
+            Product product = Json.read(request, Product.class);
+            product.setProductId(productId);
+            if (!productService.updateProduct(product)) {
+                throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY_422, "Product could not be updated");
+            }
+            return Reply.ok(product);
+        }
+        requireMethod(method, HttpMethod.DELETE);
+        if (!productService.deleteProduct(productId)) {
+            throw notFound();
+        }
+        return Reply.noContent();
+    }
+
+    /**
+     * Reply to a catalog read: 304 if the client's copy is current, else the cached response
+     * @param key identifies the response among all catalog reads
+     */
+    private Reply catalog(Request request, String key, Supplier<Object> loader) {
+        // Read before loading, so the response is never labelled newer than its data
+        CatalogVersion.Stamp stamp = catalogVersion.current();
+        if (stamp == null) {
+            // Nothing to validate or key a cache on, so every read is loaded afresh
+            return Reply.ok(loader.get());
+        }
+        if (isNotModified(request, stamp)) {
+            NOT_MODIFIED.inc();
+            return new Reply(HttpStatus.NOT_MODIFIED_304, null, stamp, null);
+        }
+        CatalogResponseCache.Entry cached = catalogCache.get(key, stamp, loader);
+        return new Reply(HttpStatus.OK_200, null, cached.getStamp(), cached);
+    }
+
+    /**
+     * If-None-Match decides when present (weak comparison); otherwise If-Modified-Since
+     */
+    private boolean isNotModified(Request request, CatalogVersion.Stamp stamp) {
+        List<String> ifNoneMatch = request.getHeaders().getCSV(HttpHeader.IF_NONE_MATCH, true);
+        if (!ifNoneMatch.isEmpty()) {
+            String current = opaqueTag(catalogCache.etag(stamp));
+            return ifNoneMatch.stream().anyMatch(tag -> opaqueTag(tag).equals(current));
+        }
+        long since = request.getHeaders().getDateField(HttpHeader.IF_MODIFIED_SINCE);
+        return since >= 0 && stamp.getLastModifiedSeconds() * 1000 <= since;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private Product existingProduct(int productId) {
+        Product product = productService.getProductById(productId);
+        if (product == null) {
+            throw notFound();
+        }
+        return product;
+    }
+
+    // ---- Cart ----
+
+    private Reply cart(Request request, String method, String[] path, TokenSession session) {
+        CartService cart = carts.get(session.getUserId());
+        if (path.length == 1) {
+            if (HttpMethod.DELETE.is(method)) {
+                cart.clearCart();
+                return Reply.noContent();
+            }
+            requireMethod(method, HttpMethod.GET);
+            return Reply.ok(cartBody(cart));
+        }
+        if (!path[1].equals("items") || path.length > 3) {
+            throw notFound();
+        }
+        if (path.length == 2) {
+            requireMethod(method, HttpMethod.POST);
+            CartLine line = Json.read(request, CartLine.class);
+            if (line.quantity < 1) {
+                throw new ApiException(HttpStatus.BAD_REQUEST_400, "Quantity must be at least 1");
+            }
+            Product product = existingProduct(line.productId);
+            // The cart is per user, so only that user's concurrent requests contend for it
+            synchronized (cart) {
+                int inCart = cart.getCartItem(product.getProductId()).map(CartItem::getQuantity).orElse(0);
+                cart.addProduct(product);
+                cart.updateQuantity(product.getProductId(), inCart + line.quantity);
+            }
+            return Reply.created(cartBody(cart));
+        }
+        int productId = intParam(path[2]);
+        if (!cart.containsProduct(productId)) {
+            throw notFound();
+        }
+        if (HttpMethod.PUT.is(method)) {
+            CartLine line = Json.read(request, CartLine.class);
+            if (line.quantity < 0) {
+                throw new ApiException(HttpStatus.BAD_REQUEST_400, "Quantity cannot be negative");
+            }
+            cart.updateQuantity(productId, line.quantity);
+            return Reply.ok(cartBody(cart));
+        }
+        requireMethod(method, HttpMethod.DELETE);
+        cart.removeProduct(productId);
+        return Reply.ok(cartBody(cart));
+    }
+
+    private static Map<String, Object> cartBody(CartService cart) {
+        synchronized (cart) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("items", cart.getCartItems());
+            body.put("totalItems", cart.getTotalItems());
+            body.put("totalPrice", cart.getTotalPrice());
+            return body;
+        }
+    }
+
+    // ---- Orders ----
+
+    private Reply orders(Request request, String method, String[] path, TokenSession session) {
+        if (path.length == 1) {
+            if (HttpMethod.POST.is(method)) {
+                return checkout(session);
+            }
+            requireMethod(method, HttpMethod.GET);
+            if (!session.isAdmin()) {
+                return Reply.ok(orderService.getOrdersByUser(session.getUserId()));
+            }
+            String status = Request.extractQueryParameters(request).getValue("status");
+            return Reply.ok(status != null ? orderService.filterByStatus(status) : orderService.getAllOrders());
+        }
+        Order order = orderService.getOrderById(intParam(path[1]));
+        // Someone else's order is reported as missing rather than forbidden
+        if (order == null || (!session.isAdmin() && order.getUserId() != session.getUserId())) {
+            throw notFound();
+        }
+        if (path.length == 2) {
+            requireMethod(method, HttpMethod.GET);
+            return Reply.ok(order);
+        }
+        if (path.length != 3 || !path[2].equals("status")) {
+            throw notFound();
+        }
+        requireAdmin(session);
+        requireMethod(method, HttpMethod.PUT);
+        String status = Json.read(request, StatusChange.class).status;
+        if (status == null || !ORDER_STATUSES.contains(status)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST_400, "Status must be one of " + ORDER_STATUSES);
+        }
+        if (!orderService.updateOrderStatus(order.getOrderId(), status)) {
+            throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY_422, "Order status could not be updated");
+        }
+        order.setStatus(status);
+        return Reply.ok(order);
+    }
+
+    /**
+     * Place an order for everything in the user's cart, then empty the cart
+     */
+    private Reply checkout(TokenSession session) {
+        CartService cart = carts.get(session.getUserId());
+        synchronized (cart) {
+            if (cart.isEmpty()) {
+                throw new ApiException(HttpStatus.BAD_REQUEST_400, "Cart is empty");
+            }
+            Order order = new Order();
+            order.setUserId(session.getUserId());
+            order.setTotalAmount(cart.getTotalPrice());
+            order.setStatus("PENDING");
+            if (!orderService.createOrder(order)) {
+                throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY_422, "Order could not be created");
+            }
+            cart.clearCart();
+            return Reply.created(order);
+        }
+    }
+
+    // ---- Reports ----
+
+    private Reply reports(Request request, String[] path) {
+        if (path.length != 2) {
+            throw notFound();
+        }
+        return switch (path[1]) {
+            case "sales" -> Reply.ok(reportService.generateSalesSummary());
+            case "inventory" -> Reply.ok(reportService.generateInventoryReport());
+            case "users" -> Reply.ok(reportService.generateUserReport());
+            case "dashboard" -> Reply.ok(reportService.generateDashboardAnalytics());
+            case "performance" -> Reply.ok(reportService.generatePerformanceReport());
+            case "top-products" -> {
+                String limit = Request.extractQueryParameters(request).getValue("limit");
+                yield Reply.ok(reportService.getTopProducts(limit != null ? intParam(limit) : DEFAULT_TOP_PRODUCTS));
+            }
+            default -> throw notFound();
+        };
+    }
+
+    // ---- Authentication ----
+
+    private Reply auth(Request request, String method, String[] path) {
+        if (path.length != 2) {
+            throw notFound();
+        }
+        requireMethod(method, HttpMethod.POST);
+        switch (path[1]) {
+            case "login": {
+                Credentials credentials = Json.read(request, Credentials.class);
+                if (credentials.username == null || credentials.password == null) {
+                    throw new ApiException(HttpStatus.BAD_REQUEST_400, "Username and password are required");
+                }
+                LoginResult result = loginService.login(credentials.username, credentials.password,
+                        Request.getRemoteAddr(request));
+                if (result.isRateLimited()) {
+                    throw new ApiException(HttpStatus.TOO_MANY_REQUESTS_429, "Too many login attempts",
+                            result.getRetryAfter().toSeconds());
+                }
+                if (!result.isSuccess()) {
+                    throw new ApiException(HttpStatus.UNAUTHORIZED_401, "Invalid username or password");
+                }
+                TokenSession session = tokenService.issue(result.getUser());
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("token", session.getToken());
+                body.put("tokenType", BEARER_PREFIX.trim());
+                body.put("expiresAt", Instant.ofEpochMilli(session.getExpiresAtMillis()).toString());
+                body.put("userId", session.getUserId());
+                body.put("username", session.getUsername());
+                body.put("role", session.getRole());
+                return Reply.ok(body);
+            }
+            case "logout":
+                tokenService.revoke(authenticate(request));
+                return Reply.noContent();
+            default:
+                throw notFound();
+        }
+    }
+
+    /**
+     * Resolve the caller from their bearer token
+     * @throws ApiException 401 if the token is missing, invalid, expired or revoked
+     */
+    private TokenSession authenticate(Request request) {
+        String header = request.getHeaders().get(HttpHeader.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            throw new ApiException(HttpStatus.UNAUTHORIZED_401, "Authentication required");
+        }
+        TokenSession session = tokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+        if (session == null) {
+            throw new ApiException(HttpStatus.UNAUTHORIZED_401, "Invalid or expired token");
+        }
+        return session;
+    }
+
+    private static void requireAdmin(TokenSession session) {
+        if (!session.isAdmin()) {
+            throw new ApiException(HttpStatus.FORBIDDEN_403, "Admin role required");
+        }
+    }
+
+    // ---- Helpers ----
+
+    private static void requireMethod(String method, HttpMethod expected) {
+        if (!expected.is(method)) {
+            throw new ApiException(HttpStatus.METHOD_NOT_ALLOWED_405, "Method " + method + " not allowed");
+        }
+    }
+
+    private static int intParam(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST_400, "Not a number: " + value);
+        }
+    }
+
+    private static ApiException notFound() {
+        return new ApiException(HttpStatus.NOT_FOUND_404, "Not found");
+    }
+
+    /**
+     * Number of users holding a cart
+     */
+    int getCartCount() {
+        return carts.size();
+    }
+
+    /**
+     * Status and body of a successful request
+     * Catalog reads carry the catalog version instead, and their cached response unless it is a 304
+     */
+    private static class Reply {
+        private final int status;
+        private final Object body;
+        private final CatalogVersion.Stamp stamp;
+        private final CatalogResponseCache.Entry cached;
+
+        private Reply(int status, Object body, CatalogVersion.Stamp stamp, CatalogResponseCache.Entry cached) {
+            this.status = status;
+            this.body = body;
+            this.stamp = stamp;
+            this.cached = cached;
+        }
+
+        static Reply ok(Object body) {
+            return new Reply(HttpStatus.OK_200, body, null, null);
+        }
+
+        static Reply created(Object body) {
+            return new Reply(HttpStatus.CREATED_201, body, null, null);
+        }
+
+        static Reply noContent() {
+            return new Reply(HttpStatus.NO_CONTENT_204, null, null, null);
+        }
+    }
+
+    /**
+     * Body of POST /api/cart/items and PUT /api/cart/items/{productId}
+     */
+    private static class CartLine {
+        private int productId;
+        private int quantity = 1;
+    }
+
+    /**
+     * Body of POST /api/auth/login; username may also be an email
+     */
+    private static class Credentials {
+        private String username;
+        private String password;
+    }
+
+    /**
+     * Body of PUT /api/orders/{orderId}/status
+     */
+    private static class StatusChange {
+        private String status;
+    }
+}
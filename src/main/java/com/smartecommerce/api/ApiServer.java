@@ -0,0 +1,139 @@
+package com.smartecommerce.api;
+
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.metrics.MetricsServer;
+import org.eclipse.jetty.server.ForwardedRequestCustomizer;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+
+/**
+ * ApiServer serves the JSON API (see ApiHandler) on an embedded Jetty, without any UI
+ *
+ * The connector is Jetty's NIO ServerConnector: a few selector threads watch every open
+ * connection, so idle keep-alive clients behind a load balancer hold no thread. Each request
+ * is then handled on its own virtual thread, where the blocking JDBC calls of the services
+ * park cheaply instead of tying up a pool thread.
+ *
+ * Behind a reverse proxy, set api.forwardedHeaders so the client address (which login rate
+ * limits are keyed on) is taken from the Forwarded / X-Forwarded-For headers. Leave it off
+ * otherwise, or clients can pick their own address.
+ *
+ * Only the service, DAO, model and config classes are used, so the server starts with no
+ * JavaFX on the classpath:
+ * java -cp "target/classes:<dependencies>" com.smartecommerce.api.ApiServer
+ */
+public class ApiServer {
+    private static final Logger logger = LoggerFactory.getLogger(ApiServer.class);
+    private static final long IDLE_TIMEOUT_MILLIS = 30_000;
+
+    private final String host;
+    private final int port;
+    private final ApiHandler handler;
+    private final boolean forwardedHeaders;
+    private Server server;
+
+    /**
+     * @param host interface to bind, e.g. 0.0.0.0 for all
+     * @param port port to listen on, or 0 for any free port
+     */
+    public ApiServer(String host, int port) {
+        this(host, port, new ApiHandler(), ConfigManager.getInstance().getBoolean("api.forwardedHeaders", false));
+    }
+
+    // Constructor for testing with a handler over mock services
+    ApiServer(String host, int port, ApiHandler handler) {
+        this(host, port, handler, false);
+    }
+
+    private ApiServer(String host, int port, ApiHandler handler, boolean forwardedHeaders) {
+        this.host = host;
+        this.port = port;
+        this.handler = handler;
+        this.forwardedHeaders = forwardedHeaders;
+    }
+
+    /**
+     * Run the API until the process is stopped; api.host and api.port come from the configuration
+     */
+    public static void main(String[] args) throws Exception {
+        ConfigManager config = ConfigManager.getInstance();
+        ApiServer apiServer = new ApiServer(config.getString("api.host", "0.0.0.0"), config.getInt("api.port", 8080));
+        MetricsServer metricsServer = MetricsServer.startIfEnabled();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop();
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
+        }, "api-shutdown"));
+        apiServer.start();
+        apiServer.join();
+    }
+
+    public synchronized void start() throws Exception {
+        if (server != null) {
+            return;
+        }
+        // Platform threads only run the selectors and acceptor; handlers run on virtual threads
+        QueuedThreadPool threads = new QueuedThreadPool();
+        threads.setName("api");
+        threads.setVirtualThreadsExecutor(Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("api-request-", 0).factory()));
+
+        Server jetty = new Server(threads);
+        HttpConfiguration http = new HttpConfiguration();
+        if (forwardedHeaders) {
+            http.addCustomizer(new ForwardedRequestCustomizer());
+        }
+        ServerConnector connector = new ServerConnector(jetty, new HttpConnectionFactory(http));
+        connector.setHost(host);
+        connector.setPort(port);
+        connector.setIdleTimeout(IDLE_TIMEOUT_MILLIS);
+        jetty.addConnector(connector);
+        jetty.setHandler(handler);
+        jetty.start();
+        server = jetty;
+        logger.info("API available at http://{}:{}/api/", host, getPort());
+    }
+
+    /**
+     * Port actually bound (useful when started with port 0)
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            return port;
+        }
+        return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    /**
+     * Block until the server has stopped
+     */
+    public void join() throws InterruptedException {
+        Server running;
+        synchronized (this) {
+            running = server;
+        }
+        if (running != null) {
+            running.join();
+        }
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.stop();
+        } catch (Exception e) {
+            logger.warn("Error stopping API server", e);
+        }
+        server = null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.smartecommerce.api;
+
+import com.smartecommerce.service.CartService;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * CartRegistry holds the API's carts in memory, one per user
+ *
+ * A cart left alone for api.carts.idleTtlMinutes is dropped, and the registry holds at most
+ * api.carts.maxEntries carts. Idle carts are swept when a new cart is created, at most once
+ * per idle time; when the registry is still full, the least recently used cart goes.
+ */
+class CartRegistry {
+    private final long idleMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<Integer, Entry> carts = new ConcurrentHashMap<>();
+    private volatile long sweptAt;
+
+    CartRegistry(long idleMillis, int maxEntries, LongSupplier clock) {
+        this.idleMillis = idleMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.sweptAt = clock.getAsLong();
+    }
+
+    /**
+     * The user's cart, a new empty one if they had none or it was idle for too long
+     */
+    CartService get(int userId) {
+        long now = clock.getAsLong();
+        Entry entry = carts.get(userId);
+        if (entry != null && !entry.isIdle(now)) {
+            entry.lastUsedAt = now;
+            return entry.cart;
+        }
+        if (entry != null) {
+            carts.remove(userId, entry);
+        } else {
+            makeRoom(now);
+        }
+        entry = carts.computeIfAbsent(userId, id -> new Entry(CartService.newDetachedInstance(), now));
+        entry.lastUsedAt = now;
+        return entry.cart;
+    }
+
+    /**
+     * Number of carts held
+     */
+    int size() {
+        return carts.size();
+    }
+
+    private void makeRoom(long now) {
+        if (carts.size() >= maxEntries || now - sweptAt >= idleMillis) {
+            sweptAt = now;
+            carts.values().removeIf(entry -> entry.isIdle(now));
+        }
+        while (carts.size() >= maxEntries && !carts.isEmpty()) {
+            carts.entrySet().stream()
+                    .min(Comparator.comparingLong(eldest -> eldest.getValue().lastUsedAt))
+                    .ifPresent(eldest -> carts.remove(eldest.getKey(), eldest.getValue()));
+        }
+    }
+
+    /**
+     * A cart and when its user last touched it
+     */
+    private final class Entry {
+        private final CartService cart;
+        private volatile long lastUsedAt;
+
+        private Entry(CartService cart, long lastUsedAt) {
+            this.cart = cart;
+            this.lastUsedAt = lastUsedAt;
+        }
+
+        private boolean isIdle(long now) {
+            return now - lastUsedAt >= idleMillis;
+        }
+    }
+}
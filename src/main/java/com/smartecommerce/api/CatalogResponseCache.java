@@ -0,0 +1,146 @@
+package com.smartecommerce.api;
+
+import com.smartecommerce.dao.CatalogVersion;
+import com.smartecommerce.metrics.Counter;
+import com.smartecommerce.metrics.MetricsRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CatalogResponseCache keeps serialized catalog responses for the current catalog version
+ *
+ * Each response is stored as JSON bytes and as gzip bytes compressed once up front, so a hot
+ * read is answered with a ready byte array: no query, no serialization and no compression.
+ * Entries belong to one catalog version; the first lookup after a write drops them all. Memory
+ * is bounded by the stored bytes, and the least recently used responses are dropped first.
+ */
+class CatalogResponseCache {
+    private static final Counter HITS = MetricsRegistry.getInstance().counter(
+            "smartecommerce_cache_lookups_total", "Cache lookups by cache and result", "cache", "api", "result", "hit");
+    private static final Counter MISSES = MetricsRegistry.getInstance().counter(
+            "smartecommerce_cache_lookups_total", "Cache lookups by cache and result", "cache", "api", "result", "miss");
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedVersion;
+    private long sizeBytes;
+
+    CatalogResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Cached response for a key at the given catalog version, loading and serializing it on a miss
+     * @param stamp catalog version read before loading, so data is never filed under a newer version
+     */
+    Entry get(String key, CatalogVersion.Stamp stamp, Supplier<Object> loader) {
+        synchronized (this) {
+            dropOlderThan(stamp.getVersion());
+            Entry cached = entries.get(key);
+            if (cached != null && cached.stamp.getVersion() == stamp.getVersion()) {
+                HITS.inc();
+                return cached;
+            }
+        }
+        MISSES.inc();
+
+        byte[] json = Json.toBytes(loader.get());
+        Entry entry = new Entry(stamp, etag(stamp), json, gzip(json));
+        synchronized (this) {
+            // A write meanwhile makes this response stale for the next reader; hand it out but do not keep it
+            if (stamp.getVersion() == cachedVersion) {
+                Entry replaced = entries.put(key, entry);
+                sizeBytes += entry.size() - (replaced != null ? replaced.size() : 0);
+                evict();
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Weak entity tag for the whole catalog at a version; the same for the JSON and gzip bodies
+     * The time of the write tells apart equal versions of a recreated database
+     */
+    String etag(CatalogVersion.Stamp stamp) {
+        return "W/\"" + stamp.getVersion() + "-" + stamp.getLastModifiedSeconds() + "\"";
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    private void dropOlderThan(long version) {
+        if (version > cachedVersion) {
+            entries.clear();
+            sizeBytes = 0;
+            cachedVersion = version;
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        // Always keep the newest response, even if it alone is over the budget
+        while (sizeBytes > maxBytes && entries.size() > 1) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            sizeBytes -= entry.size();
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A serialized response and the catalog version it was built from
+     */
+    static final class Entry {
+        private final CatalogVersion.Stamp stamp;
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        Entry(CatalogVersion.Stamp stamp, String etag, byte[] json, byte[] gzip) {
+            this.stamp = stamp;
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        CatalogVersion.Stamp getStamp() {
+            return stamp;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        byte[] getJson() {
+            return json;
+        }
+
+        byte[] getGzip() {
+            return gzip;
+        }
+
+        private long size() {
+            return json.length + gzip.length;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartecommerce.api;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.smartecommerce.models.User;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.io.Content;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * JSON encoding of API requests and responses
+ *
+ * Responses are serialized straight into the response stream through a buffered JsonWriter,
+ * so a large list goes out in chunks as it is written instead of being built as one String.
+ * Dates are ISO-8601 strings, and password hashes are never written.
+ */
+final class Json {
+    static final String CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, isoAdapter(LocalDateTime::parse).nullSafe())
+            .registerTypeAdapter(LocalDate.class, isoAdapter(LocalDate::parse).nullSafe())
+            .setExclusionStrategies(new SecretFields())
+            .create();
+
+    private Json() {
+    }
+
+    /**
+     * Stream a value as the response body; blocks until it has been handed to Jetty
+     */
+    static void write(Response response, int status, Object body) throws IOException {
+        response.setStatus(status);
+        if (body == null) {
+            return;
+        }
+        response.getHeaders().put(HttpHeader.CONTENT_TYPE, CONTENT_TYPE);
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+                Content.Sink.asOutputStream(response), StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            GSON.toJson(body, body.getClass(), writer);
+        }
+    }
+
+    /**
+     * Serialize a value to UTF-8 JSON bytes, for responses that are cached
+     */
+    static byte[] toBytes(Object body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            GSON.toJson(body, body.getClass(), writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read the request body as an object of the given type
+     * @throws ApiException 400 if the body is missing or not valid JSON for the type
+     */
+    static <T> T read(Request request, Class<T> type) {
+        try (Reader reader = new InputStreamReader(Content.Source.asInputStream(request), StandardCharsets.UTF_8)) {
+            T value = GSON.fromJson(reader, type);
+            if (value == null) {
+                throw new ApiException(HttpStatus.BAD_REQUEST_400, "Request body is required");
+            }
+            return value;
+        } catch (JsonParseException | DateTimeException | IOException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST_400, "Invalid JSON body");
+        }
+    }
+
+    private static <T> TypeAdapter<T> isoAdapter(Function<String, T> parser) {
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                out.value(value.toString());
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                if (in.peek() != JsonToken.STRING) {
+                    throw new JsonParseException("Expected an ISO-8601 date string");
+                }
+                return parser.apply(in.nextString());
+            }
+        };
+    }
+
+    /**
+     * Keeps credentials out of every response, including users nested in reports
+     */
+    private static class SecretFields implements ExclusionStrategy {
+        @Override
+        public boolean shouldSkipField(FieldAttributes field) {
+            return field.getDeclaringClass() == User.class && field.getName().equals("passwordHash");
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> type) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartecommerce.app;
+
+import com.smartecommerce.config.DatabaseConfig;
+import com.smartecommerce.service.CatalogImportService;
+import com.smartecommerce.service.CatalogImportService.ImportResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+import static com.smartecommerce.utils.AppUtils.println;
+
+/**
+ * CatalogImport - command-line bulk import of products
+ *
+ * Usage: CatalogImport <products.csv|products.jsonl[.gz]> [--chunk-size N] [--restart]
+ * An interrupted import resumes from its last committed chunk when run again;
+ * --restart ignores the checkpoint and imports the whole file.
+ */
+public class CatalogImport {
+    private static final String USAGE = "Usage: CatalogImport <file.csv|file.jsonl> [--chunk-size N] [--restart]";
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            printE(USAGE);
+            System.exit(2);
+        }
+
+        Path file = Path.of(args[0]);
+        int chunkSize = CatalogImportService.DEFAULT_CHUNK_SIZE;
+        boolean restart = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--restart" -> restart = true;
+                case "--chunk-size" -> {
+                    chunkSize = i + 1 < args.length ? parseChunkSize(args[++i]) : -1;
+                    if (chunkSize <= 0) {
+                        printE("--chunk-size needs a positive number of rows");
+                        printE(USAGE);
+                        System.exit(2);
+                    }
+                }
+                default -> {
+                    printE("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        if (!Files.isRegularFile(file)) {
+            printE("File not found: " + file);
+            System.exit(2);
+        }
+        if (!DatabaseConfig.testConnection()) {
+            printE("❌ Database connection failed - check config/app.properties");
+            System.exit(1);
+        }
+
+        try {
+            ImportResult result = new CatalogImportService().importFile(file, chunkSize, restart);
+            result.getErrors().forEach(error -> printE("  " + error));
+            println(String.format("Imported %d products (%d rejected) at %,.0f rows/sec",
+                    result.getImported(), result.getRejected(), result.getRowsPerSecond()));
+            System.exit(result.isFailed() ? 1 : 0);
+        } catch (Exception e) {
+            printE("Import failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return the chunk size, or -1 if the value is not a number
+     */
+    private static int parseChunkSize(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
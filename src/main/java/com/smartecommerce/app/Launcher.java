@@ -0,0 +1,52 @@
+package com.smartecommerce.app;
+
+import javafx.application.Application;
+
+import java.util.Arrays;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+import static com.smartecommerce.utils.AppUtils.println;
+
+/**
+ * Launcher - plain main class for running the shaded jar from the class path
+ * The java launcher refuses to start an Application subclass directly unless JavaFX is on
+ * the module path, so scripts/launch.sh and the CDS profile start the app through here.
+ *
+ * With --train the startup paths run once and the JVM exits, so a class data sharing
+ * archive can be recorded from them (see the cds profile in pom.xml):
+ * ConsoleDemo, then the landing page until it is interactive.
+ */
+public class Launcher {
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--train")) {
+            train(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            Application.launch(SmartEcommerceApp.class, args);
+        }
+    }
+
+    private static void train(String[] args) {
+        long start = System.nanoTime();
+        println("Training run: ConsoleDemo");
+        try {
+            ConsoleDemo.main(args);
+        } catch (Exception e) {
+            // A missing database still loads the driver and configuration classes
+            printE("Training run: ConsoleDemo failed: " + e.getMessage());
+        }
+
+        println("Training run: landing page");
+        System.setProperty(StartupOrchestrator.EXIT_WHEN_INTERACTIVE, "true");
+        try {
+            Application.launch(SmartEcommerceApp.class, args);
+        } catch (Exception e) {
+            // No display (e.g. a headless build machine): the archive only covers the console path
+            printE("Training run: landing page skipped: " + e.getMessage());
+        }
+
+        println("Training run finished in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        // Background pools would keep the JVM alive; the archive is written on exit
+        System.exit(0);
+    }
+}
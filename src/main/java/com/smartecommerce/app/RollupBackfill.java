@@ -0,0 +1,30 @@
+package com.smartecommerce.app;
+
+import com.smartecommerce.config.DatabaseConfig;
+import com.smartecommerce.service.SalesRollupService;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+
+/**
+ * RollupBackfill - command-line rebuild of the sales rollup tables
+ *
+ * Usage: RollupBackfill
+ * Rebuilds the rollups from the first order up to today and records the backfill, after which
+ * reports read the rollups instead of scanning Orders. Safe to run again at any time.
+ */
+public class RollupBackfill {
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            printE("Usage: RollupBackfill");
+            System.exit(2);
+        }
+        if (!DatabaseConfig.testConnection()) {
+            printE("❌ Database connection failed - check config/app.properties");
+            System.exit(1);
+        }
+
+        int chunks = new SalesRollupService().backfill();
+        System.exit(chunks < 0 ? 1 : 0);
+    }
+}
@@ -1,28 +1,32 @@
 package com.smartecommerce.app;
 
 import com.smartecommerce.models.User;
-import com.smartecommerce.utils.SecurityUtils;
+import com.smartecommerce.service.TokenService;
+import com.smartecommerce.service.TokenSession;
+import com.smartecommerce.utils.FXMLCache;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 import static com.smartecommerce.utils.AppUtils.println;
 
 /**
- * SessionManager handles user sessions with security features
+ * SessionManager holds the signed-in user of the desktop app
  * Implements Singleton pattern
+ *
+ * The session itself is a token from TokenService, the same kind the JSON API hands out, so
+ * validity is an expiry check and roles come from the token's claims. Activity renews the
+ * token, which keeps the 30 minute inactivity timeout. State is swapped in one volatile write,
+ * so background tasks reading the session never see half of a login or logout.
  */
 public class SessionManager {
 
-    private static SessionManager instance;
-    private User currentUser;
-    private String sessionId;
-    private LocalDateTime sessionStartTime;
-    private LocalDateTime lastActivityTime;
-    private static final long SESSION_TIMEOUT_MINUTES = 30;
+    private static volatile SessionManager instance;
+    private final TokenService tokenService;
+    private volatile State state = State.EMPTY;
 
     private SessionManager() {
-        // Private constructor for singleton
+        this.tokenService = TokenService.getInstance();
     }
 
     /**
@@ -40,55 +44,60 @@ public class SessionManager {
     }
 
     /**
-     * Create new session
+     * Create new session for the current user
      */
-    public void createSession() {
-        this.sessionId = SecurityUtils.generateSessionId();
-        this.sessionStartTime = LocalDateTime.now();
-        this.lastActivityTime = LocalDateTime.now();
+    public synchronized void createSession() {
+        User user = state.user;
+        if (user == null) {
+            return;
+        }
+        TokenSession session = tokenService.issue(user);
+        state = new State(user, session, Instant.now());
 
-        println("Session created: " + sessionId);
-        println("Session start time: " + sessionStartTime);
+        println("Session created: " + session.getTokenId());
+        println("Session start time: " + state.startTime);
     }
 
     /**
      * Destroy current session
      */
-    public void destroySession() {
-        if (currentUser != null) {
-            println("Session destroyed for user: " + currentUser.getUsername());
+    public synchronized void destroySession() {
+        State ended = state;
+        if (ended.user != null) {
+            println("Session destroyed for user: " + ended.user.getUsername());
         }
-        this.currentUser = null;
-        this.sessionId = null;
-        this.sessionStartTime = null;
-        this.lastActivityTime = null;
+        tokenService.revoke(ended.session);
+        state = State.EMPTY;
+        // Cached screens hold the previous user's data
+        FXMLCache.getInstance().clear();
     }
 
     /**
-     * Update last activity time
+     * Record activity: renews the token, so the session lasts another full timeout from now
      */
-    public void updateActivity() {
-        this.lastActivityTime = LocalDateTime.now();
+    public synchronized void updateActivity() {
+        State current = state;
+        if (current.session == null || current.session.isExpired()) {
+            return;
+        }
+        TokenSession renewed = tokenService.issue(current.user);
+        tokenService.revoke(current.session);
+        state = new State(current.user, renewed, current.startTime);
     }
 
     /**
      * Check if session is valid
      */
     public boolean isSessionValid() {
-        if (sessionId == null || currentUser == null) {
+        TokenSession session = state.session;
+        if (session == null) {
             return false;
         }
-
-        // Check session timeout
-        if (lastActivityTime != null) {
-            long minutesSinceLastActivity = ChronoUnit.MINUTES.between(lastActivityTime, LocalDateTime.now());
-            if (minutesSinceLastActivity > SESSION_TIMEOUT_MINUTES) {
-                println("Session timed out");
-                destroySession();
-                return false;
-            }
+        if (session.isExpired()) {
+            println("Session timed out");
+            destroySession();
+            return false;
         }
-
         return true;
     }
 
@@ -103,40 +112,51 @@ public class SessionManager {
      * Check if user has specific role
      */
     public boolean hasRole(String role) {
-        return currentUser != null && role.equals(currentUser.getRole());
+        TokenSession session = state.session;
+        return session != null && session.hasRole(role);
     }
 
     /**
      * Check if user is admin
      */
     public boolean isAdmin() {
-        return hasRole("ADMIN");
+        TokenSession session = state.session;
+        return session != null && session.isAdmin();
     }
 
     /**
      * Get session duration in minutes
      */
     public long getSessionDuration() {
-        if (sessionStartTime == null) {
+        Instant startTime = state.startTime;
+        if (startTime == null) {
             return 0;
         }
-        return ChronoUnit.MINUTES.between(sessionStartTime, LocalDateTime.now());
+        return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis() - startTime.toEpochMilli());
     }
 
     /**
      * Get time until session timeout
      */
     public long getTimeUntilTimeout() {
-        if (lastActivityTime == null) {
+        TokenSession session = state.session;
+        if (session == null) {
             return 0;
         }
-        long minutesSinceLastActivity = ChronoUnit.MINUTES.between(lastActivityTime, LocalDateTime.now());
-        return SESSION_TIMEOUT_MINUTES - minutesSinceLastActivity;
+        return TimeUnit.MILLISECONDS.toMinutes(session.getExpiresAtMillis() - System.currentTimeMillis());
+    }
+
+    /**
+     * Signed session token of the current user, e.g. to call the JSON API as them
+     */
+    public String getToken() {
+        TokenSession session = state.session;
+        return session != null ? session.getToken() : null;
     }
 
     // Getters and setters
     public User getCurrentUser() {
-        return currentUser;
+        return state.user;
     }
 
     /**
@@ -147,11 +167,17 @@ public class SessionManager {
     }
 
     public Integer getUserId() {
-        return currentUser != null ? currentUser.getUserId() : null;
+        User user = state.user;
+        return user != null ? user.getUserId() : null;
     }
 
-    public void setCurrentUser(User currentUser) {
-        this.currentUser = currentUser;
+    /**
+     * Set the signed-in user; createSession then issues their token
+     */
+    public synchronized void setCurrentUser(User currentUser) {
+        // A token of the previous user must not outlive the switch
+        tokenService.revoke(state.session);
+        state = new State(currentUser, null, null);
     }
 
     /**
@@ -161,7 +187,20 @@ public class SessionManager {
         getInstance().destroySession();
     }
 
+    /**
+     * The user, their token and when the session started, replaced as a whole
+     */
+    private static final class State {
+        private static final State EMPTY = new State(null, null, null);
 
+        private final User user;
+        private final TokenSession session;
+        private final Instant startTime;
 
+        State(User user, TokenSession session, Instant startTime) {
+            this.user = user;
+            this.session = session;
+            this.startTime = startTime;
+        }
+    }
 }
-
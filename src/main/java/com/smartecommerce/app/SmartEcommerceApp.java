@@ -1,6 +1,7 @@
 package com.smartecommerce.app;
 
 
+import com.smartecommerce.metrics.MetricsServer;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 
@@ -22,46 +23,33 @@ import static com.smartecommerce.utils.AppUtils.println;
  * Entry point for the Smart E-Commerce System
  */
 public class SmartEcommerceApp extends Application {
+    private MetricsServer metricsServer;
 
     @Override
     public void start(Stage primaryStage) {
-        // Show landing (public) page first
-        try {
-            FXMLLoader loader = new FXMLLoader(
-                getClass().getResource("/smartecommerce/ui/views/landing.fxml")
-            );
-            Parent root = loader.load();
-            Scene scene = new Scene(root);
+        // Optional Prometheus endpoint (metrics.enabled in config/app.properties)
+        metricsServer = MetricsServer.startIfEnabled();
 
-            // Make the scene background black
-            root.setStyle("-fx-background-color: black;");
+        primaryStage.setTitle("Smart E-Commerce System - Home");
+        // Landing page is responsive; allow resizing
+        primaryStage.setResizable(true);
 
-            primaryStage.setTitle("Smart E-Commerce System - Home");
-            primaryStage.setScene(scene);
-            // Landing page is responsive; allow resizing
-            primaryStage.setResizable(true);
-
-            // Add application icon (logo) with error handling
-            try {
-                Image icon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/logo.jpg")));
-                if (!icon.isError()) {
-                    primaryStage.getIcons().add(icon);
-                } else {
-                    printE("Warning: Logo image could not be loaded");
-                }
-            } catch (Exception iconEx) {
-                printE("Warning: Could not load application icon: " + iconEx.getMessage());
-                // Continue without icon - not a critical error
+        // Add application icon (logo) with error handling
+        try {
+            Image icon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/logo.jpg")));
+            if (!icon.isError()) {
+                primaryStage.getIcons().add(icon);
+            } else {
+                printE("Warning: Logo image could not be loaded");
             }
-
-            primaryStage.show();
-        } catch (Exception e) {
-            printE("Error loading landing page: " + e.getMessage());
-            e.printStackTrace();
-
-            // Fallback to old login screen if landing page fails
-            loadFallbackLogin(primaryStage);
+        } catch (Exception iconEx) {
+            printE("Warning: Could not load application icon: " + iconEx.getMessage());
+            // Continue without icon - not a critical error
         }
+
+        // Show landing (public) page first: a skeleton right away, then the page and its sections
+        // Falls back to the old login screen if the landing page fails
+        new StartupOrchestrator(primaryStage, () -> loadFallbackLogin(primaryStage)).start();
     }
 
     /**
@@ -90,6 +78,9 @@ public class SmartEcommerceApp extends Application {
 
     @Override
     public void stop() {
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
         println("Application closed");
     }
 
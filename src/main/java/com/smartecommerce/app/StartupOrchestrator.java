@@ -0,0 +1,256 @@
+package com.smartecommerce.app;
+
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.config.DatabaseConfig;
+import com.smartecommerce.controllers.LandingController;
+import com.smartecommerce.metrics.Gauge;
+import com.smartecommerce.metrics.MetricsRegistry;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.service.ProductService;
+import com.smartecommerce.utils.AsyncTaskManager;
+import com.smartecommerce.utils.ImageCache;
+import com.smartecommerce.utils.TaskPriority;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+import static com.smartecommerce.utils.AppUtils.println;
+
+/**
+ * StartupOrchestrator brings up the landing page in stages
+ *
+ * 1. A skeleton of the page is shown right away, so the window paints before any FXML or data.
+ * 2. In parallel, off the FX thread: landing.fxml is parsed, a database connection is opened
+ *    once (loading the driver and warming the connection path) and the catalog is fetched.
+ *    Once the catalog is in, thumbnails of the first images.preload.count products are
+ *    generated if missing and start decoding, so the grid's first render finds them cached.
+ *    The grid waits at most images.preload.maxWaitMillis for this (e.g. on a first run).
+ * 3. The parsed page replaces the skeleton, then its sections (categories, recently viewed,
+ *    top purchased, products) load in parallel, each filled in as its data arrives.
+ *
+ * Time to first paint, time to interactive (every section filled in) and time until the
+ * preloaded product images are decoded are logged and exported as
+ * smartecommerce_startup_seconds, measured from process start.
+ */
+public class StartupOrchestrator {
+    /** System property: exit once the landing page is interactive (training runs) */
+    public static final String EXIT_WHEN_INTERACTIVE = "startup.exitWhenInteractive";
+
+    private static final String LANDING_VIEW = "/smartecommerce/ui/views/landing.fxml";
+    // Size of landing.fxml, so the window does not change size when the page replaces the skeleton
+    private static final double WIDTH = 1200;
+    private static final double HEIGHT = 600;
+    private static final String SKELETON_BLOCK = "-fx-background-color: #e5e7eb; -fx-background-radius: 8;";
+    // About the first two screens of the landing grid
+    private static final int DEFAULT_PRELOADED_IMAGES = 24;
+    private static final long DEFAULT_PRELOAD_WAIT_MILLIS = 2000;
+
+    private static final Gauge FIRST_PAINT = MetricsRegistry.getInstance().gauge(
+            "smartecommerce_startup_seconds", "Seconds from process start to each startup phase", "phase", "first_paint");
+    private static final Gauge INTERACTIVE = MetricsRegistry.getInstance().gauge(
+            "smartecommerce_startup_seconds", "Seconds from process start to each startup phase", "phase", "interactive");
+    private static final Gauge PRODUCT_IMAGES = MetricsRegistry.getInstance().gauge(
+            "smartecommerce_startup_seconds", "Seconds from process start to each startup phase", "phase", "product_images");
+
+    private final Stage stage;
+    private final Runnable fallback;
+    private final Instant processStart;
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param fallback shown instead if the landing page cannot be loaded
+     */
+    public StartupOrchestrator(Stage stage, Runnable fallback) {
+        this.stage = stage;
+        this.fallback = fallback;
+        this.processStart = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+    }
+
+    /**
+     * Show the skeleton and start loading the landing page; call on the FX thread
+     */
+    public void start() {
+        Scene scene = new Scene(createSkeleton(), WIDTH, HEIGHT);
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                // The first pulse after show lays out and renders the skeleton
+                scene.removePostLayoutPulseListener(this);
+                FIRST_PAINT.set(sinceProcessStart().toMillis() / 1000.0);
+                println("Startup: first paint " + describe());
+            }
+        });
+        stage.setScene(scene);
+        stage.show();
+
+        CompletableFuture<Void> database = AsyncTaskManager.supplyAsync(TaskPriority.INTERACTIVE, () -> {
+            try (Connection connection = DatabaseConfig.getConnectionWithProps()) {
+                connection.isValid(2);
+            }
+            return null;
+        });
+        database.whenComplete((ignored, error) -> {
+            if (error != null) {
+                printE("Startup: database warm-up failed: " + error.getMessage());
+            }
+        });
+        CompletableFuture<List<Product>> catalog = AsyncTaskManager.supplyAsync(
+                TaskPriority.INTERACTIVE, () -> new ProductService().getAllProducts())
+                .thenCompose(this::preloadImages);
+
+        AsyncTaskManager.supplyAsync(TaskPriority.INTERACTIVE, () -> loadLanding(catalog))
+                .whenComplete((loader, error) -> Platform.runLater(() -> {
+                    if (error != null) {
+                        // Some controls can only be built on the FX thread; retry there before giving up
+                        printE("Startup: background load of landing page failed, retrying: " + error.getMessage());
+                        showLandingOnFxThread(scene, catalog);
+                    } else {
+                        showLanding(scene, loader);
+                    }
+                }));
+    }
+
+    /**
+     * Generate and start decoding the thumbnails the landing grid shows first
+     * @return the products, once the thumbnails are ready to decode or the wait is over
+     */
+    private CompletableFuture<List<Product>> preloadImages(List<Product> products) {
+        if (products == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        int count = Math.min(products.size(), config.getInt("images.preload.count", DEFAULT_PRELOADED_IMAGES));
+        if (count <= 0) {
+            return CompletableFuture.completedFuture(products);
+        }
+        CompletableFuture<List<CompletableFuture<Void>>> generated = AsyncTaskManager.supplyAsync(
+                TaskPriority.INTERACTIVE, () -> {
+                    List<CompletableFuture<Void>> decoded = new ArrayList<>();
+                    for (Product product : products.subList(0, count)) {
+                        decoded.add(ImageCache.getInstance().preloadThumbnail(product.getImageUrl()));
+                    }
+                    return decoded;
+                });
+        generated.whenComplete((decoded, error) -> {
+            if (error != null) {
+                printE("Startup: preloading product images failed: " + error.getMessage());
+                return;
+            }
+            CompletableFuture.allOf(decoded.toArray(new CompletableFuture[0])).thenRun(() -> {
+                PRODUCT_IMAGES.set(sinceProcessStart().toMillis() / 1000.0);
+                println("Startup: first " + count + " product images decoded " + describe());
+            });
+        });
+        return generated.handle((decoded, error) -> products)
+                .completeOnTimeout(products, config.getLong("images.preload.maxWaitMillis",
+                        DEFAULT_PRELOAD_WAIT_MILLIS), TimeUnit.MILLISECONDS);
+    }
+
+    private static FXMLLoader loadLanding(CompletableFuture<List<Product>> catalog) throws Exception {
+        FXMLLoader loader = new FXMLLoader(StartupOrchestrator.class.getResource(LANDING_VIEW));
+        // Defers the section loads until the page is on screen, and hands over the catalog fetch
+        loader.setControllerFactory(type -> {
+            if (type == LandingController.class) {
+                return new LandingController(catalog);
+            }
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create controller " + type.getName(), e);
+            }
+        });
+        loader.load();
+        return loader;
+    }
+
+    private void showLandingOnFxThread(Scene scene, CompletableFuture<List<Product>> catalog) {
+        try {
+            showLanding(scene, loadLanding(catalog));
+        } catch (Exception e) {
+            printE("Error loading landing page: " + e.getMessage());
+            e.printStackTrace();
+            fallback.run();
+            if (Boolean.getBoolean(EXIT_WHEN_INTERACTIVE)) {
+                Platform.exit();
+            }
+        }
+    }
+
+    private void showLanding(Scene scene, FXMLLoader loader) {
+        Parent root = loader.getRoot();
+        // Make the scene background black
+        root.setStyle("-fx-background-color: black;");
+        scene.setRoot(root);
+        println("Startup: landing page shown " + describe());
+
+        LandingController controller = loader.getController();
+        // Callbacks of the section loads are queued before this one, so it runs once they are all applied
+        controller.loadSections().whenComplete((ignored, error) -> Platform.runLater(() -> {
+            INTERACTIVE.set(sinceProcessStart().toMillis() / 1000.0);
+            println("Startup: interactive " + describe() + (error != null ? " (some sections failed)" : ""));
+            if (Boolean.getBoolean(EXIT_WHEN_INTERACTIVE)) {
+                Platform.exit();
+            }
+        }));
+    }
+
+    private Duration sinceProcessStart() {
+        return Duration.between(processStart, Instant.now());
+    }
+
+    private String describe() {
+        return sinceProcessStart().toMillis() + " ms after launch ("
+                + (System.nanoTime() - startNanos) / 1_000_000 + " ms after start)";
+    }
+
+    /**
+     * Grey blocks in the shape of the landing page: top bar, hero and a row of product cards
+     */
+    private static Parent createSkeleton() {
+        Label brand = new Label("Smart E-Commerce");
+        brand.setStyle("-fx-text-fill: white; -fx-font-size: 20px; -fx-font-weight: bold;");
+        HBox topBar = new HBox(brand);
+        topBar.setPadding(new Insets(16, 24, 16, 24));
+        topBar.setStyle("-fx-background-color: #111827;");
+
+        Region hero = block(220);
+        HBox cards = new HBox(20);
+        for (int i = 0; i < 3; i++) {
+            Region card = block(280);
+            HBox.setHgrow(card, Priority.ALWAYS);
+            card.setMaxWidth(Double.MAX_VALUE);
+            cards.getChildren().add(card);
+        }
+
+        VBox content = new VBox(24, hero, block(28), cards);
+        content.setPadding(new Insets(24));
+        VBox root = new VBox(topBar, content);
+        root.setStyle("-fx-background-color: #f9fafb;");
+        return root;
+    }
+
+    private static Region block(double height) {
+        Region block = new Region();
+        block.setMinHeight(height);
+        block.setPrefHeight(height);
+        block.setStyle(SKELETON_BLOCK);
+        return block;
+    }
+}
@@ -95,7 +95,8 @@ public class ConfigManager {
         while (matcher.find()) {
             String envKey = matcher.group(1);
             String defaultValue = matcher.group(2);
-            String envValue = System.getenv(envKey);
+            // -DKEY=value on the command line wins over the environment (used by forked benchmark JVMs)
+            String envValue = System.getProperty(envKey, System.getenv(envKey));
             String propertyValue = properties.getProperty(envKey);
             String resolved = envValue != null ? envValue : (propertyValue != null ? propertyValue : defaultValue);
             matcher.appendReplacement(buffer, Matcher.quoteReplacement(resolved));
@@ -149,6 +150,7 @@ public class ConfigManager {
     public String getJdbcDriverClass() {
         return switch (getDatabaseType()) {
             case "postgresql", "postgres" -> "org.postgresql.Driver";
+            case "h2" -> "org.h2.Driver";
             default -> "com.mysql.cj.jdbc.Driver";
         };
     }
@@ -160,6 +162,13 @@ public class ConfigManager {
         String name = getString("database.name", "smart_ecommerce");
         StringBuilder url = new StringBuilder();
 
+        // In-memory H2 in MySQL mode, for benchmarks and local experiments (driver is test-scoped)
+        if ("h2".equals(type)) {
+            return url.append("jdbc:h2:mem:").append(name)
+                    .append(";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE")
+                    .toString();
+        }
+
         if ("postgresql".equals(type) || "postgres".equals(type)) {
             url.append("jdbc:postgresql://").append(host).append(":").append(port).append("/").append(name);
         } else {
@@ -7,6 +7,7 @@ import com.smartecommerce.performance.PerformanceReport;
 import com.smartecommerce.performance.QueryTimer;
 import com.smartecommerce.service.ProductService;
 import com.smartecommerce.service.ReportService;
+import com.smartecommerce.utils.AsyncTaskManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -76,14 +77,18 @@ public class AnaliticsController {
     @FXML
     private void handleSortDemo() {
         appendToConsole("\nRunning Sort Demonstration...\n");
-        try {
-            appendToConsole(SortDemo.demonstrateSorting());
-            appendToConsole("✓ Sort demo completed successfully.\n");
-            showStatus("Sort demo completed");
-        } catch (Exception e) {
-            appendToConsole("✗ Error: " + e.getMessage() + "\n");
-            showError("Sort demo failed");
-        }
+        // Sorting is CPU-bound, so it runs on the platform pool rather than a virtual thread
+        AsyncTaskManager.runCpuAsync(
+                SortDemo::demonstrateSorting,
+                result -> {
+                    appendToConsole(result);
+                    appendToConsole("✓ Sort demo completed successfully.\n");
+                    showStatus("Sort demo completed");
+                },
+                e -> {
+                    appendToConsole("✗ Error: " + e.getMessage() + "\n");
+                    showError("Sort demo failed");
+                });
     }
 
     @FXML
@@ -1,7 +1,11 @@
 package com.smartecommerce.controllers;
 
 import com.smartecommerce.utils.AsyncTaskManager;
+import com.smartecommerce.utils.CancellationToken;
+import com.smartecommerce.utils.TaskPriority;
 import com.smartecommerce.utils.UIUtils;
+import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import org.slf4j.Logger;
@@ -15,6 +19,9 @@ import java.util.function.Consumer;
  * BaseController - Abstract base class for all controllers
  * Provides reusable async data loading patterns with loading indicators
  * and consistent error handling
+ *
+ * Background work started through loadDataAsync belongs to this controller's
+ * CancellationToken, which is cancelled when the screen leaves its window
  */
 public abstract class BaseController {
 
@@ -26,6 +33,9 @@ public abstract class BaseController {
     // Status label for progress messages
     protected Label statusLabel;
 
+    // Owner of this screen's background tasks; replaced if the screen is shown again
+    private CancellationToken cancellationToken = new CancellationToken();
+
     /**
      * Initialize loading overlay
      * Call this in your controller's initialize method
@@ -48,10 +58,63 @@ public abstract class BaseController {
         loadingOverlay = UIUtils.createLoadingOverlay(message);
         if (parentContainer != null) {
             parentContainer.getChildren().add(loadingOverlay);
+            cancelOnNavigation(parentContainer);
         }
         return loadingOverlay;
     }
 
+    /**
+     * Cancel this screen's pending tasks once its root is replaced or its window closes
+     * Screens are swapped with stage.setScene, so leaving shows up as the scene losing its window
+     */
+    private void cancelOnNavigation(Node root) {
+        root.sceneProperty().addListener((sceneObs, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                cancelPendingTasks();
+            }
+            if (newScene != null) {
+                renewIfCancelled();
+                watchWindow(newScene);
+            }
+        });
+        if (root.getScene() != null) {
+            watchWindow(root.getScene());
+        }
+    }
+
+    private void watchWindow(Scene scene) {
+        scene.windowProperty().addListener((windowObs, oldWindow, newWindow) -> {
+            if (oldWindow != null && newWindow == null) {
+                cancelPendingTasks();
+            } else if (newWindow != null) {
+                renewIfCancelled();
+            }
+        });
+    }
+
+    private void renewIfCancelled() {
+        if (cancellationToken.isCancelled()) {
+            cancellationToken = new CancellationToken();
+        }
+    }
+
+    /**
+     * Token owning this screen's background tasks, for calls made directly on AsyncTaskManager
+     */
+    protected CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Drop this screen's queued tasks and stop delivering their callbacks
+     */
+    protected void cancelPendingTasks() {
+        if (!cancellationToken.isCancelled()) {
+            logger.debug("Cancelling pending tasks of {}", getClass().getSimpleName());
+            cancellationToken.cancel();
+        }
+    }
+
     /**
      * Load data asynchronously with loading indicator
      *
@@ -81,23 +144,45 @@ public abstract class BaseController {
             Consumer<T> onSuccess,
             Consumer<Throwable> onError) {
 
+        return loadDataAsync(TaskPriority.INTERACTIVE, null, dataLoader, onSuccess, onError);
+    }
+
+    /**
+     * Load data asynchronously in a priority lane, optionally sharing an identical in-flight load
+     *
+     * @param priority Lane to queue the load in
+     * @param dedupKey Loads with the same key share one run (null to always run)
+     * @param dataLoader The background task to load data
+     * @param onSuccess Callback when data loads successfully
+     * @param onError Custom error handler (if null, uses default)
+     * @param <T> The type of data being loaded
+     * @return CompletableFuture for the async operation
+     */
+    protected <T> CompletableFuture<T> loadDataAsync(
+            TaskPriority priority,
+            String dedupKey,
+            Callable<T> dataLoader,
+            Consumer<T> onSuccess,
+            Consumer<Throwable> onError) {
+
         showLoadingState();
 
         Consumer<Throwable> errorHandler = onError != null ? onError : this::handleAsyncError;
 
         return AsyncTaskManager.runAsync(
+            priority,
+            cancellationToken,
+            dedupKey,
             dataLoader,
+            // Also runs if the screen is left meanwhile, so the overlay never stays up
+            this::hideLoadingState,
             result -> {
-                hideLoadingState();
                 if (onSuccess != null) {
                     onSuccess.accept(result);
                 }
                 showCompletionState();
             },
-            throwable -> {
-                hideLoadingState();
-                errorHandler.accept(throwable);
-            }
+            errorHandler
         );
     }
 
@@ -128,23 +213,17 @@ public abstract class BaseController {
             Runnable onSuccess,
             Consumer<Throwable> onError) {
 
-        showLoadingState();
-
-        Consumer<Throwable> errorHandler = onError != null ? onError : this::handleAsyncError;
-
-        return AsyncTaskManager.runAsync(
-            dataLoader,
+        return loadDataAsync(
             () -> {
-                hideLoadingState();
+                dataLoader.run();
+                return null;
+            },
+            (Void ignored) -> {
                 if (onSuccess != null) {
                     onSuccess.run();
                 }
-                showCompletionState();
             },
-            throwable -> {
-                hideLoadingState();
-                errorHandler.accept(throwable);
-            }
+            onError
         );
     }
 
@@ -5,6 +5,7 @@ import com.smartecommerce.models.CartItem;
 import com.smartecommerce.models.Order;
 import com.smartecommerce.service.CartService;
 import com.smartecommerce.service.OrderService;
+import com.smartecommerce.utils.ImageCache;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
 import javafx.application.Platform;
@@ -24,9 +25,7 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.HashMap;
@@ -234,14 +233,8 @@ public class CartController {
         String imageUrl = cartItem.getProduct().getImageUrl();
         if (imageUrl != null && !imageUrl.trim().isEmpty()) {
             try {
-                boolean isWebUrl = imageUrl.startsWith("http://") || imageUrl.startsWith("https://");
-                final Image image;
-
-                if (isWebUrl) {
-                    image = new Image(imageUrl, 80, 80, true, true, true);
-                } else {
-                    image = loadLocalImage(imageUrl);
-                }
+                // Same instance as the landing grid's thumbnail, scaled down by the ImageView
+                final Image image = ImageCache.getInstance().getThumbnail(imageUrl);
 
                 if (image != null && !image.isError()) {
                     ImageView imageView = new ImageView(image);
@@ -322,101 +315,6 @@ public class CartController {
         return card;
     }
 
-    /**
-     * Load local image with multiple fallback strategies
-     */
-    private Image loadLocalImage(String imagePath) {
-        Image image = null;
-
-        LOGGER.fine("Attempting to load local image: " + imagePath);
-
-        // Strategy 1: Try as file path relative to project root
-        try {
-            File imageFile = new File(imagePath);
-            if (imageFile.exists() && imageFile.isFile()) {
-                String fileUrl = imageFile.toURI().toString();
-                LOGGER.fine("Strategy 1: Loading from file system: " + fileUrl);
-                image = new Image(fileUrl, 80, 80, true, true, true);
-                if (!image.isError()) {
-                    LOGGER.fine("✓ Successfully loaded from file system");
-                    return image;
-                }
-            } else {
-                LOGGER.fine("Strategy 1: File not found at: " + imageFile.getAbsolutePath());
-            }
-        } catch (Exception e) {
-            LOGGER.fine("Strategy 1 failed: " + e.getMessage());
-        }
-
-        // Strategy 2: Try as resource from classpath with leading slash
-        try {
-            String resourcePath = "/" + imagePath;
-            LOGGER.fine("Strategy 2: Trying classpath resource: " + resourcePath);
-            InputStream resourceStream = getClass().getResourceAsStream(resourcePath);
-            if (resourceStream != null) {
-                image = new Image(resourceStream, 80, 80, true, true);
-                resourceStream.close();
-                if (!image.isError()) {
-                    LOGGER.fine("✓ Successfully loaded from classpath (with /)");
-                    return image;
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.fine("Strategy 2 failed: " + e.getMessage());
-        }
-
-        // Strategy 3: Try without leading slash
-        try {
-            LOGGER.fine("Strategy 3: Trying classpath resource: " + imagePath);
-            InputStream resourceStream = getClass().getResourceAsStream(imagePath);
-            if (resourceStream != null) {
-                image = new Image(resourceStream, 80, 80, true, true);
-                resourceStream.close();
-                if (!image.isError()) {
-                    LOGGER.fine("✓ Successfully loaded from classpath (no /)");
-                    return image;
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.fine("Strategy 3 failed: " + e.getMessage());
-        }
-
-        // Strategy 4: Try with file:// prefix
-        try {
-            if (!imagePath.startsWith("file://")) {
-                String fileUrl = "file:///" + imagePath.replace("\\", "/");
-                LOGGER.fine("Strategy 4: Trying file URL: " + fileUrl);
-                image = new Image(fileUrl, 80, 80, true, true, true);
-                if (!image.isError()) {
-                    LOGGER.fine("✓ Successfully loaded with file:// prefix");
-                    return image;
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.fine("Strategy 4 failed: " + e.getMessage());
-        }
-
-        // Strategy 5: Try target/classes path (for Maven/Gradle builds)
-        try {
-            String targetPath = "target/classes/" + imagePath;
-            File targetFile = new File(targetPath);
-            if (targetFile.exists() && targetFile.isFile()) {
-                String fileUrl = targetFile.toURI().toString();
-                LOGGER.fine("Strategy 5: Loading from target/classes: " + fileUrl);
-                image = new Image(fileUrl, 80, 80, true, true, true);
-                if (!image.isError()) {
-                    LOGGER.fine("✓ Successfully loaded from target/classes");
-                    return image;
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.fine("Strategy 5 failed: " + e.getMessage());
-        }
-
-        LOGGER.warning("All image loading strategies failed for: " + imagePath);
-        return null;
-    }
-
     /**
      * Add a placeholder when image cannot be loaded
      */
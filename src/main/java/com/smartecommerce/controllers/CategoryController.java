@@ -2,6 +2,7 @@ package com.smartecommerce.controllers;
 
 import com.smartecommerce.dao.CategoryDAO;
 import com.smartecommerce.models.Category;
+import com.smartecommerce.utils.Refreshable;
 import com.smartecommerce.utils.UIUtils;
 import com.smartecommerce.utils.ValidationUtil;
 import javafx.collections.FXCollections;
@@ -18,7 +19,7 @@ import java.util.Optional;
  * CategoryController manages the category management UI with CRUD operations
  * Optimized with search, validation, and better UX
  */
-public class CategoryController {
+public class CategoryController implements Refreshable {
 
     @FXML private TableView<Category> categoryTable;
     @FXML private TableColumn<Category, Integer> colId;
@@ -85,6 +86,16 @@ public class CategoryController {
         }
     }
 
+    /**
+     * Reload categories when the cached view is shown again
+     */
+    @Override
+    public void refresh() {
+        if (categoryTable != null) {
+            loadCategories();
+        }
+    }
+
     private void loadCategories() {
         try {
             categoryList.clear();
@@ -1,13 +1,16 @@
 package com.smartecommerce.controllers;
 
+import com.smartecommerce.analytics.AnalyticsSnapshot;
+import com.smartecommerce.analytics.AnalyticsStore;
+import com.smartecommerce.analytics.DayBuckets;
+import com.smartecommerce.analytics.OrderColumns;
+import com.smartecommerce.analytics.OrderStatusCodes;
 import com.smartecommerce.app.SessionManager;
-import com.smartecommerce.dao.UserDAO;
-import com.smartecommerce.models.Order;
-import com.smartecommerce.models.Product;
 import com.smartecommerce.models.User;
-import com.smartecommerce.service.OrderService;
-import com.smartecommerce.service.ProductService;
 import com.smartecommerce.utils.AsyncTaskManager;
+import com.smartecommerce.utils.FXMLCache;
+import com.smartecommerce.utils.Refreshable;
+import com.smartecommerce.utils.TaskPriority;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -28,13 +31,13 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.text.NumberFormat;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * DashboardController - main controller for the admin dashboard UI.
@@ -50,7 +53,7 @@ import java.util.stream.Collectors;
  *
  * OPTIMIZED: Uses AsyncTaskManager for non-blocking data loading
  */
-public class DashboardController extends BaseController implements Initializable {
+public class DashboardController extends BaseController implements Initializable, Refreshable {
 
     private static final Logger LOGGER = Logger.getLogger(DashboardController.class.getName());
     private static final String FX_CONTROLLER = "fxController";
@@ -81,21 +84,13 @@ public class DashboardController extends BaseController implements Initializable
     @FXML public StackPane userGrowthChartContainer;
 
 
+    // Hero section and stats, kept so the cached dashboard can return to them
+    private List<Node> overviewContent;
+
     // Sub-controller references
     private SidebarController sidebarController;
     private TopbarController topbarController;
 
-    // Services for loading real data
-    private final OrderService orderService;
-    private final ProductService productService;
-    private final UserDAO userDAO;
-
-    public DashboardController() {
-        this.orderService = new OrderService();
-        this.productService = new ProductService();
-        this.userDAO = new UserDAO();
-    }
-
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Security Check: Verify admin access
@@ -105,6 +100,10 @@ public class DashboardController extends BaseController implements Initializable
             return;
         }
 
+        if (contentVBox != null) {
+            overviewContent = List.copyOf(contentVBox.getChildren());
+        }
+
         // Initialize loading overlay
         if (mainStack != null) {
             initializeLoadingOverlay(mainStack, "Loading dashboard data...");
@@ -119,73 +118,59 @@ public class DashboardController extends BaseController implements Initializable
         LOGGER.info("Admin Dashboard initialized successfully with async data loading");
     }
 
+    /**
+     * Reset the cached dashboard to its overview and reload the statistics when it is shown again
+     */
+    @Override
+    public void refresh() {
+        showOverview();
+        loadRealDashboardDataAsync();
+    }
+
     /**
      * Load real data from database asynchronously and populate dashboard statistics
-     * OPTIMIZED: Uses parallel async loading to prevent UI freezing
+     * OPTIMIZED: Refreshes the in-memory analytics columns incrementally and aggregates
+     * them in the background, so only a few numbers cross over to the UI thread
      */
     private void loadRealDashboardDataAsync() {
         showLoadingState("Loading dashboard statistics...");
 
         // Load data asynchronously
-        AsyncTaskManager.runAsync(() -> {
-            // Fetch all data in background
-            List<Order> allOrders = orderService.getAllOrders();
-            List<Product> allProducts = productService.getAllProducts();
-            List<User> allUsers = userDAO.findAll();
-
-            return new Object[] { allOrders, allProducts, allUsers };
-        }, result -> {
-            // UI update on JavaFX thread
-            Object[] data = (Object[]) result;
-            @SuppressWarnings("unchecked")
-            List<Order> allOrders = (List<Order>) data[0];
-            @SuppressWarnings("unchecked")
-            List<Product> allProducts = (List<Product>) data[1];
-            @SuppressWarnings("unchecked")
-            List<User> allUsers = (List<User>) data[2];
-
-                    // Calculate statistics
-                    int totalOrders = allOrders.size();
-                    int pendingOrders = (int) allOrders.stream()
-                            .filter(order -> "PENDING".equalsIgnoreCase(String.valueOf(order.getStatus())))
-                            .count();
-
-                    BigDecimal totalRevenue = allOrders.stream()
-                            .map(Order::getTotalAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    int totalProducts = allProducts.size();
-                    int totalUsers = allUsers != null ? allUsers.size() : 0;
-
-                    // Format and display data
-                    NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
-                    NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-
-                    safeSetText(ordersValue, numberFormat.format(totalOrders));
-                    safeSetText(revenueValue, currencyFormat.format(totalRevenue));
-                    safeSetText(productsValue, numberFormat.format(totalProducts));
-                    safeSetText(usersValue, numberFormat.format(totalUsers));
-
-                    // Set quick insight message with real data
-                    String insightMessage = pendingOrders > 0
-                            ? "You have " + pendingOrders + " pending order" + (pendingOrders > 1 ? "s" : "")
-                            : "All orders are up to date! 🎉";
-                    safeSetText(quickInsight, insightMessage);
+        AsyncTaskManager.runAsync(
+                TaskPriority.BACKGROUND,
+                getCancellationToken(),
+                "dashboard-figures",
+                () -> DashboardFigures.from(AnalyticsStore.getInstance().refresh(), LocalDate.now()),
+                this::hideLoadingState,
+                (DashboardFigures figures) -> {
+            // Format and display data
+            NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
+            NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
+
+            safeSetText(ordersValue, numberFormat.format(figures.totalOrders));
+            safeSetText(revenueValue, currencyFormat.format(figures.totalRevenue));
+            safeSetText(productsValue, numberFormat.format(figures.totalProducts));
+            safeSetText(usersValue, numberFormat.format(figures.totalUsers));
+
+            // Set quick insight message with real data
+            int pendingOrders = figures.statusCounts[OrderStatusCodes.PENDING];
+            String insightMessage = pendingOrders > 0
+                    ? "You have " + pendingOrders + " pending order" + (pendingOrders > 1 ? "s" : "")
+                    : "All orders are up to date! 🎉";
+            safeSetText(quickInsight, insightMessage);
 
             LOGGER.info(String.format("Dashboard data loaded async: Orders=%d, Revenue=%s, Products=%d, Users=%d",
-                    totalOrders,
-                    currencyFormat.format(totalRevenue),
-                    totalProducts,
-                    totalUsers));
+                    figures.totalOrders,
+                    currencyFormat.format(figures.totalRevenue),
+                    figures.totalProducts,
+                    figures.totalUsers));
 
             // Initialize charts with loaded data
-            initializeCharts(allOrders, allProducts, allUsers);
+            initializeCharts(figures);
 
-            hideLoadingState();
             showCompletionState("Dashboard loaded successfully");
         }, throwable -> {
             LOGGER.log(Level.SEVERE, "Failed to load dashboard data", throwable);
-            hideLoadingState();
             handleAsyncError(throwable);
             loadPlaceholderData();
         });
@@ -312,24 +297,20 @@ public class DashboardController extends BaseController implements Initializable
 
     /**
      * Load the default dashboard view (summary cards and tables)
-     * Reloads the entire dashboard to show hero section and stats
+     * Brings back the hero section and stats and reloads their data
      */
     public void loadDashboardView() {
-        try {
-            // Reload the entire dashboard scene
-            Stage stage = (Stage) root.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/smartecommerce/ui/views/admin/dashboard.fxml"));
-            Parent dashboardRoot = loader.load();
-            Scene scene = new Scene(dashboardRoot);
-            stage.setScene(scene);
-            stage.setTitle("Smart E-Commerce System - Admin Dashboard");
+        refresh();
+        updatePageTitle("Dashboard Overview");
+        LOGGER.info("Dashboard view reloaded successfully");
+    }
 
-            LOGGER.info("Dashboard view reloaded successfully");
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Failed to reload dashboard", e);
-            // Fallback: just refresh data
-            loadRealDashboardDataAsync();
-            updatePageTitle("Dashboard Overview");
+    /**
+     * Put the hero section and stats back if a center view replaced them
+     */
+    private void showOverview() {
+        if (contentVBox != null && overviewContent != null && !contentVBox.getChildren().equals(overviewContent)) {
+            contentVBox.getChildren().setAll(overviewContent);
         }
     }
 
@@ -344,7 +325,7 @@ public class DashboardController extends BaseController implements Initializable
 
     /**
      * Loads an FXML view into the main content area center. Replaces existing center children.
-     * Sub-controllers should implement any data binding after load.
+     * Views are cached, so showing one again reuses its nodes and refreshes its controller.
      */
     public void loadCenterView(String fxmlResource) {
         try {
@@ -354,13 +335,9 @@ public class DashboardController extends BaseController implements Initializable
                 showPlaceholderView("Resource not found: " + fxmlResource);
                 return;
             }
-            FXMLLoader loader = new FXMLLoader(res);
-            Node view = loader.load();
-
-            // Clear all children and add only the new view
+            // Replace all children with only the new view
             // This removes the hero section and stats cards
-            contentVBox.getChildren().clear();
-            contentVBox.getChildren().add(view);
+            FXMLCache.getInstance().showIn(contentVBox, fxmlResource);
 
             LOGGER.log(Level.INFO, "Loaded view: {0}", fxmlResource);
         } catch (IOException e) {
@@ -580,19 +557,19 @@ public class DashboardController extends BaseController implements Initializable
     /**
      * Initialize and populate all dashboard charts with real data
      */
-    private void initializeCharts(List<Order> orders, List<Product> products, List<User> users) {
+    private void initializeCharts(DashboardFigures figures) {
         Platform.runLater(() -> {
-            createSalesRevenueChart(orders);
-            createOrdersStatusChart(orders);
-            createTopCategoriesChart(products);
-            createUserGrowthChart(users);
+            createSalesRevenueChart(figures.months, figures.monthlyRevenueCents);
+            createOrdersStatusChart(figures.statusCounts);
+            createTopCategoriesChart(figures.topCategories);
+            createUserGrowthChart(figures.months, figures.monthlyUsers);
         });
     }
 
     /**
      * Create Sales Revenue Trend Chart (Line Chart)
      */
-    private void createSalesRevenueChart(List<Order> orders) {
+    private void createSalesRevenueChart(DayBuckets months, long[] monthlyRevenueCents) {
         if (salesChartContainer == null) return;
 
         try {
@@ -612,24 +589,9 @@ public class DashboardController extends BaseController implements Initializable
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Revenue");
 
-            // Group orders by month and calculate revenue
-            String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-            double[] monthlyRevenue = new double[12];
-
-            for (Order order : orders) {
-                if (order.getOrderDate() != null) {
-                    int month = order.getOrderDate().getMonthValue() - 1;
-                    if (month >= 0 && month < 12) {
-                        monthlyRevenue[month] += order.getTotalAmount().doubleValue();
-                    }
-                }
-            }
-
-            // Add data to chart (show last 6 months)
-            int currentMonth = java.time.LocalDate.now().getMonthValue() - 1;
-            for (int i = 0; i < 6; i++) {
-                int monthIndex = (currentMonth - 5 + i + 12) % 12;
-                series.getData().add(new XYChart.Data<>(months[monthIndex], monthlyRevenue[monthIndex]));
+            // Revenue is pre-aggregated per month for the last 6 months
+            for (int i = 0; i < months.size(); i++) {
+                series.getData().add(new XYChart.Data<>(months.getLabel(i), monthlyRevenueCents[i] / 100.0));
             }
 
             lineChart.getData().add(series);
@@ -647,24 +609,18 @@ public class DashboardController extends BaseController implements Initializable
     /**
      * Create Orders by Status Chart (Pie Chart)
      */
-    private void createOrdersStatusChart(List<Order> orders) {
+    private void createOrdersStatusChart(int[] statusCounts) {
         if (ordersChartContainer == null) return;
 
         try {
             PieChart pieChart = new PieChart();
             pieChart.setTitle("Order Status Distribution");
 
-            // Count orders by status
-            Map<String, Long> statusCounts = orders.stream()
-                .collect(Collectors.groupingBy(
-                    order -> String.valueOf(order.getStatus()),
-                    Collectors.counting()
-                ));
-
             // Add data to pie chart
-            for (Map.Entry<String, Long> entry : statusCounts.entrySet()) {
-                PieChart.Data slice = new PieChart.Data(entry.getKey(), entry.getValue());
-                pieChart.getData().add(slice);
+            for (int code = 0; code < statusCounts.length; code++) {
+                if (statusCounts[code] > 0) {
+                    pieChart.getData().add(new PieChart.Data(OrderStatusCodes.name(code), statusCounts[code]));
+                }
             }
 
             pieChart.setLegendVisible(true);
@@ -682,7 +638,7 @@ public class DashboardController extends BaseController implements Initializable
     /**
      * Create Top Categories Chart (Bar Chart)
      */
-    private void createTopCategoriesChart(List<Product> products) {
+    private void createTopCategoriesChart(Map<String, Integer> topCategories) {
         if (categoriesChartContainer == null) return;
 
         try {
@@ -699,19 +655,8 @@ public class DashboardController extends BaseController implements Initializable
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Products");
 
-            // Count products by category
-            Map<String, Long> categoryCounts = products.stream()
-                .filter(p -> p.getCategoryName() != null)
-                .collect(Collectors.groupingBy(
-                    Product::getCategoryName,
-                    Collectors.counting()
-                ));
-
-            // Add top 5 categories
-            categoryCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .forEach(entry -> series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue())));
+            // Top 5 categories, already sorted by product count
+            topCategories.forEach((name, count) -> series.getData().add(new XYChart.Data<>(name, count)));
 
             barChart.getData().add(series);
             barChart.setStyle("-fx-background-color: transparent;");
@@ -728,7 +673,7 @@ public class DashboardController extends BaseController implements Initializable
     /**
      * Create User Growth Chart (Area Chart)
      */
-    private void createUserGrowthChart(List<User> users) {
+    private void createUserGrowthChart(DayBuckets months, int[] monthlyUsers) {
         if (userGrowthChartContainer == null) return;
 
         try {
@@ -745,24 +690,9 @@ public class DashboardController extends BaseController implements Initializable
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("New Users");
 
-            // Group users by month
-            String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-            int[] monthlyUsers = new int[12];
-
-            for (User user : users) {
-                if (user.getCreatedAt() != null) {
-                    int month = user.getCreatedAt().getMonthValue() - 1;
-                    if (month >= 0 && month < 12) {
-                        monthlyUsers[month]++;
-                    }
-                }
-            }
-
-            // Add data for last 6 months
-            int currentMonth = java.time.LocalDate.now().getMonthValue() - 1;
-            for (int i = 0; i < 6; i++) {
-                int monthIndex = (currentMonth - 5 + i + 12) % 12;
-                series.getData().add(new XYChart.Data<>(months[monthIndex], monthlyUsers[monthIndex]));
+            // Registrations are pre-aggregated per month for the last 6 months
+            for (int i = 0; i < months.size(); i++) {
+                series.getData().add(new XYChart.Data<>(months.getLabel(i), monthlyUsers[i]));
             }
 
             areaChart.getData().add(series);
@@ -777,4 +707,40 @@ public class DashboardController extends BaseController implements Initializable
         }
     }
 
+    /**
+     * Dashboard numbers aggregated from an analytics snapshot off the UI thread
+     */
+    private static final class DashboardFigures {
+        private static final int CHART_MONTHS = 6;
+        private static final int TOP_CATEGORIES = 5;
+
+        private int totalOrders;
+        private BigDecimal totalRevenue;
+        private int totalProducts;
+        private int totalUsers;
+        private int[] statusCounts;
+        private DayBuckets months;
+        private long[] monthlyRevenueCents;
+        private int[] monthlyUsers;
+        private Map<String, Integer> topCategories;
+
+        static DashboardFigures from(AnalyticsSnapshot snapshot, LocalDate today) {
+            OrderColumns orders = snapshot.getOrders();
+            DashboardFigures figures = new DashboardFigures();
+
+            figures.totalOrders = orders.size();
+            figures.totalRevenue = BigDecimal.valueOf(orders.sumAmountCents(null), 2);
+            figures.totalProducts = snapshot.getProducts().size();
+            figures.totalUsers = snapshot.getUsers().size();
+            figures.statusCounts = orders.countByStatus(null);
+
+            figures.months = DayBuckets.lastMonths(today, CHART_MONTHS);
+            int[] recent = orders.filter(figures.months.getFirstDay(), figures.months.getEndDay(), OrderStatusCodes.ALL);
+            figures.monthlyRevenueCents = orders.sumAmountCentsByBucket(recent, figures.months);
+            figures.monthlyUsers = snapshot.getUsers().countByBucket(figures.months);
+            figures.topCategories = snapshot.getProducts().topCategories(TOP_CATEGORIES);
+            return figures;
+        }
+    }
+
 }
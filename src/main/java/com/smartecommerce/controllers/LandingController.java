@@ -8,6 +8,11 @@ import com.smartecommerce.models.User;
 import com.smartecommerce.service.CartService;
 import com.smartecommerce.service.ProductService;
 import com.smartecommerce.service.ViewedProductsTracker;
+import com.smartecommerce.utils.AsyncTaskManager;
+import com.smartecommerce.utils.ImageCache;
+import com.smartecommerce.utils.TaskPriority;
+import com.smartecommerce.utils.VirtualGrid;
+import javafx.beans.value.ChangeListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -21,16 +26,14 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,7 +50,11 @@ import java.util.logging.Logger;
 public class LandingController extends BaseController {
 
     private static final Logger LOGGER = Logger.getLogger(LandingController.class.getName());
-    private static final int PRODUCTS_PER_PAGE = 9; // 3x3 grid for optimization
+    private static final int PRODUCT_COLUMNS = 3;
+    private static final double PRODUCT_ROW_HEIGHT = 300; // Fixed card height, so rows can be virtualized
+    private static final int PRODUCT_OVERSCAN_ROWS = 1; // Rows kept bound above and below the viewport
+    private static final String STOCK_BADGE_STYLE = "-fx-text-fill: white; -fx-padding: 4 8; "
+            + "-fx-font-size: 10px; -fx-font-weight: bold; -fx-background-radius: 3;";
     private static final int MAX_CATEGORIES_DISPLAY = 6; // Max categories on landing page
     private static final int MAX_RECENTLY_VIEWED = 6; // Max recently viewed products to display
     private static final int MAX_TOP_PURCHASED = 6; // Max top purchased products to display
@@ -60,7 +67,7 @@ public class LandingController extends BaseController {
     @FXML private Button btnCart;
     @FXML private Button btnShopNow;
     @FXML private VBox mainContent;
-    @FXML private GridPane productGrid;
+    @FXML private StackPane productGridHost;
 
     // New sections
     @FXML private VBox categoriesSection;
@@ -77,13 +84,30 @@ public class LandingController extends BaseController {
     // Store fetched products
     private List<Product> displayedProducts;
 
+    // Only creates cards for the rows in view and rebinds them on scroll
+    private VirtualGrid<Product> productGrid;
+
     // Track current filter
     private Integer currentCategoryFilter = null;
 
+    // Catalog fetched at launch while this view was parsed; used once, then products come from the database
+    private CompletableFuture<List<Product>> prefetchedProducts;
+    private final boolean deferSectionLoads;
+
     public LandingController() {
+        this(null);
+    }
+
+    /**
+     * Constructor for the startup sequence: products come from a catalog fetch started at launch,
+     * and sections are only loaded when loadSections is called, once the view is on screen
+     */
+    public LandingController(CompletableFuture<List<Product>> prefetchedProducts) {
         this.cartService = CartService.getInstance();
         this.productService = new ProductService();
         this.categoryDAO = new CategoryDAO();
+        this.prefetchedProducts = prefetchedProducts;
+        this.deferSectionLoads = prefetchedProducts != null;
     }
 
     @FXML
@@ -94,13 +118,12 @@ public class LandingController extends BaseController {
             // Check if user is already logged in
             checkUserSession();
 
-            // Load new sections
-            loadCategoriesSection();
-            loadRecentlyViewedSection();
-            loadTopPurchasedSection();
+            initializeProductGrid();
 
-            // Fetch products from database
-            loadProductsFromDatabase();
+            // At launch the startup sequence loads the sections once the view is on screen
+            if (!deferSectionLoads) {
+                loadSections();
+            }
 
             // Null-safety checks for all FXML components
             if (btnLogin != null) {
@@ -306,12 +329,25 @@ public class LandingController extends BaseController {
         }
     }
 
+    /**
+     * Load the categories, recently viewed, top purchased and product sections in parallel
+     * Each section is fetched off the FX thread and filled in as soon as its own data arrives
+     * @return completes once every section has been filled in (or has failed)
+     */
+    public CompletableFuture<Void> loadSections() {
+        return CompletableFuture.allOf(
+                loadCategoriesSection(),
+                loadRecentlyViewedSection(),
+                loadTopPurchasedSection(),
+                loadProductsFromDatabase());
+    }
+
     /**
      * Load products from database and display them asynchronously
      * OPTIMIZED: Non-blocking async operation with loading feedback
-     * Limits to first 9 products for performance
+     * Uses the catalog prefetched at launch the first time, if there is one
      */
-    private void loadProductsFromDatabase() {
+    private CompletableFuture<List<Product>> loadProductsFromDatabase() {
         LOGGER.info("Starting async product loading...");
 
         // Initialize loading overlay if mainContent is available
@@ -319,8 +355,17 @@ public class LandingController extends BaseController {
             initializeLoadingOverlay(mainContent, "Loading products...");
         }
 
-        loadDataAsync(
+        CompletableFuture<List<Product>> prefetched = prefetchedProducts;
+        prefetchedProducts = null;
+
+        return loadDataAsync(
+            TaskPriority.INTERACTIVE,
+            "products:all",
             () -> {
+                if (prefetched != null) {
+                    // Started at launch while this view was being parsed
+                    return prefetched.join();
+                }
                 // Background task: Fetch products from database
                 LOGGER.info("Fetching products from database in background...");
                 updateProgress("Fetching products...");
@@ -336,9 +381,8 @@ public class LandingController extends BaseController {
                     return;
                 }
 
-                // Limit to first 9 products for optimization (3x3 grid)
-                int limit = Math.min(allProducts.size(), PRODUCTS_PER_PAGE);
-                displayedProducts = allProducts.subList(0, limit);
+                // The grid is virtualized, so the whole catalog can be listed
+                displayedProducts = allProducts;
 
                 LOGGER.info("Loaded " + displayedProducts.size() + " products from database");
 
@@ -356,7 +400,21 @@ public class LandingController extends BaseController {
     }
 
     /**
-     * Display products dynamically in the product grid
+     * Create the virtualized product grid inside its FXML host
+     */
+    private void initializeProductGrid() {
+        if (productGridHost == null) {
+            LOGGER.warning("productGridHost is null - FXML binding may have failed");
+            return;
+        }
+        productGrid = new VirtualGrid<>(PRODUCT_COLUMNS, PRODUCT_ROW_HEIGHT, 20, PRODUCT_OVERSCAN_ROWS,
+                ProductCard::new);
+        productGrid.setMaxWidth(Double.MAX_VALUE);
+        productGridHost.getChildren().add(productGrid);
+    }
+
+    /**
+     * Display products in the virtualized product grid
      */
     private void displayProducts() {
         if (productGrid == null) {
@@ -364,326 +422,192 @@ public class LandingController extends BaseController {
             return;
         }
 
-        // Clear existing products
-        productGrid.getChildren().clear();
+        productGridHost.getChildren().removeIf(node -> node != productGrid);
 
         if (displayedProducts == null || displayedProducts.isEmpty()) {
             // Show no products message
             Label noProductsLabel = new Label("No products available");
             noProductsLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #666;");
-            productGrid.add(noProductsLabel, 0, 0);
+            productGridHost.getChildren().add(noProductsLabel);
+            StackPane.setAlignment(noProductsLabel, Pos.TOP_LEFT);
+            productGrid.setItems(List.of());
             return;
         }
 
-        // Display products in grid (3 columns)
-        int row = 0;
-        int col = 0;
-
-        for (int i = 0; i < displayedProducts.size(); i++) {
-            Product product = displayedProducts.get(i);
-
-            // Create product card
-            VBox productCard = createProductCard(product);
-
-            // Add to grid
-            productGrid.add(productCard, col, row);
-
-            // Update column and row
-            col++;
-            if (col >= 3) {
-                col = 0;
-                row++;
-            }
-        }
+        productGrid.setItems(displayedProducts);
 
         // Format price labels after display
         formatPriceLabels();
 
-        LOGGER.info("Displayed " + displayedProducts.size() + " products in grid");
+        LOGGER.info("Displaying " + displayedProducts.size() + " products in grid");
     }
 
     /**
-     * Create a product card UI component with image and stock information
+     * Reusable product card with image and stock information
+     * Built once, then rebound to whichever product scrolls into its slot
      */
-    private VBox createProductCard(Product product) {
-        VBox card = new VBox(8);
-        card.getStyleClass().add("product-card");
-        card.setMaxWidth(Double.MAX_VALUE); // Fill available width
-        card.setAlignment(Pos.TOP_LEFT);
-        card.setPadding(new Insets(10));
-
-        // Product image container with explicit styling
-        StackPane imageContainer = new StackPane();
-        imageContainer.setPrefHeight(150);
-        imageContainer.setPrefWidth(200);
-        imageContainer.setMinHeight(150);
-        imageContainer.setMinWidth(200);
-        imageContainer.setMaxHeight(150);
-        imageContainer.setStyle("-fx-background-color: #f3f4f6; -fx-border-color: #e5e7eb; -fx-border-width: 1px;");
-
-        // Try to load product image or use placeholder
-        if (product.getImageUrl() != null && !product.getImageUrl().trim().isEmpty()) {
-            String imageUrl = product.getImageUrl().trim();
-            LOGGER.info("=== Loading image for: " + product.getProductName());
-            LOGGER.info("    URL: " + imageUrl);
-
-            // Determine if URL is web or local and handle accordingly
-            boolean isWebUrl = imageUrl.startsWith("http://") || imageUrl.startsWith("https://");
-            LOGGER.info("    URL Type: " + (isWebUrl ? "WEB URL (External)" : "Local/Resource"));
-
-            try {
-                final Image image;
-
-                if (isWebUrl) {
-                    // Web URL - load directly
-                    image = new Image(imageUrl, 200, 150, true, true, true);
-                } else {
-                    // Local file path - try multiple loading strategies
-                    image = loadLocalImage(imageUrl, product.getProductName());
-                }
-
-                if (image == null) {
-                    LOGGER.warning("    ✗ Could not load image, using placeholder");
-                    addImagePlaceholder(imageContainer);
-                }
-
-                // Check if image creation failed immediately
-                if (image != null && image.isError()) {
-                    LOGGER.severe("    ✗ Image creation failed immediately!");
-                    Exception ex = image.getException();
-                    if (ex != null) {
-                        LOGGER.severe("    Error: " + ex.getMessage());
-                    }
-                    addImagePlaceholder(imageContainer);
-                } else if (image != null) {
-                    // Image loaded successfully - create ImageView
-                    final ImageView imageView = new ImageView(image);
-                    imageView.setFitWidth(200);
-                    imageView.setFitHeight(150);
-                    imageView.setPreserveRatio(true);
-                    imageView.setSmooth(true);
-                    imageView.setCache(true);
-
-                    // Add to container immediately
-                    imageContainer.getChildren().add(imageView);
-                    StackPane.setAlignment(imageView, Pos.CENTER);
-
-                    LOGGER.info("    ✓ ImageView created and added");
-                    LOGGER.info("    Initial image error state: " + image.isError());
-                    LOGGER.info("    Image object created: YES");
-
-                    // Track if placeholder was shown
-                    final boolean[] placeholderShown = {false};
-
-                    // Keep final reference for lambda
-                    final Image finalImage = image;
-                    final String finalImageUrl = imageUrl;
-
-                    // Monitor error property
-                    image.errorProperty().addListener((obs, wasError, isError) -> {
-                        if (isError && !placeholderShown[0]) {
-                            placeholderShown[0] = true;
-                            Exception ex = finalImage.getException();
-                            LOGGER.severe("    ✗✗✗ IMAGE ERROR DETECTED ✗✗✗");
-                            LOGGER.severe("    Product: " + product.getProductName());
-                            LOGGER.severe("    URL: " + finalImageUrl);
-                            if (ex != null) {
-                                LOGGER.severe("    Exception: " + ex.getClass().getName());
-                                LOGGER.severe("    Message: " + ex.getMessage());
-                                ex.printStackTrace();
-                            }
-                            javafx.application.Platform.runLater(() -> {
-                                if (imageContainer.getChildren().contains(imageView)) {
-                                    imageContainer.getChildren().remove(imageView);
-                                }
-                                addImagePlaceholder(imageContainer);
-                            });
-                        }
-                    });
-
-                    // Monitor progress property
-                    image.progressProperty().addListener((obs, oldVal, newVal) -> {
-                        double progress = newVal.doubleValue();
-                        if (progress >= 1.0 && !placeholderShown[0]) {
-                            LOGGER.info("    ✓✓✓ SUCCESS: Image loaded 100% ✓✓✓");
-                            LOGGER.info("    Product: " + product.getProductName());
-                            LOGGER.info("    Actual size: " + finalImage.getWidth() + "x" + finalImage.getHeight());
-                            LOGGER.info("    ImageView visible: " + imageView.isVisible());
-                            LOGGER.info("    ImageView in scene: " + (imageView.getScene() != null));
-                        } else if (progress > 0 && progress < 1.0) {
-                            LOGGER.info("    Loading: " + (int)(progress * 100) + "%");
-                        }
-                    });
-                }
-
-            } catch (Exception e) {
-                LOGGER.severe("    ✗ EXCEPTION creating Image:");
-                LOGGER.severe("    Type: " + e.getClass().getName());
-                LOGGER.severe("    Message: " + e.getMessage());
-                e.printStackTrace();
-                addImagePlaceholder(imageContainer);
+    private final class ProductCard implements VirtualGrid.Cell<Product> {
+        private final VBox card = new VBox(8);
+        private final StackPane imageContainer = new StackPane();
+        private final ImageView imageView = new ImageView();
+        private final VBox placeholder;
+        private final Label stockBadge = new Label();
+        private final Label nameLabel = new Label();
+        private final Label priceLabel = new Label();
+        private final Label stockLabel = new Label();
+        private final Button addToCartBtn = new Button();
+
+        private Product product;
+        private Image image;
+        private final ChangeListener<Boolean> imageErrorListener = (obs, wasError, isError) -> {
+            if (isError) {
+                Exception ex = image.getException();
+                LOGGER.severe("    ✗ Image failed to load for " + product.getProductName()
+                        + (ex != null ? " (" + ex.getMessage() + ")" : ""));
+                showPlaceholder();
             }
-        } else {
-            // No image URL - show placeholder
-            LOGGER.info("=== No image URL for: " + product.getProductName());
-            addImagePlaceholder(imageContainer);
-        }
+        };
+
+        ProductCard() {
+            card.getStyleClass().add("product-card");
+            card.setMaxWidth(Double.MAX_VALUE); // Fill available width
+            card.setAlignment(Pos.TOP_LEFT);
+            card.setPadding(new Insets(10));
+
+            // Product image container with explicit styling
+            imageContainer.setPrefHeight(150);
+            imageContainer.setPrefWidth(200);
+            imageContainer.setMinHeight(150);
+            imageContainer.setMinWidth(200);
+            imageContainer.setMaxHeight(150);
+            imageContainer.setStyle("-fx-background-color: #f3f4f6; -fx-border-color: #e5e7eb; -fx-border-width: 1px;");
+
+            imageView.setFitWidth(200);
+            imageView.setFitHeight(150);
+            imageView.setPreserveRatio(true);
+            imageView.setSmooth(true);
+            imageView.setCache(true);
 
-        // Stock badge overlay
-        if (product.getStockQuantity() <= 0) {
-            Label outOfStockBadge = new Label("OUT OF STOCK");
-            outOfStockBadge.setStyle(
-                "-fx-background-color: rgba(220, 38, 38, 0.9); " +
-                "-fx-text-fill: white; " +
-                "-fx-padding: 4 8; " +
-                "-fx-font-size: 10px; " +
-                "-fx-font-weight: bold; " +
-                "-fx-background-radius: 3;"
-            );
-            StackPane.setAlignment(outOfStockBadge, Pos.TOP_RIGHT);
-            StackPane.setMargin(outOfStockBadge, new Insets(8));
-            imageContainer.getChildren().add(outOfStockBadge);
-        } else if (product.getStockQuantity() <= 10) {
-            Label lowStockBadge = new Label("LOW STOCK");
-            lowStockBadge.setStyle(
-                "-fx-background-color: rgba(245, 158, 11, 0.9); " +
-                "-fx-text-fill: white; " +
-                "-fx-padding: 4 8; " +
-                "-fx-font-size: 10px; " +
-                "-fx-font-weight: bold; " +
-                "-fx-background-radius: 3;"
-            );
-            StackPane.setAlignment(lowStockBadge, Pos.TOP_RIGHT);
-            StackPane.setMargin(lowStockBadge, new Insets(8));
-            imageContainer.getChildren().add(lowStockBadge);
-        }
-
-        // Product name
-        Label nameLabel = new Label(product.getProductName());
-        nameLabel.getStyleClass().addAll("product-name");
-        nameLabel.setWrapText(true);
-        nameLabel.setMaxWidth(Double.MAX_VALUE);
-
-        // Price and stock info container
-        HBox infoBox = new HBox(10);
-        infoBox.setAlignment(Pos.CENTER_LEFT);
-
-        // Product price
-        Label priceLabel = new Label(product.getPrice().toString());
-        priceLabel.getStyleClass().add("price");
+            addImagePlaceholder(imageContainer);
+            placeholder = (VBox) imageContainer.getChildren().get(0);
+            imageContainer.getChildren().add(imageView);
+            StackPane.setAlignment(imageView, Pos.CENTER);
+
+            // Stock badge overlay
+            stockBadge.setStyle(STOCK_BADGE_STYLE + "-fx-background-color: rgba(220, 38, 38, 0.9);");
+            StackPane.setAlignment(stockBadge, Pos.TOP_RIGHT);
+            StackPane.setMargin(stockBadge, new Insets(8));
+            imageContainer.getChildren().add(stockBadge);
+
+            // Product name
+            nameLabel.getStyleClass().addAll("product-name");
+            nameLabel.setWrapText(true);
+            nameLabel.setMaxWidth(Double.MAX_VALUE);
+            nameLabel.setMaxHeight(40);
+
+            // Price and stock info container
+            HBox infoBox = new HBox(10);
+            infoBox.setAlignment(Pos.CENTER_LEFT);
+            priceLabel.getStyleClass().add("price");
+            infoBox.getChildren().addAll(priceLabel, stockLabel);
+
+            // Add to Cart button
+            addToCartBtn.getStyleClass().add("add-to-cart-btn");
+            addToCartBtn.setMaxWidth(Double.MAX_VALUE);
+            addToCartBtn.setOnAction(e -> {
+                if (product != null) {
+                    addProductToCart(product);
+                }
+            });
 
-        // Stock quantity label
-        Label stockLabel = new Label();
-        if (product.getStockQuantity() > 0) {
-            stockLabel.setText(product.getStockQuantity() + " in stock");
-            stockLabel.setStyle("-fx-text-fill: #10b981; -fx-font-size: 11px;");
-        } else {
-            stockLabel.setText("Out of stock");
-            stockLabel.setStyle("-fx-text-fill: #dc2626; -fx-font-size: 11px; -fx-font-weight: bold;");
+            card.getChildren().addAll(imageContainer, nameLabel, infoBox, addToCartBtn);
         }
 
-        infoBox.getChildren().addAll(priceLabel, stockLabel);
-
-        // Add to Cart button
-        Button addToCartBtn = new Button("Add to Cart");
-        addToCartBtn.getStyleClass().add("add-to-cart-btn");
-        addToCartBtn.setMaxWidth(Double.MAX_VALUE);
-
-        // Disable button if out of stock
-        if (product.getStockQuantity() <= 0) {
-            addToCartBtn.setDisable(true);
-            addToCartBtn.setText("Out of Stock");
-            addToCartBtn.setStyle("-fx-background-color: #9ca3af; -fx-text-fill: white;");
-        } else {
-            // Set event handler for this specific product
-            final Product currentProduct = product;
-            addToCartBtn.setOnAction(e -> addProductToCart(currentProduct));
+        @Override
+        public Node getNode() {
+            return card;
         }
 
-        // Add all components to card
-        card.getChildren().addAll(imageContainer, nameLabel, infoBox, addToCartBtn);
+        @Override
+        public void bind(Product product) {
+            this.product = product;
+            bindImage(product);
 
-        return card;
-    }
-
-    /**
-     * Load local image with multiple fallback strategies
-     * Tries: 1) File path from project root, 2) Resource from classpath, 3) Absolute file path
-     */
-    private Image loadLocalImage(String imagePath, String productName) {
-        Image image = null;
-
-        // Strategy 1: Try as file path relative to project root
-        try {
-            File imageFile = new File(imagePath);
-            if (imageFile.exists() && imageFile.isFile()) {
-                String fileUrl = imageFile.toURI().toString();
-                LOGGER.info("    Strategy 1: Loading from file system: " + fileUrl);
-                image = new Image(fileUrl, 200, 150, true, true, true);
-                if (!image.isError()) {
-                    LOGGER.info("    ✓ Successfully loaded from file system");
-                    return image;
-                }
+            if (product.getStockQuantity() <= 0) {
+                stockBadge.setText("OUT OF STOCK");
+                stockBadge.setStyle(STOCK_BADGE_STYLE + "-fx-background-color: rgba(220, 38, 38, 0.9);");
+                stockBadge.setVisible(true);
+            } else if (product.getStockQuantity() <= 10) {
+                stockBadge.setText("LOW STOCK");
+                stockBadge.setStyle(STOCK_BADGE_STYLE + "-fx-background-color: rgba(245, 158, 11, 0.9);");
+                stockBadge.setVisible(true);
             } else {
-                LOGGER.fine("    Strategy 1: File not found at: " + imageFile.getAbsolutePath());
+                stockBadge.setVisible(false);
             }
-        } catch (Exception e) {
-            LOGGER.fine("    Strategy 1 failed: " + e.getMessage());
-        }
 
-        // Strategy 2: Try as resource from classpath
-        try {
-            // Try loading as resource with leading slash
-            String resourcePath = "/" + imagePath;
-            InputStream resourceStream = getClass().getResourceAsStream(resourcePath);
-            if (resourceStream != null) {
-                LOGGER.info("    Strategy 2: Loading from classpath: " + resourcePath);
-                image = new Image(resourceStream, 200, 150, true, true);
-                resourceStream.close();
-                if (!image.isError()) {
-                    LOGGER.info("    ✓ Successfully loaded from classpath");
-                    return image;
-                }
+            nameLabel.setText(product.getProductName());
+            priceLabel.setText("$" + product.getPrice());
+
+            if (product.getStockQuantity() > 0) {
+                stockLabel.setText(product.getStockQuantity() + " in stock");
+                stockLabel.setStyle("-fx-text-fill: #10b981; -fx-font-size: 11px;");
+                addToCartBtn.setDisable(false);
+                addToCartBtn.setText("Add to Cart");
+                addToCartBtn.setStyle("");
             } else {
-                LOGGER.fine("    Strategy 2: Resource not found: " + resourcePath);
+                stockLabel.setText("Out of stock");
+                stockLabel.setStyle("-fx-text-fill: #dc2626; -fx-font-size: 11px; -fx-font-weight: bold;");
+                // Disable button if out of stock
+                addToCartBtn.setDisable(true);
+                addToCartBtn.setText("Out of Stock");
+                addToCartBtn.setStyle("-fx-background-color: #9ca3af; -fx-text-fill: white;");
             }
-        } catch (Exception e) {
-            LOGGER.fine("    Strategy 2 failed: " + e.getMessage());
         }
 
-        // Strategy 3: Try without leading slash
-        try {
-            InputStream resourceStream = getClass().getResourceAsStream(imagePath);
-            if (resourceStream != null) {
-                LOGGER.info("    Strategy 3: Loading from classpath (no slash): " + imagePath);
-                image = new Image(resourceStream, 200, 150, true, true);
-                resourceStream.close();
-                if (!image.isError()) {
-                    LOGGER.info("    ✓ Successfully loaded from classpath");
-                    return image;
-                }
+        @Override
+        public void unbind() {
+            if (image != null) {
+                image.errorProperty().removeListener(imageErrorListener);
+                // Off-screen now; the load stops only if no other card or screen holds the image
+                ImageCache.getInstance().release(image);
             }
-        } catch (Exception e) {
-            LOGGER.fine("    Strategy 3 failed: " + e.getMessage());
+            image = null;
+            product = null;
+            imageView.setImage(null);
         }
 
-        // Strategy 4: Try with "file://" prefix
-        try {
-            if (!imagePath.startsWith("file://")) {
-                String fileUrl = "file:///" + imagePath.replace("\\", "/");
-                LOGGER.info("    Strategy 4: Trying with file:// prefix: " + fileUrl);
-                image = new Image(fileUrl, 200, 150, true, true, true);
-                if (!image.isError()) {
-                    LOGGER.info("    ✓ Successfully loaded with file:// prefix");
-                    return image;
-                }
+        private void bindImage(Product product) {
+            String imageUrl = product.getImageUrl() != null ? product.getImageUrl().trim() : "";
+            if (imageUrl.isEmpty()) {
+                showPlaceholder();
+                return;
+            }
+            try {
+                // Shared with the top-purchased strip and the cart; decoded in the background
+                image = ImageCache.getInstance().acquireThumbnail(imageUrl);
+            } catch (Exception e) {
+                LOGGER.warning("    ✗ Could not create image for " + product.getProductName() + ": " + e.getMessage());
+                image = null;
+            }
+            if (image == null || image.isError()) {
+                ImageCache.getInstance().release(image);
+                image = null;
+                showPlaceholder();
+                return;
+            }
+            imageView.setImage(image);
+            imageView.setVisible(true);
+            placeholder.setVisible(false);
+            if (image.getProgress() < 1.0) {
+                image.errorProperty().addListener(imageErrorListener);
             }
-        } catch (Exception e) {
-            LOGGER.fine("    Strategy 4 failed: " + e.getMessage());
         }
 
-        LOGGER.warning("    ✗ All loading strategies failed for: " + imagePath);
-        return null;
+        private void showPlaceholder() {
+            imageView.setImage(null);
+            imageView.setVisible(false);
+            placeholder.setVisible(true);
+        }
     }
 
     /**
@@ -801,9 +725,7 @@ public class LandingController extends BaseController {
                     return;
                 }
 
-                // Limit search results for optimization
-                int limit = Math.min(searchResults.size(), PRODUCTS_PER_PAGE);
-                displayedProducts = searchResults.subList(0, limit);
+                displayedProducts = searchResults;
 
                 // Display search results
                 displayProducts();
@@ -900,20 +822,28 @@ public class LandingController extends BaseController {
 
     /**
      * Load Categories Section - Display max 6 categories with filtering capability
+     * Categories are fetched in the background
      */
-    private void loadCategoriesSection() {
-        try {
-            if (categoriesContainer == null) {
-                LOGGER.warning("categoriesContainer is null - FXML binding may have failed");
-                return;
-            }
+    private CompletableFuture<List<Category>> loadCategoriesSection() {
+        if (categoriesContainer == null) {
+            LOGGER.warning("categoriesContainer is null - FXML binding may have failed");
+            return CompletableFuture.completedFuture(null);
+        }
 
+        return AsyncTaskManager.runAsync(
+                TaskPriority.INTERACTIVE,
+                getCancellationToken(),
+                null,
+                categoryDAO::findAll,
+                this::showCategoriesSection,
+                throwable -> LOGGER.log(Level.SEVERE, "Error loading categories section", throwable));
+    }
+
+    private void showCategoriesSection(List<Category> categories) {
+        try {
             // Clear existing categories
             categoriesContainer.getChildren().clear();
 
-            // Fetch categories from database
-            List<Category> categories = categoryDAO.findAll();
-
             if (categories == null || categories.isEmpty()) {
                 LOGGER.warning("No categories found in database");
                 if (categoriesSection != null) {
@@ -1019,9 +949,7 @@ public class LandingController extends BaseController {
                 return;
             }
 
-            // Limit for optimization
-            int limit = Math.min(categoryProducts.size(), PRODUCTS_PER_PAGE);
-            displayedProducts = categoryProducts.subList(0, limit);
+            displayedProducts = categoryProducts;
 
             // Display filtered products
             displayProducts();
@@ -1060,33 +988,41 @@ public class LandingController extends BaseController {
 
     /**
      * Load Recently Viewed Section - Display products recently viewed by user
-     * Visible only to logged-in users
+     * Visible only to logged-in users; the products are fetched in the background
      */
-    private void loadRecentlyViewedSection() {
-        try {
-            if (recentlyViewedContainer == null) {
-                LOGGER.warning("recentlyViewedContainer is null - FXML binding may have failed");
-                return;
-            }
+    private CompletableFuture<List<Product>> loadRecentlyViewedSection() {
+        if (recentlyViewedContainer == null) {
+            LOGGER.warning("recentlyViewedContainer is null - FXML binding may have failed");
+            return CompletableFuture.completedFuture(null);
+        }
 
-            // Clear existing content
+        // Check if user is logged in
+        User currentUser = SessionManager.getInstance().getCurrentUser();
+        if (currentUser == null || !SessionManager.getInstance().isSessionValid()) {
+            // Hide section for guests
             recentlyViewedContainer.getChildren().clear();
-
-            // Check if user is logged in
-            User currentUser = SessionManager.getInstance().getCurrentUser();
-            if (currentUser == null || !SessionManager.getInstance().isSessionValid()) {
-                // Hide section for guests
-                if (recentlyViewedSection != null) {
-                    recentlyViewedSection.setVisible(false);
-                    recentlyViewedSection.setManaged(false);
-                }
-                return;
+            if (recentlyViewedSection != null) {
+                recentlyViewedSection.setVisible(false);
+                recentlyViewedSection.setManaged(false);
             }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Get recently viewed products for this user
+        return AsyncTaskManager.runAsync(
+                TaskPriority.INTERACTIVE,
+                getCancellationToken(),
+                null,
+                () -> ViewedProductsTracker.getRecentlyViewedProducts(
+                        currentUser.getUserId(), MAX_RECENTLY_VIEWED, productService),
+                this::showRecentlyViewedSection,
+                throwable -> LOGGER.log(Level.SEVERE, "Error loading recently viewed section", throwable));
+    }
 
-            // Get recently viewed products for this user
-            List<Product> recentlyViewed = ViewedProductsTracker.getRecentlyViewedProducts(
-                currentUser.getUserId(), MAX_RECENTLY_VIEWED, productService
-            );
+    private void showRecentlyViewedSection(List<Product> recentlyViewed) {
+        try {
+            // Clear existing content
+            recentlyViewedContainer.getChildren().clear();
 
             if (recentlyViewed == null || recentlyViewed.isEmpty()) {
                 // Hide section if no viewed products
@@ -1118,21 +1054,29 @@ public class LandingController extends BaseController {
 
     /**
      * Load Top Purchased Section - Display products with highest purchase frequency
-     * Visible to all users
+     * Visible to all users; the products are fetched in the background
      */
-    private void loadTopPurchasedSection() {
-        try {
-            if (topPurchasedContainer == null) {
-                LOGGER.warning("topPurchasedContainer is null - FXML binding may have failed");
-                return;
-            }
+    private CompletableFuture<List<Product>> loadTopPurchasedSection() {
+        if (topPurchasedContainer == null) {
+            LOGGER.warning("topPurchasedContainer is null - FXML binding may have failed");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Get top purchased products
+        return AsyncTaskManager.runAsync(
+                TaskPriority.INTERACTIVE,
+                getCancellationToken(),
+                null,
+                () -> productService.getTopPurchasedProducts(MAX_TOP_PURCHASED),
+                this::showTopPurchasedSection,
+                throwable -> LOGGER.log(Level.SEVERE, "Error loading top purchased section", throwable));
+    }
 
+    private void showTopPurchasedSection(List<Product> topPurchased) {
+        try {
             // Clear existing content
             topPurchasedContainer.getChildren().clear();
 
-            // Get top purchased products
-            List<Product> topPurchased = productService.getTopPurchasedProducts(MAX_TOP_PURCHASED);
-
             if (topPurchased == null || topPurchased.isEmpty()) {
                 // Hide section if no purchased products
                 if (topPurchasedSection != null) {
@@ -1184,15 +1128,9 @@ public class LandingController extends BaseController {
         // Try to load product image
         if (product.getImageUrl() != null && !product.getImageUrl().trim().isEmpty()) {
             String imageUrl = product.getImageUrl().trim();
-            boolean isWebUrl = imageUrl.startsWith("http://") || imageUrl.startsWith("https://");
 
             try {
-                final Image image;
-                if (isWebUrl) {
-                    image = new Image(imageUrl, 150, 120, true, true, true);
-                } else {
-                    image = loadLocalImage(imageUrl, product.getProductName());
-                }
+                final Image image = ImageCache.getInstance().getThumbnail(imageUrl);
 
                 if (image != null && !image.isError()) {
                     ImageView imageView = new ImageView(image);
@@ -1,8 +1,10 @@
 package com.smartecommerce.controllers;
 
 import com.smartecommerce.app.SessionManager;
-import com.smartecommerce.dao.UserDAO;
 import com.smartecommerce.models.User;
+import com.smartecommerce.service.LoginService;
+import com.smartecommerce.service.LoginService.LoginResult;
+import com.smartecommerce.utils.FXMLCache;
 import com.smartecommerce.utils.SecurityUtils;
 import com.smartecommerce.utils.UIUtils;
 import com.smartecommerce.utils.ValidationUtil;
@@ -26,12 +28,14 @@ public class LoginController {
     @FXML private Hyperlink linkSignup;
     @FXML private Label lblError;
 
-    private UserDAO userDAO;
+    private LoginService loginService;
     private int loginAttempts = 0;
     private static final int MAX_LOGIN_ATTEMPTS = 5;
+    // Rate limit key shared by sign-ins from this app; the per-name limit still applies
+    private static final String LOGIN_SOURCE = "desktop";
 
     public LoginController() {
-        this.userDAO = new UserDAO();
+        this.loginService = LoginService.getInstance();
     }
 
     @FXML
@@ -71,13 +75,14 @@ public class LoginController {
         }
 
         try {
-            // Hash the password using SecurityUtils
-            String hashedPassword = SecurityUtils.hashPassword(password);
-
-            // Authenticate user
-            User user = userDAO.authenticate(username, hashedPassword);
-
-            if (user != null) {
+            // Authenticate user (rate limited per login name)
+            LoginResult result = loginService.login(username, password, LOGIN_SOURCE);
+
+            if (result.isRateLimited()) {
+                showError("Too many login attempts. Please try again in "
+                        + result.getRetryAfter().toSeconds() + " seconds.");
+            } else if (result.isSuccess()) {
+                User user = result.getUser();
                 // Login successful
                 hideError();
                 loginAttempts = 0; // Reset attempts
@@ -128,7 +133,7 @@ public class LoginController {
             String viewTitle;
 
             if ("ADMIN".equalsIgnoreCase(user.getRole())) {
-                viewPath = "/smartecommerce/ui/views/admin/dashboard.fxml";
+                viewPath = FXMLCache.DASHBOARD_VIEW;
                 viewTitle = "Smart E-Commerce System - Admin Panel";
             } else {
                 // Non-admin users (customers) should be redirected to the public landing or customer dashboard
@@ -137,14 +142,20 @@ public class LoginController {
                 viewTitle = "Smart E-Commerce System - My Dashboard";
             }
 
-            // Load the appropriate view (FXML must be present under resources)
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(viewPath));
-            Parent root = loader.load();
-
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.setTitle(viewTitle);
-            stage.show();
+            if ("ADMIN".equalsIgnoreCase(user.getRole())) {
+                // Admin screens are cached; parse the rest in the background while the dashboard loads
+                FXMLCache.getInstance().show(stage, viewPath, viewTitle);
+                FXMLCache.getInstance().preloadAdminViews();
+            } else {
+                // Load the appropriate view (FXML must be present under resources)
+                FXMLLoader loader = new FXMLLoader(getClass().getResource(viewPath));
+                Parent root = loader.load();
+
+                Scene scene = new Scene(root);
+                stage.setScene(scene);
+                stage.setTitle(viewTitle);
+                stage.show();
+            }
 
             println("User " + user.getUsername() + " redirected to " +
                   (user.getRole().equalsIgnoreCase("ADMIN") ? "Admin Panel" : "Customer Dashboard"));
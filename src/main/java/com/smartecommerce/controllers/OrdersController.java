@@ -1,7 +1,11 @@
 package com.smartecommerce.controllers;
 
 import com.smartecommerce.models.Order;
+import com.smartecommerce.service.ExportService;
+import com.smartecommerce.service.ExportService.ExportResult;
 import com.smartecommerce.service.OrderService;
+import com.smartecommerce.utils.Refreshable;
+import com.smartecommerce.utils.TaskPriority;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -13,7 +17,9 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 
+import java.io.File;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.text.NumberFormat;
@@ -31,7 +37,7 @@ import java.util.logging.Logger;
  * NOTE: Order creation is NOT allowed - this is management only
  * OPTIMIZED: Uses AsyncTaskManager for non-blocking data loading
  */
-public class OrdersController extends BaseController implements Initializable {
+public class OrdersController extends BaseController implements Initializable, Refreshable {
 
     private static final Logger LOGGER = Logger.getLogger(OrdersController.class.getName());
 
@@ -47,10 +53,12 @@ public class OrdersController extends BaseController implements Initializable {
     @FXML private VBox contentContainer;
 
     private final OrderService orderService;
+    private final ExportService exportService;
     private final ObservableList<Order> ordersList = FXCollections.observableArrayList();
 
     public OrdersController() {
         this.orderService = new OrderService();
+        this.exportService = new ExportService();
     }
 
     @Override
@@ -99,6 +107,14 @@ public class OrdersController extends BaseController implements Initializable {
         loadOrderDataAsync();
     }
 
+    /**
+     * Reload orders when the cached view is shown again
+     */
+    @Override
+    public void refresh() {
+        refreshOrderData();
+    }
+
     /**
      * Update order statistics in the UI
      */
@@ -290,6 +306,45 @@ public class OrdersController extends BaseController implements Initializable {
         });
     }
 
+    /**
+     * Handle Export Orders button - streams all orders to a CSV or NDJSON file
+     */
+    @FXML
+    private void handleExportAction() {
+        LOGGER.info("Export Orders button clicked");
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Orders");
+        chooser.setInitialFileName("orders.csv");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("CSV (gzip)", "*.csv.gz"),
+                new FileChooser.ExtensionFilter("JSON lines", "*.ndjson"),
+                new FileChooser.ExtensionFilter("JSON lines (gzip)", "*.ndjson.gz"));
+
+        File file = chooser.showSaveDialog(contentContainer != null ? contentContainer.getScene().getWindow() : null);
+        if (file == null) {
+            return;
+        }
+
+        // Bulk lane so a long export never delays the screen loads queued behind it
+        loadDataAsync(
+            TaskPriority.BULK,
+            null,
+            () -> {
+                updateProgress("Exporting orders...");
+                return exportService.exportOrders(file.toPath());
+            },
+            (ExportResult result) -> showSuccess("Export Complete", String.format(
+                    "Exported %,d orders to %s%n(%,.0f rows/sec)",
+                    result.getRows(), file.getName(), result.getRowsPerSecond())),
+            throwable -> {
+                LOGGER.log(Level.SEVERE, "Failed to export orders", throwable);
+                showError("Export Failed", throwable.getMessage());
+            }
+        );
+    }
+
     /**
      * Handle updating order status
      */
@@ -4,6 +4,8 @@ import com.smartecommerce.dao.CategoryDAO;
 import com.smartecommerce.models.Category;
 import com.smartecommerce.models.Product;
 import com.smartecommerce.service.ProductService;
+import com.smartecommerce.utils.Refreshable;
+import com.smartecommerce.utils.TaskPriority;
 import com.smartecommerce.utils.UIUtils;
 import com.smartecommerce.utils.ValidationUtil;
 import javafx.beans.property.SimpleStringProperty;
@@ -31,7 +33,7 @@ import java.util.logging.Logger;
  * ProductsController - Full CRUD operations for product management
  * OPTIMIZED: Uses AsyncTaskManager for non-blocking data loading
  */
-public class ProductsController extends BaseController implements Initializable {
+public class ProductsController extends BaseController implements Initializable, Refreshable {
 
     private static final Logger LOGGER = Logger.getLogger(ProductsController.class.getName());
 
@@ -72,6 +74,8 @@ public class ProductsController extends BaseController implements Initializable
      */
     private void loadProductDataAsync() {
         loadDataAsync(
+            TaskPriority.INTERACTIVE,
+            "products:all",
             () -> {
                 // Background task: Fetch products from database
                 updateProgress("Fetching products from database...");
@@ -100,6 +104,15 @@ public class ProductsController extends BaseController implements Initializable
         loadProductDataAsync();
     }
 
+    /**
+     * Reload products when the cached view is shown again
+     * Goes through the product cache, unlike the explicit refresh
+     */
+    @Override
+    public void refresh() {
+        loadProductDataAsync();
+    }
+
     /**
      * Update product statistics in the UI
      */
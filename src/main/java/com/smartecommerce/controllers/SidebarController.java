@@ -1,6 +1,7 @@
 package com.smartecommerce.controllers;
 
 import com.smartecommerce.app.SessionManager;
+import com.smartecommerce.utils.FXMLCache;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -60,13 +61,9 @@ public class SidebarController {
     private void handleNavDashboard() {
         LOGGER.info("Navigating to Dashboard");
         try {
+            // Cached after the first visit (or preloaded after login); only the data is refreshed
             Stage stage = (Stage) navDashboard.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/smartecommerce/ui/views/admin/dashboard.fxml"));
-            Parent root = loader.load();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.setTitle("Smart E-Commerce System - Admin Dashboard");
-            stage.show();
+            FXMLCache.getInstance().show(stage, FXMLCache.DASHBOARD_VIEW, "Smart E-Commerce System - Admin Dashboard");
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to load Dashboard", e);
         }
@@ -99,13 +96,9 @@ public class SidebarController {
     private void handleNavOrders() {
         LOGGER.info("Navigating to Orders");
         try {
+            // Cached after the first visit (or preloaded after login); only the data is refreshed
             Stage stage = (Stage) navOrders.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/smartecommerce/ui/views/admin/orders.fxml"));
-            Parent root = loader.load();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.setTitle("Smart E-Commerce System - Order Management");
-            stage.show();
+            FXMLCache.getInstance().show(stage, FXMLCache.ORDERS_VIEW, "Smart E-Commerce System - Order Management");
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to load Orders Page", e);
         }
@@ -115,13 +108,9 @@ public class SidebarController {
     private void handleNavCategories() {
         LOGGER.info("Navigating to Categories");
         try {
+            // Cached after the first visit (or preloaded after login); only the data is refreshed
             Stage stage = (Stage) navCategories.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/smartecommerce/ui/views/admin/categories.fxml"));
-            Parent root = loader.load();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.setTitle("Smart E-Commerce System - Category Management");
-            stage.show();
+            FXMLCache.getInstance().show(stage, FXMLCache.CATEGORIES_VIEW, "Smart E-Commerce System - Category Management");
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to load Categories Page", e);
         }
@@ -131,13 +120,9 @@ public class SidebarController {
     private void handleNavProducts() {
         LOGGER.info("Navigating to Products");
         try {
+            // Cached after the first visit (or preloaded after login); only the data is refreshed
             Stage stage = (Stage) navProducts.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/smartecommerce/ui/views/admin/products.fxml"));
-            Parent root = loader.load();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.setTitle("Smart E-Commerce System - Product Management");
-            stage.show();
+            FXMLCache.getInstance().show(stage, FXMLCache.PRODUCTS_VIEW, "Smart E-Commerce System - Product Management");
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to load Products Page", e);
         }
@@ -147,13 +132,9 @@ public class SidebarController {
     private void handleNavUsers() {
         LOGGER.info("Navigating to Users");
         try {
+            // Cached after the first visit (or preloaded after login); only the data is refreshed
             Stage stage = (Stage) navUsers.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/smartecommerce/ui/views/admin/users.fxml"));
-            Parent root = loader.load();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.setTitle("Smart E-Commerce System - User Management");
-            stage.show();
+            FXMLCache.getInstance().show(stage, FXMLCache.USERS_VIEW, "Smart E-Commerce System - User Management");
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to load Users Page", e);
         }
@@ -163,13 +144,9 @@ public class SidebarController {
     private void handleNavAnalytics() {
         LOGGER.info("Navigating to Analytics");
         try {
+            // Cached after the first visit (or preloaded after login); only the data is refreshed
             Stage stage = (Stage) navAnalytics.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/smartecommerce/ui/views/admin/analitics.fxml"));
-            Parent root = loader.load();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.setTitle("Smart E-Commerce System - Analytics & Performance");
-            stage.show();
+            FXMLCache.getInstance().show(stage, FXMLCache.ANALYTICS_VIEW, "Smart E-Commerce System - Analytics & Performance");
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to load Analytics Page", e);
         }
@@ -2,6 +2,7 @@ package com.smartecommerce.controllers;
 
 import com.smartecommerce.dao.UserDAO;
 import com.smartecommerce.models.User;
+import com.smartecommerce.utils.Refreshable;
 import com.smartecommerce.utils.SecurityUtils;
 import com.smartecommerce.utils.UIUtils;
 import com.smartecommerce.utils.ValidationUtil;
@@ -19,7 +20,7 @@ import java.util.Optional;
  * UserController manages the user management UI with full CRUD operations
  * Optimized with validation, duplicate checking, and better UX
  */
-public class UserController {
+public class UserController implements Refreshable {
 
     @FXML private TableView<User> userTable;
     @FXML private TableColumn<User, Integer> colId;
@@ -100,6 +101,16 @@ public class UserController {
         }
     }
 
+    /**
+     * Reload users when the cached view is shown again, keeping the role filter
+     */
+    @Override
+    public void refresh() {
+        if (userTable != null) {
+            filterByRole();
+        }
+    }
+
     private void loadUsers() {
         try {
             userList.clear();
@@ -0,0 +1,236 @@
+package com.smartecommerce.dao;
+
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.utils.JdbcUtils.QueryResult;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static com.smartecommerce.utils.AppUtils.*;
+import static com.smartecommerce.utils.JdbcUtils.executeInsertTransaction;
+import static com.smartecommerce.utils.JdbcUtils.executePreparedQuery;
+import static com.smartecommerce.utils.JdbcUtils.executePreparedTransaction;
+import static com.smartecommerce.utils.JdbcUtils.tableExists;
+
+/**
+ * CatalogVersion stamps the catalog (products and categories) with a version and a last-modified time
+ *
+ * The stamp lives in the single row of the CatalogVersion table (database/CatalogVersion.sql).
+ * ProductDAO and CategoryDAO bump it in the same transaction as every catalog write, so writes
+ * from any process sharing the database (the desktop app, CatalogImport, other API servers)
+ * move it forward. Readers can then tell whether the catalog changed since they last looked
+ * without querying it: the row is read again at most every catalog.versionCheckMillis, and
+ * right after a write made by this process.
+ *
+ * Without the table there is no stamp, and readers must not cache the catalog.
+ */
+public class CatalogVersion {
+    private static final String TABLE = "CatalogVersion";
+    private static final String READ_SQL = "SELECT version, updated_at FROM " + TABLE + " WHERE id = 1";
+    // HTTP dates cannot tell apart two writes in the same second, so each bump moves the time by at least one
+    static final String BUMP_SQL = "UPDATE " + TABLE + " SET version = version + 1, "
+            + "updated_at = GREATEST(CURRENT_TIMESTAMP, updated_at + INTERVAL '1' SECOND) WHERE id = 1";
+    private static final long DEFAULT_CHECK_MILLIS = 1000;
+
+    private static volatile CatalogVersion instance;
+    // Whether the CatalogVersion table exists; checked once per process
+    private static volatile Boolean tablePresent;
+
+    private final Supplier<Stamp> source;
+    private final long checkMillis;
+    private final LongSupplier clock;
+    private volatile Check lastCheck;
+
+    private CatalogVersion() {
+        this(CatalogVersion::readDatabase,
+                ConfigManager.getInstance().getLong("catalog.versionCheckMillis", DEFAULT_CHECK_MILLIS),
+                System::currentTimeMillis);
+    }
+
+    // Constructor for testing with a fake stamp source and clock
+    CatalogVersion(Supplier<Stamp> source, long checkMillis, LongSupplier clock) {
+        this.source = source;
+        this.checkMillis = checkMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static CatalogVersion getInstance() {
+        if (instance == null) {
+            synchronized (CatalogVersion.class) {
+                if (instance == null) {
+                    instance = new CatalogVersion();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * CatalogVersion kept in memory, without the database: every recordWrite bumps it
+     * (e.g. the API unit-tested with mock services)
+     */
+    public static CatalogVersion inMemory() {
+        AtomicReference<Stamp> stamp = new AtomicReference<>(new Stamp(0, System.currentTimeMillis() / 1000));
+        return new CatalogVersion(stamp::get, 0, System::currentTimeMillis) {
+            @Override
+            public void recordWrite() {
+                long nowSeconds = System.currentTimeMillis() / 1000;
+                stamp.updateAndGet(current ->
+                        new Stamp(current.version + 1, Math.max(nowSeconds, current.lastModifiedSeconds + 1)));
+            }
+        };
+    }
+
+    /**
+     * Current stamp, read again from the database once the last read is older than the check interval
+     * @return the stamp, or null if the database has none (table missing or unreadable)
+     */
+    public Stamp current() {
+        long now = clock.getAsLong();
+        Check check = lastCheck;
+        if (check == null || now - check.checkedAt >= checkMillis) {
+            check = new Check(source.get(), now);
+            lastCheck = check;
+        }
+        return check.stamp;
+    }
+
+    /**
+     * Statements that bump the version; run them last in the transaction of a catalog write
+     * @return no statements if the table is missing
+     */
+    public List<String> writeStatements() {
+        return hasTable() ? List.of(BUMP_SQL) : List.of();
+    }
+
+    /**
+     * Run a catalog INSERT and bump the version in the same transaction
+     * @return QueryResult with the generated key, or an error
+     */
+    QueryResult insert(String sql, Object... params) {
+        List<String> bump = writeStatements();
+        QueryResult result = bump.isEmpty()
+                ? executePreparedQuery(sql, params)
+                : executeInsertTransaction(sql, params, bump);
+        if (!result.hasError()) {
+            recordWrite();
+        }
+        return result;
+    }
+
+    /**
+     * Run a catalog UPDATE or DELETE and bump the version in the same transaction
+     * @return QueryResult with the rows affected by the statement itself, or an error
+     */
+    QueryResult update(String sql, Object... params) {
+        List<String> bump = writeStatements();
+        if (bump.isEmpty()) {
+            QueryResult result = executePreparedQuery(sql, params);
+            if (!result.hasError()) {
+                recordWrite();
+            }
+            return result;
+        }
+        List<String> queries = new ArrayList<>();
+        List<Object[]> data = new ArrayList<>();
+        queries.add(sql);
+        data.add(params);
+        for (String query : bump) {
+            queries.add(query);
+            data.add(new Object[0]);
+        }
+        QueryResult result = executePreparedTransaction(queries, data);
+        if (result.hasError()) {
+            return result;
+        }
+        recordWrite();
+        return new QueryResult(result.getAffectedRows() - bump.size());
+    }
+
+    /**
+     * Record a committed catalog write of this process, so the next read sees it right away
+     */
+    public void recordWrite() {
+        lastCheck = null;
+    }
+
+    private static boolean hasTable() {
+        Boolean result = tablePresent;
+        if (result == null) {
+            result = tableExists(TABLE);
+            if (!result) {
+                println("CatalogVersion table not found - catalog responses are not cached");
+            }
+            tablePresent = result;
+        }
+        return result;
+    }
+
+    private static Stamp readDatabase() {
+        if (!hasTable()) {
+            return null;
+        }
+        QueryResult queryResult = executePreparedQuery(READ_SQL);
+        if (queryResult.hasError()) {
+            printE("Error reading catalog version: " + queryResult.getError());
+            return null;
+        }
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        if (rows == null || rows.isEmpty()) {
+            printE("Error reading catalog version: the CatalogVersion row is missing");
+            return null;
+        }
+        Map<String, Object> row = rows.get(0);
+        LocalDateTime updatedAt = asLocalDateTime(row.get("updated_at"));
+        if (updatedAt == null) {
+            return null;
+        }
+        return new Stamp(asLong(row.get("version")), updatedAt.atZone(ZoneId.systemDefault()).toEpochSecond());
+    }
+
+    /**
+     * A stamp and when it was read
+     */
+    private static final class Check {
+        private final Stamp stamp;
+        private final long checkedAt;
+
+        private Check(Stamp stamp, long checkedAt) {
+            this.stamp = stamp;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    /**
+     * Catalog version and the time of the write that produced it
+     */
+    public static final class Stamp {
+        private final long version;
+        private final long lastModifiedSeconds;
+
+        Stamp(long version, long lastModifiedSeconds) {
+            this.version = version;
+            this.lastModifiedSeconds = lastModifiedSeconds;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Seconds since the epoch
+         */
+        public long getLastModifiedSeconds() {
+            return lastModifiedSeconds;
+        }
+    }
+}
@@ -20,7 +20,7 @@ public class CategoryDAO {
      */
     public boolean create(Category category) {
         String sql = "INSERT INTO Categories (category_name, description) VALUES (?, ?)";
-        QueryResult insertResult = executePreparedQuery(
+        QueryResult insertResult = CatalogVersion.getInstance().insert(
                 sql,
                 category.getCategoryName(),
                 category.getDescription());
@@ -87,7 +87,7 @@ public class CategoryDAO {
      */
     public boolean update(Category category) {
         String sql = "UPDATE Categories SET category_name = ?, description = ? WHERE category_id = ?";
-        QueryResult updateResult = executePreparedQuery(
+        QueryResult updateResult = CatalogVersion.getInstance().update(
                 sql,
                 category.getCategoryName(),
                 category.getDescription(),
@@ -107,7 +107,7 @@ public class CategoryDAO {
      */
     public boolean delete(int categoryId) {
         String sql = "DELETE FROM Categories WHERE category_id = ?";
-        QueryResult deleteResult = executePreparedQuery(sql, categoryId);
+        QueryResult deleteResult = CatalogVersion.getInstance().update(sql, categoryId);
 
         if (deleteResult.hasError()) {
             printE("Error deleting category: " + deleteResult.getError());
@@ -0,0 +1,67 @@
+package com.smartecommerce.dao;
+
+import com.smartecommerce.utils.JdbcUtils.QueryResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.smartecommerce.utils.AppUtils.*;
+import static com.smartecommerce.utils.JdbcUtils.executePreparedQuery;
+
+/**
+ * ImportCheckpointDAO records how many records of an import source have been committed
+ * The save statement is meant to run in the same transaction as the chunk it describes,
+ * so a checkpoint never claims rows that were rolled back
+ */
+public class ImportCheckpointDAO {
+    private final SqlDialect dialect;
+
+    public ImportCheckpointDAO() {
+        this(SqlDialect.current());
+    }
+
+    public ImportCheckpointDAO(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * Get the number of records already committed for a source, or 0 if it has never been imported
+     */
+    public long getRecordsCommitted(String sourceName) {
+        String sql = "SELECT records_committed FROM ImportCheckpoints WHERE source_name = ?";
+        QueryResult queryResult = executePreparedQuery(sql, sourceName);
+
+        if (queryResult.hasError()) {
+            printE("Error reading import checkpoint: " + queryResult.getError());
+            return 0;
+        }
+
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        if (rows != null && !rows.isEmpty()) {
+            Object value = rows.get(0).get("records_committed");
+            return value instanceof Number number ? number.longValue() : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Forget the checkpoint for a source so the next import starts from the first record
+     */
+    public boolean clear(String sourceName) {
+        QueryResult queryResult = executePreparedQuery("DELETE FROM ImportCheckpoints WHERE source_name = ?", sourceName);
+
+        if (queryResult.hasError()) {
+            printE("Error clearing import checkpoint: " + queryResult.getError());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Statement storing a checkpoint; parameters are (source name, records committed)
+     */
+    public String getSaveSql() {
+        return "INSERT INTO ImportCheckpoints (source_name, records_committed, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP)" +
+                dialect.onConflictReplace(List.of("source_name"), List.of("records_committed", "updated_at"));
+    }
+}
@@ -1,27 +1,48 @@
 package com.smartecommerce.dao;
 
+import com.smartecommerce.dao.PeriodStatsQuery.PeriodStats;
 import com.smartecommerce.models.Order;
 import com.smartecommerce.utils.JdbcUtils.QueryResult;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import static com.smartecommerce.utils.AppUtils.*;
+import static com.smartecommerce.utils.JdbcUtils.executeInsertTransaction;
 import static com.smartecommerce.utils.JdbcUtils.executePreparedQuery;
+import static com.smartecommerce.utils.JdbcUtils.executePreparedTransaction;
 
 /**
  * OrderDAO handles all database operations for Order entity
  */
 public class OrderDAO {
+    private static final String UPDATE_STATUS_SQL = "UPDATE Orders SET status = ? WHERE order_id = ?";
 
+    private final PeriodStatsQuery periodStatsQuery = new PeriodStatsQuery();
+    private final SalesRollupDAO salesRollupDAO;
+
+    public OrderDAO() {
+        this(new SalesRollupDAO());
+    }
+
+    // Constructor for testing with a rollup DAO for a given dialect
+    OrderDAO(SalesRollupDAO salesRollupDAO) {
+        this.salesRollupDAO = salesRollupDAO;
+    }
+
+    /**
+     * Create an order
+     * When the rollup tables exist, the order is added to the order rollups in the same transaction
+     */
     public boolean create(Order order) {
         String sql = "INSERT INTO Orders (user_id, total_amount, status) VALUES (?, ?, ?)";
-        QueryResult insertResult = executePreparedQuery(
-                sql,
-                order.getUserId(),
-                order.getTotalAmount(),
-                order.getStatus());
+        Object[] data = {order.getUserId(), order.getTotalAmount(), order.getStatus()};
+        QueryResult insertResult = salesRollupDAO.hasTables()
+                ? executeInsertTransaction(sql, data, salesRollupDAO.buildAddOrderSql())
+                : executePreparedQuery(sql, data);
 
         if (insertResult.hasError()) {
             printE("Error creating order: " + insertResult.getError());
@@ -76,9 +97,22 @@ public class OrderDAO {
         return orders;
     }
 
+    /**
+     * Update order status
+     * When the rollup tables exist, the rollups of the day the order was placed are rebuilt in
+     * the same transaction, which also adds any items written since the order was created
+     */
     public boolean updateStatus(int orderId, String status) {
-        String sql = "UPDATE Orders SET status = ? WHERE order_id = ?";
-        QueryResult updateResult = executePreparedQuery(sql, status, orderId);
+        LocalDate orderDay = salesRollupDAO.hasTables() ? findOrderDay(orderId) : null;
+        QueryResult updateResult;
+        if (orderDay != null) {
+            List<String> queries = new ArrayList<>();
+            List<Object[]> data = new ArrayList<>();
+            addStatusChange(orderId, status, orderDay, queries, data);
+            updateResult = executePreparedTransaction(queries, data);
+        } else {
+            updateResult = executePreparedQuery(UPDATE_STATUS_SQL, status, orderId);
+        }
 
         if (updateResult.hasError()) {
             printE("Error updating order status: " + updateResult.getError());
@@ -89,6 +123,27 @@ public class OrderDAO {
         return affectedRows != null && affectedRows > 0;
     }
 
+    /**
+     * Append the statements changing an order's status and rebuilding its day's rollups
+     * The status update comes first, so the rebuild aggregates the new status
+     */
+    void addStatusChange(int orderId, String status, LocalDate orderDay, List<String> queries, List<Object[]> data) {
+        queries.add(UPDATE_STATUS_SQL);
+        data.add(new Object[]{status, orderId});
+        salesRollupDAO.addRebuildRange(orderDay, orderDay.plusDays(1), queries, data);
+    }
+
+    private LocalDate findOrderDay(int orderId) {
+        QueryResult queryResult = executePreparedQuery("SELECT order_date FROM Orders WHERE order_id = ?", orderId);
+        if (queryResult.hasError()) {
+            printE("Error finding order date: " + queryResult.getError());
+            return null;
+        }
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        LocalDateTime orderDate = rows != null && !rows.isEmpty() ? asLocalDateTime(rows.get(0).get("order_date")) : null;
+        return orderDate != null ? orderDate.toLocalDate() : null;
+    }
+
     public List<Order> findByUserId(int userId) {
         List<Order> orders = new ArrayList<>();
         String sql = "SELECT o.*, u.username as customer_name FROM Orders o " +
@@ -119,7 +174,7 @@ public class OrderDAO {
      * Analytics function for dashboard
      */
     public java.math.BigDecimal getTotalRevenue() {
-        String sql = "SELECT ISNULL(SUM(total_amount), 0) as revenue FROM Orders";
+        String sql = "SELECT COALESCE(SUM(total_amount), 0) as revenue FROM Orders";
         QueryResult queryResult = executePreparedQuery(sql);
 
         if (queryResult.hasError()) {
@@ -165,7 +220,7 @@ public class OrderDAO {
      * Analytics function
      */
     public java.math.BigDecimal getAverageOrderValue() {
-        String sql = "SELECT ISNULL(AVG(total_amount), 0) as avg_value FROM Orders";
+        String sql = "SELECT COALESCE(AVG(total_amount), 0) as avg_value FROM Orders";
         QueryResult queryResult = executePreparedQuery(sql);
 
         if (queryResult.hasError()) {
@@ -181,40 +236,28 @@ public class OrderDAO {
     }
 
     /**
-     * Get orders statistics by time period
-     * Analytics function
+     * Get order count and revenue statistics by time period
+     * Analytics function - all periods are computed in a single pass over Orders
      */
-    public Map<String, Integer> getOrderStatsByPeriod() {
-        Map<String, Integer> stats = new java.util.HashMap<>();
-
-        // Orders in last 24 hours
-        String sql24h = "SELECT COUNT(*) as count FROM Orders WHERE order_date >= DATEADD(HOUR, -24, GETDATE())";
-        QueryResult result24h = executePreparedQuery(sql24h);
-        if (!result24h.hasError() && result24h.getResultSet() != null && !result24h.getResultSet().isEmpty()) {
-            stats.put("last24Hours", asInt(result24h.getResultSet().get(0).get("count")));
-        } else {
-            stats.put("last24Hours", 0);
-        }
+    public PeriodStats getPeriodStats() {
+        String sql = periodStatsQuery.buildSql("Orders", "order_date", "total_amount");
+        QueryResult queryResult = executePreparedQuery(sql);
 
-        // Orders in last 7 days
-        String sql7d = "SELECT COUNT(*) as count FROM Orders WHERE order_date >= DATEADD(DAY, -7, GETDATE())";
-        QueryResult result7d = executePreparedQuery(sql7d);
-        if (!result7d.hasError() && result7d.getResultSet() != null && !result7d.getResultSet().isEmpty()) {
-            stats.put("last7Days", asInt(result7d.getResultSet().get(0).get("count")));
-        } else {
-            stats.put("last7Days", 0);
+        if (queryResult.hasError()) {
+            printE("Error getting order statistics by period: " + queryResult.getError());
+            return PeriodStats.fromRow(null);
         }
 
-        // Orders in last 30 days
-        String sql30d = "SELECT COUNT(*) as count FROM Orders WHERE order_date >= DATEADD(DAY, -30, GETDATE())";
-        QueryResult result30d = executePreparedQuery(sql30d);
-        if (!result30d.hasError() && result30d.getResultSet() != null && !result30d.getResultSet().isEmpty()) {
-            stats.put("last30Days", asInt(result30d.getResultSet().get(0).get("count")));
-        } else {
-            stats.put("last30Days", 0);
-        }
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        return PeriodStats.fromRow(rows != null && !rows.isEmpty() ? rows.get(0) : null);
+    }
 
-        return stats;
+    /**
+     * Get orders statistics by time period
+     * Analytics function
+     */
+    public Map<String, Integer> getOrderStatsByPeriod() {
+        return getPeriodStats().getCounts();
     }
 
     /**
@@ -222,36 +265,7 @@ public class OrderDAO {
      * Analytics function
      */
     public Map<String, java.math.BigDecimal> getRevenueStatsByPeriod() {
-        Map<String, java.math.BigDecimal> stats = new java.util.HashMap<>();
-
-        // Revenue in last 24 hours
-        String sql24h = "SELECT ISNULL(SUM(total_amount), 0) as revenue FROM Orders WHERE order_date >= DATEADD(HOUR, -24, GETDATE())";
-        QueryResult result24h = executePreparedQuery(sql24h);
-        if (!result24h.hasError() && result24h.getResultSet() != null && !result24h.getResultSet().isEmpty()) {
-            stats.put("last24Hours", asBigDecimal(result24h.getResultSet().get(0).get("revenue")));
-        } else {
-            stats.put("last24Hours", java.math.BigDecimal.ZERO);
-        }
-
-        // Revenue in last 7 days
-        String sql7d = "SELECT ISNULL(SUM(total_amount), 0) as revenue FROM Orders WHERE order_date >= DATEADD(DAY, -7, GETDATE())";
-        QueryResult result7d = executePreparedQuery(sql7d);
-        if (!result7d.hasError() && result7d.getResultSet() != null && !result7d.getResultSet().isEmpty()) {
-            stats.put("last7Days", asBigDecimal(result7d.getResultSet().get(0).get("revenue")));
-        } else {
-            stats.put("last7Days", java.math.BigDecimal.ZERO);
-        }
-
-        // Revenue in last 30 days
-        String sql30d = "SELECT ISNULL(SUM(total_amount), 0) as revenue FROM Orders WHERE order_date >= DATEADD(DAY, -30, GETDATE())";
-        QueryResult result30d = executePreparedQuery(sql30d);
-        if (!result30d.hasError() && result30d.getResultSet() != null && !result30d.getResultSet().isEmpty()) {
-            stats.put("last30Days", asBigDecimal(result30d.getResultSet().get(0).get("revenue")));
-        } else {
-            stats.put("last30Days", java.math.BigDecimal.ZERO);
-        }
-
-        return stats;
+        return getPeriodStats().getSums();
     }
 
     /**
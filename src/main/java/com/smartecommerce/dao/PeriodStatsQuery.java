@@ -0,0 +1,154 @@
+package com.smartecommerce.dao;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.smartecommerce.utils.AppUtils.asBigDecimal;
+import static com.smartecommerce.utils.AppUtils.asInt;
+
+/**
+ * PeriodStatsQuery builds single-pass conditional aggregation queries for time period statistics
+ * All period buckets (24h, 7d, 30d) are computed with SUM(CASE WHEN ...) in one scan of the table,
+ * limited by the widest period so the date index can be used
+ */
+public class PeriodStatsQuery {
+
+    /**
+     * Time periods reported by the analytics functions
+     */
+    public enum Period {
+        LAST_24_HOURS("last24Hours", "24h", 24),
+        LAST_7_DAYS("last7Days", "7d", 7 * 24),
+        LAST_30_DAYS("last30Days", "30d", 30 * 24);
+
+        private final String key;
+        private final String suffix;
+        private final int hours;
+
+        Period(String key, String suffix, int hours) {
+            this.key = key;
+            this.suffix = suffix;
+            this.hours = hours;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getHours() {
+            return hours;
+        }
+
+        String countAlias() {
+            return "count_" + suffix;
+        }
+
+        String sumAlias() {
+            return "sum_" + suffix;
+        }
+
+        static Period widest() {
+            return Arrays.stream(values()).max(Comparator.comparingInt(Period::getHours)).orElseThrow();
+        }
+    }
+
+    private final SqlDialect dialect;
+
+    public PeriodStatsQuery() {
+        this(SqlDialect.current());
+    }
+
+    public PeriodStatsQuery(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Build a query counting rows per period
+     */
+    public String buildCountSql(String table, String dateColumn) {
+        return buildSql(table, dateColumn, null);
+    }
+
+    /**
+     * Build a query counting rows and summing a column per period
+     * @param sumColumn column to sum, or null for counts only
+     */
+    public String buildSql(String table, String dateColumn, String sumColumn) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        boolean first = true;
+        for (Period period : Period.values()) {
+            if (!first) {
+                sql.append(", ");
+            }
+            appendBucket(sql, dateColumn, period, "1", period.countAlias());
+            if (sumColumn != null) {
+                sql.append(", ");
+                appendBucket(sql, dateColumn, period, sumColumn, period.sumAlias());
+            }
+            first = false;
+        }
+        sql.append(" FROM ").append(table)
+                .append(" WHERE ").append(dateColumn).append(" >= ").append(dialect.hoursAgo(Period.widest().getHours()));
+        return sql.toString();
+    }
+
+    private void appendBucket(StringBuilder sql, String dateColumn, Period period, String value, String alias) {
+        String bucket = "SUM(CASE WHEN " + dateColumn + " >= " + dialect.hoursAgo(period.getHours())
+                + " THEN " + value + " ELSE 0 END)";
+        sql.append(dialect.coalesce(bucket, "0")).append(" AS ").append(alias);
+    }
+
+    /**
+     * Map an aggregation row to period counts (zeros when the row is missing)
+     */
+    public static Map<String, Integer> mapCounts(Map<String, Object> row) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Period period : Period.values()) {
+            counts.put(period.getKey(), row != null ? asInt(row.get(period.countAlias())) : 0);
+        }
+        return counts;
+    }
+
+    /**
+     * Map an aggregation row to period sums (zeros when the row is missing)
+     */
+    public static Map<String, BigDecimal> mapSums(Map<String, Object> row) {
+        Map<String, BigDecimal> sums = new HashMap<>();
+        for (Period period : Period.values()) {
+            sums.put(period.getKey(), row != null ? asBigDecimal(row.get(period.sumAlias())) : BigDecimal.ZERO);
+        }
+        return sums;
+    }
+
+    /**
+     * Counts and sums from a single period aggregation pass
+     */
+    public static class PeriodStats {
+        private final Map<String, Integer> counts;
+        private final Map<String, BigDecimal> sums;
+
+        public PeriodStats(Map<String, Integer> counts, Map<String, BigDecimal> sums) {
+            this.counts = counts;
+            this.sums = sums;
+        }
+
+        public static PeriodStats fromRow(Map<String, Object> row) {
+            return new PeriodStats(mapCounts(row), mapSums(row));
+        }
+
+        public Map<String, Integer> getCounts() {
+            return counts;
+        }
+
+        public Map<String, BigDecimal> getSums() {
+            return sums;
+        }
+    }
+}
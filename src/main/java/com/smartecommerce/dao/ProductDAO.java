@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 
 import static com.smartecommerce.utils.AppUtils.*;
+import static com.smartecommerce.utils.JdbcUtils.executeBatchTransaction;
 import static com.smartecommerce.utils.JdbcUtils.executePreparedQuery;
 
 /**
@@ -21,7 +22,7 @@ public class ProductDAO {
      */
     public boolean create(Product product) {
         String sql = "INSERT INTO Products (product_name, description, price, category_id, stock_quantity, image_url) VALUES (?, ?, ?, ?, ?, ?)";
-        QueryResult insertResult = executePreparedQuery(
+        QueryResult insertResult = CatalogVersion.getInstance().insert(
                 sql,
                 product.getProductName(),
                 product.getDescription(),
@@ -45,6 +46,44 @@ public class ProductDAO {
         return affectedRows != null && affectedRows > 0;
     }
 
+    /**
+     * Insert many products with a single JDBC batch in one transaction
+     * Generated IDs are not read back
+     * @param followUpQueries statements committed atomically with the batch (e.g. an import checkpoint)
+     * @param followUpData parameters for each follow-up statement
+     * @return number of products inserted, or -1 if the transaction was rolled back
+     */
+    public int createBatch(List<Product> products, List<String> followUpQueries, List<Object[]> followUpData) {
+        String sql = "INSERT INTO Products (product_name, description, price, category_id, stock_quantity, image_url) VALUES (?, ?, ?, ?, ?, ?)";
+        List<Object[]> rows = new ArrayList<>(products.size());
+        for (Product product : products) {
+            rows.add(new Object[]{
+                    product.getProductName(),
+                    product.getDescription(),
+                    product.getPrice(),
+                    product.getCategoryId(),
+                    product.getStockQuantity(),
+                    product.getImageUrl()});
+        }
+
+        // The catalog version is bumped last, so its row stays locked for as little of the batch as possible
+        CatalogVersion catalogVersion = CatalogVersion.getInstance();
+        List<String> queries = new ArrayList<>(followUpQueries);
+        List<Object[]> data = new ArrayList<>(followUpData);
+        for (String query : catalogVersion.writeStatements()) {
+            queries.add(query);
+            data.add(new Object[0]);
+        }
+
+        QueryResult batchResult = executeBatchTransaction(sql, rows, queries, data);
+        if (batchResult.hasError()) {
+            printE("Error creating products in batch: " + batchResult.getError());
+            return -1;
+        }
+        catalogVersion.recordWrite();
+        return batchResult.getAffectedRows();
+    }
+
     /**
      * Read product by ID
      */
@@ -97,7 +136,7 @@ public class ProductDAO {
     public boolean update(Product product) {
         String sql = "UPDATE Products SET product_name = ?, description = ?, price = ?, category_id = ?, stock_quantity = ?, image_url = ? " +
                 "WHERE product_id = ?";
-        QueryResult updateResult = executePreparedQuery(
+        QueryResult updateResult = CatalogVersion.getInstance().update(
                 sql,
                 product.getProductName(),
                 product.getDescription(),
@@ -121,7 +160,7 @@ public class ProductDAO {
      */
     public boolean delete(int productId) {
         String sql = "DELETE FROM Products WHERE product_id = ?";
-        QueryResult deleteResult = executePreparedQuery(sql, productId);
+        QueryResult deleteResult = CatalogVersion.getInstance().update(sql, productId);
 
         if (deleteResult.hasError()) {
             printE("Error deleting product: " + deleteResult.getError());
@@ -284,7 +323,7 @@ public class ProductDAO {
      * Analytics function - calculates total value of all products in stock
      */
     public java.math.BigDecimal getTotalInventoryValue() {
-        String sql = "SELECT ISNULL(SUM(price * stock_quantity), 0) as total_value FROM Products";
+        String sql = "SELECT COALESCE(SUM(price * stock_quantity), 0) as total_value FROM Products";
         QueryResult queryResult = executePreparedQuery(sql);
 
         if (queryResult.hasError()) {
@@ -304,7 +343,7 @@ public class ProductDAO {
      * Analytics function
      */
     public java.math.BigDecimal getAverageProductPrice() {
-        String sql = "SELECT ISNULL(AVG(price), 0) as avg_price FROM Products";
+        String sql = "SELECT COALESCE(AVG(price), 0) as avg_price FROM Products";
         QueryResult queryResult = executePreparedQuery(sql);
 
         if (queryResult.hasError()) {
@@ -0,0 +1,362 @@
+package com.smartecommerce.dao;
+
+import com.smartecommerce.utils.JdbcUtils.QueryResult;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.smartecommerce.utils.AppUtils.*;
+import static com.smartecommerce.utils.JdbcUtils.executePreparedQuery;
+import static com.smartecommerce.utils.JdbcUtils.executePreparedTransaction;
+import static com.smartecommerce.utils.JdbcUtils.tableExists;
+
+/**
+ * SalesRollupDAO maintains and reads the hourly and daily sales rollup tables
+ * Rollups are keyed by bucket and order status; dashboard totals then read a few rows per day
+ * instead of scanning Orders
+ *
+ * A new order is added to the order rollups in its own insert transaction. It has no items
+ * yet, so the product rollups pick up its items when its status next changes: the status
+ * update rebuilds the rollups of the order's day in the same transaction. The backfill
+ * rebuilds every day.
+ *
+ * Orders are added to the rollups as soon as the tables exist, but the rollups are only read
+ * once a completed backfill has been recorded in SalesRollupBackfills (the init scripts seed
+ * the rollups and record one). Until then, reports keep using the live Orders queries, so a
+ * fresh rollup table never shows as zero orders and zero revenue.
+ */
+public class SalesRollupDAO {
+    private static final String SALES_HOURLY = "SalesRollupHourly";
+    private static final String SALES_DAILY = "SalesRollupDaily";
+    private static final String PRODUCT_HOURLY = "ProductSalesRollupHourly";
+    private static final String PRODUCT_DAILY = "ProductSalesRollupDaily";
+    private static final String BACKFILLS = "SalesRollupBackfills";
+    // How long a missing backfill record is trusted before checking again
+    private static final long BACKFILL_RECHECK_MILLIS = 60_000;
+
+    private static final List<String> SALES_VALUES = List.of("order_count", "revenue");
+    private static final List<String> PRODUCT_VALUES = List.of("items_sold", "revenue");
+
+    // Whether the rollup tables exist; checked once per process
+    private static volatile Boolean tablesPresent;
+    // Once a backfill is recorded the rollups stay readable; until then, when to check again
+    private static volatile boolean backfilled;
+    private static volatile long backfillCheckedAt;
+
+    private final SqlDialect dialect;
+
+    public SalesRollupDAO() {
+        this(SqlDialect.current());
+    }
+
+    public SalesRollupDAO(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * DAO that reports the rollups as missing without touching the database, so callers use
+     * their Orders fallbacks (e.g. services unit-tested with mock DAOs)
+     */
+    public static SalesRollupDAO disabled() {
+        return new SalesRollupDAO(SqlDialect.MYSQL) {
+            @Override
+            public boolean hasTables() {
+                return false;
+            }
+
+            @Override
+            public boolean isAvailable() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Check whether the rollup tables have been created (database/Rollups.sql), so writes can maintain them
+     */
+    public boolean hasTables() {
+        Boolean result = tablesPresent;
+        if (result == null) {
+            result = tableExists(SALES_DAILY) && tableExists(PRODUCT_DAILY) && tableExists(BACKFILLS);
+            if (!result) {
+                println("Sales rollup tables not found - reports use Orders scans");
+            }
+            tablesPresent = result;
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the rollups can be read: the tables exist and a backfill has completed
+     */
+    public boolean isAvailable() {
+        if (backfilled) {
+            return true;
+        }
+        if (!hasTables()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now - backfillCheckedAt < BACKFILL_RECHECK_MILLIS) {
+            return false;
+        }
+        QueryResult queryResult = executePreparedQuery("SELECT COUNT(*) as backfills FROM " + BACKFILLS);
+        backfillCheckedAt = now;
+        if (queryResult.hasError()) {
+            printE("Error checking sales rollup backfills: " + queryResult.getError());
+            return false;
+        }
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        boolean recorded = rows != null && !rows.isEmpty() && asInt(rows.get(0).get("backfills")) > 0;
+        if (!recorded) {
+            println("Sales rollups have not been backfilled yet - reports use Orders scans");
+        }
+        backfilled = recorded;
+        return recorded;
+    }
+
+    /**
+     * Record a completed backfill, which makes the rollups readable
+     */
+    public boolean recordBackfill() {
+        QueryResult result = executePreparedQuery("INSERT INTO " + BACKFILLS + " (completed_at) VALUES (?)",
+                new Timestamp(System.currentTimeMillis()));
+        if (result.hasError()) {
+            printE("Error recording sales rollup backfill: " + result.getError());
+            return false;
+        }
+        backfilled = true;
+        return true;
+    }
+
+    /**
+     * Statements adding a new order to the order rollups (not the product rollups, as it has no items yet)
+     * Each statement takes the order ID as its only parameter
+     */
+    public List<String> buildAddOrderSql() {
+        return buildAggregateSql("o.order_id = ?", true, false);
+    }
+
+    /**
+     * Rebuild all rollup rows for the days in [from, to)
+     * Used by the backfill job; runs in a single transaction per range
+     */
+    public boolean rebuildRange(LocalDate from, LocalDate to) {
+        List<String> queries = new ArrayList<>();
+        List<Object[]> data = new ArrayList<>();
+        addRebuildRange(from, to, queries, data);
+
+        QueryResult result = executePreparedTransaction(queries, data);
+        if (result.hasError()) {
+            printE("Error rebuilding sales rollups for " + from + " to " + to + ": " + result.getError());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Append the statements (and their parameters) rebuilding all rollup rows for the days in [from, to)
+     */
+    void addRebuildRange(LocalDate from, LocalDate to, List<String> queries, List<Object[]> data) {
+        Object[] timestampRange = {Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay())};
+
+        queries.add("DELETE FROM " + SALES_HOURLY + " WHERE bucket_start >= ? AND bucket_start < ?");
+        data.add(timestampRange);
+        queries.add("DELETE FROM " + PRODUCT_HOURLY + " WHERE bucket_start >= ? AND bucket_start < ?");
+        data.add(timestampRange);
+        queries.add("DELETE FROM " + SALES_DAILY + " WHERE bucket_date >= ? AND bucket_date < ?");
+        data.add(new Object[]{Date.valueOf(from), Date.valueOf(to)});
+        queries.add("DELETE FROM " + PRODUCT_DAILY + " WHERE bucket_date >= ? AND bucket_date < ?");
+        data.add(new Object[]{Date.valueOf(from), Date.valueOf(to)});
+
+        List<String> inserts = buildAggregateSql("o.order_date >= ? AND o.order_date < ?", false, true);
+        queries.addAll(inserts);
+        data.addAll(repeat(timestampRange, inserts.size()));
+    }
+
+    /**
+     * Get the date of the first order, or null if there are no orders
+     */
+    public LocalDate getFirstOrderDate() {
+        QueryResult queryResult = executePreparedQuery("SELECT MIN(order_date) as first_order FROM Orders");
+
+        if (queryResult.hasError()) {
+            printE("Error finding first order date: " + queryResult.getError());
+            return null;
+        }
+
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        if (rows != null && !rows.isEmpty()) {
+            var firstOrder = asLocalDateTime(rows.get(0).get("first_order"));
+            return firstOrder != null ? firstOrder.toLocalDate() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Get order count, revenue and status distribution from the daily rollup
+     * @return totals, or null if the rollups are unavailable
+     */
+    public SalesTotals getSalesTotals() {
+        if (!isAvailable()) {
+            return null;
+        }
+        String sql = "SELECT status, COALESCE(SUM(order_count), 0) as order_count, " +
+                "COALESCE(SUM(revenue), 0) as revenue FROM " + SALES_DAILY + " GROUP BY status";
+        QueryResult queryResult = executePreparedQuery(sql);
+
+        if (queryResult.hasError()) {
+            printE("Error reading sales rollups: " + queryResult.getError());
+            return null;
+        }
+
+        Map<String, Integer> countsByStatus = new HashMap<>();
+        BigDecimal revenue = BigDecimal.ZERO;
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                int count = asInt(row.get("order_count"));
+                if (count > 0) {
+                    countsByStatus.put(asString(row.get("status")), count);
+                }
+                revenue = revenue.add(asBigDecimal(row.get("revenue")));
+            }
+        }
+        return new SalesTotals(countsByStatus, revenue);
+    }
+
+    /**
+     * Get the best selling product IDs by items sold, most sold first
+     */
+    public List<Integer> getTopProductIds(int limit) {
+        List<Integer> productIds = new ArrayList<>();
+        if (!isAvailable()) {
+            return productIds;
+        }
+        String sql = "SELECT product_id, SUM(items_sold) as items_sold FROM " + PRODUCT_DAILY +
+                " GROUP BY product_id HAVING SUM(items_sold) > 0 ORDER BY items_sold DESC LIMIT ?";
+        QueryResult queryResult = executePreparedQuery(sql, limit);
+
+        if (queryResult.hasError()) {
+            printE("Error reading top products from rollups: " + queryResult.getError());
+            return productIds;
+        }
+
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                productIds.add(asInt(row.get("product_id")));
+            }
+        }
+        return productIds;
+    }
+
+    /**
+     * Get items sold per category for the days in [from, to)
+     */
+    public Map<Integer, Integer> getItemsSoldByCategory(LocalDate from, LocalDate to) {
+        Map<Integer, Integer> itemsByCategory = new LinkedHashMap<>();
+        if (!isAvailable()) {
+            return itemsByCategory;
+        }
+        String sql = "SELECT category_id, SUM(items_sold) as items_sold FROM " + PRODUCT_DAILY +
+                " WHERE bucket_date >= ? AND bucket_date < ? GROUP BY category_id ORDER BY items_sold DESC";
+        QueryResult queryResult = executePreparedQuery(sql, Date.valueOf(from), Date.valueOf(to));
+
+        if (queryResult.hasError()) {
+            printE("Error reading category sales from rollups: " + queryResult.getError());
+            return itemsByCategory;
+        }
+
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                itemsByCategory.put(asInt(row.get("category_id")), asInt(row.get("items_sold")));
+            }
+        }
+        return itemsByCategory;
+    }
+
+    /**
+     * Build the INSERT ... SELECT statements aggregating the matching orders into the order
+     * rollups, and into the product rollups if products is set
+     */
+    List<String> buildAggregateSql(String where, boolean upsert, boolean products) {
+        String hour = dialect.truncateToHour("o.order_date");
+        String day = dialect.truncateToDay("o.order_date");
+
+        String salesSelect = " o.status, COUNT(*), SUM(o.total_amount) " +
+                "FROM Orders o WHERE " + where + " GROUP BY 1, 2";
+        String productSelect = " o.status, oi.product_id, p.category_id, " +
+                "SUM(oi.quantity), SUM(oi.quantity * oi." + dialect.orderItemPriceColumn() + ") " +
+                "FROM Orders o JOIN OrderItems oi ON oi.order_id = o.order_id " +
+                "JOIN Products p ON p.product_id = oi.product_id WHERE " + where + " GROUP BY 1, 2, 3, 4";
+
+        List<String> queries = new ArrayList<>();
+        queries.add("INSERT INTO " + SALES_HOURLY + " (bucket_start, status, order_count, revenue) SELECT " +
+                hour + " AS bucket," + salesSelect +
+                upsertClause(SALES_HOURLY, List.of("bucket_start", "status"), SALES_VALUES, upsert));
+        queries.add("INSERT INTO " + SALES_DAILY + " (bucket_date, status, order_count, revenue) SELECT " +
+                day + " AS bucket," + salesSelect +
+                upsertClause(SALES_DAILY, List.of("bucket_date", "status"), SALES_VALUES, upsert));
+        if (!products) {
+            return queries;
+        }
+        queries.add("INSERT INTO " + PRODUCT_HOURLY + " (bucket_start, status, product_id, category_id, items_sold, revenue) SELECT " +
+                hour + " AS bucket," + productSelect +
+                upsertClause(PRODUCT_HOURLY, List.of("bucket_start", "status", "product_id"), PRODUCT_VALUES, upsert));
+        queries.add("INSERT INTO " + PRODUCT_DAILY + " (bucket_date, status, product_id, category_id, items_sold, revenue) SELECT " +
+                day + " AS bucket," + productSelect +
+                upsertClause(PRODUCT_DAILY, List.of("bucket_date", "status", "product_id"), PRODUCT_VALUES, upsert));
+        return queries;
+    }
+
+    private String upsertClause(String table, List<String> keys, List<String> values, boolean upsert) {
+        return upsert ? dialect.onConflictIncrement(table, keys, values) : "";
+    }
+
+    private static List<Object[]> repeat(Object[] params, int times) {
+        return new ArrayList<>(Collections.nCopies(times, params));
+    }
+
+    /**
+     * Order totals read from the rollups
+     */
+    public static class SalesTotals {
+        private final Map<String, Integer> countsByStatus;
+        private final BigDecimal revenue;
+
+        public SalesTotals(Map<String, Integer> countsByStatus, BigDecimal revenue) {
+            this.countsByStatus = countsByStatus;
+            this.revenue = revenue;
+        }
+
+        public Map<String, Integer> getCountsByStatus() {
+            return countsByStatus;
+        }
+
+        public int getOrderCount() {
+            return countsByStatus.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+
+        public BigDecimal getAverageOrderValue() {
+            int orderCount = getOrderCount();
+            return orderCount > 0
+                    ? revenue.divide(BigDecimal.valueOf(orderCount), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+        }
+    }
+}
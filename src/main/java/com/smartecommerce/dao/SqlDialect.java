@@ -0,0 +1,135 @@
+package com.smartecommerce.dao;
+
+import com.smartecommerce.config.ConfigManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * SqlDialect generates the database-specific SQL fragments used by the DAOs
+ * Resolved from the configured database type (mysql or postgresql)
+ */
+public enum SqlDialect {
+
+    MYSQL {
+        @Override
+        public String orderItemPriceColumn() {
+            return "unit_price";
+        }
+
+        @Override
+        public String hoursAgo(int hours) {
+            return "NOW() - INTERVAL " + hours + " HOUR";
+        }
+
+        @Override
+        public String truncateToHour(String column) {
+            return "DATE_FORMAT(" + column + ", '%Y-%m-%d %H:00:00')";
+        }
+
+        @Override
+        public String onConflictIncrement(String table, List<String> keyColumns, List<String> valueColumns) {
+            return " ON DUPLICATE KEY UPDATE " + valueColumns.stream()
+                    .map(column -> column + " = " + column + " + VALUES(" + column + ")")
+                    .collect(Collectors.joining(", "));
+        }
+
+        @Override
+        public String onConflictReplace(List<String> keyColumns, List<String> valueColumns) {
+            return " ON DUPLICATE KEY UPDATE " + valueColumns.stream()
+                    .map(column -> column + " = VALUES(" + column + ")")
+                    .collect(Collectors.joining(", "));
+        }
+    },
+
+    POSTGRESQL {
+        @Override
+        public String orderItemPriceColumn() {
+            // database/init/01-schema.sql names it price
+            return "price";
+        }
+
+        @Override
+        public String hoursAgo(int hours) {
+            return "NOW() - INTERVAL '" + hours + " hours'";
+        }
+
+        @Override
+        public String truncateToHour(String column) {
+            return "date_trunc('hour', " + column + ")";
+        }
+
+        @Override
+        public String onConflictIncrement(String table, List<String> keyColumns, List<String> valueColumns) {
+            return " ON CONFLICT (" + String.join(", ", keyColumns) + ") DO UPDATE SET " + valueColumns.stream()
+                    .map(column -> column + " = " + table + "." + column + " + EXCLUDED." + column)
+                    .collect(Collectors.joining(", "));
+        }
+
+        @Override
+        public String onConflictReplace(List<String> keyColumns, List<String> valueColumns) {
+            return " ON CONFLICT (" + String.join(", ", keyColumns) + ") DO UPDATE SET " + valueColumns.stream()
+                    .map(column -> column + " = EXCLUDED." + column)
+                    .collect(Collectors.joining(", "));
+        }
+    };
+
+    /**
+     * Column of OrderItems holding the price paid per unit
+     */
+    public abstract String orderItemPriceColumn();
+
+    /**
+     * Expression for the timestamp the given number of hours before now
+     */
+    public abstract String hoursAgo(int hours);
+
+    /**
+     * Expression truncating a timestamp column to the start of its hour
+     */
+    public abstract String truncateToHour(String column);
+
+    /**
+     * Upsert clause that adds the inserted values to an existing row with the same key
+     */
+    public abstract String onConflictIncrement(String table, List<String> keyColumns, List<String> valueColumns);
+
+    /**
+     * Upsert clause that overwrites an existing row with the same key with the inserted values
+     */
+    public abstract String onConflictReplace(List<String> keyColumns, List<String> valueColumns);
+
+    /**
+     * Expression truncating a timestamp column to its date
+     */
+    public String truncateToDay(String column) {
+        return "CAST(" + column + " AS DATE)";
+    }
+
+    /**
+     * Null-safe fallback expression (replaces SQL Server ISNULL)
+     */
+    public String coalesce(String expression, String fallback) {
+        return "COALESCE(" + expression + ", " + fallback + ")";
+    }
+
+    /**
+     * Get the dialect for the configured database type
+     */
+    public static SqlDialect current() {
+        return fromDatabaseType(ConfigManager.getInstance().getDatabaseType());
+    }
+
+    /**
+     * Resolve a dialect from a database type name, defaulting to MySQL
+     */
+    public static SqlDialect fromDatabaseType(String databaseType) {
+        if (databaseType == null) {
+            return MYSQL;
+        }
+        return switch (databaseType.trim().toLowerCase()) {
+            case "postgresql", "postgres" -> POSTGRESQL;
+            default -> MYSQL;
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.smartecommerce.dao;
+
+import com.smartecommerce.config.ConfigManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * UnknownLoginCache remembers logins that matched no user, for auth.login.unknownTtlSeconds
+ *
+ * Credential stuffing mostly tries names that do not exist here; UserDAO answers a repeat of
+ * those from this cache instead of the database. UserDAO forgets a name as soon as a user is
+ * created or renamed to it, so a new account can sign in right away. The cache holds at most
+ * auth.login.unknownMaxEntries names; when full, expired names go first, then all of them.
+ */
+public class UnknownLoginCache {
+    private static volatile UnknownLoginCache instance;
+
+    private static final long DEFAULT_TTL_SECONDS = 60;
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    // Login -> time (epoch millis) it stops being known as unknown
+    private final Map<String, Long> unknown = new ConcurrentHashMap<>();
+
+    private UnknownLoginCache() {
+        this(ConfigManager.getInstance().getLong("auth.login.unknownTtlSeconds", DEFAULT_TTL_SECONDS) * 1000,
+                ConfigManager.getInstance().getInt("auth.login.unknownMaxEntries", DEFAULT_MAX_ENTRIES),
+                System::currentTimeMillis);
+    }
+
+    // Constructor for testing with a manual clock
+    UnknownLoginCache(long ttlMillis, int maxEntries, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static UnknownLoginCache getInstance() {
+        if (instance == null) {
+            synchronized (UnknownLoginCache.class) {
+                if (instance == null) {
+                    instance = new UnknownLoginCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Whether the login recently matched no user
+     */
+    public boolean isUnknown(String login) {
+        Long expiresAt = unknown.get(login);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= clock.getAsLong()) {
+            unknown.remove(login, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remember that the login matched no user
+     */
+    public void markUnknown(String login) {
+        if (login == null || ttlMillis <= 0 || maxEntries <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (unknown.size() >= maxEntries) {
+            unknown.values().removeIf(expiresAt -> expiresAt <= now);
+            if (unknown.size() >= maxEntries) {
+                unknown.clear();
+            }
+        }
+        unknown.put(login, now + ttlMillis);
+    }
+
+    /**
+     * Forget the logins, in any letter case, e.g. once a user holds that username or email
+     */
+    public void forget(String... logins) {
+        if (unknown.isEmpty()) {
+            return;
+        }
+        for (String login : logins) {
+            if (login != null) {
+                unknown.keySet().removeIf(name -> name.equalsIgnoreCase(login));
+            }
+        }
+    }
+
+    /**
+     * Number of logins remembered
+     */
+    public int size() {
+        return unknown.size();
+    }
+}
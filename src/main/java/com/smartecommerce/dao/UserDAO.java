@@ -14,6 +14,7 @@ import static com.smartecommerce.utils.JdbcUtils.executePreparedQuery;
  * UserDAO handles all database operations for User entity
  */
 public class UserDAO {
+    private final PeriodStatsQuery periodStatsQuery = new PeriodStatsQuery();
 
     /**
      * Create a new user
@@ -32,6 +33,7 @@ public class UserDAO {
             printE("Error creating user: " + insertResult.getError());
             return -1;
         }
+        UnknownLoginCache.getInstance().forget(user.getUsername(), user.getEmail());
 
         Long generatedId = insertResult.getGeneratedKey();
         if (generatedId != null) {
@@ -89,20 +91,66 @@ public class UserDAO {
     }
 
     /**
-     * Authenticate user
+     * Authenticate user by username, or by email when the login contains '@'
+     * Each path is an equality lookup on an indexed column (idx_user_login, idx_email); an OR
+     * across both columns would scan the table
      */
     public User authenticate(String username, String passwordHash) {
-        String sql = "SELECT * FROM Users WHERE (username = ? OR email = ?) AND password_hash = ?";
-        QueryResult queryResult = executePreparedQuery(sql, username, username, passwordHash);
+        String sql = "SELECT * FROM Users WHERE username = ? AND password_hash = ?";
+        QueryResult queryResult = executePreparedQuery(sql, username, passwordHash);
 
         if (queryResult.hasError()) {
             printE("Error authenticating user: " + queryResult.getError());
             return null;
         }
 
+        User user = mapSingleUser(queryResult);
+        if (user != null || !isEmailLogin(username)) {
+            return user;
+        }
+
+        queryResult = executePreparedQuery("SELECT * FROM Users WHERE email = ? AND password_hash = ?",
+                username, passwordHash);
+        if (queryResult.hasError()) {
+            printE("Error authenticating user: " + queryResult.getError());
+            return null;
+        }
+
         return mapSingleUser(queryResult);
     }
 
+    /**
+     * Find the user signing in with a username, or an email when the login contains '@'
+     * Logins matching no user are remembered in UnknownLoginCache, so repeats skip the database
+     */
+    public User findForLogin(String login) {
+        UnknownLoginCache unknownLogins = UnknownLoginCache.getInstance();
+        if (login == null || login.isEmpty() || unknownLogins.isUnknown(login)) {
+            return null;
+        }
+
+        QueryResult queryResult = executePreparedQuery("SELECT * FROM Users WHERE username = ?", login);
+        if (queryResult.hasError()) {
+            printE("Error finding user for login: " + queryResult.getError());
+            return null;
+        }
+
+        User user = mapSingleUser(queryResult);
+        if (user == null && isEmailLogin(login)) {
+            queryResult = executePreparedQuery("SELECT * FROM Users WHERE email = ?", login);
+            if (queryResult.hasError()) {
+                printE("Error finding user for login: " + queryResult.getError());
+                return null;
+            }
+            user = mapSingleUser(queryResult);
+        }
+
+        if (user == null) {
+            unknownLogins.markUnknown(login);
+        }
+        return user;
+    }
+
     /**
      * Get all users
      */
@@ -174,6 +222,7 @@ public class UserDAO {
             printE("Error updating user: " + updateResult.getError());
             return false;
         }
+        UnknownLoginCache.getInstance().forget(user.getUsername(), user.getEmail());
 
         Integer affectedRows = updateResult.getAffectedRows();
         return affectedRows != null && affectedRows > 0;
@@ -267,44 +316,25 @@ public class UserDAO {
 
     /**
      * Get user registration statistics by date range
-     * Analytics function for dashboard reports
+     * Analytics function for dashboard reports - all periods are computed in a single pass over Users
      */
     public Map<String, Integer> getUserRegistrationStats() {
-        Map<String, Integer> stats = new java.util.HashMap<>();
-
-        // Get users registered in last 24 hours
-        String sql24h = "SELECT COUNT(*) as count FROM Users WHERE created_at >= DATEADD(HOUR, -24, GETDATE())";
-        QueryResult result24h = executePreparedQuery(sql24h);
-        if (!result24h.hasError() && result24h.getResultSet() != null && !result24h.getResultSet().isEmpty()) {
-            stats.put("last24Hours", asInt(result24h.getResultSet().get(0).get("count")));
-        } else {
-            stats.put("last24Hours", 0);
-        }
-
-        // Get users registered in last 7 days
-        String sql7d = "SELECT COUNT(*) as count FROM Users WHERE created_at >= DATEADD(DAY, -7, GETDATE())";
-        QueryResult result7d = executePreparedQuery(sql7d);
-        if (!result7d.hasError() && result7d.getResultSet() != null && !result7d.getResultSet().isEmpty()) {
-            stats.put("last7Days", asInt(result7d.getResultSet().get(0).get("count")));
-        } else {
-            stats.put("last7Days", 0);
-        }
+        String sql = periodStatsQuery.buildCountSql("Users", "created_at");
+        QueryResult queryResult = executePreparedQuery(sql);
 
-        // Get users registered in last 30 days
-        String sql30d = "SELECT COUNT(*) as count FROM Users WHERE created_at >= DATEADD(DAY, -30, GETDATE())";
-        QueryResult result30d = executePreparedQuery(sql30d);
-        if (!result30d.hasError() && result30d.getResultSet() != null && !result30d.getResultSet().isEmpty()) {
-            stats.put("last30Days", asInt(result30d.getResultSet().get(0).get("count")));
-        } else {
-            stats.put("last30Days", 0);
+        if (queryResult.hasError()) {
+            printE("Error getting user registration statistics: " + queryResult.getError());
+            return PeriodStatsQuery.mapCounts(null);
         }
 
-        return stats;
+        List<Map<String, Object>> rows = queryResult.getResultSet();
+        return PeriodStatsQuery.mapCounts(rows != null && !rows.isEmpty() ? rows.get(0) : null);
     }
 
     /**
      * Get active users count (users who have placed orders)
      * Analytics function - requires Orders table
+     * Exact but scans Orders; reports use the sketch estimate from AnalyticsSnapshot instead
      */
     public int getActiveUsersCount() {
         String sql = "SELECT COUNT(DISTINCT user_id) as count FROM Orders";
@@ -388,6 +418,10 @@ public class UserDAO {
         return mapRow(rows.get(0));
     }
 
+    private static boolean isEmailLogin(String login) {
+        return login != null && login.indexOf('@') > 0;
+    }
+
     /**
      * Convert a row map into a User instance
      */
@@ -0,0 +1,36 @@
+package com.smartecommerce.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counter is a monotonically increasing count, backed by a LongAdder so any thread can
+ * increment it without contention
+ */
+public class Counter implements Metric {
+    private final LongAdder count = new LongAdder();
+
+    public void inc() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+    @Override
+    public void write(PrometheusWriter out, String name, byte[] labels) {
+        out.sample(name, labels).value(get()).newLine();
+    }
+
+    /**
+     * Counter read from a component's own count at scrape time
+     */
+    static Metric of(LongSupplier supplier) {
+        return (out, name, labels) -> out.sample(name, labels).value(supplier.getAsLong()).newLine();
+    }
+}
@@ -0,0 +1,44 @@
+package com.smartecommerce.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Gauge is a value that can go up and down
+ * Updates are lock-free (compare-and-set on the value's bits)
+ */
+public class Gauge implements Metric {
+    private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    public void set(double value) {
+        bits.set(Double.doubleToRawLongBits(value));
+    }
+
+    public void add(double amount) {
+        bits.getAndUpdate(current -> Double.doubleToRawLongBits(Double.longBitsToDouble(current) + amount));
+    }
+
+    public void inc() {
+        add(1);
+    }
+
+    public void dec() {
+        add(-1);
+    }
+
+    public double get() {
+        return Double.longBitsToDouble(bits.get());
+    }
+
+    @Override
+    public void write(PrometheusWriter out, String name, byte[] labels) {
+        out.sample(name, labels).value(get()).newLine();
+    }
+
+    /**
+     * Gauge read from a component at scrape time; the supplier must not block
+     */
+    static Metric of(DoubleSupplier supplier) {
+        return (out, name, labels) -> out.sample(name, labels).value(supplier.getAsDouble()).newLine();
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartecommerce.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram counts observations into fixed buckets (Prometheus histogram)
+ * Buckets are stored non-cumulatively and summed at scrape time, so observe() touches one adder
+ */
+public class Histogram implements Metric {
+    private final double[] upperBounds;
+    private final String[] boundLabels;
+    private final LongAdder[] buckets;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    /**
+     * @param upperBounds bucket upper bounds in ascending order; +Inf is added automatically
+     */
+    public Histogram(double... upperBounds) {
+        for (int i = 1; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= upperBounds[i - 1]) {
+                throw new IllegalArgumentException("Histogram bounds must be ascending");
+            }
+        }
+        this.upperBounds = upperBounds.clone();
+        this.boundLabels = new String[upperBounds.length + 1];
+        this.buckets = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            boundLabels[i] = i < upperBounds.length ? PrometheusWriter.format(upperBounds[i]) : "+Inf";
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        int bucket = 0;
+        while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sum.add(value);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public double getSum() {
+        return sum.sum();
+    }
+
+    @Override
+    public void write(PrometheusWriter out, String name, byte[] labels) {
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            out.sample(name, "_bucket", labels, "le", boundLabels[i]).value(cumulative).newLine();
+        }
+        out.sample(name, "_sum", labels).value(getSum()).newLine();
+        out.sample(name, "_count", labels).value(cumulative).newLine();
+    }
+}
@@ -0,0 +1,14 @@
+package com.smartecommerce.metrics;
+
+/**
+ * A metric that can write its samples in the Prometheus text format
+ */
+interface Metric {
+
+    /**
+     * Write this metric's sample lines
+     * @param name metric family name
+     * @param labels pre-escaped label pairs without braces, empty when unlabelled
+     */
+    void write(PrometheusWriter out, String name, byte[] labels);
+}
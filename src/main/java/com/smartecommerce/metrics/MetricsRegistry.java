@@ -0,0 +1,197 @@
+package com.smartecommerce.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * MetricsRegistry holds the application's counters, gauges, timers and histograms
+ *
+ * Components look their metrics up once and keep the reference, so recording never goes
+ * through the registry. Registration is synchronized; scraping walks volatile
+ * copy-on-write arrays, so it takes no locks and never blocks a recording thread.
+ * Asking for an existing name and label set returns the metric already registered.
+ */
+public class MetricsRegistry {
+    private static volatile MetricsRegistry instance;
+
+    private final Map<String, Family> familiesByName = new LinkedHashMap<>();
+    private volatile Family[] families = new Family[0];
+
+    // Constructor for testing with an isolated registry
+    public MetricsRegistry() {
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static MetricsRegistry getInstance() {
+        if (instance == null) {
+            synchronized (MetricsRegistry.class) {
+                if (instance == null) {
+                    instance = new MetricsRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get or create a counter
+     * @param labels label key/value pairs, e.g. "cache", "product"
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return register(name, help, Type.COUNTER, Counter.class, Counter::new, labels);
+    }
+
+    /**
+     * Expose a count the component already keeps, read at scrape time
+     */
+    public void counter(String name, String help, LongSupplier count, String... labels) {
+        replace(name, help, Type.COUNTER, Counter.of(count), labels);
+    }
+
+    /**
+     * Get or create a settable gauge
+     */
+    public Gauge gauge(String name, String help, String... labels) {
+        return register(name, help, Type.GAUGE, Gauge.class, Gauge::new, labels);
+    }
+
+    /**
+     * Expose a value read at scrape time; the supplier must be cheap and must not block
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        replace(name, help, Type.GAUGE, Gauge.of(value), labels);
+    }
+
+    /**
+     * Get or create a timer, exposed as a summary in seconds
+     */
+    public Timer timer(String name, String help, String... labels) {
+        return register(name, help, Type.SUMMARY, Timer.class, Timer::new, labels);
+    }
+
+    /**
+     * Get or create a histogram; bounds are only used when it is first created
+     */
+    public Histogram histogram(String name, String help, double[] upperBounds, String... labels) {
+        return register(name, help, Type.HISTOGRAM, Histogram.class, () -> new Histogram(upperBounds), labels);
+    }
+
+    /**
+     * Drop a metric family and all its label sets
+     */
+    public synchronized void remove(String name) {
+        if (familiesByName.remove(name) != null) {
+            families = familiesByName.values().toArray(new Family[0]);
+        }
+    }
+
+    /**
+     * Write every metric in the Prometheus text format
+     */
+    public void writeTo(PrometheusWriter out) {
+        for (Family family : families) {
+            Series[] series = family.series;
+            if (series.length == 0) {
+                continue;
+            }
+            out.header(family.name, family.help, family.type.text);
+            for (Series entry : series) {
+                entry.metric.write(out, family.name, entry.labels);
+            }
+        }
+    }
+
+    /**
+     * Current metrics in the Prometheus text format
+     */
+    public String scrape() {
+        PrometheusWriter out = new PrometheusWriter();
+        writeTo(out);
+        return out.toString();
+    }
+
+    private synchronized <M extends Metric> M register(String name, String help, Type type, Class<M> metricClass,
+                                                       Supplier<M> factory, String... labels) {
+        Family family = family(name, help, type);
+        String key = String.join("\u0000", labels);
+        Series existing = family.seriesByKey.get(key);
+        if (existing != null) {
+            if (!metricClass.isInstance(existing.metric)) {
+                throw new IllegalArgumentException("Metric " + name + " is not a " + metricClass.getSimpleName());
+            }
+            return metricClass.cast(existing.metric);
+        }
+        M metric = factory.get();
+        family.add(key, PrometheusWriter.encodeLabels(labels), metric);
+        return metric;
+    }
+
+    private synchronized void replace(String name, String help, Type type, Metric metric, String... labels) {
+        family(name, help, type).add(String.join("\u0000", labels), PrometheusWriter.encodeLabels(labels), metric);
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = familiesByName.get(name);
+        if (family == null) {
+            family = new Family(name, help, type);
+            familiesByName.put(name, family);
+            families = familiesByName.values().toArray(new Family[0]);
+        } else if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type.text);
+        }
+        return family;
+    }
+
+    /**
+     * Prometheus metric types
+     */
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), SUMMARY("summary"), HISTOGRAM("histogram");
+
+        private final String text;
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * One metric and its encoded labels
+     */
+    private static class Series {
+        private final byte[] labels;
+        private final Metric metric;
+
+        Series(byte[] labels, Metric metric) {
+            this.labels = labels;
+            this.metric = metric;
+        }
+    }
+
+    /**
+     * All label sets of one metric name; changed only under the registry lock
+     */
+    private static class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final Map<String, Series> seriesByKey = new LinkedHashMap<>();
+        private volatile Series[] series = new Series[0];
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        void add(String key, byte[] labels, Metric metric) {
+            seriesByKey.put(key, new Series(labels, metric));
+            series = seriesByKey.values().toArray(new Series[0]);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.smartecommerce.metrics;
+
+import com.smartecommerce.config.ConfigManager;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.Blocker;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MetricsServer serves the MetricsRegistry at /metrics for Prometheus on an embedded Jetty
+ *
+ * Binds to the loopback interface only. Each Jetty thread keeps its own PrometheusWriter,
+ * and the response is written from it with a blocking write, so a scrape reuses the same
+ * buffer instead of building a String per request.
+ */
+public class MetricsServer {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String METRICS_PATH = "/metrics";
+
+    private final MetricsRegistry registry;
+    private final int port;
+    private final ThreadLocal<PrometheusWriter> writers = ThreadLocal.withInitial(PrometheusWriter::new);
+    private Server server;
+
+    /**
+     * @param port port to listen on, or 0 for any free port
+     */
+    public MetricsServer(MetricsRegistry registry, int port) {
+        this.registry = registry;
+        this.port = port;
+    }
+
+    /**
+     * Start the endpoint if metrics.enabled is set in the configuration
+     * @return the running server, or null when disabled or the port could not be bound
+     */
+    public static MetricsServer startIfEnabled() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (!config.getBoolean("metrics.enabled", false)) {
+            return null;
+        }
+        MetricsServer metricsServer = new MetricsServer(MetricsRegistry.getInstance(), config.getInt("metrics.port", 9404));
+        try {
+            metricsServer.start();
+            return metricsServer;
+        } catch (Exception e) {
+            logger.error("Could not start metrics endpoint on port {}", metricsServer.port, e);
+            return null;
+        }
+    }
+
+    public synchronized void start() throws Exception {
+        if (server != null) {
+            return;
+        }
+        QueuedThreadPool threads = new QueuedThreadPool(8, 2);
+        threads.setName("metrics");
+        threads.setDaemon(true);
+
+        Server jetty = new Server(threads);
+        ServerConnector connector = new ServerConnector(jetty, 1, 1);
+        connector.setHost("127.0.0.1");
+        connector.setPort(port);
+        jetty.addConnector(connector);
+        jetty.setHandler(new ScrapeHandler());
+        jetty.start();
+        server = jetty;
+        logger.info("Metrics available at http://127.0.0.1:{}{}", getPort(), METRICS_PATH);
+    }
+
+    /**
+     * Port actually bound (useful when started with port 0)
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            return port;
+        }
+        return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.stop();
+        } catch (Exception e) {
+            logger.warn("Error stopping metrics endpoint", e);
+        }
+        server = null;
+    }
+
+    private class ScrapeHandler extends Handler.Abstract {
+        @Override
+        public boolean handle(Request request, Response response, Callback callback) throws Exception {
+            if (!METRICS_PATH.equals(Request.getPathInContext(request))) {
+                Response.writeError(request, response, callback, HttpStatus.NOT_FOUND_404);
+                return true;
+            }
+
+            PrometheusWriter out = writers.get();
+            out.reset();
+            registry.writeTo(out);
+
+            response.setStatus(HttpStatus.OK_200);
+            response.getHeaders().put(HttpHeader.CONTENT_TYPE, CONTENT_TYPE);
+            response.getHeaders().put(HttpHeader.CONTENT_LENGTH, out.size());
+            // Block until Jetty has sent the buffer, so this thread can reuse it for the next scrape
+            try (Blocker.Callback written = Blocker.callback()) {
+                response.write(true, out.toByteBuffer(), written);
+                written.block();
+                callback.succeeded();
+            } catch (Exception e) {
+                callback.failed(e);
+            }
+            return true;
+        }
+    }
+}
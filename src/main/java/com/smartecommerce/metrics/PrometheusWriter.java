@@ -0,0 +1,210 @@
+package com.smartecommerce.metrics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * PrometheusWriter builds a text-format (0.0.4) exposition into a reusable byte buffer
+ *
+ * Names, suffixes and label keys are ASCII and written char by char; label sets are
+ * encoded once at registration. Integers are formatted without allocating, so a
+ * scrape into a warmed-up writer allocates almost nothing.
+ */
+public class PrometheusWriter {
+    private static final byte[] DIGITS = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer;
+    private int length;
+    private long[] scratch = new long[4];
+
+    public PrometheusWriter() {
+        this(16 * 1024);
+    }
+
+    public PrometheusWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Discard the content so the buffer can be reused for the next scrape
+     */
+    public void reset() {
+        length = 0;
+    }
+
+    public int size() {
+        return length;
+    }
+
+    /**
+     * View of the written bytes; only valid until the next reset
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    void header(String name, String help, String type) {
+        ascii("# HELP ").ascii(name).write((byte) ' ').escaped(help, false).newLine();
+        ascii("# TYPE ").ascii(name).write((byte) ' ').ascii(type).newLine();
+    }
+
+    PrometheusWriter sample(String name, byte[] labels) {
+        return sample(name, "", labels, null, null);
+    }
+
+    PrometheusWriter sample(String name, String suffix, byte[] labels) {
+        return sample(name, suffix, labels, null, null);
+    }
+
+    PrometheusWriter sample(String name, byte[] labels, String key, String value) {
+        return sample(name, "", labels, key, value);
+    }
+
+    PrometheusWriter sample(String name, String suffix, byte[] labels, String key, String value) {
+        ascii(name).ascii(suffix);
+        if (labels.length > 0 || key != null) {
+            write((byte) '{');
+            write(labels);
+            if (key != null) {
+                if (labels.length > 0) {
+                    write((byte) ',');
+                }
+                ascii(key).ascii("=\"").ascii(value).write((byte) '"');
+            }
+            write((byte) '}');
+        }
+        return write((byte) ' ');
+    }
+
+    PrometheusWriter value(long value) {
+        if (value == Long.MIN_VALUE) {
+            return ascii(Long.toString(value));
+        }
+        if (value < 0) {
+            write((byte) '-');
+            value = -value;
+        }
+        ensureCapacity(20);
+        int start = length;
+        do {
+            buffer[length++] = DIGITS[(int) (value % 10)];
+            value /= 10;
+        } while (value > 0);
+        // Digits were written lowest first
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+        return this;
+    }
+
+    PrometheusWriter value(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return value((long) value);
+        }
+        return ascii(format(value));
+    }
+
+    /**
+     * Write a nanosecond duration as seconds
+     */
+    PrometheusWriter seconds(long nanos) {
+        return value(nanos / 1e9);
+    }
+
+    PrometheusWriter newLine() {
+        return write((byte) '\n');
+    }
+
+    /**
+     * Per-writer scratch array for metrics that need temporary storage while writing
+     */
+    long[] scratch(int size) {
+        if (scratch.length < size) {
+            scratch = new long[size];
+        }
+        return scratch;
+    }
+
+    static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Encode label pairs (key, value, key, value...) once, escaping values as the format requires
+     */
+    static byte[] encodeLabels(String... keyValues) {
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be key/value pairs");
+        }
+        PrometheusWriter out = new PrometheusWriter(64);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (i > 0) {
+                out.write((byte) ',');
+            }
+            out.ascii(keyValues[i]).ascii("=\"").escaped(keyValues[i + 1], true).write((byte) '"');
+        }
+        return Arrays.copyOf(out.buffer, out.length);
+    }
+
+    private PrometheusWriter escaped(String text, boolean quoted) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                ascii("\\\\");
+            } else if (c == '\n') {
+                ascii("\\n");
+            } else if (c == '"' && quoted) {
+                ascii("\\\"");
+            } else if (c < 0x80) {
+                write((byte) c);
+            } else {
+                // Keep surrogate pairs together so they encode as one code point
+                int end = Character.isHighSurrogate(c) && i + 1 < text.length() ? i + 2 : i + 1;
+                write(text.substring(i, end).getBytes(StandardCharsets.UTF_8));
+                i = end - 1;
+            }
+        }
+        return this;
+    }
+
+    private PrometheusWriter ascii(String text) {
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[length++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    private PrometheusWriter write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+        return this;
+    }
+
+    private PrometheusWriter write(byte b) {
+        ensureCapacity(1);
+        buffer[length++] = b;
+        return this;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
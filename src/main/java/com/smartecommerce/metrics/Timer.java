@@ -0,0 +1,57 @@
+package com.smartecommerce.metrics;
+
+import com.smartecommerce.performance.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timer records durations: a count, a total and a LatencyHistogram for percentiles
+ * Exposed as a Prometheus summary in seconds with p50, p90 and p99 quantiles
+ */
+public class Timer implements Metric {
+    private static final double[] PERCENTILES = {50, 90, 99};
+    private static final String[] QUANTILES = {"0.5", "0.9", "0.99"};
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * Record one duration in nanoseconds
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        histogram.record(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Duration at a percentile (0-100) in nanoseconds
+     */
+    public long getPercentile(double percentile) {
+        return histogram.getPercentile(percentile);
+    }
+
+    public long getMax() {
+        return histogram.getMax();
+    }
+
+    @Override
+    public void write(PrometheusWriter out, String name, byte[] labels) {
+        long[] values = out.scratch(PERCENTILES.length);
+        histogram.getPercentiles(PERCENTILES, values);
+        for (int i = 0; i < QUANTILES.length; i++) {
+            out.sample(name, labels, "quantile", QUANTILES[i]).seconds(values[i]).newLine();
+        }
+        out.sample(name, "_sum", labels).seconds(getTotalNanos()).newLine();
+        out.sample(name, "_count", labels).value(getCount()).newLine();
+    }
+}
@@ -0,0 +1,357 @@
+package com.smartecommerce.performance;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+import static com.smartecommerce.utils.AppUtils.println;
+
+/**
+ * BenchmarkComparator compares a JMH JSON result file against a stored baseline
+ *
+ * A metric regresses when it is worse than the baseline by more than the threshold and
+ * the two 99.9% confidence intervals reported by JMH do not overlap. Checked metrics:
+ * the primary score (throughput or average/sample time), latency percentiles of
+ * sample-time benchmarks, and bytes allocated per operation (-prof gc). Runs on different
+ * major JDK versions are not compared at all, since the JIT and GC differ between them.
+ *
+ * Usage: BenchmarkComparator <baseline.json> <current.json> [threshold, default 0.10]
+ * Exits with 1 when any regression is found, so the Maven gate fails the build.
+ */
+public class BenchmarkComparator {
+    public static final double DEFAULT_THRESHOLD = 0.10;
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    // Allocation changes smaller than this are JMH/GC noise, whatever the relative change
+    private static final double MIN_ALLOCATION_DELTA_BYTES = 16;
+    // Percentiles have no confidence interval, so they must move further before they count
+    private static final double PERCENTILE_THRESHOLD_FACTOR = 2;
+    private static final String[] PERCENTILES = {"50.0", "90.0", "99.0"};
+
+    private BenchmarkComparator() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            printE("Usage: BenchmarkComparator <baseline.json> <current.json> [threshold]");
+            System.exit(2);
+        }
+        Path baselineFile = Path.of(args[0]);
+        Path currentFile = Path.of(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        if (!Files.isRegularFile(baselineFile)) {
+            printE("No benchmark baseline at " + baselineFile + " - copy " + currentFile + " there to create one");
+            System.exit(2);
+        }
+
+        try {
+            Map<String, BenchmarkResult> baseline = read(baselineFile);
+            Map<String, BenchmarkResult> current = read(currentFile);
+            String mismatch = jdkMismatch(baseline, current);
+            if (mismatch != null) {
+                printE(mismatch + " - record a new baseline with the project's JDK: copy " + currentFile
+                        + " to " + baselineFile);
+                System.exit(2);
+            }
+            List<Finding> findings = compare(baseline, current, threshold);
+            findings.forEach(finding -> println(finding.toString()));
+
+            long regressions = findings.stream().filter(Finding::isRegression).count();
+            if (regressions > 0) {
+                printE(regressions + " benchmark metric(s) regressed by more than "
+                        + Math.round(threshold * 100) + "% against " + baselineFile);
+                System.exit(1);
+            }
+            println("No benchmark regressions against " + baselineFile);
+        } catch (IOException | RuntimeException e) {
+            printE("Could not compare benchmark results: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Read a JMH result file (-rf json)
+     * @return results keyed by benchmark name and parameters
+     */
+    public static Map<String, BenchmarkResult> read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    public static Map<String, BenchmarkResult> parse(Reader reader) {
+        Map<String, BenchmarkResult> results = new TreeMap<>();
+        JsonArray runs = JsonParser.parseReader(reader).getAsJsonArray();
+        for (JsonElement element : runs) {
+            BenchmarkResult result = BenchmarkResult.fromJson(element.getAsJsonObject());
+            results.put(result.getKey(), result);
+        }
+        return results;
+    }
+
+    /**
+     * Check that both runs used the same major JDK version
+     * @return what differs, or null if the versions match or are not recorded
+     */
+    public static String jdkMismatch(Map<String, BenchmarkResult> baseline, Map<String, BenchmarkResult> current) {
+        String was = majorJdkVersion(baseline);
+        String now = majorJdkVersion(current);
+        if (was == null || now == null || was.equals(now)) {
+            return null;
+        }
+        return "Baseline was recorded on JDK " + was + " but this run used JDK " + now;
+    }
+
+    private static String majorJdkVersion(Map<String, BenchmarkResult> results) {
+        return results.values().stream()
+                .map(BenchmarkResult::getJdkVersion)
+                .filter(version -> version != null && !version.isEmpty())
+                .map(version -> version.split("[.+-]")[0])
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Compare every metric present in both runs
+     * @param threshold relative change (0.10 = 10%) a metric must exceed to regress
+     */
+    public static List<Finding> compare(Map<String, BenchmarkResult> baseline, Map<String, BenchmarkResult> current,
+                                        double threshold) {
+        List<Finding> findings = new ArrayList<>();
+        for (BenchmarkResult result : current.values()) {
+            BenchmarkResult before = baseline.get(result.getKey());
+            if (before == null) {
+                findings.add(Finding.note(result.getKey(), "new benchmark, not in baseline"));
+                continue;
+            }
+
+            boolean higherIsBetter = result.isThroughput();
+            findings.add(Finding.of(result.getKey(), result.getMode() + " (" + result.getUnit() + ")",
+                    before.primary, result.primary, higherIsBetter, threshold, 0));
+
+            if (result.isSampleTime()) {
+                for (String percentile : PERCENTILES) {
+                    Metric was = before.percentiles.get(percentile);
+                    Metric now = result.percentiles.get(percentile);
+                    if (was != null && now != null) {
+                        findings.add(Finding.of(result.getKey(), "p" + percentile.replace(".0", ""),
+                                was, now, false, threshold * PERCENTILE_THRESHOLD_FACTOR, 0));
+                    }
+                }
+            }
+
+            if (before.allocation != null && result.allocation != null) {
+                findings.add(Finding.of(result.getKey(), "alloc (B/op)", before.allocation, result.allocation,
+                        false, threshold, MIN_ALLOCATION_DELTA_BYTES));
+            }
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                findings.add(Finding.note(key, "in baseline but not run"));
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * One score with its confidence interval (NaN bounds when JMH could not compute one)
+     */
+    public static class Metric {
+        private final double score;
+        private final double low;
+        private final double high;
+
+        public Metric(double score, double low, double high) {
+            this.score = score;
+            this.low = low;
+            this.high = high;
+        }
+
+        static Metric fromJson(JsonObject json) {
+            double score = json.get("score").getAsDouble();
+            JsonArray confidence = json.has("scoreConfidence") ? json.getAsJsonArray("scoreConfidence") : null;
+            if (confidence == null || confidence.size() != 2) {
+                return new Metric(score, Double.NaN, Double.NaN);
+            }
+            return new Metric(score, confidence.get(0).getAsDouble(), confidence.get(1).getAsDouble());
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        boolean hasConfidence() {
+            return !Double.isNaN(low) && !Double.isNaN(high);
+        }
+    }
+
+    /**
+     * Scores of one benchmark and parameter combination
+     */
+    public static class BenchmarkResult {
+        private final String key;
+        private final String mode;
+        private final String unit;
+        private final Metric primary;
+        private final Map<String, Metric> percentiles = new LinkedHashMap<>();
+        private final Metric allocation;
+        private final String jdkVersion;
+
+        private BenchmarkResult(String key, String mode, String unit, Metric primary, Metric allocation,
+                                String jdkVersion) {
+            this.key = key;
+            this.mode = mode;
+            this.unit = unit;
+            this.primary = primary;
+            this.allocation = allocation;
+            this.jdkVersion = jdkVersion;
+        }
+
+        static BenchmarkResult fromJson(JsonObject json) {
+            StringBuilder key = new StringBuilder(json.get("benchmark").getAsString());
+            if (json.has("params")) {
+                // TreeMap so the key does not depend on parameter order in the file
+                Map<String, String> params = new TreeMap<>();
+                json.getAsJsonObject("params").entrySet()
+                        .forEach(param -> params.put(param.getKey(), param.getValue().getAsString()));
+                params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            }
+
+            JsonObject primaryJson = json.getAsJsonObject("primaryMetric");
+            JsonObject secondary = json.has("secondaryMetrics") ? json.getAsJsonObject("secondaryMetrics") : null;
+            Metric allocation = secondary != null && secondary.has(ALLOCATION_METRIC)
+                    ? Metric.fromJson(secondary.getAsJsonObject(ALLOCATION_METRIC)) : null;
+
+            BenchmarkResult result = new BenchmarkResult(key.toString(), json.get("mode").getAsString(),
+                    primaryJson.get("scoreUnit").getAsString(), Metric.fromJson(primaryJson), allocation,
+                    json.has("jdkVersion") ? json.get("jdkVersion").getAsString() : null);
+            if (primaryJson.has("scorePercentiles")) {
+                JsonObject percentiles = primaryJson.getAsJsonObject("scorePercentiles");
+                for (String percentile : PERCENTILES) {
+                    if (percentiles.has(percentile)) {
+                        double value = percentiles.get(percentile).getAsDouble();
+                        result.percentiles.put(percentile, new Metric(value, Double.NaN, Double.NaN));
+                    }
+                }
+            }
+            return result;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public Metric getPrimary() {
+            return primary;
+        }
+
+        public Metric getAllocation() {
+            return allocation;
+        }
+
+        /** JDK the run used, e.g. 21.0.1; null in files that do not record it */
+        public String getJdkVersion() {
+            return jdkVersion;
+        }
+
+        public boolean isThroughput() {
+            return "thrpt".equals(mode);
+        }
+
+        public boolean isSampleTime() {
+            return "sample".equals(mode);
+        }
+    }
+
+    /**
+     * Outcome of comparing one metric
+     */
+    public static class Finding {
+        private final String benchmark;
+        private final String metric;
+        private final double baseline;
+        private final double current;
+        private final double change;
+        private final boolean regression;
+        private final String note;
+
+        private Finding(String benchmark, String metric, double baseline, double current, double change,
+                        boolean regression, String note) {
+            this.benchmark = benchmark;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            this.change = change;
+            this.regression = regression;
+            this.note = note;
+        }
+
+        static Finding note(String benchmark, String note) {
+            return new Finding(benchmark, "", Double.NaN, Double.NaN, 0, false, note);
+        }
+
+        static Finding of(String benchmark, String metric, Metric before, Metric now, boolean higherIsBetter,
+                          double threshold, double minAbsoluteDelta) {
+            // Positive change is always "worse", whichever direction the metric improves in
+            double delta = higherIsBetter ? before.score - now.score : now.score - before.score;
+            double change = before.score != 0 ? delta / Math.abs(before.score) : 0;
+
+            boolean significant = true;
+            if (before.hasConfidence() && now.hasConfidence()) {
+                significant = higherIsBetter ? now.high < before.low : now.low > before.high;
+            }
+            boolean regression = change > threshold && delta > minAbsoluteDelta && significant;
+            String note = regression ? "REGRESSION" : change > threshold && !significant ? "within noise" : "";
+            return new Finding(benchmark, metric, before.score, now.score, change, regression, note);
+        }
+
+        public String getBenchmark() {
+            return benchmark;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        /** Relative change, positive when the metric got worse */
+        public double getChange() {
+            return change;
+        }
+
+        public boolean isRegression() {
+            return regression;
+        }
+
+        @Override
+        public String toString() {
+            if (metric.isEmpty()) {
+                return String.format("%-70s %s", benchmark, note);
+            }
+            return String.format("%-70s %-18s %14.3f -> %14.3f  %+7.1f%% %s",
+                    benchmark, metric, baseline, current, change * 100, note);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.smartecommerce.performance;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * LatencyHistogram records durations in log-linear buckets (HDR-style) for percentile queries
+ *
+ * Values below 16 ns get exact buckets; larger values are grouped by power of two with
+ * 16 sub-buckets each, so any reported percentile is within 1/16 (6.25%) of the true value.
+ * Counts are striped across several bucket arrays picked by thread, so concurrent
+ * writers rarely touch the same cache line; readers sum the stripes.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Highest tracked magnitude: 2^40 ns (about 18 minutes); longer values are clamped
+    private static final int MAX_MAGNITUDE = 40;
+    private static final long MAX_TRACKABLE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private static final int STRIPES = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+    }
+
+    /**
+     * Record one duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE));
+        int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+        stripes[stripe].incrementAndGet(bucketOf(value));
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Value at the given percentile (0-100) in nanoseconds, or 0 if nothing was recorded
+     * Reports the highest value of the matching bucket, capped at the recorded maximum
+     */
+    public long getPercentile(double percentile) {
+        long[] value = new long[1];
+        getPercentiles(new double[]{percentile}, value);
+        return value[0];
+    }
+
+    /**
+     * Fill values with the nanoseconds at each percentile in one pass, without allocating
+     * @param percentiles percentiles (0-100) in ascending order
+     * @param values receives one value per percentile (0 if nothing was recorded)
+     */
+    public void getPercentiles(double[] percentiles, long[] values) {
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                total += stripe.get(i);
+            }
+        }
+        if (total == 0) {
+            Arrays.fill(values, 0, percentiles.length, 0);
+            return;
+        }
+
+        long maxValue = getMax();
+        int next = 0;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT && next < percentiles.length; i++) {
+            for (AtomicLongArray stripe : stripes) {
+                seen += stripe.get(i);
+            }
+            while (next < percentiles.length && seen >= rank(percentiles[next], total)) {
+                values[next++] = Math.min(highestValueIn(i), maxValue);
+            }
+        }
+        // Writers racing with the first pass can leave the last ranks unreached
+        while (next < percentiles.length) {
+            values[next++] = maxValue;
+        }
+    }
+
+    private static long rank(double percentile, long total) {
+        return Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        max.reset();
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long lowest = (SUB_BUCKETS + subBucket) << (magnitude - SUB_BUCKET_BITS);
+        return lowest + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
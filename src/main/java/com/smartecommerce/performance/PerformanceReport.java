@@ -1,6 +1,10 @@
 package com.smartecommerce.performance;
 
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.smartecommerce.models.Product;
+import com.smartecommerce.performance.QueryTimer.QueryStats;
 import com.smartecommerce.service.ProductService;
 
 import java.io.IOException;
@@ -8,16 +12,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.smartecommerce.utils.AppUtils.println;
 
 /**
  * PerformanceReport generates comprehensive performance analysis reports
  * Demonstrates the effectiveness of optimization techniques
+ *
+ * The same measurements and query statistics are also written to performance_report.json
+ * so runs can be compared by tools; JMH benchmarks (mvn -Pbenchmarks) are the rigorous numbers.
  */
 public class PerformanceReport {
     private static final String REPORT_FILE = "performance_report.txt";
+    private static final String JSON_REPORT_FILE = "performance_report.json";
 
     /**
      * Generate and save performance report, returning the report content.
@@ -25,25 +35,27 @@ public class PerformanceReport {
     public static String generateReport(ProductService productService) {
         final String NL = System.lineSeparator();
         StringBuilder sb = new StringBuilder();
+        Map<String, Double> timings = new LinkedHashMap<>();
+        LocalDateTime generatedAt = LocalDateTime.now();
 
         sb.append("=".repeat(80)).append(NL)
           .append("SMART E-COMMERCE SYSTEM - PERFORMANCE ANALYSIS REPORT").append(NL)
-          .append("Generated: ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append(NL)
+          .append("Generated: ").append(generatedAt.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append(NL)
           .append("=".repeat(80)).append(NL).append(NL);
 
         sb.append("TEST 1: CACHE PERFORMANCE").append(NL)
           .append("-".repeat(80)).append(NL);
-        testCachePerformance(sb, productService);
+        testCachePerformance(sb, productService, timings);
         sb.append(NL);
 
         sb.append("TEST 2: SEARCH PERFORMANCE").append(NL)
           .append("-".repeat(80)).append(NL);
-        testSearchPerformance(sb, productService);
+        testSearchPerformance(sb, productService, timings);
         sb.append(NL);
 
         sb.append("TEST 3: SORTING ALGORITHMS COMPARISON").append(NL)
           .append("-".repeat(80)).append(NL);
-        testSortingPerformance(sb, productService);
+        testSortingPerformance(sb, productService, timings);
         sb.append(NL);
 
         sb.append("TEST 4: DATABASE QUERY STATISTICS").append(NL)
@@ -66,10 +78,46 @@ public class PerformanceReport {
             System.err.println("Error generating report: " + e.getMessage());
             e.printStackTrace();
         }
+        writeJsonReport(generatedAt, timings);
         return report;
     }
 
-    private static void testCachePerformance(StringBuilder sb, ProductService productService) {
+    /**
+     * Write the measurements and per-query statistics as JSON
+     */
+    private static void writeJsonReport(LocalDateTime generatedAt, Map<String, Double> timings) {
+        JsonObject json = new JsonObject();
+        json.addProperty("generatedAt", generatedAt.toString());
+
+        JsonObject timingsMs = new JsonObject();
+        timings.forEach(timingsMs::addProperty);
+        json.add("timingsMs", timingsMs);
+
+        JsonArray queries = new JsonArray();
+        for (Map.Entry<String, QueryStats> entry : QueryTimer.getAllQueryStats().entrySet()) {
+            QueryStats stats = entry.getValue();
+            JsonObject query = new JsonObject();
+            query.addProperty("query", entry.getKey());
+            query.addProperty("executions", stats.getExecutions());
+            query.addProperty("errors", stats.getErrors());
+            query.addProperty("rows", stats.getRows());
+            query.addProperty("p50Ms", stats.getPercentileMillis(50));
+            query.addProperty("p95Ms", stats.getPercentileMillis(95));
+            query.addProperty("p99Ms", stats.getPercentileMillis(99));
+            query.addProperty("maxMs", stats.getMaxMillis());
+            query.addProperty("totalMs", stats.getTotalMillis());
+            queries.add(query);
+        }
+        json.add("queries", queries);
+
+        try {
+            Files.writeString(Path.of(JSON_REPORT_FILE), new GsonBuilder().setPrettyPrinting().create().toJson(json));
+        } catch (IOException e) {
+            System.err.println("Error writing JSON report: " + e.getMessage());
+        }
+    }
+
+    private static void testCachePerformance(StringBuilder sb, ProductService productService, Map<String, Double> timings) {
         sb.append("Testing product retrieval with and without cache...").append(System.lineSeparator());
 
         // First access (database)
@@ -83,13 +131,15 @@ public class PerformanceReport {
         long time2 = System.nanoTime() - start2;
 
         double improvement = ((double) (time1 - time2) / time1) * 100;
+        timings.put("cacheFirstAccess", time1 / 1_000_000.0);
+        timings.put("cacheSecondAccess", time2 / 1_000_000.0);
 
         sb.append("First access (DB):    ").append(String.format("%.3f ms", time1 / 1_000_000.0)).append(System.lineSeparator());
         sb.append("Second access (Cache): ").append(String.format("%.3f ms", time2 / 1_000_000.0)).append(System.lineSeparator());
         sb.append("Performance improvement: ").append(String.format("%.2f%%", improvement)).append(System.lineSeparator());
     }
 
-    private static void testSearchPerformance(StringBuilder sb, ProductService productService) {
+    private static void testSearchPerformance(StringBuilder sb, ProductService productService, Map<String, Double> timings) {
         sb.append("Testing search performance...").append(System.lineSeparator());
 
         String searchTerm = "laptop";
@@ -103,13 +153,15 @@ public class PerformanceReport {
         long start2 = System.nanoTime();
         List<Product> results2 = productService.searchProducts(searchTerm);
         long time2 = System.nanoTime() - start2;
+        timings.put("searchFirst", time1 / 1_000_000.0);
+        timings.put("searchSecond", time2 / 1_000_000.0);
 
         sb.append("First search (DB):     ").append(String.format("%.3f ms", time1 / 1_000_000.0)).append(System.lineSeparator());
         sb.append("Second search (Cache): ").append(String.format("%.3f ms", time2 / 1_000_000.0)).append(System.lineSeparator());
         sb.append("Results found: ").append(results1.size()).append(System.lineSeparator());
     }
 
-    private static void testSortingPerformance(StringBuilder sb, ProductService productService) {
+    private static void testSortingPerformance(StringBuilder sb, ProductService productService, Map<String, Double> timings) {
         List<Product> products = productService.getAllProducts();
         sb.append("Testing sorting algorithms with " + products.size() + " products...")
           .append(System.lineSeparator());
@@ -123,6 +175,8 @@ public class PerformanceReport {
         long start2 = System.nanoTime();
         productService.sortProductsByPrice(products, true);
         long time2 = System.nanoTime() - start2;
+        timings.put("quickSortByName", time1 / 1_000_000.0);
+        timings.put("mergeSortByPrice", time2 / 1_000_000.0);
 
         sb.append("QuickSort (by name):  ").append(String.format("%.3f ms", time1 / 1_000_000.0)).append(System.lineSeparator());
         sb.append("MergeSort (by price): ").append(String.format("%.3f ms", time2 / 1_000_000.0)).append(System.lineSeparator());
@@ -1,15 +1,43 @@
 package com.smartecommerce.performance;
 
-import java.util.HashMap;
+import com.smartecommerce.metrics.Counter;
+import com.smartecommerce.metrics.MetricsRegistry;
+import com.smartecommerce.metrics.Timer;
+
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * QueryTimer measures and tracks database query performance
  * Used for performance analysis and optimization
+ *
+ * JdbcUtils records every statement automatically, keyed by its normalized SQL
+ * (literals replaced by ?, whitespace collapsed). Each key's counters and latency timer
+ * live in the MetricsRegistry with a query label, so recording is lock-free and the same
+ * numbers are scraped from /metrics.
  */
 public class QueryTimer {
-    private static final Map<String, Long> queryTimes = new HashMap<>();
-    private static final Map<String, Integer> queryExecutions = new HashMap<>();
+    // Stop creating new keys past this point so unparameterized SQL cannot grow the map forever
+    private static final int MAX_QUERIES = 1000;
+    private static final String OTHER_QUERIES = "(other queries)";
+
+    private static final String DURATION_METRIC = "smartecommerce_query_duration_seconds";
+    private static final String ERRORS_METRIC = "smartecommerce_query_errors_total";
+    private static final String ROWS_METRIC = "smartecommerce_query_rows_total";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, QueryStats> stats = new ConcurrentHashMap<>();
+    private static final Map<String, String> normalizedCache = new ConcurrentHashMap<>();
+
+    private QueryTimer() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
 
     /**
      * Start timing a query
@@ -22,64 +50,116 @@ public class QueryTimer {
      * End timing and record the query
      */
     public static void endTimer(String queryName, long startTime) {
-        long endTime = System.nanoTime();
-        long duration = endTime - startTime;
+        record(queryName, System.nanoTime() - startTime, 0, false);
+    }
 
-        // Store timing information
-        queryTimes.put(queryName, queryTimes.getOrDefault(queryName, 0L) + duration);
-        queryExecutions.put(queryName, queryExecutions.getOrDefault(queryName, 0) + 1);
+    /**
+     * Record one execution of a statement
+     * @param sql SQL text or query name; normalized before use as the key
+     * @param durationNanos elapsed time
+     * @param rows rows returned or affected
+     * @param error whether the statement failed
+     */
+    public static void record(String sql, long durationNanos, long rows, boolean error) {
+        QueryStats queryStats = statsFor(normalize(sql));
+        queryStats.duration.record(durationNanos);
+        queryStats.rows.add(rows);
+        if (error) {
+            queryStats.errors.inc();
+        }
+    }
+
+    /**
+     * Normalize SQL so executions with different literals share one key
+     */
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return OTHER_QUERIES;
+        }
+        String cached = normalizedCache.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        if (normalizedCache.size() < MAX_QUERIES * 4) {
+            normalizedCache.put(sql, normalized);
+        }
+        return normalized;
+    }
+
+    private static QueryStats statsFor(String key) {
+        QueryStats queryStats = stats.get(key);
+        if (queryStats != null) {
+            return queryStats;
+        }
+        if (stats.size() >= MAX_QUERIES) {
+            key = OTHER_QUERIES;
+        }
+        return stats.computeIfAbsent(key, QueryStats::new);
     }
 
     /**
      * Get average execution time for a query in milliseconds
      */
     public static double getAverageTime(String queryName) {
-        if (!queryExecutions.containsKey(queryName) || queryExecutions.get(queryName) == 0) {
+        QueryStats queryStats = stats.get(normalize(queryName));
+        if (queryStats == null || queryStats.getExecutions() == 0) {
             return 0.0;
         }
-        long totalTime = queryTimes.get(queryName);
-        int executions = queryExecutions.get(queryName);
-        return (totalTime / executions) / 1_000_000.0; // Convert to milliseconds
+        return queryStats.duration.getTotalNanos() / (double) queryStats.getExecutions() / 1_000_000.0;
     }
 
     /**
      * Get total execution time for a query in milliseconds
      */
     public static double getTotalTime(String queryName) {
-        if (!queryTimes.containsKey(queryName)) {
-            return 0.0;
-        }
-        return queryTimes.get(queryName) / 1_000_000.0; // Convert to milliseconds
+        QueryStats queryStats = stats.get(normalize(queryName));
+        return queryStats != null ? queryStats.getTotalMillis() : 0.0;
     }
 
     /**
      * Get number of executions for a query
      */
     public static int getExecutionCount(String queryName) {
-        return queryExecutions.getOrDefault(queryName, 0);
+        QueryStats queryStats = stats.get(normalize(queryName));
+        return queryStats != null ? (int) queryStats.getExecutions() : 0;
+    }
+
+    /**
+     * Get the statistics for a query, or null if it has not run
+     */
+    public static QueryStats getStats(String queryName) {
+        return stats.get(normalize(queryName));
+    }
+
+    /**
+     * Get all query statistics, keyed by normalized SQL
+     */
+    public static Map<String, QueryStats> getAllQueryStats() {
+        return new TreeMap<>(stats);
     }
 
     /**
      * Get all query statistics
      */
     public static Map<String, String> getAllStats() {
-        Map<String, String> stats = new HashMap<>();
-        for (String queryName : queryTimes.keySet()) {
-            String stat = String.format("Executions: %d, Avg Time: %.2f ms, Total Time: %.2f ms",
-                    getExecutionCount(queryName),
-                    getAverageTime(queryName),
-                    getTotalTime(queryName));
-            stats.put(queryName, stat);
-        }
-        return stats;
+        Map<String, String> formatted = new TreeMap<>();
+        stats.forEach((queryName, queryStats) -> formatted.put(queryName, queryStats.toString()));
+        return formatted;
     }
 
     /**
      * Reset all statistics
      */
     public static void reset() {
-        queryTimes.clear();
-        queryExecutions.clear();
+        stats.clear();
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.remove(DURATION_METRIC);
+        registry.remove(ERRORS_METRIC);
+        registry.remove(ROWS_METRIC);
     }
 
     /**
@@ -87,10 +167,60 @@ public class QueryTimer {
      */
     public static void printStats() {
         System.out.println("\n===== Query Performance Statistics =====");
-        getAllStats().forEach((queryName, stats) -> {
-            System.out.println(queryName + ": " + stats);
+        getAllStats().forEach((queryName, queryStats) -> {
+            System.out.println(queryName + ": " + queryStats);
         });
         System.out.println("========================================\n");
     }
-}
 
+    /**
+     * Counters and latency timer for one normalized statement
+     */
+    public static class QueryStats {
+        private final Timer duration;
+        private final Counter errors;
+        private final Counter rows;
+
+        QueryStats(String query) {
+            MetricsRegistry registry = MetricsRegistry.getInstance();
+            this.duration = registry.timer(DURATION_METRIC, "Statement latency by normalized SQL", "query", query);
+            this.errors = registry.counter(ERRORS_METRIC, "Failed statements by normalized SQL", "query", query);
+            this.rows = registry.counter(ROWS_METRIC, "Rows returned or affected by normalized SQL", "query", query);
+        }
+
+        public long getExecutions() {
+            return duration.getCount();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getRows() {
+            return rows.get();
+        }
+
+        public double getTotalMillis() {
+            return duration.getTotalNanos() / 1_000_000.0;
+        }
+
+        /**
+         * Latency at a percentile (0-100) in milliseconds
+         */
+        public double getPercentileMillis(double percentile) {
+            return duration.getPercentile(percentile) / 1_000_000.0;
+        }
+
+        public double getMaxMillis() {
+            return duration.getMax() / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Executions: %d, Errors: %d, Rows: %d, p50: %.2f ms, p95: %.2f ms, p99: %.2f ms, Max: %.2f ms, Total Time: %.2f ms",
+                    getExecutions(), getErrors(), getRows(),
+                    getPercentileMillis(50), getPercentileMillis(95), getPercentileMillis(99),
+                    getMaxMillis(), getTotalMillis());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.smartecommerce.performance;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+import static com.smartecommerce.utils.AppUtils.println;
+
+/**
+ * RecordingAnalyzer summarizes a Java Flight Recorder file into a top-N hotspots report
+ *
+ * Reads the application events (queries, cache lookups, async tasks, image loads) and
+ * JDK execution samples. Record with config/jfr/smartecommerce.jfc layered over a JDK
+ * profile to get all of them.
+ *
+ * Usage: RecordingAnalyzer <recording.jfr> [--top N]
+ */
+public class RecordingAnalyzer {
+    public static final int DEFAULT_TOP = 10;
+
+    static final String QUERY_EVENT = "com.smartecommerce.Query";
+    static final String CACHE_EVENT = "com.smartecommerce.CacheLookup";
+    static final String ASYNC_EVENT = "com.smartecommerce.AsyncTask";
+    static final String IMAGE_EVENT = "com.smartecommerce.ImageLoad";
+    static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+
+    private final int top;
+    private final Map<String, Hotspot> queries = new HashMap<>();
+    private final Map<String, long[]> cacheLookups = new TreeMap<>(); // cache -> {hits, misses}
+    private final Map<String, Hotspot> asyncTasks = new HashMap<>();
+    private final Map<String, Hotspot> imageLoads = new HashMap<>();
+    private final Map<String, Hotspot> hotMethods = new HashMap<>();
+    private long executionSamples;
+
+    public RecordingAnalyzer(int top) {
+        this.top = top;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            printE("Usage: RecordingAnalyzer <recording.jfr> [--top N]");
+            System.exit(2);
+        }
+        int top = DEFAULT_TOP;
+        if (args.length > 2 && args[1].equals("--top")) {
+            top = Integer.parseInt(args[2]);
+        }
+
+        Path recording = Path.of(args[0]);
+        if (!Files.isRegularFile(recording)) {
+            printE("No recording at " + recording);
+            System.exit(2);
+        }
+        try {
+            println(analyze(recording, top));
+        } catch (IOException e) {
+            printE("Could not read recording: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Read a recording and build the hotspots report
+     */
+    public static String analyze(Path recording, int top) throws IOException {
+        RecordingAnalyzer analyzer = new RecordingAnalyzer(top);
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                analyzer.accept(file.readEvent());
+            }
+        }
+        return analyzer.report();
+    }
+
+    /**
+     * Add one event to the summary; events of other types are ignored
+     */
+    public void accept(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case QUERY_EVENT -> {
+                Hotspot query = queries.computeIfAbsent(QueryTimer.normalize(event.getString("sql")), Hotspot::new);
+                query.add(event.getDuration());
+                query.rows += event.getLong("rows");
+                if (event.getBoolean("failed")) {
+                    query.errors++;
+                }
+            }
+            case CACHE_EVENT -> {
+                long[] counts = cacheLookups.computeIfAbsent(event.getString("cache"), cache -> new long[2]);
+                counts[event.getBoolean("hit") ? 0 : 1]++;
+            }
+            case ASYNC_EVENT -> {
+                Hotspot task = asyncTasks.computeIfAbsent(event.getString("task"), Hotspot::new);
+                task.add(event.getDuration());
+                task.waitNanos += event.getLong("queueWait");
+                task.maxWaitNanos = Math.max(task.maxWaitNanos, event.getLong("queueWait"));
+                if (event.getBoolean("failed")) {
+                    task.errors++;
+                }
+            }
+            case IMAGE_EVENT -> {
+                Hotspot image = imageLoads.computeIfAbsent(event.getString("source"), Hotspot::new);
+                image.add(event.getDuration());
+                if (event.getBoolean("failed")) {
+                    image.errors++;
+                }
+            }
+            case EXECUTION_SAMPLE -> {
+                executionSamples++;
+                String method = topFrame(event.getStackTrace());
+                if (method != null) {
+                    hotMethods.computeIfAbsent(method, Hotspot::new).count++;
+                }
+            }
+            default -> {
+                // Not part of the report
+            }
+        }
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame()) {
+                RecordedMethod method = frame.getMethod();
+                return method.getType().getName() + "." + method.getName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Format the summary gathered so far
+     */
+    public String report() {
+        final String NL = System.lineSeparator();
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("=".repeat(80)).append(NL)
+          .append("JFR HOTSPOTS (top ").append(top).append(")").append(NL)
+          .append("=".repeat(80)).append(NL).append(NL);
+
+        sb.append("QUERIES BY TOTAL TIME").append(NL).append("-".repeat(80)).append(NL);
+        for (Hotspot query : topByTotal(queries)) {
+            sb.append(String.format("%8.1f ms total  %6d x  max %8.2f ms  %8d rows  %4d errors  %s%n",
+                    millis(query.totalNanos), query.count, millis(query.maxNanos), query.rows, query.errors,
+                    query.name));
+        }
+        sb.append(NL);
+
+        sb.append("CACHE HIT RATIO").append(NL).append("-".repeat(80)).append(NL);
+        cacheLookups.forEach((cache, counts) -> {
+            long lookups = counts[0] + counts[1];
+            sb.append(String.format("%-12s %8d lookups  %8d hits  %6.1f%%%n",
+                    cache, lookups, counts[0], lookups > 0 ? counts[0] * 100.0 / lookups : 0));
+        });
+        sb.append(NL);
+
+        sb.append("ASYNC TASKS BY RUN TIME").append(NL).append("-".repeat(80)).append(NL);
+        for (Hotspot task : topByTotal(asyncTasks)) {
+            sb.append(String.format("%8.1f ms run  %6d x  avg wait %7.2f ms  max wait %7.2f ms  %4d failed  %s%n",
+                    millis(task.totalNanos), task.count, millis(task.waitNanos) / task.count,
+                    millis(task.maxWaitNanos), task.errors, task.name));
+        }
+        sb.append(NL);
+
+        sb.append("SLOWEST IMAGE LOADS").append(NL).append("-".repeat(80)).append(NL);
+        imageLoads.values().stream()
+                .sorted(Comparator.comparingLong((Hotspot image) -> image.maxNanos).reversed())
+                .limit(top)
+                .forEach(image -> sb.append(String.format("%8.1f ms max  %6d x  %4d failed  %s%n",
+                        millis(image.maxNanos), image.count, image.errors, image.name)));
+        sb.append(NL);
+
+        sb.append("HOT METHODS (").append(executionSamples).append(" execution samples)").append(NL)
+          .append("-".repeat(80)).append(NL);
+        hotMethods.values().stream()
+                .sorted(Comparator.comparingLong((Hotspot method) -> method.count).reversed())
+                .limit(top)
+                .forEach(method -> sb.append(String.format("%6.1f%%  %6d  %s%n",
+                        method.count * 100.0 / executionSamples, method.count, method.name)));
+
+        return sb.toString();
+    }
+
+    private List<Hotspot> topByTotal(Map<String, Hotspot> hotspots) {
+        return hotspots.values().stream()
+                .sorted(Comparator.comparingLong((Hotspot hotspot) -> hotspot.totalNanos).reversed())
+                .limit(top)
+                .toList();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    Hotspot getQuery(String sql) {
+        return queries.get(QueryTimer.normalize(sql));
+    }
+
+    long[] getCacheLookups(String cache) {
+        return cacheLookups.get(cache);
+    }
+
+    Hotspot getAsyncTask(String task) {
+        return asyncTasks.get(task);
+    }
+
+    /**
+     * Totals for one query, task, image or method
+     */
+    static class Hotspot {
+        final String name;
+        long count;
+        long totalNanos;
+        long maxNanos;
+        long rows;
+        long errors;
+        long waitNanos;
+        long maxWaitNanos;
+
+        Hotspot(String name) {
+            this.name = name;
+        }
+
+        void add(Duration duration) {
+            long nanos = duration.toNanos();
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.smartecommerce.performance.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a background task run by AsyncTaskManager
+ * The event duration is the run time; queue wait is the time spent waiting for a worker
+ */
+@Name("com.smartecommerce.AsyncTask")
+@Label("Async Task")
+@Category({"Smart E-Commerce", "Async"})
+@Description("A background task run by AsyncTaskManager")
+@StackTrace(false)
+public class AsyncTaskEvent extends jdk.jfr.Event {
+    @Label("Task")
+    @Description("Class that submitted the task")
+    public String task;
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueWait;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,26 @@
+package com.smartecommerce.performance.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a ProductService cache lookup; a miss includes the database load
+ */
+@Name("com.smartecommerce.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Smart E-Commerce", "Cache"})
+@Description("A product or search cache lookup, including the load on a miss")
+@StackTrace(false)
+public class CacheLookupEvent extends jdk.jfr.Event {
+    @Label("Cache")
+    public String cache;
+
+    @Label("Key")
+    public String key;
+
+    @Label("Hit")
+    public boolean hit;
+}
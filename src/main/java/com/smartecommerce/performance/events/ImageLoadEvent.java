@@ -0,0 +1,70 @@
+package com.smartecommerce.performance.events;
+
+import javafx.scene.image.Image;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+/**
+ * JFR event for a JavaFX image load
+ * Background loads are committed when the image finishes loading or fails
+ */
+@Name("com.smartecommerce.ImageLoad")
+@Label("Image Load")
+@Category({"Smart E-Commerce", "JavaFX"})
+@Description("A product image loaded by a controller")
+@StackTrace(false)
+public class ImageLoadEvent extends jdk.jfr.Event {
+    @Label("Source")
+    public String source;
+
+    @Label("Background")
+    public boolean background;
+
+    @Label("Failed")
+    public boolean failed;
+
+    /**
+     * Create an image and record how long it takes to load
+     */
+    public static Image load(String source, Supplier<Image> loader) {
+        ImageLoadEvent event = new ImageLoadEvent();
+        if (!event.isEnabled()) {
+            return loader.get();
+        }
+        event.source = source;
+        event.begin();
+        Image image = loader.get();
+        if (image.isBackgroundLoading() && image.getProgress() < 1 && !image.isError()) {
+            event.background = true;
+            image.progressProperty().addListener((observable, oldValue, progress) -> {
+                if (progress.doubleValue() >= 1) {
+                    event.commitLoaded(image);
+                }
+            });
+            image.errorProperty().addListener((observable, oldValue, error) -> {
+                if (error) {
+                    event.commitLoaded(image);
+                }
+            });
+        } else {
+            event.commitLoaded(image);
+        }
+        return image;
+    }
+
+    private synchronized void commitLoaded(Image image) {
+        // Progress and error can both fire for one failed load
+        if (source == null) {
+            return;
+        }
+        end();
+        failed = image.isError();
+        commit();
+        source = null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.smartecommerce.performance.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one JdbcUtils statement (or transaction), timed from connect to close
+ */
+@Name("com.smartecommerce.Query")
+@Label("SQL Query")
+@Category({"Smart E-Commerce", "Database"})
+@Description("A statement or transaction run through JdbcUtils")
+@StackTrace(false)
+public class QueryEvent extends jdk.jfr.Event {
+    @Label("SQL")
+    public String sql;
+
+    @Label("Rows")
+    @Description("Rows returned or affected")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
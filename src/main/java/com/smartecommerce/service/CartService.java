@@ -49,6 +49,14 @@ public class CartService {
         return instance;
     }
 
+    /**
+     * Create a cart separate from the session cart
+     * Used where several carts live in one JVM, e.g. simulated users in the load generator
+     */
+    public static CartService newDetachedInstance() {
+        return new CartService();
+    }
+
     /**
      * Reset instance for testing
      */
@@ -0,0 +1,241 @@
+package com.smartecommerce.service;
+
+import com.smartecommerce.dao.CategoryDAO;
+import com.smartecommerce.dao.ImportCheckpointDAO;
+import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.models.Category;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.utils.RecordReader;
+import com.smartecommerce.utils.RecordReader.Record;
+import com.smartecommerce.utils.ValidationUtil;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+import static com.smartecommerce.utils.AppUtils.println;
+
+/**
+ * CatalogImportService bulk-loads products from CSV or JSON lines files
+ *
+ * Records are read in chunks; each chunk is validated in parallel, then its valid rows
+ * are written with one JDBC batch and committed together with the import checkpoint.
+ * Rerunning an interrupted import resumes after the last committed chunk.
+ *
+ * Expected columns: name, description, price, category (name or ID), stock, image_url
+ */
+public class CatalogImportService {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final ProductDAO productDAO;
+    private final CategoryDAO categoryDAO;
+    private final ImportCheckpointDAO checkpointDAO;
+
+    // Category name (lower case) and ID -> category ID, loaded once per import
+    private final Map<String, Integer> categoryCache = new ConcurrentHashMap<>();
+
+    public CatalogImportService() {
+        this.productDAO = new ProductDAO();
+        this.categoryDAO = new CategoryDAO();
+        this.checkpointDAO = new ImportCheckpointDAO();
+    }
+
+    // Constructor for testing with mock DAOs
+    public CatalogImportService(ProductDAO productDAO, CategoryDAO categoryDAO, ImportCheckpointDAO checkpointDAO) {
+        this.productDAO = productDAO;
+        this.categoryDAO = categoryDAO;
+        this.checkpointDAO = checkpointDAO;
+    }
+
+    /**
+     * Import a catalog file, resuming from its checkpoint if an earlier run was interrupted
+     * @param restart ignore any checkpoint and import from the first record
+     */
+    public ImportResult importFile(Path file, int chunkSize, boolean restart) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        String source = file.toAbsolutePath().normalize().toString();
+        if (restart) {
+            checkpointDAO.clear(source);
+        }
+        long committed = restart ? 0 : checkpointDAO.getRecordsCommitted(source);
+        loadCategoryCache();
+
+        ImportResult result = new ImportResult(committed);
+        long start = System.nanoTime();
+
+        try (RecordReader reader = RecordReader.open(file)) {
+            if (committed > 0) {
+                reader.skip(committed);
+                println("Resuming import of " + file.getFileName() + " after record " + committed);
+            }
+
+            List<Record> chunk = new ArrayList<>(chunkSize);
+            Record record = reader.next();
+            while (record != null) {
+                chunk.add(record);
+                record = reader.next();
+                if (chunk.size() == chunkSize || record == null) {
+                    committed += chunk.size();
+                    if (!importChunk(chunk, source, committed, result)) {
+                        result.failed = true;
+                        break;
+                    }
+                    chunk.clear();
+                }
+            }
+        }
+
+        result.elapsedNanos = System.nanoTime() - start;
+        println(String.format("Catalog import %s: %d imported, %d rejected, %d chunks, %,.0f rows/sec",
+                result.failed ? "stopped" : "complete", result.imported, result.rejected,
+                result.chunks, result.getRowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Validate a chunk in parallel and commit its valid rows together with the checkpoint
+     */
+    private boolean importChunk(List<Record> chunk, String source, long committedAfterChunk, ImportResult result) {
+        List<Object> validated = chunk.parallelStream()
+                .map(this::validate)
+                .toList();
+
+        List<Product> products = new ArrayList<>(chunk.size());
+        int rejected = 0;
+        for (Object outcome : validated) {
+            if (outcome instanceof Product product) {
+                products.add(product);
+            } else {
+                rejected++;
+                result.addError((String) outcome);
+            }
+        }
+
+        int inserted = productDAO.createBatch(products,
+                List.of(checkpointDAO.getSaveSql()),
+                List.<Object[]>of(new Object[]{source, committedAfterChunk}));
+        if (inserted < 0) {
+            printE("Import stopped at record " + (committedAfterChunk - chunk.size() + 1) + " - rerun to resume");
+            return false;
+        }
+
+        result.imported += inserted;
+        result.rejected += rejected;
+        result.chunks++;
+        return true;
+    }
+
+    /**
+     * Validate one record
+     * @return the product to insert, or an error message
+     */
+    Object validate(Record record) {
+        String prefix = "Record " + record.getNumber() + ": ";
+        if (record.hasError()) {
+            return prefix + record.getError();
+        }
+
+        String name = record.get("name");
+        if (!ValidationUtil.hasValidLength(name, 1, 200)) {
+            return prefix + "name is required (max 200 characters)";
+        }
+        String price = record.get("price");
+        if (price == null || !ValidationUtil.isValidPrice(price, MAX_PRICE)) {
+            return prefix + "price must be a positive amount";
+        }
+        String stock = record.get("stock");
+        if (stock != null && !ValidationUtil.isIntegerInRange(stock, 0, Integer.MAX_VALUE)) {
+            return prefix + "stock must be a non-negative whole number";
+        }
+        String imageUrl = record.get("image_url");
+        if (imageUrl != null && (!ValidationUtil.isValidUrl(imageUrl) || imageUrl.length() > 500)) {
+            return prefix + "image_url is not a valid URL";
+        }
+        String category = record.get("category");
+        Integer categoryId = category != null ? categoryCache.get(category.toLowerCase(Locale.ROOT)) : null;
+        if (categoryId == null) {
+            return prefix + "unknown category '" + category + "'";
+        }
+
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription(record.get("description"));
+        product.setPrice(new BigDecimal(price));
+        product.setCategoryId(categoryId);
+        product.setStockQuantity(stock != null ? Integer.parseInt(stock) : 0);
+        product.setImageUrl(imageUrl);
+        return product;
+    }
+
+    private void loadCategoryCache() {
+        categoryCache.clear();
+        for (Category category : categoryDAO.findAll()) {
+            categoryCache.put(category.getCategoryName().toLowerCase(Locale.ROOT), category.getCategoryId());
+            categoryCache.put(String.valueOf(category.getCategoryId()), category.getCategoryId());
+        }
+    }
+
+    /**
+     * Outcome of an import run
+     */
+    public static class ImportResult {
+        private final long resumedAfter;
+        private final List<String> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        private int chunks;
+        private boolean failed;
+        private long elapsedNanos;
+
+        ImportResult(long resumedAfter) {
+            this.resumedAfter = resumedAfter;
+        }
+
+        private void addError(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        /** Records skipped because an earlier run already committed them */
+        public long getResumedAfter() {
+            return resumedAfter;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        /** Whether the import stopped on a failed chunk (rerun to resume) */
+        public boolean isFailed() {
+            return failed;
+        }
+
+        /** First rejected rows with reasons (capped) */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? (imported + rejected) * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+    }
+}
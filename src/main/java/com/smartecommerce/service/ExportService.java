@@ -0,0 +1,108 @@
+package com.smartecommerce.service;
+
+import com.smartecommerce.utils.ExportWriter;
+import com.smartecommerce.utils.JdbcUtils.QueryResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.smartecommerce.utils.AppUtils.println;
+import static com.smartecommerce.utils.JdbcUtils.executeStreamingQuery;
+
+/**
+ * ExportService streams orders, products and users to CSV or NDJSON files
+ * Rows go straight from a database cursor to the file, so exports of any size
+ * run in constant memory. Format and gzip compression follow the file name,
+ * e.g. orders.csv, orders.ndjson.gz
+ */
+public class ExportService {
+
+    private static final String ORDERS_SQL =
+            "SELECT order_id, user_id, total_amount, status, order_date, updated_at FROM Orders ORDER BY order_id";
+    private static final String[] ORDER_COLUMNS =
+            {"order_id", "user_id", "total_amount", "status", "order_date", "updated_at"};
+
+    private static final String PRODUCTS_SQL =
+            "SELECT p.product_id, p.product_name, c.category_name, p.price, p.stock_quantity, p.created_at " +
+            "FROM Products p LEFT JOIN Categories c ON p.category_id = c.category_id ORDER BY p.product_id";
+    private static final String[] PRODUCT_COLUMNS =
+            {"product_id", "product_name", "category_name", "price", "stock_quantity", "created_at"};
+
+    // Password hashes are never exported
+    private static final String USERS_SQL =
+            "SELECT user_id, username, email, role, created_at FROM Users ORDER BY user_id";
+    private static final String[] USER_COLUMNS = {"user_id", "username", "email", "role", "created_at"};
+
+    public ExportResult exportOrders(Path target) throws IOException {
+        return export("orders", ORDERS_SQL, ORDER_COLUMNS, target);
+    }
+
+    public ExportResult exportProducts(Path target) throws IOException {
+        return export("products", PRODUCTS_SQL, PRODUCT_COLUMNS, target);
+    }
+
+    public ExportResult exportUsers(Path target) throws IOException {
+        return export("users", USERS_SQL, USER_COLUMNS, target);
+    }
+
+    /**
+     * Stream a query to a file; the partial file is deleted if the export fails
+     */
+    private ExportResult export(String name, String sql, String[] columns, Path target) throws IOException {
+        long start = System.nanoTime();
+        QueryResult result;
+
+        try (ExportWriter writer = ExportWriter.open(target, columns)) {
+            result = executeStreamingQuery(sql, rs -> {
+                try {
+                    writer.writeRow(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        if (result.hasError()) {
+            Files.deleteIfExists(target);
+            throw new IOException("Failed to export " + name + ": " + result.getError());
+        }
+
+        ExportResult exportResult = new ExportResult(result.getAffectedRows(), Files.size(target), System.nanoTime() - start);
+        println(String.format("Exported %d %s to %s (%,d bytes) at %,.0f rows/sec",
+                exportResult.getRows(), name, target, exportResult.getBytes(), exportResult.getRowsPerSecond()));
+        return exportResult;
+    }
+
+    /**
+     * Outcome of an export: rows written, file size and elapsed time
+     */
+    public static class ExportResult {
+        private final long rows;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        public ExportResult(long rows, long bytes, long elapsedNanos) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1_000_000_000.0;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? rows * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.smartecommerce.service;
+
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.dao.UserDAO;
+import com.smartecommerce.metrics.Counter;
+import com.smartecommerce.metrics.MetricsRegistry;
+import com.smartecommerce.models.User;
+import com.smartecommerce.utils.SecurityUtils;
+import com.smartecommerce.utils.TokenBucketLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * LoginService checks credentials for the desktop app and the JSON API
+ *
+ * Attempts are rate limited before any lookup: first per source (client address), then per
+ * login name, each a token bucket. A source gets auth.login.perSource.capacity attempts in a
+ * burst and one more every auth.login.perSource.refillSeconds; a login name likewise under
+ * auth.login.perUser.*. Credential stuffing from one address, or spread over many addresses
+ * against one account, is turned away without touching the database. The user is then looked
+ * up by username or email alone (see UserDAO.findForLogin) and the password hash is compared
+ * here in constant time.
+ */
+public class LoginService {
+    private static final Logger logger = LoggerFactory.getLogger(LoginService.class);
+    private static volatile LoginService instance;
+
+    private static final String UNKNOWN_SOURCE = "unknown";
+    private static final int DEFAULT_SOURCE_CAPACITY = 20;
+    private static final long DEFAULT_SOURCE_REFILL_SECONDS = 3;
+    private static final int DEFAULT_USER_CAPACITY = 5;
+    private static final long DEFAULT_USER_REFILL_SECONDS = 60;
+
+    private static final Counter SUCCEEDED = attempts("success");
+    private static final Counter FAILED = attempts("invalid");
+    private static final Counter LIMITED = attempts("rate_limited");
+
+    private final UserDAO userDAO;
+    private final TokenBucketLimiter sourceLimiter;
+    private final TokenBucketLimiter userLimiter;
+
+    private LoginService() {
+        this(new UserDAO());
+    }
+
+    // Constructor for testing with a mock DAO and the configured limits
+    public LoginService(UserDAO userDAO) {
+        this(userDAO,
+                limiter("auth.login.perSource", DEFAULT_SOURCE_CAPACITY, DEFAULT_SOURCE_REFILL_SECONDS),
+                limiter("auth.login.perUser", DEFAULT_USER_CAPACITY, DEFAULT_USER_REFILL_SECONDS));
+    }
+
+    // Constructor for testing with a mock DAO and given limits
+    public LoginService(UserDAO userDAO, TokenBucketLimiter sourceLimiter, TokenBucketLimiter userLimiter) {
+        this.userDAO = userDAO;
+        this.sourceLimiter = sourceLimiter;
+        this.userLimiter = userLimiter;
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static LoginService getInstance() {
+        if (instance == null) {
+            synchronized (LoginService.class) {
+                if (instance == null) {
+                    instance = new LoginService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check a login attempt
+     * @param login username or email
+     * @param password plain text password
+     * @param source where the attempt comes from, e.g. the client address
+     */
+    public LoginResult login(String login, String password, String source) {
+        if (login == null || password == null) {
+            return LoginResult.INVALID;
+        }
+        if (!sourceLimiter.tryAcquire(source != null ? source : UNKNOWN_SOURCE)) {
+            logger.warn("Login attempts from {} are rate limited", source);
+            LIMITED.inc();
+            return LoginResult.rateLimited(sourceLimiter.getRefillPeriod());
+        }
+        if (!userLimiter.tryAcquire(login.toLowerCase(Locale.ROOT))) {
+            logger.warn("Login attempts for {} are rate limited", login);
+            LIMITED.inc();
+            return LoginResult.rateLimited(userLimiter.getRefillPeriod());
+        }
+
+        // Hash before the lookup, so unknown and known logins take about as long
+        byte[] hash = SecurityUtils.hashPassword(password).getBytes(StandardCharsets.UTF_8);
+        User user = userDAO.findForLogin(login);
+        if (user == null || user.getPasswordHash() == null
+                || !MessageDigest.isEqual(hash, user.getPasswordHash().getBytes(StandardCharsets.UTF_8))) {
+            FAILED.inc();
+            return LoginResult.INVALID;
+        }
+        SUCCEEDED.inc();
+        return LoginResult.success(user);
+    }
+
+    private static TokenBucketLimiter limiter(String prefix, int defaultCapacity, long defaultRefillSeconds) {
+        ConfigManager config = ConfigManager.getInstance();
+        return new TokenBucketLimiter(config.getInt(prefix + ".capacity", defaultCapacity),
+                Duration.ofSeconds(config.getLong(prefix + ".refillSeconds", defaultRefillSeconds)));
+    }
+
+    private static Counter attempts(String result) {
+        return MetricsRegistry.getInstance().counter(
+                "smartecommerce_login_attempts_total", "Login attempts by result", "result", result);
+    }
+
+    /**
+     * Outcome of a login attempt: the user on success, the wait before retrying when rate limited
+     */
+    public static final class LoginResult {
+        public enum Outcome { SUCCESS, INVALID, RATE_LIMITED }
+
+        private static final LoginResult INVALID = new LoginResult(Outcome.INVALID, null, Duration.ZERO);
+
+        private final Outcome outcome;
+        private final User user;
+        private final Duration retryAfter;
+
+        private LoginResult(Outcome outcome, User user, Duration retryAfter) {
+            this.outcome = outcome;
+            this.user = user;
+            this.retryAfter = retryAfter;
+        }
+
+        static LoginResult success(User user) {
+            return new LoginResult(Outcome.SUCCESS, user, Duration.ZERO);
+        }
+
+        static LoginResult rateLimited(Duration retryAfter) {
+            return new LoginResult(Outcome.RATE_LIMITED, null, retryAfter);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public boolean isSuccess() {
+            return outcome == Outcome.SUCCESS;
+        }
+
+        public boolean isRateLimited() {
+            return outcome == Outcome.RATE_LIMITED;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+}
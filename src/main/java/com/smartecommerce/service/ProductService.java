@@ -1,9 +1,13 @@
 package com.smartecommerce.service;
 
 import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.metrics.Counter;
+import com.smartecommerce.metrics.MetricsRegistry;
 import com.smartecommerce.models.Product;
+import com.smartecommerce.performance.events.CacheLookupEvent;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.smartecommerce.utils.AppUtils.*;
 
@@ -12,20 +16,32 @@ import static com.smartecommerce.utils.AppUtils.*;
  * Implements caching for performance optimization
  */
 public class ProductService {
+    // Shared by every instance, so /metrics reports hit ratios across all screens
+    private static final String CACHE_LOOKUPS = "smartecommerce_cache_lookups_total";
+    private static final String CACHE_LOOKUPS_HELP = "Cache lookups by cache and result";
+    private static final Counter PRODUCT_HITS = MetricsRegistry.getInstance()
+            .counter(CACHE_LOOKUPS, CACHE_LOOKUPS_HELP, "cache", "product", "result", "hit");
+    private static final Counter PRODUCT_MISSES = MetricsRegistry.getInstance()
+            .counter(CACHE_LOOKUPS, CACHE_LOOKUPS_HELP, "cache", "product", "result", "miss");
+    private static final Counter SEARCH_HITS = MetricsRegistry.getInstance()
+            .counter(CACHE_LOOKUPS, CACHE_LOOKUPS_HELP, "cache", "search", "result", "hit");
+    private static final Counter SEARCH_MISSES = MetricsRegistry.getInstance()
+            .counter(CACHE_LOOKUPS, CACHE_LOOKUPS_HELP, "cache", "search", "result", "miss");
+
     private final ProductDAO productDAO;
-    private final Map<Integer, Product> productCache; // In-memory cache using HashMap
+    private final Map<Integer, Product> productCache; // In-memory cache; filled by parallel landing loads
     private final Map<String, List<Product>> searchCache; // Cache for search results
 
     public ProductService() {
         this.productDAO = new ProductDAO();
-        this.productCache = new HashMap<>();
+        this.productCache = new ConcurrentHashMap<>();
         this.searchCache = new HashMap<>();
     }
 
     // Constructor for testing with mock DAO
     public ProductService(ProductDAO productDAO) {
         this.productDAO = productDAO;
-        this.productCache = new HashMap<>();
+        this.productCache = new ConcurrentHashMap<>();
         this.searchCache = new HashMap<>();
     }
 
@@ -45,9 +61,14 @@ public class ProductService {
      * Get product by ID with caching
      */
     public Product getProductById(int productId) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+
         // Check cache first
         if (productCache.containsKey(productId)) {
             println("Product retrieved from cache");
+            PRODUCT_HITS.inc();
+            commitLookup(event, "product", productId, true);
             return productCache.get(productId);
         }
 
@@ -56,6 +77,8 @@ public class ProductService {
         if (product != null) {
             productCache.put(productId, product);
         }
+        PRODUCT_MISSES.inc();
+        commitLookup(event, "product", productId, false);
         return product;
     }
 
@@ -105,10 +128,15 @@ public class ProductService {
             return new ArrayList<>();
         }
 
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+
         // Check search cache
         String cacheKey = sanitizedTerm.toLowerCase();
         if (searchCache.containsKey(cacheKey)) {
             println("Search results retrieved from cache");
+            SEARCH_HITS.inc();
+            commitLookup(event, "search", cacheKey, true);
             return searchCache.get(cacheKey);
         }
 
@@ -118,9 +146,24 @@ public class ProductService {
         // Update cache
         searchCache.put(cacheKey, results);
 
+        SEARCH_MISSES.inc();
+        commitLookup(event, "search", cacheKey, false);
         return results;
     }
 
+    /**
+     * Emit a JFR cache lookup event; a miss includes the time spent loading from the DAO
+     */
+    private static void commitLookup(CacheLookupEvent event, String cache, Object key, boolean hit) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.key = String.valueOf(key);
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
     /**
      * Sort products by name using QuickSort algorithm
      */
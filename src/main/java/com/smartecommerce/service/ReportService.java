@@ -1,12 +1,19 @@
 package com.smartecommerce.service;
 
+import com.smartecommerce.analytics.AnalyticsSnapshot;
+import com.smartecommerce.analytics.AnalyticsStore;
 import com.smartecommerce.dao.OrderDAO;
+import com.smartecommerce.dao.PeriodStatsQuery.PeriodStats;
 import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.dao.SalesRollupDAO;
+import com.smartecommerce.dao.SalesRollupDAO.SalesTotals;
 import com.smartecommerce.dao.UserDAO;
 import com.smartecommerce.models.Product;
 import com.smartecommerce.models.User;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -19,21 +26,58 @@ import static com.smartecommerce.utils.AppUtils.*;
  * Optimized for dashboard and analytics views
  */
 public class ReportService {
+    // Distinct user counts may lag the database by this much
+    private static final Duration ANALYTICS_MAX_AGE = Duration.ofSeconds(30);
+
     private final ProductDAO productDAO;
     private final OrderDAO orderDAO;
     private final UserDAO userDAO;
+    private final SalesRollupDAO salesRollupDAO;
+    private final AnalyticsStore analyticsStore;
 
     public ReportService() {
-        this.productDAO = new ProductDAO();
-        this.orderDAO = new OrderDAO();
-        this.userDAO = new UserDAO();
+        this(new ProductDAO(), new OrderDAO(), new UserDAO(), new SalesRollupDAO(), AnalyticsStore.getInstance());
     }
 
-    // Constructor for testing with mock DAOs
+    // Constructor for testing with mock DAOs; the rollups are treated as missing and distinct counts are zero
     public ReportService(ProductDAO productDAO, OrderDAO orderDAO, UserDAO userDAO) {
+        this(productDAO, orderDAO, userDAO, SalesRollupDAO.disabled(), AnalyticsStore.disabled());
+    }
+
+    // Constructor for testing with mock DAOs, rollups and analytics store
+    public ReportService(ProductDAO productDAO, OrderDAO orderDAO, UserDAO userDAO,
+                         SalesRollupDAO salesRollupDAO, AnalyticsStore analyticsStore) {
         this.productDAO = productDAO;
         this.orderDAO = orderDAO;
         this.userDAO = userDAO;
+        this.salesRollupDAO = salesRollupDAO;
+        this.analyticsStore = analyticsStore;
+    }
+
+    /**
+     * Put approximate distinct user counts from the analytics sketches into a report
+     * activeUsers keeps its meaning of "users who placed orders" (all time)
+     */
+    private void putDistinctUserCounts(Map<String, Object> report) {
+        AnalyticsSnapshot snapshot = analyticsStore.getSnapshot(ANALYTICS_MAX_AGE);
+        int tomorrow = (int) LocalDate.now().plusDays(1).toEpochDay();
+        int monthAgo = tomorrow - 30;
+
+        report.put("activeUsers", (int) snapshot.estimateUniqueBuyers(Integer.MIN_VALUE, tomorrow));
+        report.put("uniqueBuyersLast30d", (int) snapshot.estimateUniqueBuyers(monthAgo, tomorrow));
+        report.put("activeUsersLast30d", (int) snapshot.estimateActiveUsers(monthAgo, tomorrow));
+        report.put("distinctCountError", snapshot.getDistinctCountError());
+    }
+
+    /**
+     * Read order totals from the rollup tables, falling back to Orders scans when they are unavailable
+     */
+    private SalesTotals getSalesTotals() {
+        SalesTotals totals = salesRollupDAO.getSalesTotals();
+        if (totals != null) {
+            return totals;
+        }
+        return new SalesTotals(orderDAO.getOrderCountByStatus(), orderDAO.getTotalRevenue());
     }
 
     /**
@@ -43,32 +87,35 @@ public class ReportService {
         Map<String, Object> summary = new HashMap<>();
 
         try {
+            // Totals come from the sales rollups (independent of Orders table size)
+            SalesTotals totals = getSalesTotals();
+
             // Get total orders count
-            int totalOrders = orderDAO.getTotalOrderCount();
+            int totalOrders = totals.getOrderCount();
             summary.put("totalOrders", totalOrders);
 
             // Get total revenue
-            BigDecimal totalRevenue = orderDAO.getTotalRevenue();
+            BigDecimal totalRevenue = totals.getRevenue();
             summary.put("totalRevenue", formatCurrencyString(totalRevenue));
             summary.put("totalRevenueRaw", totalRevenue);
 
             // Calculate average order value
-            BigDecimal avgOrderValue = orderDAO.getAverageOrderValue();
+            BigDecimal avgOrderValue = totals.getAverageOrderValue();
             summary.put("averageOrderValue", formatCurrencyString(avgOrderValue));
             summary.put("averageOrderValueRaw", avgOrderValue);
 
             // Get order count by status
-            Map<String, Integer> statusCounts = orderDAO.getOrderCountByStatus();
+            Map<String, Integer> statusCounts = totals.getCountsByStatus();
             summary.put("ordersByStatus", statusCounts);
 
-            // Get order statistics by time period
-            Map<String, Integer> orderStats = orderDAO.getOrderStatsByPeriod();
+            // Get order and revenue statistics by time period (single pass over Orders)
+            PeriodStats periodStats = orderDAO.getPeriodStats();
+            Map<String, Integer> orderStats = periodStats.getCounts();
             summary.put("ordersLast24h", orderStats.getOrDefault("last24Hours", 0));
             summary.put("ordersLast7d", orderStats.getOrDefault("last7Days", 0));
             summary.put("ordersLast30d", orderStats.getOrDefault("last30Days", 0));
 
-            // Get revenue statistics by time period
-            Map<String, BigDecimal> revenueStats = orderDAO.getRevenueStatsByPeriod();
+            Map<String, BigDecimal> revenueStats = periodStats.getSums();
             summary.put("revenueLast24h", formatCurrencyString(revenueStats.getOrDefault("last24Hours", BigDecimal.ZERO)));
             summary.put("revenueLast7d", formatCurrencyString(revenueStats.getOrDefault("last7Days", BigDecimal.ZERO)));
             summary.put("revenueLast30d", formatCurrencyString(revenueStats.getOrDefault("last30Days", BigDecimal.ZERO)));
@@ -138,9 +185,8 @@ public class ReportService {
             Map<String, Integer> roleDistribution = userDAO.getUserRoleDistribution();
             report.put("usersByRole", roleDistribution);
 
-            // Active users count (users who placed orders)
-            int activeUsers = userDAO.getActiveUsersCount();
-            report.put("activeUsers", activeUsers);
+            // Active users count (users who placed orders), estimated from HyperLogLog sketches
+            putDistinctUserCounts(report);
 
             // Registration statistics
             Map<String, Integer> registrationStats = userDAO.getUserRegistrationStats();
@@ -168,10 +214,11 @@ public class ReportService {
         Map<String, Object> analytics = new HashMap<>();
 
         try {
-            // Sales metrics
-            analytics.put("totalOrders", orderDAO.getTotalOrderCount());
-            analytics.put("totalRevenue", formatCurrencyString(orderDAO.getTotalRevenue()));
-            analytics.put("averageOrderValue", formatCurrencyString(orderDAO.getAverageOrderValue()));
+            // Sales metrics (from the sales rollups)
+            SalesTotals totals = getSalesTotals();
+            analytics.put("totalOrders", totals.getOrderCount());
+            analytics.put("totalRevenue", formatCurrencyString(totals.getRevenue()));
+            analytics.put("averageOrderValue", formatCurrencyString(totals.getAverageOrderValue()));
 
             // Product metrics
             analytics.put("totalProducts", productDAO.getTotalProductCount());
@@ -180,7 +227,7 @@ public class ReportService {
 
             // User metrics
             analytics.put("totalUsers", userDAO.getUserCount());
-            analytics.put("activeUsers", userDAO.getActiveUsersCount());
+            putDistinctUserCounts(analytics);
 
             // Recent activity
             analytics.put("recentOrders", orderDAO.getRecentOrders(5));
@@ -196,14 +243,25 @@ public class ReportService {
     }
 
     /**
-     * Get top selling products (mock implementation - would need OrderItems data)
+     * Get top selling products by items sold from the product sales rollup
+     * Falls back to the first products in the catalog when no sales are recorded
      */
     public List<Product> getTopProducts(int limit) {
+        List<Product> topSellers = new ArrayList<>();
+        for (int productId : salesRollupDAO.getTopProductIds(limit)) {
+            Product product = productDAO.findById(productId);
+            if (product != null) {
+                topSellers.add(product);
+            }
+        }
+        if (!topSellers.isEmpty()) {
+            return topSellers;
+        }
+
         List<Product> products = productDAO.findAll();
         if (products == null || products.isEmpty()) {
             return new ArrayList<>();
         }
-        // In real implementation, would join with OrderItems and aggregate
         int actualLimit = Math.max(0, Math.min(limit, products.size()));
         return products.subList(0, actualLimit);
     }
@@ -215,14 +273,15 @@ public class ReportService {
         Map<String, Object> report = new HashMap<>();
 
         try {
-            // Order performance
-            Map<String, Integer> orderStats = orderDAO.getOrderStatsByPeriod();
+            // Order performance (orders and revenue share a single pass over Orders)
+            PeriodStats periodStats = orderDAO.getPeriodStats();
+            Map<String, Integer> orderStats = periodStats.getCounts();
             report.put("orderGrowth24h", orderStats.getOrDefault("last24Hours", 0));
             report.put("orderGrowth7d", orderStats.getOrDefault("last7Days", 0));
             report.put("orderGrowth30d", orderStats.getOrDefault("last30Days", 0));
 
             // Revenue performance
-            Map<String, BigDecimal> revenueStats = orderDAO.getRevenueStatsByPeriod();
+            Map<String, BigDecimal> revenueStats = periodStats.getSums();
             report.put("revenueGrowth24h", formatCurrencyString(revenueStats.getOrDefault("last24Hours", BigDecimal.ZERO)));
             report.put("revenueGrowth7d", formatCurrencyString(revenueStats.getOrDefault("last7Days", BigDecimal.ZERO)));
             report.put("revenueGrowth30d", formatCurrencyString(revenueStats.getOrDefault("last30Days", BigDecimal.ZERO)));
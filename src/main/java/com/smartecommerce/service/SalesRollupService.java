@@ -0,0 +1,84 @@
+package com.smartecommerce.service;
+
+import com.smartecommerce.dao.SalesRollupDAO;
+
+import java.time.LocalDate;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+import static com.smartecommerce.utils.AppUtils.println;
+
+/**
+ * SalesRollupService runs the backfill job for the sales rollup tables
+ * Incremental maintenance happens in OrderDAO; the backfill rebuilds history
+ * in fixed-size day ranges so each transaction stays small. A completed full backfill
+ * is recorded, and from then on reports read the rollups (see SalesRollupDAO)
+ *
+ * Run from the command line with com.smartecommerce.app.RollupBackfill
+ */
+public class SalesRollupService {
+    private static final int DEFAULT_CHUNK_DAYS = 7;
+
+    private final SalesRollupDAO salesRollupDAO;
+
+    public SalesRollupService() {
+        this.salesRollupDAO = new SalesRollupDAO();
+    }
+
+    // Constructor for testing with mock DAO
+    public SalesRollupService(SalesRollupDAO salesRollupDAO) {
+        this.salesRollupDAO = salesRollupDAO;
+    }
+
+    /**
+     * Rebuild the rollups from the first order up to and including today, then record the backfill
+     * @return number of day ranges rebuilt, or -1 if the rollups are unavailable or a step failed
+     */
+    public int backfill() {
+        if (!salesRollupDAO.hasTables()) {
+            printE("Cannot backfill: sales rollup tables are missing (run database/Rollups.sql)");
+            return -1;
+        }
+        LocalDate firstOrderDate = salesRollupDAO.getFirstOrderDate();
+        int chunks = 0;
+        if (firstOrderDate == null) {
+            println("No orders found - nothing to backfill");
+        } else {
+            chunks = backfill(firstOrderDate, LocalDate.now().plusDays(1), DEFAULT_CHUNK_DAYS);
+        }
+        if (chunks < 0 || !salesRollupDAO.recordBackfill()) {
+            return -1;
+        }
+        return chunks;
+    }
+
+    /**
+     * Rebuild the rollups for the days in [from, to) in chunks of chunkDays
+     */
+    public int backfill(LocalDate from, LocalDate to, int chunkDays) {
+        if (chunkDays <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (!salesRollupDAO.hasTables()) {
+            printE("Cannot backfill: sales rollup tables are missing (run database/Rollups.sql)");
+            return -1;
+        }
+
+        int chunks = 0;
+        long start = System.nanoTime();
+        for (LocalDate chunkStart = from; chunkStart.isBefore(to); chunkStart = chunkStart.plusDays(chunkDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(chunkDays);
+            if (chunkEnd.isAfter(to)) {
+                chunkEnd = to;
+            }
+            if (!salesRollupDAO.rebuildRange(chunkStart, chunkEnd)) {
+                printE("Backfill stopped at " + chunkStart + " - rerun to rebuild (ranges are rebuilt idempotently)");
+                return -1;
+            }
+            chunks++;
+        }
+
+        println(String.format("Sales rollup backfill complete: %d ranges from %s to %s in %.1f s",
+                chunks, from, to, (System.nanoTime() - start) / 1_000_000_000.0));
+        return chunks;
+    }
+}
@@ -0,0 +1,164 @@
+package com.smartecommerce.service;
+
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.models.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TokenService issues and verifies signed session tokens (JWT, HS256)
+ *
+ * A token carries the user id, username and role, so a verified token is a complete session:
+ * no session table or per-user map has to be consulted. The signing key and the parser are
+ * built once and shared by all threads. Logging out revokes a token by its id until it would
+ * have expired anyway, which keeps the revocation set small.
+ *
+ * The key comes from auth.jwt.secret (at least 32 bytes). Without one, a random key is made
+ * at startup: tokens then stop working on restart and are not accepted by other servers.
+ */
+public class TokenService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+    private static volatile TokenService instance;
+
+    private static final String ISSUER = "smartecommerce";
+    private static final String ROLE_CLAIM = "role";
+    private static final String USERNAME_CLAIM = "name";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final long DEFAULT_TTL_MINUTES = 30;
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration ttl;
+    private final Clock clock;
+    // Token id -> expiry (epoch millis) of revoked tokens that are not expired yet
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private TokenService() {
+        this(signingSecret(ConfigManager.getInstance().getString("auth.jwt.secret", "")),
+                Duration.ofMinutes(ConfigManager.getInstance().getLong("auth.jwt.ttlMinutes", DEFAULT_TTL_MINUTES)),
+                Clock.systemUTC());
+    }
+
+    // Constructor for testing with a fixed secret and clock
+    TokenService(byte[] secret, Duration ttl, Clock clock) {
+        this.key = Keys.hmacShaKeyFor(secret);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .requireIssuer(ISSUER)
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static TokenService getInstance() {
+        if (instance == null) {
+            synchronized (TokenService.class) {
+                if (instance == null) {
+                    instance = new TokenService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Issue a token for a signed-in user, valid for auth.jwt.ttlMinutes
+     */
+    public TokenSession issue(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        long now = clock.millis();
+        long expiresAt = now + ttl.toMillis();
+        String tokenId = UUID.randomUUID().toString();
+        String token = Jwts.builder()
+                .setIssuer(ISSUER)
+                .setId(tokenId)
+                .setSubject(Integer.toString(user.getUserId()))
+                .claim(USERNAME_CLAIM, user.getUsername())
+                .claim(ROLE_CLAIM, user.getRole())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(expiresAt))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        return new TokenSession(token, tokenId, user.getUserId(), user.getUsername(), user.getRole(), expiresAt);
+    }
+
+    /**
+     * Check a token's signature, issuer and expiry, and that it has not been revoked
+     * @return the session it carries, or null if the token is not valid
+     */
+    public TokenSession verify(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (!revoked.isEmpty() && revoked.containsKey(claims.getId())) {
+                return null;
+            }
+            return new TokenSession(token, claims.getId(), Integer.parseInt(claims.getSubject()),
+                    claims.get(USERNAME_CLAIM, String.class), claims.get(ROLE_CLAIM, String.class),
+                    claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected session token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reject a token from now on, e.g. on logout
+     */
+    public void revoke(TokenSession session) {
+        if (session == null) {
+            return;
+        }
+        long now = clock.millis();
+        // Expired tokens fail verification anyway; no need to remember them
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (session.getExpiresAtMillis() > now) {
+            revoked.put(session.getTokenId(), session.getExpiresAtMillis());
+        }
+    }
+
+    /**
+     * Number of revoked tokens still remembered
+     */
+    public int getRevokedCount() {
+        return revoked.size();
+    }
+
+    private static byte[] signingSecret(String configured) {
+        if (configured == null || configured.isEmpty()) {
+            logger.warn("auth.jwt.secret is not set; using a random signing key, so sessions end on restart");
+            byte[] secret = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secret);
+            return secret;
+        }
+        byte[] secret = configured.getBytes(StandardCharsets.UTF_8);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("auth.jwt.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return secret;
+    }
+}
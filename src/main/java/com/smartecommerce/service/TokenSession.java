@@ -0,0 +1,70 @@
+package com.smartecommerce.service;
+
+/**
+ * TokenSession is a verified session token: who the caller is, their role and when it expires
+ *
+ * Everything comes from the token's claims, so role checks are plain field reads.
+ */
+public final class TokenSession {
+    private static final String ADMIN_ROLE = "ADMIN";
+
+    private final String token;
+    private final String tokenId;
+    private final int userId;
+    private final String username;
+    private final String role;
+    private final boolean admin;
+    private final long expiresAtMillis;
+
+    TokenSession(String token, String tokenId, int userId, String username, String role, long expiresAtMillis) {
+        this.token = token;
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.admin = ADMIN_ROLE.equals(role);
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    /**
+     * The signed token to hand back to the client
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Unique id of the token (jti), used to revoke it
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean hasRole(String role) {
+        return this.role != null && this.role.equals(role);
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAtMillis;
+    }
+}
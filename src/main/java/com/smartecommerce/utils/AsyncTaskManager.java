@@ -1,21 +1,45 @@
 package com.smartecommerce.utils;
 
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.metrics.Counter;
+import com.smartecommerce.metrics.Gauge;
+import com.smartecommerce.metrics.MetricsRegistry;
+import com.smartecommerce.metrics.Timer;
+import com.smartecommerce.performance.events.AsyncTaskEvent;
 import javafx.application.Platform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 /**
  * Async Task Manager for running background operations
  * Prevents UI freezing during long-running operations
  * Optimized to reuse executor services and prevent resource leaks
+ *
+ * Background tasks are mostly blocking JDBC calls. In virtual mode (async.executor=virtual)
+ * each one gets its own virtual thread, and a priority-aware bulkhead sized to the connection
+ * pool bounds how many run at once, so one slow query no longer holds a scarce pool thread
+ * that other screens are waiting for. CPU-bound work (sorting, indexing) should use
+ * runCpuAsync, which always runs on the fixed platform pool.
+ *
+ * Tasks are queued in TaskPriority lanes (the pool's queue and the bulkhead both serve
+ * higher lanes first), belong to an owner's CancellationToken so a screen can drop its
+ * pending work on navigation, and can share one in-flight load through a dedup key.
  */
 public class AsyncTaskManager {
     private static final Logger logger = LoggerFactory.getLogger(AsyncTaskManager.class);
-    private static final ExecutorService executorService = Executors.newFixedThreadPool(
+    // Fixed pool with a priority queue; every task is wrapped in a PrioritizedTask
+    private static final ExecutorService executorService = new ThreadPoolExecutor(
             Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors(),
+            0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
             new ThreadFactory() {
                 private int counter = 0;
 
@@ -43,10 +67,81 @@ public class AsyncTaskManager {
                 }
             });
 
+    /**
+     * How blocking background tasks are executed
+     */
+    public enum ExecutorMode {
+        /** Shared fixed pool sized to the CPU count */
+        PLATFORM,
+        /** A virtual thread per task, limited by the bulkhead */
+        VIRTUAL
+    }
+
+    private static final ExecutorMode mode = readMode();
+
+    // Blocking tasks: the CPU pool in platform mode, a new virtual thread per task in virtual mode
+    private static final ExecutorService blockingExecutor = mode == ExecutorMode.VIRTUAL
+            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("AsyncTask-virtual-", 0).factory())
+            : executorService;
+
+    // Keeps virtual-thread tasks from opening more connections than the pool allows
+    private static final PriorityBulkhead bulkhead = mode == ExecutorMode.VIRTUAL
+            ? new PriorityBulkhead(bulkheadPermits())
+            : null;
+
+    // Loads currently running under a dedup key
+    private static final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    // Tracked here rather than read from ThreadPoolExecutor, whose counters take the pool lock
+    private static final Timer QUEUE_WAIT = MetricsRegistry.getInstance().timer(
+            "smartecommerce_async_queue_wait_seconds", "Time background tasks wait for a worker");
+    private static final Timer RUN_TIME = MetricsRegistry.getInstance().timer(
+            "smartecommerce_async_run_seconds", "Time background tasks spend running");
+    private static final Counter FAILED = MetricsRegistry.getInstance().counter(
+            "smartecommerce_async_failed_total", "Background tasks that threw");
+    private static final Gauge RUNNING = MetricsRegistry.getInstance().gauge(
+            "smartecommerce_async_running", "Background tasks currently running");
+    private static final Counter DEDUPLICATED = MetricsRegistry.getInstance().counter(
+            "smartecommerce_async_deduplicated_total", "Loads that joined an identical in-flight load");
+    private static final Gauge[] QUEUED = new Gauge[TaskPriority.values().length];
+
+    static {
+        for (TaskPriority priority : TaskPriority.values()) {
+            QUEUED[priority.ordinal()] = MetricsRegistry.getInstance().gauge("smartecommerce_async_queued",
+                    "Background tasks waiting for a worker", "priority", priority.name().toLowerCase());
+        }
+        if (bulkhead != null) {
+            MetricsRegistry.getInstance().gauge("smartecommerce_async_bulkhead_available",
+                    "Free bulkhead permits for virtual-thread tasks", bulkhead::availablePermits);
+            MetricsRegistry.getInstance().gauge("smartecommerce_async_bulkhead_waiting",
+                    "Virtual-thread tasks waiting for a bulkhead permit", bulkhead::getQueueLength);
+        }
+    }
+
     private AsyncTaskManager() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
 
+    private static ExecutorMode readMode() {
+        String configured = ConfigManager.getInstance().getString("async.executor", "platform");
+        try {
+            return ExecutorMode.valueOf(configured.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown async.executor '{}', using platform threads", configured);
+            return ExecutorMode.PLATFORM;
+        }
+    }
+
+    private static int bulkheadPermits() {
+        ConfigManager config = ConfigManager.getInstance();
+        int poolSize = config.getInt("database.pool.maxPoolSize", 20);
+        return Math.max(1, config.getInt("async.bulkhead.permits", poolSize));
+    }
+
+    public static ExecutorMode getMode() {
+        return mode;
+    }
+
     /**
      * Run task in background and update UI on completion
      */
@@ -55,27 +150,75 @@ public class AsyncTaskManager {
             Consumer<T> onSuccess,
             Consumer<Throwable> onError) {
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                logger.debug("Starting async task on thread: {}", Thread.currentThread().getName());
-                return backgroundTask.call();
-            } catch (Exception e) {
-                logger.error("Error in async task", e);
-                throw new RuntimeException(e);
-            }
-        }, executorService).whenComplete((result, throwable) -> {
-            Platform.runLater(() -> {
-                if (throwable != null) {
-                    if (onError != null) {
-                        onError.accept(throwable);
-                    }
-                } else {
-                    if (onSuccess != null) {
-                        onSuccess.accept(result);
-                    }
-                }
-            });
-        });
+        return runAsync(TaskPriority.INTERACTIVE, CancellationToken.NONE, null, backgroundTask, onSuccess, onError);
+    }
+
+    /**
+     * Run task in background for an owner and update UI on completion
+     *
+     * @param priority lane to queue the task in
+     * @param owner token that cancels the task and its callbacks, e.g. when the screen is left
+     * @param dedupKey tasks with the same key share one in-flight run (the first caller's
+     *                 task and priority are used), or null to always run
+     */
+    public static <T> CompletableFuture<T> runAsync(
+            TaskPriority priority,
+            CancellationToken owner,
+            String dedupKey,
+            Callable<T> backgroundTask,
+            Consumer<T> onSuccess,
+            Consumer<Throwable> onError) {
+
+        return runAsync(priority, owner, dedupKey, backgroundTask, null, onSuccess, onError);
+    }
+
+    /**
+     * Like runAsync for an owner, with a cleanup step (e.g. hiding a loading indicator)
+     *
+     * @param onDone run on the UI thread before onSuccess or onError, and also when the owner
+     *               has been cancelled and those are skipped
+     */
+    public static <T> CompletableFuture<T> runAsync(
+            TaskPriority priority,
+            CancellationToken owner,
+            String dedupKey,
+            Callable<T> backgroundTask,
+            Runnable onDone,
+            Consumer<T> onSuccess,
+            Consumer<Throwable> onError) {
+
+        CompletableFuture<T> future = dedupKey == null
+                ? submit(backgroundTask, backgroundTask, blockingExecutor, priority, owner::isCancelled)
+                : joinInFlight(dedupKey, priority, owner, backgroundTask);
+        owner.register(future);
+        return notifyUi(future, owner, onDone, onSuccess, onError);
+    }
+
+    /**
+     * Run CPU-bound work (sorting, indexing) on the platform pool and update UI on completion
+     */
+    public static <T> CompletableFuture<T> runCpuAsync(
+            Callable<T> backgroundTask,
+            Consumer<T> onSuccess,
+            Consumer<Throwable> onError) {
+
+        CompletableFuture<T> future = submit(backgroundTask, backgroundTask, executorService,
+                TaskPriority.INTERACTIVE, () -> false);
+        return notifyUi(future, CancellationToken.NONE, null, onSuccess, onError);
+    }
+
+    /**
+     * Run a blocking task in background without UI callbacks
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Callable<T> backgroundTask) {
+        return supplyAsync(TaskPriority.BACKGROUND, backgroundTask);
+    }
+
+    /**
+     * Run a blocking task in the given lane without UI callbacks
+     */
+    public static <T> CompletableFuture<T> supplyAsync(TaskPriority priority, Callable<T> backgroundTask) {
+        return submit(backgroundTask, backgroundTask, blockingExecutor, priority, () -> false);
     }
 
     /**
@@ -86,23 +229,100 @@ public class AsyncTaskManager {
             Runnable onSuccess,
             Consumer<Throwable> onError) {
 
-        return CompletableFuture.runAsync(() -> {
+        Callable<Void> task = () -> {
+            backgroundTask.run();
+            return null;
+        };
+        CompletableFuture<Void> future = submit(task, backgroundTask, blockingExecutor,
+                TaskPriority.INTERACTIVE, () -> false);
+        return notifyUi(future, CancellationToken.NONE, null, ignored -> {
+            if (onSuccess != null) {
+                onSuccess.run();
+            }
+        }, onError);
+    }
+
+    /**
+     * Queue a task in a priority lane
+     * @param source the task as submitted, used to name it in metrics and recordings
+     * @param cancelled checked before the task starts; a cancelled task is skipped
+     */
+    private static <T> CompletableFuture<T> submit(Callable<T> task, Object source, ExecutorService executor,
+                                                   TaskPriority priority, BooleanSupplier cancelled) {
+        long submitted = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                logger.debug("Starting async void task on thread: {}", Thread.currentThread().getName());
-                backgroundTask.run();
+                logger.debug("Starting async task on thread: {}", Thread.currentThread().getName());
+                return callInstrumented(task, source, submitted, priority, cancelled);
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
-                logger.error("Error in async void task", e);
+                logger.error("Error in async task", e);
                 throw new RuntimeException(e);
             }
-        }, executorService).whenComplete((result, throwable) -> {
+        }, command -> executor.execute(new PrioritizedTask(command, priority)));
+    }
+
+    /**
+     * Share the in-flight load for a key, or start it
+     * The load is skipped only when every owner waiting on it has been cancelled
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> joinInFlight(String key, TaskPriority priority,
+                                                         CancellationToken owner, Callable<T> task) {
+        while (true) {
+            InFlight existing = inFlight.get(key);
+            if (existing != null && existing.addOwner(owner)) {
+                DEDUPLICATED.inc();
+                return (CompletableFuture<T>) existing.result.copy();
+            }
+
+            InFlight started = new InFlight(owner);
+            boolean claimed = existing == null
+                    ? inFlight.putIfAbsent(key, started) == null
+                    : inFlight.replace(key, existing, started);
+            if (claimed) {
+                submit(task, task, blockingExecutor, priority, started::allOwnersCancelled)
+                        .whenComplete((result, throwable) -> {
+                            inFlight.remove(key, started);
+                            if (throwable != null) {
+                                started.result.completeExceptionally(throwable);
+                            } else {
+                                started.result.complete(result);
+                            }
+                        });
+                // Each caller gets its own copy, so one owner cancelling does not cancel the others
+                return (CompletableFuture<T>) started.result.copy();
+            }
+        }
+    }
+
+    private static <T> CompletableFuture<T> notifyUi(
+            CompletableFuture<T> future,
+            CancellationToken owner,
+            Runnable onDone,
+            Consumer<T> onSuccess,
+            Consumer<Throwable> onError) {
+
+        return future.whenComplete((result, throwable) -> {
+            if (owner.isCancelled() && onDone == null) {
+                return;
+            }
             Platform.runLater(() -> {
+                if (onDone != null) {
+                    onDone.run();
+                }
+                // The owner's screen is gone, so there is nothing else to update
+                if (owner.isCancelled()) {
+                    return;
+                }
                 if (throwable != null) {
                     if (onError != null) {
                         onError.accept(throwable);
                     }
                 } else {
                     if (onSuccess != null) {
-                        onSuccess.run();
+                        onSuccess.accept(result);
                     }
                 }
             });
@@ -110,7 +330,9 @@ public class AsyncTaskManager {
     }
 
     /**
-     * Run task with timeout
+     * Run task with timeout and update UI on completion
+     * On timeout the future fails with TimeoutException, and the task is stopped: its running
+     * statement is cancelled (see TaskDeadline), or it is skipped if it has not started yet
      */
     public static <T> CompletableFuture<T> runAsyncWithTimeout(
             Callable<T> backgroundTask,
@@ -119,38 +341,25 @@ public class AsyncTaskManager {
             Consumer<T> onSuccess,
             Consumer<Throwable> onError) {
 
-        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                return backgroundTask.call();
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        TaskDeadline deadline = new TaskDeadline(timeout, timeUnit);
+        CompletableFuture<T> future = submit(() -> deadline.call(backgroundTask), backgroundTask,
+                blockingExecutor, TaskPriority.INTERACTIVE, () -> false)
+                .orTimeout(timeout, timeUnit);
+        future.whenComplete((result, throwable) -> {
+            if (throwable instanceof TimeoutException) {
+                String task = taskName(backgroundTask);
+                logger.warn("Async task {} timed out after {} {}", task, timeout, timeUnit);
+                timeouts(task).inc();
+                // Cancelling a statement is a round trip to the database; keep it off the timer thread
+                scheduler.execute(deadline::expire);
             }
-        }, executorService);
+        });
+        return notifyUi(future, CancellationToken.NONE, null, onSuccess, onError);
+    }
 
-        // Add timeout using shared scheduler
-        CompletableFuture<T> timeoutFuture = new CompletableFuture<>();
-        ScheduledFuture<?> timeoutTask = scheduler.schedule(() -> {
-            if (!future.isDone()) {
-                timeoutFuture.completeExceptionally(new TimeoutException("Task timed out"));
-            }
-        }, timeout, timeUnit);
-
-        return CompletableFuture.anyOf(future, timeoutFuture)
-                .thenApply(result -> (T) result)
-                .whenComplete((result, throwable) -> {
-                    timeoutTask.cancel(false);
-                    Platform.runLater(() -> {
-                        if (throwable != null) {
-                            if (onError != null) {
-                                onError.accept(throwable);
-                            }
-                        } else {
-                            if (onSuccess != null) {
-                                onSuccess.accept(result);
-                            }
-                        }
-                    });
-                });
+    private static Counter timeouts(String task) {
+        return MetricsRegistry.getInstance().counter("smartecommerce_async_timeouts_total",
+                "Background tasks stopped by runAsyncWithTimeout", "task", task);
     }
 
     /**
@@ -163,14 +372,7 @@ public class AsyncTaskManager {
 
         CompletableFuture<?>[] futures = new CompletableFuture[tasks.length];
         for (int i = 0; i < tasks.length; i++) {
-            final int index = i;
-            futures[i] = CompletableFuture.supplyAsync(() -> {
-                try {
-                    return tasks[index].call();
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            }, executorService);
+            futures[i] = submit(tasks[i], tasks[i], blockingExecutor, TaskPriority.INTERACTIVE, () -> false);
         }
 
         return CompletableFuture.allOf(futures).exceptionally(throwable -> {
@@ -183,6 +385,72 @@ public class AsyncTaskManager {
         });
     }
 
+    /**
+     * Run a task on the current worker, recording its queue wait and run time as metrics
+     * and as a JFR event; in virtual mode the queue wait includes waiting for the bulkhead
+     * @param source the task as submitted, used to name it in the recording
+     * @param cancelled checked before and after waiting for the bulkhead
+     * @param submittedNanos System.nanoTime() when the task was handed to the executor
+     */
+    private static <T> T callInstrumented(Callable<T> task, Object source, long submittedNanos,
+                                          TaskPriority priority, BooleanSupplier cancelled) throws Exception {
+        throwIfCancelled(cancelled);
+        // Only virtual-thread tasks take a permit; the platform pool is already bounded
+        boolean permitted = bulkhead != null && Thread.currentThread().isVirtual();
+        if (permitted) {
+            bulkhead.acquire(priority);
+        }
+        try {
+            // The owner may have gone while this task waited for a permit
+            throwIfCancelled(cancelled);
+            return callTimed(task, source, submittedNanos);
+        } finally {
+            if (permitted) {
+                bulkhead.release(priority);
+            }
+        }
+    }
+
+    private static void throwIfCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Task owner was cancelled before the task started");
+        }
+    }
+
+    private static <T> T callTimed(Callable<T> task, Object source, long submittedNanos) throws Exception {
+        long started = System.nanoTime();
+        QUEUE_WAIT.record(started - submittedNanos);
+        RUNNING.inc();
+
+        AsyncTaskEvent event = new AsyncTaskEvent();
+        event.begin();
+        try {
+            return task.call();
+        } catch (Exception | Error e) {
+            FAILED.inc();
+            event.failed = true;
+            throw e;
+        } finally {
+            RUNNING.dec();
+            RUN_TIME.record(System.nanoTime() - started);
+            event.end();
+            if (event.shouldCommit()) {
+                event.task = taskName(source);
+                event.queueWait = started - submittedNanos;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Name a task by the class that declared it (lambdas report their enclosing class)
+     */
+    static String taskName(Object task) {
+        String name = task.getClass().getName();
+        int lambda = name.indexOf("$$Lambda");
+        return lambda >= 0 ? name.substring(0, lambda) : name;
+    }
+
     /**
      * Schedule task with delay using shared scheduler
      */
@@ -220,6 +488,7 @@ public class AsyncTaskManager {
 
         // Shutdown main executor
         executorService.shutdown();
+        blockingExecutor.shutdown();
 
         // Shutdown scheduler
         scheduler.shutdown();
@@ -228,12 +497,16 @@ public class AsyncTaskManager {
             if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
                 executorService.shutdownNow();
             }
+            if (!blockingExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                blockingExecutor.shutdownNow();
+            }
             if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
                 scheduler.shutdownNow();
             }
             logger.info("AsyncTaskManager shut down successfully");
         } catch (InterruptedException e) {
             executorService.shutdownNow();
+            blockingExecutor.shutdownNow();
             scheduler.shutdownNow();
             Thread.currentThread().interrupt();
             logger.error("Error during shutdown", e);
@@ -245,11 +518,75 @@ public class AsyncTaskManager {
      */
     public static String getStats() {
         if (executorService instanceof ThreadPoolExecutor tpe) {
-            return String.format("Active: %d, Completed: %d, Queue: %d",
+            String stats = String.format("Mode: %s, Active: %d, Completed: %d, Queue: %d",
+                    mode,
                     tpe.getActiveCount(),
                     tpe.getCompletedTaskCount(),
                     tpe.getQueue().size());
+            if (bulkhead != null) {
+                stats += String.format(", Bulkhead free: %d, Bulkhead waiting: %d",
+                        bulkhead.availablePermits(), bulkhead.getQueueLength());
+            }
+            return stats;
         }
         return "Stats not available";
     }
+
+    /**
+     * Executor task ordered by lane, then by submission order within a lane
+     */
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private static final AtomicLong sequence = new AtomicLong();
+
+        private final Runnable command;
+        private final TaskPriority priority;
+        private final long order = sequence.getAndIncrement();
+
+        PrioritizedTask(Runnable command, TaskPriority priority) {
+            this.command = command;
+            this.priority = priority;
+            QUEUED[priority.ordinal()].inc();
+        }
+
+        @Override
+        public void run() {
+            QUEUED[priority.ordinal()].dec();
+            command.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * A deduplicated load and the owners waiting on it
+     */
+    private static final class InFlight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final Set<CancellationToken> owners = ConcurrentHashMap.newKeySet();
+
+        InFlight(CancellationToken owner) {
+            owners.add(owner);
+        }
+
+        /**
+         * @return false if the load already finished and a new one must start
+         */
+        boolean addOwner(CancellationToken owner) {
+            owners.add(owner);
+            return !result.isDone();
+        }
+
+        boolean allOwnersCancelled() {
+            for (CancellationToken owner : owners) {
+                if (!owner.isCancelled()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
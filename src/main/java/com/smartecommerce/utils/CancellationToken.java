@@ -0,0 +1,66 @@
+package com.smartecommerce.utils;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CancellationToken groups the background tasks of one owner, usually a screen's controller
+ *
+ * Cancelling it cancels the owner's pending futures: tasks that have not started are
+ * skipped and UI callbacks are no longer delivered, except a task's onDone cleanup (see
+ * AsyncTaskManager.runAsync). Tasks already running finish unless they check isCancelled()
+ * themselves.
+ */
+public class CancellationToken {
+    /** Token for tasks with no owner; never cancelled */
+    public static final CancellationToken NONE = new CancellationToken() {
+        @Override
+        public void cancel() {
+            // Unowned tasks cannot be cancelled
+        }
+    };
+
+    private final Set<CompletableFuture<?>> futures = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /**
+     * Cancel every pending task of this owner, and any registered later
+     */
+    public void cancel() {
+        cancelled = true;
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(false);
+        }
+        futures.clear();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * For long tasks that want to stop early once their owner is gone
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Task owner was cancelled");
+        }
+    }
+
+    /**
+     * Track a future until it completes so cancel() can reach it
+     */
+    void register(CompletableFuture<?> future) {
+        if (this == NONE) {
+            return;
+        }
+        futures.add(future);
+        future.whenComplete((result, throwable) -> futures.remove(future));
+        // cancel() may have run between the caller's check and add()
+        if (cancelled) {
+            future.cancel(false);
+        }
+    }
+}
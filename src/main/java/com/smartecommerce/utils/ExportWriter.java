@@ -0,0 +1,202 @@
+package com.smartecommerce.utils;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ExportWriter writes rows one at a time as CSV or newline-delimited JSON
+ * Output goes through a buffered writer onto a FileChannel, optionally gzip-compressed,
+ * so memory use does not depend on the number of rows written
+ */
+public class ExportWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Pick the format from a file name (.csv or .ndjson/.jsonl/.json, optionally followed by .gz)
+         */
+        public static Format fromFileName(String fileName) {
+            String name = stripGzipSuffix(fileName.toLowerCase(Locale.ROOT));
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported export file type: " + fileName);
+        }
+    }
+
+    private final Format format;
+    private final String[] columns;
+    private final Object[] rowBuffer;
+    private final Writer writer;
+    private final JsonWriter jsonWriter;
+    private long rowCount;
+
+    private ExportWriter(Format format, String[] columns, Writer writer) {
+        this.format = format;
+        this.columns = columns.clone();
+        this.rowBuffer = new Object[columns.length];
+        this.writer = writer;
+        if (format == Format.NDJSON) {
+            this.jsonWriter = new JsonWriter(writer);
+            // Lenient mode allows one top-level object per line
+            this.jsonWriter.setLenient(true);
+        } else {
+            this.jsonWriter = null;
+        }
+    }
+
+    /**
+     * Open a file for export, replacing any existing file
+     * @param gzip whether to gzip-compress the output
+     * @param columns column names, written as the CSV header or used as JSON keys
+     */
+    public static ExportWriter open(Path path, Format format, boolean gzip, String... columns) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        OutputStream out = Channels.newOutputStream(channel);
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        ExportWriter exportWriter = new ExportWriter(format, columns, writer);
+        if (format == Format.CSV) {
+            exportWriter.writeCsvRow(columns);
+        }
+        return exportWriter;
+    }
+
+    /**
+     * Open a file for export, choosing format and compression from the file name
+     */
+    public static ExportWriter open(Path path, String... columns) throws IOException {
+        String fileName = path.getFileName().toString();
+        return open(path, Format.fromFileName(fileName), isGzipFileName(fileName), columns);
+    }
+
+    public static boolean isGzipFileName(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    /**
+     * Write the current row of a result set; columns are read by position
+     */
+    public void writeRow(ResultSet rs) throws SQLException, IOException {
+        for (int i = 0; i < rowBuffer.length; i++) {
+            rowBuffer[i] = rs.getObject(i + 1);
+        }
+        writeRow(rowBuffer);
+    }
+
+    /**
+     * Write one row; values are in column order
+     */
+    public void writeRow(Object... values) throws IOException {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values but got " + values.length);
+        }
+        if (format == Format.CSV) {
+            writeCsvRow(values);
+        } else {
+            writeJsonRow(values);
+        }
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Closing the writer finishes the gzip trailer and closes the channel
+        writer.close();
+    }
+
+    private void writeCsvRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvField(values[i]);
+        }
+        writer.write('\n');
+    }
+
+    private void writeCsvField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = formatValue(value);
+        boolean needsQuotes = false;
+        for (int i = 0; i < text.length() && !needsQuotes; i++) {
+            char c = text.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void writeJsonRow(Object[] values) throws IOException {
+        jsonWriter.beginObject();
+        for (int i = 0; i < values.length; i++) {
+            jsonWriter.name(columns[i]);
+            Object value = values[i];
+            if (value == null) {
+                jsonWriter.nullValue();
+            } else if (value instanceof Number number) {
+                jsonWriter.value(number);
+            } else if (value instanceof Boolean bool) {
+                jsonWriter.value(bool);
+            } else {
+                jsonWriter.value(formatValue(value));
+            }
+        }
+        jsonWriter.endObject();
+        writer.write('\n');
+    }
+
+    private static String formatValue(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+
+    private static String stripGzipSuffix(String fileName) {
+        return isGzipFileName(fileName) ? fileName.substring(0, fileName.length() - 3) : fileName;
+    }
+}
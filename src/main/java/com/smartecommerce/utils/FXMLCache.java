@@ -0,0 +1,184 @@
+package com.smartecommerce.utils;
+
+import com.smartecommerce.metrics.Counter;
+import com.smartecommerce.metrics.MetricsRegistry;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FXMLCache keeps parsed views so navigating back to a screen does not re-parse its FXML
+ *
+ * Each view is loaded once, with its controller, and shown again by putting its scene back
+ * on the stage; a controller implementing Refreshable reloads its data at that point. After
+ * an admin logs in, the admin views are preloaded in the background, so the first click on a
+ * sidebar section is as fast as the later ones. Views belong to the logged-in user and must
+ * be cleared on logout.
+ */
+public class FXMLCache {
+    private static final Logger logger = LoggerFactory.getLogger(FXMLCache.class);
+    private static volatile FXMLCache instance;
+
+    public static final String DASHBOARD_VIEW = "/smartecommerce/ui/views/admin/dashboard.fxml";
+    public static final String ORDERS_VIEW = "/smartecommerce/ui/views/admin/orders.fxml";
+    public static final String CATEGORIES_VIEW = "/smartecommerce/ui/views/admin/categories.fxml";
+    public static final String PRODUCTS_VIEW = "/smartecommerce/ui/views/admin/products.fxml";
+    public static final String USERS_VIEW = "/smartecommerce/ui/views/admin/users.fxml";
+    public static final String ANALYTICS_VIEW = "/smartecommerce/ui/views/admin/analitics.fxml";
+
+    private static final List<String> ADMIN_VIEWS = List.of(
+            DASHBOARD_VIEW, ORDERS_VIEW, PRODUCTS_VIEW, CATEGORIES_VIEW, USERS_VIEW, ANALYTICS_VIEW);
+
+    private static final Counter HITS = MetricsRegistry.getInstance().counter(
+            "smartecommerce_cache_lookups_total", "Cache lookups by cache and result", "cache", "fxml", "result", "hit");
+    private static final Counter MISSES = MetricsRegistry.getInstance().counter(
+            "smartecommerce_cache_lookups_total", "Cache lookups by cache and result", "cache", "fxml", "result", "miss");
+
+    // Futures, so a click on a view that is still preloading waits for it instead of loading it twice
+    private final Map<String, CompletableFuture<CachedView>> views = new ConcurrentHashMap<>();
+    // Views shown inside another screen; kept apart since a node can only have one parent
+    private final Map<String, CompletableFuture<CachedView>> embeddedViews = new ConcurrentHashMap<>();
+
+    private FXMLCache() {
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static FXMLCache getInstance() {
+        if (instance == null) {
+            synchronized (FXMLCache.class) {
+                if (instance == null) {
+                    instance = new FXMLCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Parse the admin views in the background, skipping any that are already cached
+     */
+    public void preloadAdminViews() {
+        for (String fxml : ADMIN_VIEWS) {
+            views.computeIfAbsent(fxml, path -> {
+                CompletableFuture<CachedView> load = AsyncTaskManager.supplyAsync(TaskPriority.BACKGROUND, () -> load(path));
+                load.whenComplete((view, error) -> {
+                    if (error != null) {
+                        // Some controls can only be built on the FX thread; load it there on first use
+                        logger.warn("Could not preload {}: {}", path, error.getMessage());
+                        views.remove(path, load);
+                    }
+                });
+                return load;
+            });
+        }
+    }
+
+    /**
+     * Show a view on the stage, loading it now if it is not cached yet
+     * A view shown before has its controller refreshed
+     * @return the view's controller
+     */
+    public <T> T show(Stage stage, String fxml, String title) throws IOException {
+        CachedView view = get(views, fxml);
+        if (view.root.getScene() == null) {
+            new Scene(view.root);
+        }
+        stage.setScene(view.root.getScene());
+        stage.setTitle(title);
+        stage.show();
+        return shown(view);
+    }
+
+    /**
+     * Show a view as the only child of a container, loading it now if it is not cached yet
+     * A view shown before has its controller refreshed
+     * @return the view's controller
+     */
+    public <T> T showIn(Pane container, String fxml) throws IOException {
+        CachedView view = get(embeddedViews, fxml);
+        container.getChildren().setAll(view.root);
+        return shown(view);
+    }
+
+    /**
+     * Drop every cached view, e.g. on logout
+     */
+    public void clear() {
+        views.clear();
+        embeddedViews.clear();
+    }
+
+    public int size() {
+        return views.size() + embeddedViews.size();
+    }
+
+    private static <T> T shown(CachedView view) {
+        if (view.shown && view.controller instanceof Refreshable refreshable) {
+            refreshable.refresh();
+        }
+        view.shown = true;
+        @SuppressWarnings("unchecked")
+        T controller = (T) view.controller;
+        return controller;
+    }
+
+    private static CachedView get(Map<String, CompletableFuture<CachedView>> cache, String fxml) throws IOException {
+        CompletableFuture<CachedView> cached = cache.get(fxml);
+        if (cached != null) {
+            try {
+                CachedView view = cached.join();
+                HITS.inc();
+                return view;
+            } catch (CompletionException e) {
+                // Preload failed; fall through and load it on this thread
+                cache.remove(fxml, cached);
+            }
+        }
+        MISSES.inc();
+        CachedView view = load(fxml);
+        cache.put(fxml, CompletableFuture.completedFuture(view));
+        return view;
+    }
+
+    private static CachedView load(String fxml) throws IOException {
+        URL resource = FXMLCache.class.getResource(fxml);
+        if (resource == null) {
+            throw new IOException("FXML resource not found: " + fxml);
+        }
+        long start = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(resource);
+        Parent root = loader.load();
+        logger.debug("Loaded {} in {} ms on {}", fxml, (System.nanoTime() - start) / 1_000_000,
+                Platform.isFxApplicationThread() ? "the FX thread" : "a background thread");
+        return new CachedView(root, loader.getController());
+    }
+
+    /**
+     * A parsed view, its controller, and whether it has been on screen yet
+     */
+    private static class CachedView {
+        private final Parent root;
+        private final Object controller;
+        private boolean shown;
+
+        CachedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+}
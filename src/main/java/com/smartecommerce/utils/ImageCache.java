@@ -0,0 +1,497 @@
+package com.smartecommerce.utils;
+
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.metrics.Counter;
+import com.smartecommerce.metrics.MetricsRegistry;
+import com.smartecommerce.performance.events.ImageLoadEvent;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ImageCache shares decoded product images across screens
+ *
+ * Images are keyed by (path, width, height), so every screen asking for the same thumbnail
+ * gets the same Image instance. A product's image path is resolved to a URL once and
+ * remembered, and every image is loaded in the background, so decoding never runs on the
+ * FX thread. Memory is bounded by the decoded pixel bytes (4 per pixel at the requested
+ * size); the least recently used images are dropped first. Images that fail to load are
+ * not kept, so they are retried on the next request.
+ *
+ * Callers that can tell when they stop showing an image (e.g. recycled grid cards) take it
+ * with acquire and hand it back with release. A load still in progress is cancelled on
+ * release only when no other holder is left: not another card, and no caller that took it
+ * with get, which never releases.
+ *
+ * Local images are read from the ThumbnailStore once a thumbnail of the requested size has
+ * been generated, instead of decoding and downsampling the full-size source every time. The
+ * thumbnail file is mapped, and an empty image of its size is handed out at once; its pixels
+ * are decoded from the mapped bytes in the background and copied in on the FX thread.
+ */
+public class ImageCache {
+    private static final Logger logger = LoggerFactory.getLogger(ImageCache.class);
+    private static volatile ImageCache instance;
+
+    /** Size every product thumbnail is decoded at; smaller views scale it down */
+    public static final double THUMBNAIL_WIDTH = 200;
+    public static final double THUMBNAIL_HEIGHT = 150;
+
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final String UNRESOLVED = "";
+    // "\211PNG\r\n\032\n"; the IHDR chunk follows, with the width and height at offsets 16 and 20
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+
+    private static final Counter HITS = MetricsRegistry.getInstance().counter(
+            "smartecommerce_cache_lookups_total", "Cache lookups by cache and result", "cache", "image", "result", "hit");
+    private static final Counter MISSES = MetricsRegistry.getInstance().counter(
+            "smartecommerce_cache_lookups_total", "Cache lookups by cache and result", "cache", "image", "result", "miss");
+
+    private final long maxBytes;
+    private final ImageFactory factory;
+    private final MappedImageFactory mappedFactory;
+    private final ThumbnailStore thumbnails;
+    private final Map<String, String> resolvedUrls = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Entry> images = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Image, Entry> entriesByImage = new IdentityHashMap<>();
+    private volatile long sizeBytes;
+
+    private ImageCache() {
+        this(ConfigManager.getInstance().getLong("images.cache.maxBytes", DEFAULT_MAX_BYTES),
+                ConfigManager.getInstance().getBoolean("images.thumbnails.enabled", true)
+                        ? ThumbnailStore.getInstance() : null,
+                (url, width, height) -> ImageLoadEvent.load(url, () -> new Image(url, width, height, true, true, true)),
+                ImageCache::decodeMapped);
+        MetricsRegistry.getInstance().gauge("smartecommerce_image_cache_bytes",
+                "Decoded pixel bytes held by the shared image cache", () -> sizeBytes);
+    }
+
+    // Constructor for testing with a stub image factory
+    ImageCache(long maxBytes, ImageFactory factory) {
+        this(maxBytes, null, factory, ImageCache::decodeMapped);
+    }
+
+    // Constructor for testing with stub image factories and a temporary thumbnail store
+    ImageCache(long maxBytes, ThumbnailStore thumbnails, ImageFactory factory, MappedImageFactory mappedFactory) {
+        this.maxBytes = maxBytes;
+        this.thumbnails = thumbnails;
+        this.factory = factory;
+        this.mappedFactory = mappedFactory;
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static ImageCache getInstance() {
+        if (instance == null) {
+            synchronized (ImageCache.class) {
+                if (instance == null) {
+                    instance = new ImageCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Product thumbnail shared by the landing grid, the top-purchased strip and the cart
+     * @return the image (possibly still loading), or null if the path cannot be found
+     */
+    public Image getThumbnail(String path) {
+        return get(path, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+    }
+
+    /**
+     * Product thumbnail held until release is called with it
+     * @return the image (possibly still loading), or null if the path cannot be found
+     */
+    public Image acquireThumbnail(String path) {
+        return acquire(path, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+    }
+
+    /**
+     * Get or start loading an image decoded to fit within width x height
+     * @param path web URL, file path, or classpath resource
+     * @return the image (possibly still loading), or null if the path cannot be found
+     */
+    public Image get(String path, double width, double height) {
+        return load(path, width, height, false);
+    }
+
+    /**
+     * Like get, but the caller holds the image until it calls release
+     */
+    public Image acquire(String path, double width, double height) {
+        return load(path, width, height, true);
+    }
+
+    /**
+     * Generate the thumbnail if it is missing, then start decoding it, e.g. for the first cards
+     * of the landing grid before it is shown. Generating blocks, so call this off the FX thread
+     * @return completed once the image is decoded or has failed to load
+     */
+    public CompletableFuture<Void> preloadThumbnail(String path) {
+        String url = path != null && !path.isBlank() ? resolve(path.trim()) : null;
+        if (url == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (thumbnails != null && isLocal(url)) {
+            thumbnails.findOrGenerate(url, (int) THUMBNAIL_WIDTH, (int) THUMBNAIL_HEIGHT);
+        }
+        Image image = getThumbnail(path);
+        return image != null ? whenDecoded(image) : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Completed once the image's pixels are in place or it has failed to load
+     */
+    public CompletableFuture<Void> whenDecoded(Image image) {
+        CompletableFuture<Void> decoding;
+        synchronized (this) {
+            Entry entry = entriesByImage.get(image);
+            decoding = entry != null ? entry.decoding : null;
+        }
+        if (decoding != null) {
+            return decoding.handle((ignored, error) -> null);
+        }
+        if (!isLoading(image)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Load progress is published on the FX thread, so check and listen there
+        CompletableFuture<Void> loaded = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            if (!isLoading(image)) {
+                loaded.complete(null);
+                return;
+            }
+            image.progressProperty().addListener((observable, oldValue, progress) -> {
+                if (progress.doubleValue() >= 1) {
+                    loaded.complete(null);
+                }
+            });
+            image.errorProperty().addListener((observable, wasError, isError) -> {
+                if (isError) {
+                    loaded.complete(null);
+                }
+            });
+        });
+        return loaded;
+    }
+
+    private Image load(String path, double width, double height, boolean held) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        String key = path + '@' + width + 'x' + height;
+        synchronized (this) {
+            Entry cached = images.get(key);
+            if (cached != null) {
+                HITS.inc();
+                cached.hold(held);
+                return cached.image;
+            }
+        }
+        MISSES.inc();
+
+        String url = resolve(path.trim());
+        if (url == null) {
+            return null;
+        }
+        long bytes = (long) Math.ceil(width) * (long) Math.ceil(height) * BYTES_PER_PIXEL;
+        Path thumbnail = findThumbnail(url, (int) width, (int) height);
+        if (thumbnail != null) {
+            CompletableFuture<Void> decoding = new CompletableFuture<>();
+            try {
+                return put(key, mappedFactory.create(thumbnail, decoding), bytes, held, decoding);
+            } catch (IOException e) {
+                logger.warn("Could not read thumbnail {}, loading the source: {}", thumbnail, e.getMessage());
+            }
+        }
+        Image image = factory.create(url, width, height);
+        if (image.isError()) {
+            return image;
+        }
+        return put(key, image, bytes, held, null);
+    }
+
+    /**
+     * Pre-generated thumbnail if there is one; otherwise null, with a thumbnail queued for next time
+     */
+    private Path findThumbnail(String url, int width, int height) {
+        if (thumbnails == null || !isLocal(url)) {
+            return null;
+        }
+        Path thumbnail = thumbnails.find(url, width, height);
+        if (thumbnail == null) {
+            thumbnails.generateLater(url, width, height);
+        }
+        return thumbnail;
+    }
+
+    private static boolean isLocal(String url) {
+        return !url.startsWith("http://") && !url.startsWith("https://");
+    }
+
+    /**
+     * Image of a stored PNG thumbnail: sized from the PNG header right away, with its pixels
+     * decoded from the mapped file on an interactive worker and copied in on the FX thread
+     */
+    private static Image decodeMapped(Path thumbnail, CompletableFuture<Void> decoding) throws IOException {
+        ByteBuffer png = ThumbnailStore.map(thumbnail);
+        if (png.limit() < 24 || png.getLong(0) != PNG_SIGNATURE) {
+            throw new IOException("not a PNG file");
+        }
+        int width = png.getInt(16);
+        int height = png.getInt(20);
+        WritableImage image = new WritableImage(width, height);
+        AsyncTaskManager.supplyAsync(TaskPriority.INTERACTIVE,
+                () -> ImageLoadEvent.load(thumbnail.toString(), () -> new Image(new BufferInputStream(png))))
+                .whenComplete((decoded, error) -> Platform.runLater(() -> {
+                    Throwable failure = error != null ? error : decoded.getException();
+                    if (failure == null && decoded.isError()) {
+                        failure = new IOException("could not decode " + thumbnail);
+                    }
+                    if (failure != null) {
+                        logger.warn("Could not decode thumbnail {}: {}", thumbnail, failure.getMessage());
+                        decoding.completeExceptionally(failure);
+                        return;
+                    }
+                    image.getPixelWriter().setPixels(0, 0, Math.min(width, (int) decoded.getWidth()),
+                            Math.min(height, (int) decoded.getHeight()), decoded.getPixelReader(), 0, 0);
+                    decoding.complete(null);
+                }));
+        return image;
+    }
+
+    /**
+     * Hand back an image taken with acquire, e.g. when its card scrolls out of view
+     * If it is still loading and nobody else holds it, the load is cancelled and forgotten;
+     * a later request for the same image starts a new load
+     */
+    public void release(Image image) {
+        if (image == null) {
+            return;
+        }
+        synchronized (this) {
+            Entry entry = entriesByImage.get(image);
+            if (entry == null || entry.holders == 0) {
+                return;
+            }
+            entry.holders--;
+            if (entry.holders > 0 || entry.shared || !isLoading(image)) {
+                return;
+            }
+            remove(entry.key, entry);
+        }
+        image.cancel();
+    }
+
+    /**
+     * Drop every cached image (resolved paths are kept)
+     */
+    public synchronized void clear() {
+        images.clear();
+        entriesByImage.clear();
+        sizeBytes = 0;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    /**
+     * @param decoding for thumbnails decoded by the cache, completed once the pixels are in place
+     */
+    private synchronized Image put(String key, Image image, long bytes, boolean held, CompletableFuture<Void> decoding) {
+        // Another caller may have loaded the same image meanwhile; keep one instance
+        Entry existing = images.get(key);
+        if (existing != null) {
+            existing.hold(held);
+            return existing.image;
+        }
+        Entry entry = new Entry(key, image, bytes, decoding);
+        entry.hold(held);
+        images.put(key, entry);
+        entriesByImage.put(image, entry);
+        sizeBytes += bytes;
+        evict();
+        if (decoding != null) {
+            decoding.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    remove(key, entry);
+                }
+            });
+        } else if (image.isBackgroundLoading()) {
+            image.errorProperty().addListener((observable, wasError, isError) -> {
+                if (isError) {
+                    remove(key, entry);
+                }
+            });
+        }
+        return image;
+    }
+
+    private synchronized void remove(String key, Entry entry) {
+        if (images.remove(key, entry)) {
+            entriesByImage.remove(entry.image);
+            sizeBytes -= entry.bytes;
+            logger.debug("Dropped image {}", key);
+        }
+    }
+
+    private static boolean isLoading(Image image) {
+        return image.isBackgroundLoading() && image.getProgress() < 1 && !image.isError();
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = images.values().iterator();
+        // Always keep the newest image, even if it alone is over the budget
+        while (sizeBytes > maxBytes && images.size() > 1) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            entriesByImage.remove(entry.image);
+            sizeBytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Resolve a product image path to a loadable URL, once per path
+     * @return the URL, or null if no file or classpath resource matches
+     */
+    String resolve(String path) {
+        String url = resolvedUrls.computeIfAbsent(path, ImageCache::findUrl);
+        return url.equals(UNRESOLVED) ? null : url;
+    }
+
+    /**
+     * Tries: web URL, file relative to the working directory, classpath resource
+     * (with and without a leading slash), target/classes, then an absolute file path
+     */
+    private static String findUrl(String path) {
+        if (path.startsWith("http://") || path.startsWith("https://") || path.startsWith("file:")) {
+            return path;
+        }
+        File file = new File(path);
+        if (file.isFile()) {
+            return file.toURI().toString();
+        }
+        URL resource = ImageCache.class.getResource(path.startsWith("/") ? path : "/" + path);
+        if (resource == null) {
+            resource = ImageCache.class.getResource(path);
+        }
+        if (resource != null) {
+            return resource.toExternalForm();
+        }
+        File targetFile = new File("target/classes", path);
+        if (targetFile.isFile()) {
+            return targetFile.toURI().toString();
+        }
+        try {
+            URI absolute = URI.create("file:///" + path.replace("\\", "/").replace(" ", "%20"));
+            if (Files.isRegularFile(Path.of(absolute))) {
+                return absolute.toString();
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a usable file path
+        }
+        logger.warn("No image found for path: {}", path);
+        return UNRESOLVED;
+    }
+
+    /**
+     * Creates a background-loading image for a resolved URL
+     */
+    @FunctionalInterface
+    interface ImageFactory {
+        Image create(String url, double width, double height);
+    }
+
+    /**
+     * Creates an image from a stored PNG thumbnail, decoded in the background
+     * @param decoding to complete once the pixels are in place, or exceptionally if decoding fails
+     */
+    @FunctionalInterface
+    interface MappedImageFactory {
+        Image create(Path thumbnail, CompletableFuture<Void> decoding) throws IOException;
+    }
+
+    /**
+     * Reads a mapped file without copying it onto the heap first
+     */
+    private static class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer.duplicate();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+
+    /**
+     * A cached image, the pixel bytes counted for it and who holds it (guarded by the cache)
+     */
+    private static class Entry {
+        private final String key;
+        private final Image image;
+        private final long bytes;
+        // Background decode of a stored thumbnail; null for images JavaFX loads itself
+        private final CompletableFuture<Void> decoding;
+        // Callers that took the image with acquire and have not released it yet
+        private int holders;
+        // Handed out by get to callers that never release it
+        private boolean shared;
+
+        Entry(String key, Image image, long bytes, CompletableFuture<Void> decoding) {
+            this.key = key;
+            this.image = image;
+            this.bytes = bytes;
+            this.decoding = decoding;
+        }
+
+        void hold(boolean held) {
+            if (held) {
+                holders++;
+            } else {
+                shared = true;
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.smartecommerce.utils;
 
+import com.smartecommerce.config.ConfigManager;
+import com.smartecommerce.performance.QueryTimer;
+import com.smartecommerce.performance.events.QueryEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,6 +22,7 @@ public class JdbcUtils {
     private static final String QUERY_TYPE_SELECT = "select";
     private static final String QUERY_TYPE_SHOW = "show";
     private static final String QUERY_TYPE_INSERT = "insert";
+    private static final int STREAMING_FETCH_SIZE = 1000;
 
     private JdbcUtils() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
@@ -32,6 +36,15 @@ public class JdbcUtils {
      * @return QueryResult object containing results, affected rows, or generated keys
      */
     public static QueryResult executePreparedQuery(String query, Object... data) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        QueryResult result = runPreparedQuery(query, data);
+        recordTiming(query, start, event, result);
+        return result;
+    }
+
+    private static QueryResult runPreparedQuery(String query, Object... data) {
         Connection con = null;
         PreparedStatement stm = null;
 
@@ -46,6 +59,7 @@ public class JdbcUtils {
             logger.debug("Query Data: {}", Arrays.toString(data));
 
             stm = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+            TaskDeadline.track(stm);
             bindParameters(stm, data);
 
             QueryResult result = executeQuery(stm, query);
@@ -62,6 +76,294 @@ public class JdbcUtils {
         }
     }
 
+    /**
+     * Execute several prepared statements in a single transaction
+     * All statements are committed together or rolled back together
+     * @param queries SQL statements with ? placeholders, executed in order
+     * @param data Parameters for each statement (same order as queries)
+     * @return QueryResult with the total affected rows, or an error
+     */
+    public static QueryResult executePreparedTransaction(List<String> queries, List<Object[]> data) {
+        if (queries.size() != data.size()) {
+            throw new IllegalArgumentException("Each query needs exactly one parameter array");
+        }
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        QueryResult result = runPreparedTransaction(queries, data);
+        recordTiming(String.join("; ", queries), start, event, result);
+        return result;
+    }
+
+    private static QueryResult runPreparedTransaction(List<String> queries, List<Object[]> data) {
+        Connection con = null;
+
+        try {
+            con = getConnectionWithProps();
+            if (con == null) {
+                return new QueryResult("Failed to establish database connection");
+            }
+
+            con.setAutoCommit(false);
+            int affectedRows = 0;
+            for (int i = 0; i < queries.size(); i++) {
+                logger.info("Executing Query: {}", queries.get(i));
+                try (PreparedStatement stm = con.prepareStatement(queries.get(i))) {
+                    TaskDeadline.track(stm);
+                    bindParameters(stm, data.get(i));
+                    affectedRows += stm.executeUpdate();
+                }
+            }
+            con.commit();
+            logger.info("Transaction committed successfully ({} statements)", queries.size());
+
+            return new QueryResult(affectedRows);
+
+        } catch (Exception e) {
+            handleTransactionError(con, e, String.join("; ", queries));
+            return new QueryResult("Database error: " + e.getMessage());
+        } finally {
+            closeResources(null, null, con);
+        }
+    }
+
+    /**
+     * Execute an INSERT, then follow-up statements that take its generated key, in a single transaction
+     * Used where rows derived from a new row must commit together with it
+     * @param insertQuery INSERT statement with ? placeholders
+     * @param insertData Parameters for the INSERT
+     * @param queries Follow-up statements, each taking the generated key as its only parameter (or none)
+     * @return QueryResult with the generated key, or an error
+     */
+    public static QueryResult executeInsertTransaction(String insertQuery, Object[] insertData, List<String> queries) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        QueryResult result = runInsertTransaction(insertQuery, insertData, queries);
+        recordTiming(insertQuery, start, event, result);
+        return result;
+    }
+
+    private static QueryResult runInsertTransaction(String insertQuery, Object[] insertData, List<String> queries) {
+        Connection con = null;
+
+        try {
+            con = getConnectionWithProps();
+            if (con == null) {
+                return new QueryResult("Failed to establish database connection");
+            }
+
+            con.setAutoCommit(false);
+            logger.info("Executing Query: {}", insertQuery);
+            long generatedKey;
+            try (PreparedStatement stm = con.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
+                TaskDeadline.track(stm);
+                bindParameters(stm, insertData);
+                stm.executeUpdate();
+                try (ResultSet rs = stm.getGeneratedKeys()) {
+                    if (!rs.next()) {
+                        throw new SQLException("No generated key returned");
+                    }
+                    generatedKey = rs.getLong(1);
+                }
+            }
+            for (String query : queries) {
+                logger.info("Executing Query: {}", query);
+                try (PreparedStatement stm = con.prepareStatement(query)) {
+                    TaskDeadline.track(stm);
+                    if (query.indexOf('?') >= 0) {
+                        bindParameters(stm, generatedKey);
+                    }
+                    stm.executeUpdate();
+                }
+            }
+            con.commit();
+            logger.info("Transaction committed successfully ({} statements)", queries.size() + 1);
+
+            return new QueryResult(generatedKey);
+
+        } catch (Exception e) {
+            handleTransactionError(con, e, insertQuery, insertData);
+            return new QueryResult("Database error: " + e.getMessage());
+        } finally {
+            closeResources(null, null, con);
+        }
+    }
+
+    /**
+     * Execute one statement as a JDBC batch, then any follow-up statements, in a single transaction
+     * Used for bulk loads where a chunk of rows and its bookkeeping must commit together
+     * @param batchQuery SQL statement with ? placeholders, executed once per row
+     * @param batchData Parameters for each row of the batch
+     * @param queries Follow-up statements executed after the batch
+     * @param data Parameters for each follow-up statement (same order as queries)
+     * @return QueryResult with the number of batch rows written, or an error
+     */
+    public static QueryResult executeBatchTransaction(String batchQuery, List<Object[]> batchData,
+                                                      List<String> queries, List<Object[]> data) {
+        if (queries.size() != data.size()) {
+            throw new IllegalArgumentException("Each query needs exactly one parameter array");
+        }
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        QueryResult result = runBatchTransaction(batchQuery, batchData, queries, data);
+        recordTiming(batchQuery, start, event, result);
+        return result;
+    }
+
+    private static QueryResult runBatchTransaction(String batchQuery, List<Object[]> batchData,
+                                                   List<String> queries, List<Object[]> data) {
+        Connection con = null;
+
+        try {
+            con = getConnectionWithProps();
+            if (con == null) {
+                return new QueryResult("Failed to establish database connection");
+            }
+
+            con.setAutoCommit(false);
+            logger.info("Executing Batch ({} rows): {}", batchData.size(), batchQuery);
+            try (PreparedStatement stm = con.prepareStatement(batchQuery)) {
+                TaskDeadline.track(stm);
+                for (Object[] row : batchData) {
+                    bindParameters(stm, row);
+                    stm.addBatch();
+                }
+                stm.executeBatch();
+            }
+            for (int i = 0; i < queries.size(); i++) {
+                try (PreparedStatement stm = con.prepareStatement(queries.get(i))) {
+                    TaskDeadline.track(stm);
+                    bindParameters(stm, data.get(i));
+                    stm.executeUpdate();
+                }
+            }
+            con.commit();
+            logger.info("Batch committed successfully ({} rows)", batchData.size());
+
+            return new QueryResult(batchData.size());
+
+        } catch (Exception e) {
+            handleTransactionError(con, e, batchQuery);
+            return new QueryResult("Database error: " + e.getMessage());
+        } finally {
+            closeResources(null, null, con);
+        }
+    }
+
+    /**
+     * Execute a SELECT and hand each row to the handler while reading from a server-side cursor
+     * Rows are never collected into memory, so this is safe for tables of any size
+     * @param query SQL query with ? placeholders
+     * @param handler Callback invoked once per row, positioned on the current row
+     * @param data Array of parameters to bind to the query
+     * @return QueryResult with the number of rows read as affected rows, or an error
+     */
+    public static QueryResult executeStreamingQuery(String query, RowHandler handler, Object... data) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        QueryResult result = runStreamingQuery(query, handler, data);
+        recordTiming(query, start, event, result);
+        return result;
+    }
+
+    private static QueryResult runStreamingQuery(String query, RowHandler handler, Object... data) {
+        Connection con = null;
+        PreparedStatement stm = null;
+
+        try {
+            con = getConnectionWithProps();
+            if (con == null) {
+                return new QueryResult("Failed to establish database connection");
+            }
+
+            // PostgreSQL only uses a cursor inside a transaction
+            con.setAutoCommit(false);
+            logger.info("Executing Streaming Query: {}", query);
+            logger.debug("Query Data: {}", Arrays.toString(data));
+
+            stm = con.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stm.setFetchSize(streamingFetchSize());
+            TaskDeadline.track(stm);
+            bindParameters(stm, data);
+
+            int rows = 0;
+            try (ResultSet rs = stm.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                    rows++;
+                }
+            }
+            con.commit();
+            return new QueryResult(rows);
+
+        } catch (Exception e) {
+            handleTransactionError(con, e, query, data);
+            return new QueryResult("Database error: " + e.getMessage());
+        } finally {
+            closeResources(null, stm, con);
+        }
+    }
+
+    /**
+     * Check whether a table exists, using the driver's metadata
+     * Unlike probing with a query, a missing table is not a failed statement, so nothing is logged as an error
+     * @param table table name as written in the schema; tried as is, lower case and upper case
+     */
+    public static boolean tableExists(String table) {
+        try (Connection con = getConnectionWithProps()) {
+            if (con == null) {
+                return false;
+            }
+            DatabaseMetaData metaData = con.getMetaData();
+            for (String name : new LinkedHashSet<>(List.of(table, table.toLowerCase(), table.toUpperCase()))) {
+                try (ResultSet rs = metaData.getTables(con.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (rs.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            logger.warn("Could not check for table {}: {}", table, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Fetch size that makes the configured driver stream rows instead of buffering the result
+     * MySQL Connector/J streams row by row only with Integer.MIN_VALUE
+     */
+    private static int streamingFetchSize() {
+        String databaseType = ConfigManager.getInstance().getDatabaseType();
+        return databaseType.equals("mysql") ? Integer.MIN_VALUE : STREAMING_FETCH_SIZE;
+    }
+
+    /**
+     * Record a statement's latency, row count and outcome in QueryTimer and as a JFR event
+     */
+    private static void recordTiming(String query, long startNanos, QueryEvent event, QueryResult result) {
+        long rows = 0;
+        if (result.getResultSet() != null) {
+            rows = result.getResultSet().size();
+        } else if (result.getAffectedRows() != null) {
+            rows = result.getAffectedRows();
+        } else if (result.getGeneratedKey() != null) {
+            rows = 1;
+        }
+        QueryTimer.record(query, System.nanoTime() - startNanos, rows, result.hasError());
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.sql = query;
+            event.rows = rows;
+            event.failed = result.hasError();
+            event.commit();
+        }
+    }
+
     /**
      * Bind parameters to prepared statement
      */
@@ -148,6 +450,7 @@ public class JdbcUtils {
      * Close resources safely
      */
     private static void closeResources(ResultSet rs, Statement stmt, Connection conn) {
+        TaskDeadline.untrack();
         try {
             if (rs != null) rs.close();
             if (stmt != null) stmt.close();
@@ -164,6 +467,14 @@ public class JdbcUtils {
         }
     }
 
+    /**
+     * Callback for rows read by executeStreamingQuery
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
     /**
      * Inner class to hold query results
      */
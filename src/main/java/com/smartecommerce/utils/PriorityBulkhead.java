@@ -0,0 +1,110 @@
+package com.smartecommerce.utils;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PriorityBulkhead is a counting semaphore whose waiters are served by TaskPriority
+ *
+ * A released permit goes to the oldest waiter of the highest lane that may run. The BULK
+ * lane can hold at most half the permits, so exports and imports never take every
+ * connection away from interactive screens. Used by AsyncTaskManager in virtual mode.
+ */
+class PriorityBulkhead {
+    private static final TaskPriority[] LANES = TaskPriority.values();
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition[] available = new Condition[LANES.length];
+    private final int[] waiting = new int[LANES.length];
+    private final int[] running = new int[LANES.length];
+    private final int[] limits = new int[LANES.length];
+    private final int permits;
+    private int used;
+    // Copies for metrics, so scraping never takes the lock
+    private volatile int free;
+    private volatile int queued;
+
+    PriorityBulkhead(int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Bulkhead needs at least one permit");
+        }
+        this.permits = permits;
+        this.free = permits;
+        for (TaskPriority lane : LANES) {
+            available[lane.ordinal()] = lock.newCondition();
+            limits[lane.ordinal()] = lane == TaskPriority.BULK ? Math.max(1, permits / 2) : permits;
+        }
+    }
+
+    void acquire(TaskPriority priority) throws InterruptedException {
+        int lane = priority.ordinal();
+        lock.lock();
+        try {
+            if (!canRun(lane)) {
+                waiting[lane]++;
+                queued++;
+                try {
+                    do {
+                        available[lane].await();
+                    } while (!canRun(lane));
+                } catch (InterruptedException e) {
+                    // Pass on a wake-up this thread may have consumed
+                    signalNext();
+                    throw e;
+                } finally {
+                    waiting[lane]--;
+                    queued--;
+                }
+            }
+            used++;
+            running[lane]++;
+            free = permits - used;
+            // Several permits may have been released at once
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(TaskPriority priority) {
+        lock.lock();
+        try {
+            used--;
+            running[priority.ordinal()]--;
+            free = permits - used;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int availablePermits() {
+        return free;
+    }
+
+    int getQueueLength() {
+        return queued;
+    }
+
+    private boolean canRun(int lane) {
+        if (used >= permits || running[lane] >= limits[lane]) {
+            return false;
+        }
+        // Higher lanes that are able to run go first
+        for (int higher = 0; higher < lane; higher++) {
+            if (waiting[higher] > 0 && running[higher] < limits[higher]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void signalNext() {
+        for (int lane = 0; lane < LANES.length; lane++) {
+            if (waiting[lane] > 0 && used < permits && running[lane] < limits[lane]) {
+                available[lane].signal();
+                return;
+            }
+        }
+    }
+}
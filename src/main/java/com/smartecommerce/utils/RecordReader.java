@@ -0,0 +1,218 @@
+package com.smartecommerce.utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.smartecommerce.utils.ExportWriter.Format;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * RecordReader reads CSV (with a header row) or JSON lines one record at a time
+ * The file is never loaded as a whole; format and gzip follow the file name like ExportWriter
+ */
+public class RecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Format format;
+    private final BufferedReader reader;
+    private final String[] header;
+    private long recordNumber;
+
+    private RecordReader(Format format, BufferedReader reader) throws IOException {
+        this.format = format;
+        this.reader = reader;
+        if (format == Format.CSV) {
+            List<String> headerFields = readCsvFields();
+            if (headerFields == null) {
+                throw new IOException("CSV file is empty - a header row is required");
+            }
+            this.header = headerFields.stream().map(String::trim).toArray(String[]::new);
+        } else {
+            this.header = null;
+        }
+    }
+
+    /**
+     * Open a file, choosing format and compression from the file name
+     */
+    public static RecordReader open(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        InputStream in = Files.newInputStream(path);
+        if (ExportWriter.isGzipFileName(fileName)) {
+            in = new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return new RecordReader(Format.fromFileName(fileName), reader);
+    }
+
+    /**
+     * Read the next record
+     * @return the record, or null at the end of the file
+     */
+    public Record next() throws IOException {
+        return format == Format.CSV ? nextCsv() : nextJson();
+    }
+
+    /**
+     * Skip records, e.g. those committed by an earlier run
+     * @return number of records actually skipped
+     */
+    public long skip(long records) throws IOException {
+        long skipped = 0;
+        while (skipped < records && next() != null) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Number of records read so far (1-based number of the last record returned)
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Record nextCsv() throws IOException {
+        List<String> fields;
+        do {
+            fields = readCsvFields();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+        recordNumber++;
+        if (fields.size() != header.length) {
+            return new Record(recordNumber, Map.of(),
+                    "Expected " + header.length + " fields but found " + fields.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            values.put(header[i], fields.get(i));
+        }
+        return new Record(recordNumber, values, null);
+    }
+
+    private Record nextJson() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        recordNumber++;
+        try {
+            JsonObject object = JsonParser.parseString(line).getAsJsonObject();
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                JsonElement value = entry.getValue();
+                values.put(entry.getKey(), value.isJsonNull() ? null
+                        : value.isJsonPrimitive() ? value.getAsString() : value.toString());
+            }
+            return new Record(recordNumber, values, null);
+        } catch (JsonParseException | IllegalStateException e) {
+            return new Record(recordNumber, Map.of(), "Invalid JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read one CSV record (RFC 4180: quoted fields may contain commas, quotes and newlines)
+     * @return the fields, or null at the end of the file
+     */
+    private List<String> readCsvFields() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * One input record: field values by column name, or a parse error
+     */
+    public static final class Record {
+        private final long number;
+        private final Map<String, String> values;
+        private final String error;
+
+        Record(long number, Map<String, String> values, String error) {
+            this.number = number;
+            this.values = values;
+            this.error = error;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        /**
+         * Get a field value, trimmed; null if the field is missing or blank
+         */
+        public String get(String column) {
+            String value = values.get(column);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            return value.trim();
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean hasError() {
+            return error != null;
+        }
+    }
+}
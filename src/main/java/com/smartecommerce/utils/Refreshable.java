@@ -0,0 +1,10 @@
+package com.smartecommerce.utils;
+
+/**
+ * Controller of a cached view that reloads its data when the view is shown again
+ * Called on the FX thread, instead of re-parsing the FXML and rebuilding the controller
+ */
+@FunctionalInterface
+public interface Refreshable {
+    void refresh();
+}
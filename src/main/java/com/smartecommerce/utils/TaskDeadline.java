@@ -0,0 +1,116 @@
+package com.smartecommerce.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskDeadline lets AsyncTaskManager stop a timed-out task, including the query it is running
+ *
+ * While a task runs under a deadline, JdbcUtils registers each statement it executes with
+ * the deadline and gives it a query timeout for the time that is left. When the deadline
+ * expires the running statement is cancelled with Statement.cancel, so the database stops
+ * working and JdbcUtils rolls back and closes the connection as for any failed query.
+ * Between statements (connecting, mapping rows) the worker thread is interrupted instead.
+ */
+class TaskDeadline {
+    private static final Logger logger = LoggerFactory.getLogger(TaskDeadline.class);
+    private static final ThreadLocal<TaskDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private Thread worker;
+    private Statement statement;
+    private volatile boolean expired;
+
+    TaskDeadline(long timeout, TimeUnit timeUnit) {
+        this.deadlineNanos = System.nanoTime() + timeUnit.toNanos(timeout);
+    }
+
+    /**
+     * Run a task on the current thread under this deadline
+     */
+    <T> T call(Callable<T> task) throws Exception {
+        synchronized (this) {
+            if (expired) {
+                throw new CancellationException("Task timed out before it started");
+            }
+            worker = Thread.currentThread();
+        }
+        CURRENT.set(this);
+        try {
+            return task.call();
+        } finally {
+            CURRENT.remove();
+            synchronized (this) {
+                worker = null;
+                statement = null;
+            }
+            // Do not leave a pool thread interrupted by a deadline that expired as the task ended
+            if (expired) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Stop the task: cancel its running statement, or interrupt it between statements
+     */
+    void expire() {
+        Statement running;
+        synchronized (this) {
+            if (expired) {
+                return;
+            }
+            expired = true;
+            running = statement;
+            if (running == null && worker != null) {
+                worker.interrupt();
+            }
+        }
+        if (running != null) {
+            try {
+                running.cancel();
+            } catch (SQLException e) {
+                logger.warn("Could not cancel timed-out statement: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Register a statement about to run on this thread with the thread's deadline, if any
+     * @throws SQLTimeoutException if the deadline has already passed
+     */
+    static void track(Statement stm) throws SQLException {
+        TaskDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return;
+        }
+        long remaining = deadline.deadlineNanos - System.nanoTime();
+        synchronized (deadline) {
+            if (deadline.expired || remaining <= 0) {
+                throw new SQLTimeoutException("Task deadline passed before the statement ran");
+            }
+            deadline.statement = stm;
+        }
+        // Server-side backstop in case the cancel request is lost
+        stm.setQueryTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + 999_999_999L)));
+    }
+
+    /**
+     * Forget the thread's statement once its connection has been released
+     */
+    static void untrack() {
+        TaskDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            synchronized (deadline) {
+                deadline.statement = null;
+            }
+        }
+    }
+}
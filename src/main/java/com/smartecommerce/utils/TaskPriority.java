@@ -0,0 +1,14 @@
+package com.smartecommerce.utils;
+
+/**
+ * Priority lanes for AsyncTaskManager, highest first
+ * Queued tasks of a higher lane always start before those of a lower one
+ */
+public enum TaskPriority {
+    /** Work the user is waiting on: screen loads, searches */
+    INTERACTIVE,
+    /** Refreshes and prefetches the user is not blocked on */
+    BACKGROUND,
+    /** Long jobs such as exports and imports; limited to half the bulkhead in virtual mode */
+    BULK
+}
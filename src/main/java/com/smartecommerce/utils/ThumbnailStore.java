@@ -0,0 +1,373 @@
+package com.smartecommerce.utils;
+
+import com.smartecommerce.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static com.smartecommerce.utils.AppUtils.printE;
+import static com.smartecommerce.utils.AppUtils.println;
+
+/**
+ * ThumbnailStore keeps pre-scaled product thumbnails in an on-disk, content-addressed cache
+ *
+ * A thumbnail is named after the SHA-256 of its source image and its size, so an edited
+ * source gets a new thumbnail and an unchanged one is never scaled twice. The index remembers
+ * each source's hash with its modification time and length, so sources are only re-hashed
+ * when they change. Thumbnails are written as PNG, which JavaFX can decode.
+ *
+ * Usage: ThumbnailStore <images-dir> [WIDTHxHEIGHT ...] pre-generates thumbnails in parallel
+ */
+public class ThumbnailStore {
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailStore.class);
+    private static volatile ThumbnailStore instance;
+
+    private static final String INDEX_FILE = "index.properties";
+    private static final String FORMAT = "png";
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of("jpg", "jpeg", "png");
+
+    private final Path directory;
+    // Source URL -> "lastModified,length,sha256"
+    private final Map<String, String> index = new ConcurrentHashMap<>();
+    // Source URL and size -> thumbnail checked during this run
+    private final Map<String, Path> verified = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // Constructor for testing with a temporary directory
+    public ThumbnailStore(Path directory) {
+        this.directory = directory;
+        loadIndex();
+    }
+
+    /**
+     * Get singleton instance with double-checked locking
+     */
+    public static ThumbnailStore getInstance() {
+        if (instance == null) {
+            synchronized (ThumbnailStore.class) {
+                if (instance == null) {
+                    instance = new ThumbnailStore(Path.of(
+                            ConfigManager.getInstance().getString("images.thumbnails.dir", "cache/thumbnails")));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            printE("Usage: ThumbnailStore <images-dir> [WIDTHxHEIGHT ...]");
+            System.exit(2);
+        }
+        Path images = Path.of(args[0]);
+        int[][] sizes = new int[Math.max(1, args.length - 1)][];
+        sizes[0] = new int[]{(int) ImageCache.THUMBNAIL_WIDTH, (int) ImageCache.THUMBNAIL_HEIGHT};
+        for (int i = 1; i < args.length; i++) {
+            String[] size = args[i].split("x");
+            sizes[i - 1] = new int[]{Integer.parseInt(size[0]), Integer.parseInt(size[1])};
+        }
+        try {
+            long start = System.nanoTime();
+            int generated = getInstance().generateAll(images, sizes);
+            println(String.format("%d thumbnails ready in %s (%.1f s)",
+                    generated, getInstance().directory, (System.nanoTime() - start) / 1e9));
+        } catch (IOException e) {
+            printE("Could not generate thumbnails: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Thumbnail for a source if it has already been generated and the source is unchanged
+     * Cheap enough for the FX thread: a source and thumbnail are only checked once per run
+     * @return the thumbnail file, or null if it has to be generated first
+     */
+    public Path find(String sourceUrl, int width, int height) {
+        String key = sourceUrl + '@' + width + 'x' + height;
+        Path thumbnail = verified.get(key);
+        if (thumbnail != null) {
+            return thumbnail;
+        }
+        String entry = index.get(sourceUrl);
+        if (entry == null) {
+            return null;
+        }
+        String[] fields = entry.split(",");
+        try {
+            long[] stamp = stamp(sourceUrl);
+            if (stamp[0] != Long.parseLong(fields[0]) || stamp[1] != Long.parseLong(fields[1])) {
+                return null;
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+        thumbnail = pathFor(fields[2], width, height);
+        if (!Files.isRegularFile(thumbnail)) {
+            return null;
+        }
+        verified.put(key, thumbnail);
+        return thumbnail;
+    }
+
+    /**
+     * Generate a thumbnail in the background lane, at most once at a time per source and size
+     */
+    public void generateLater(String sourceUrl, int width, int height) {
+        String key = sourceUrl + '@' + width + 'x' + height;
+        if (!pending.add(key)) {
+            return;
+        }
+        AsyncTaskManager.supplyAsync(TaskPriority.BULK, () -> generate(sourceUrl, width, height))
+                .whenComplete((thumbnail, throwable) -> {
+                    pending.remove(key);
+                    if (throwable != null) {
+                        logger.warn("Could not generate thumbnail for {}: {}", sourceUrl, throwable.getMessage());
+                    } else {
+                        saveIndex();
+                    }
+                });
+    }
+
+    /**
+     * Thumbnail for a source, generated right away if it is missing; blocks, so call off the FX thread
+     * @return the thumbnail file, or null if it could not be generated
+     */
+    public Path findOrGenerate(String sourceUrl, int width, int height) {
+        Path thumbnail = find(sourceUrl, width, height);
+        if (thumbnail != null) {
+            return thumbnail;
+        }
+        try {
+            thumbnail = generate(sourceUrl, width, height);
+            saveIndex();
+            return thumbnail;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not generate thumbnail for {}: {}", sourceUrl, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Generate the thumbnail for a source, or reuse the one already stored for its content
+     * @return the thumbnail file
+     */
+    public Path generate(String sourceUrl, int width, int height) throws IOException {
+        String hash = hashIfChanged(sourceUrl);
+        Path thumbnail = pathFor(hash, width, height);
+        if (!Files.isRegularFile(thumbnail)) {
+            BufferedImage source;
+            try (InputStream in = URI.create(sourceUrl).toURL().openStream()) {
+                source = ImageIO.read(in);
+            }
+            if (source == null) {
+                throw new IOException("Unsupported image format: " + sourceUrl);
+            }
+            write(scale(source, width, height), thumbnail);
+        }
+        verified.put(sourceUrl + '@' + width + 'x' + height, thumbnail);
+        return thumbnail;
+    }
+
+    /**
+     * Generate thumbnails for every JPG and PNG under a directory, one worker per CPU
+     * @param sizes {width, height} pairs
+     * @return number of thumbnails now available
+     */
+    public int generateAll(Path images, int[]... sizes) throws IOException {
+        List<Path> sources;
+        try (Stream<Path> files = Files.walk(images)) {
+            sources = files.filter(Files::isRegularFile).filter(ThumbnailStore::isSourceImage).toList();
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<Path>> results = new ArrayList<>();
+            for (Path source : sources) {
+                for (int[] size : sizes) {
+                    results.add(workers.submit(() -> generate(source.toUri().toString(), size[0], size[1])));
+                }
+            }
+            int generated = 0;
+            for (Future<Path> result : results) {
+                try {
+                    result.get();
+                    generated++;
+                } catch (Exception e) {
+                    logger.warn("Skipped thumbnail: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                }
+            }
+            return generated;
+        } finally {
+            workers.shutdown();
+            saveIndex();
+        }
+    }
+
+    /**
+     * Map a thumbnail read-only, e.g. for ImageCache to decode it without a copy on the heap
+     * The mapping stays valid after the channel is closed
+     */
+    public static ByteBuffer map(Path thumbnail) throws IOException {
+        try (FileChannel channel = FileChannel.open(thumbnail, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static boolean isSourceImage(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && SOURCE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+    }
+
+    /**
+     * Source hash from the index, re-hashing only if the source's time or length changed
+     */
+    private String hashIfChanged(String sourceUrl) throws IOException {
+        long[] stamp = stamp(sourceUrl);
+        String entry = index.get(sourceUrl);
+        if (entry != null) {
+            String[] fields = entry.split(",");
+            if (stamp[0] == Long.parseLong(fields[0]) && stamp[1] == Long.parseLong(fields[1])) {
+                return fields[2];
+            }
+        }
+        String hash = sha256(sourceUrl);
+        index.put(sourceUrl, stamp[0] + "," + stamp[1] + "," + hash);
+        return hash;
+    }
+
+    private static long[] stamp(String sourceUrl) throws IOException {
+        URI uri = URI.create(sourceUrl);
+        if ("file".equals(uri.getScheme())) {
+            Path file = Path.of(uri);
+            return new long[]{Files.getLastModifiedTime(file).toMillis(), Files.size(file)};
+        }
+        URLConnection connection = uri.toURL().openConnection();
+        return new long[]{connection.getLastModified(), connection.getContentLengthLong()};
+    }
+
+    private static String sha256(String sourceUrl) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(URI.create(sourceUrl).toURL().openStream(), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Path pathFor(String hash, int width, int height) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + "-" + width + "x" + height + "." + FORMAT);
+    }
+
+    /**
+     * Scale to fit within width x height, keeping the aspect ratio
+     * Halves the image in steps first so large sources do not alias
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        double ratio = Math.min(1.0, Math.min((double) width / source.getWidth(), (double) height / source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g.dispose();
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    /**
+     * Write through a temporary file so readers never see a partial thumbnail
+     */
+    private static void write(BufferedImage thumbnail, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "thumb", ".tmp");
+        try {
+            if (!ImageIO.write(thumbnail, FORMAT, temp.toFile())) {
+                throw new IOException("No " + FORMAT + " writer available");
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void loadIndex() {
+        Path file = directory.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+            properties.forEach((source, entry) -> index.put((String) source, (String) entry));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable thumbnail index {}: {}", file, e.getMessage());
+        }
+    }
+
+    private synchronized void saveIndex() {
+        Properties properties = new Properties();
+        properties.putAll(index);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "index", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                properties.store(writer, "Thumbnail source hashes: lastModified,length,sha256");
+            }
+            Files.move(temp, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Could not save thumbnail index: {}", e.getMessage());
+        }
+    }
+}
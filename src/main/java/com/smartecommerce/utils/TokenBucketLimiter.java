@@ -0,0 +1,122 @@
+package com.smartecommerce.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * TokenBucketLimiter allows each key a burst of attempts, then one more per refill period
+ *
+ * A bucket is a single AtomicLong: the low 20 bits hold the tokens in thousandths, the high bits
+ * the time they were last topped up (milliseconds since the limiter was created). Taking a
+ * token is one compare-and-set, with no lock. A bucket that has refilled completely is the same
+ * as no bucket, so every 1024 attempts those are swept away; memory only holds recent keys.
+ */
+public class TokenBucketLimiter {
+    private static final long MILLI_TOKENS = 1000;
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final int MAX_CAPACITY = (int) (TOKEN_MASK / MILLI_TOKENS);
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final long capacity;
+    private final long refillMillis;
+    private final LongSupplier clock;
+    private final long origin;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger untilSweep = new AtomicInteger(SWEEP_INTERVAL);
+
+    /**
+     * @param capacity attempts allowed in a burst (at most 1048)
+     * @param refillPeriod time for one attempt to come back
+     */
+    public TokenBucketLimiter(int capacity, Duration refillPeriod) {
+        this(capacity, refillPeriod, System::currentTimeMillis);
+    }
+
+    // Constructor for testing with a manual clock
+    TokenBucketLimiter(int capacity, Duration refillPeriod, LongSupplier clock) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = capacity * MILLI_TOKENS;
+        this.refillMillis = Math.max(1, refillPeriod.toMillis());
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Take one token from the key's bucket
+     * @return false if the bucket is empty, i.e. the key has to wait
+     */
+    public boolean tryAcquire(String key) {
+        sweepIfDue();
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(capacity, now())));
+        while (true) {
+            long state = bucket.get();
+            long now = now();
+            long last = state >>> TOKEN_BITS;
+            long gained = Math.max(0, now - last) * MILLI_TOKENS / refillMillis;
+            long tokens = (state & TOKEN_MASK) + gained;
+            // Move the refill time only as far as the tokens gained, so partial periods add up
+            long refilledAt = last + gained * refillMillis / MILLI_TOKENS;
+            if (tokens >= capacity) {
+                tokens = capacity;
+                refilledAt = now;
+            }
+            if (tokens < MILLI_TOKENS) {
+                return false;
+            }
+            if (bucket.compareAndSet(state, pack(tokens - MILLI_TOKENS, refilledAt))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Time for one token to come back; a fair Retry-After for a denied attempt
+     */
+    public Duration getRefillPeriod() {
+        return Duration.ofMillis(refillMillis);
+    }
+
+    /**
+     * Number of keys with a bucket
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Drop buckets that are full again
+     * A sweep racing an attempt can lose that attempt's token, letting the key have one extra
+     */
+    public void sweep() {
+        long now = now();
+        buckets.values().removeIf(bucket -> refilled(bucket.get(), now) >= capacity);
+    }
+
+    private void sweepIfDue() {
+        if (untilSweep.decrementAndGet() <= 0) {
+            untilSweep.set(SWEEP_INTERVAL);
+            sweep();
+        }
+    }
+
+    private long refilled(long state, long now) {
+        long tokens = state & TOKEN_MASK;
+        long elapsed = Math.max(0, now - (state >>> TOKEN_BITS));
+        return Math.min(capacity, tokens + elapsed * MILLI_TOKENS / refillMillis);
+    }
+
+    private long now() {
+        return clock.getAsLong() - origin;
+    }
+
+    private static long pack(long tokens, long now) {
+        return (now << TOKEN_BITS) | tokens;
+    }
+}
@@ -0,0 +1,190 @@
+package com.smartecommerce.utils;
+
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Region;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * VirtualGrid lays items out in fixed-size rows but only creates cells for the rows in view
+ *
+ * The grid is as tall as all its rows, so it scrolls with the ScrollPane it sits in, yet only
+ * the visible rows plus a small overscan have cells. Cells leaving the view are unbound and
+ * reused for the rows coming into view, so a catalog of thousands of products costs a few
+ * dozen cards. Without an enclosing ScrollPane the whole grid counts as visible.
+ */
+public class VirtualGrid<T> extends Region {
+    private final int columns;
+    private final double rowHeight;
+    private final double gap;
+    private final int overscanRows;
+    private final Supplier<Cell<T>> cellFactory;
+
+    private List<T> items = Collections.emptyList();
+    private final Map<Integer, Cell<T>> boundCells = new HashMap<>();
+    private final Deque<Cell<T>> freeCells = new ArrayDeque<>();
+    private ScrollPane scrollPane;
+
+    /**
+     * @param rowHeight height of one row of cells
+     * @param gap horizontal and vertical space between cells
+     * @param overscanRows rows kept bound above and below the visible ones
+     */
+    public VirtualGrid(int columns, double rowHeight, double gap, int overscanRows, Supplier<Cell<T>> cellFactory) {
+        this.columns = columns;
+        this.rowHeight = rowHeight;
+        this.gap = gap;
+        this.overscanRows = overscanRows;
+        this.cellFactory = cellFactory;
+
+        sceneProperty().addListener((obs, oldScene, newScene) -> attachToScrollPane());
+    }
+
+    /**
+     * Replace the items; every bound cell is unbound and rebound on the next layout
+     */
+    public void setItems(List<T> items) {
+        this.items = items != null ? items : Collections.emptyList();
+        for (Iterator<Cell<T>> it = boundCells.values().iterator(); it.hasNext(); ) {
+            release(it.next());
+            it.remove();
+        }
+        requestLayout();
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Number of cells created so far (bound and free)
+     */
+    public int getCellCount() {
+        return boundCells.size() + freeCells.size();
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        int rows = rowCount();
+        return snappedTopInset() + snappedBottomInset() + (rows == 0 ? 0 : rows * rowHeight + (rows - 1) * gap);
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        return computePrefHeight(width);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        attachToScrollPane();
+        int rows = rowCount();
+        double top = snappedTopInset();
+        double left = snappedLeftInset();
+        double cellWidth = (getWidth() - left - snappedRightInset() - (columns - 1) * gap) / columns;
+
+        double[] visible = visibleRange();
+        int firstRow = Math.max(0, (int) Math.floor((visible[0] - top) / (rowHeight + gap)) - overscanRows);
+        int lastRow = Math.min(rows - 1, (int) Math.ceil((visible[1] - top) / (rowHeight + gap)) - 1 + overscanRows);
+        int first = firstRow * columns;
+        int last = Math.min(items.size() - 1, (lastRow + 1) * columns - 1);
+
+        // Free cells that scrolled out before binding new ones, so they can be reused
+        for (Iterator<Map.Entry<Integer, Cell<T>>> it = boundCells.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, Cell<T>> entry = it.next();
+            if (entry.getKey() < first || entry.getKey() > last) {
+                release(entry.getValue());
+                it.remove();
+            }
+        }
+        for (int index = first; index <= last; index++) {
+            Cell<T> cell = boundCells.get(index);
+            if (cell == null) {
+                cell = acquire();
+                cell.bind(items.get(index));
+                boundCells.put(index, cell);
+            }
+            int row = index / columns;
+            int column = index % columns;
+            cell.getNode().resizeRelocate(left + column * (cellWidth + gap), top + row * (rowHeight + gap),
+                    cellWidth, rowHeight);
+        }
+    }
+
+    private int rowCount() {
+        return (items.size() + columns - 1) / columns;
+    }
+
+    private Cell<T> acquire() {
+        Cell<T> cell = freeCells.poll();
+        if (cell == null) {
+            cell = cellFactory.get();
+            getChildren().add(cell.getNode());
+        }
+        cell.getNode().setVisible(true);
+        return cell;
+    }
+
+    private void release(Cell<T> cell) {
+        cell.unbind();
+        cell.getNode().setVisible(false);
+        freeCells.push(cell);
+    }
+
+    /**
+     * Part of this grid inside the ScrollPane's viewport, as {top, bottom} in grid coordinates
+     */
+    private double[] visibleRange() {
+        if (scrollPane == null || scrollPane.getContent() == null) {
+            return new double[]{0, getHeight()};
+        }
+        Bounds viewport = scrollPane.getViewportBounds();
+        Node content = scrollPane.getContent();
+        double contentHeight = content.getLayoutBounds().getHeight();
+        double scrollTop = Math.max(0, contentHeight - viewport.getHeight())
+                * (scrollPane.getVvalue() - scrollPane.getVmin()) / Math.max(1e-9, scrollPane.getVmax() - scrollPane.getVmin());
+        double gridTop = content.sceneToLocal(localToScene(0, 0)).getY();
+        return new double[]{scrollTop - gridTop, scrollTop - gridTop + viewport.getHeight()};
+    }
+
+    private void attachToScrollPane() {
+        if (scrollPane != null) {
+            return;
+        }
+        for (Parent parent = getParent(); parent != null; parent = parent.getParent()) {
+            if (parent instanceof ScrollPane found) {
+                scrollPane = found;
+                scrollPane.vvalueProperty().addListener((obs, oldValue, newValue) -> requestLayout());
+                scrollPane.viewportBoundsProperty().addListener((obs, oldValue, newValue) -> requestLayout());
+                requestLayout();
+                return;
+            }
+        }
+    }
+
+    /**
+     * A reusable view for one item
+     */
+    public interface Cell<T> {
+        Node getNode();
+
+        /**
+         * Show an item; called when the cell comes into view, possibly after showing another item
+         */
+        void bind(T item);
+
+        /**
+         * The cell left the view; stop any work started for its item (e.g. image loads)
+         */
+        void unbind();
+    }
+}
@@ -7,12 +7,19 @@ module com.ecommerce.smartecommercesystem {
     requires org.kordamp.bootstrapfx.core;
     requires io.github.cdimascio.dotenv.java;
     requires org.slf4j;
+    requires com.google.gson;
+    requires java.desktop;
+    requires jdk.jfr;
+    requires org.eclipse.jetty.server;
+    requires jjwt.api;
 
 
     // Open packages to JavaFX for reflection
     opens com.smartecommerce.app to javafx.fxml;
     opens com.smartecommerce.controllers to javafx.fxml;
-    opens com.smartecommerce.models to javafx.base;
+    opens com.smartecommerce.models to javafx.base, com.google.gson;
+    // Request bodies of the JSON API
+    opens com.smartecommerce.api to com.google.gson;
 
     // Export packages
     exports com.smartecommerce.app;
@@ -20,4 +27,5 @@ module com.ecommerce.smartecommercesystem {
     exports com.smartecommerce.models;
     exports com.smartecommerce.service;
     exports com.smartecommerce.dao;
+    exports com.smartecommerce.api;
 }
@@ -0,0 +1,21 @@
+package com.smartecommerce.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsStoreTest {
+
+    @Test
+    void testDisabledStoreStaysEmptyWithoutTheDatabase() {
+        AnalyticsStore store = AnalyticsStore.disabled();
+
+        AnalyticsSnapshot snapshot = store.getSnapshot(Duration.ZERO);
+
+        assertSame(snapshot, store.refresh());
+        assertEquals(0, snapshot.estimateUniqueBuyers(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(0, snapshot.getOrders().size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.smartecommerce.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void testEstimateWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int userId = 1; userId <= 100_000; userId++) {
+            sketch.add(userId);
+            sketch.add(userId); // duplicates must not count
+        }
+
+        double error = Math.abs(sketch.estimate() - 100_000) / 100_000.0;
+        assertTrue(error < 4 * sketch.getStandardError(), "Relative error too large: " + error);
+    }
+
+    @Test
+    void testSmallCardinalityIsNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int userId = 1; userId <= 50; userId++) {
+            sketch.add(userId);
+        }
+
+        assertEquals(50, sketch.estimate(), 2);
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    void testMergeEstimatesUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int userId = 0; userId < 30_000; userId++) {
+            first.add(userId);
+            second.add(userId + 20_000);
+        }
+
+        first.merge(second);
+
+        double error = Math.abs(first.estimate() - 50_000) / 50_000.0;
+        assertTrue(error < 4 * first.getStandardError(), "Relative error too large: " + error);
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void testDailySketchesAnswerDateRanges() {
+        DailySketches sketches = new DailySketches();
+        for (int day = 0; day < 10; day++) {
+            // 100 regular users every day, plus 10 new users per day
+            for (int userId = 0; userId < 100; userId++) {
+                sketches.add(20_000 + day, userId);
+            }
+            for (int userId = 0; userId < 10; userId++) {
+                sketches.add(20_000 + day, 1_000 + day * 10 + userId);
+            }
+        }
+
+        assertEquals(110, sketches.estimate(20_000, 20_001), 5);
+        assertEquals(150, sketches.estimate(20_000, 20_005), 6);
+        assertEquals(200, sketches.estimate(Integer.MIN_VALUE, Integer.MAX_VALUE), 8);
+        assertEquals(0, sketches.estimate(30_000, 30_100));
+    }
+
+    @Test
+    void testSnapshotCombinesBuyersAndRegistrations() {
+        AnalyticsStore store = new AnalyticsStore();
+        store.appendUser(1, 20_000);
+        store.appendUser(2, 20_001);
+        store.appendUser(3, 20_002);
+        store.appendOrder(1, 1, 20_001, 1_000, OrderStatusCodes.PENDING);
+        store.appendOrder(2, 1, 20_002, 1_000, OrderStatusCodes.PENDING);
+        store.appendOrder(3, 4, 20_002, 1_000, OrderStatusCodes.DELIVERED);
+
+        AnalyticsSnapshot snapshot = store.publish();
+
+        assertEquals(2, snapshot.estimateUniqueBuyers(20_000, 20_003));
+        assertEquals(4, snapshot.estimateActiveUsers(20_000, 20_003));
+        assertEquals(3, snapshot.estimateActiveUsers(20_002, 20_003));
+    }
+}
@@ -0,0 +1,96 @@
+package com.smartecommerce.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderColumnsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 2, 15);
+
+    private AnalyticsStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new AnalyticsStore();
+        // Five orders spanning December 2024 to February 2025
+        store.appendOrder(1, 10, day(2024, 12, 3), 1_000, OrderStatusCodes.DELIVERED);
+        store.appendOrder(2, 11, day(2025, 1, 1), 2_550, OrderStatusCodes.PENDING);
+        store.appendOrder(3, 10, day(2025, 1, 31), 450, OrderStatusCodes.CANCELLED);
+        store.appendOrder(5, 12, day(2025, 2, 14), 10_000, OrderStatusCodes.PENDING);
+        store.appendOrder(8, 11, day(2023, 6, 1), 99_999, OrderStatusCodes.SHIPPED);
+    }
+
+    @Test
+    void testAggregatesOverAllRows() {
+        OrderColumns orders = store.publish().getOrders();
+
+        assertEquals(5, orders.size());
+        assertEquals(113_999, orders.sumAmountCents(null));
+        int[] byStatus = orders.countByStatus(null);
+        assertEquals(2, byStatus[OrderStatusCodes.PENDING]);
+        assertEquals(1, byStatus[OrderStatusCodes.SHIPPED]);
+        assertEquals(0, byStatus[OrderStatusCodes.CONFIRMED]);
+    }
+
+    @Test
+    void testFilterByDayRangeAndStatus() {
+        OrderColumns orders = store.publish().getOrders();
+
+        int[] pendingInJanuary = orders.filter(day(2025, 1, 1), day(2025, 2, 1),
+                OrderStatusCodes.mask(OrderStatusCodes.PENDING));
+        assertArrayEquals(new int[]{1}, pendingInJanuary);
+
+        int[] january = orders.filter(day(2025, 1, 1), day(2025, 2, 1), OrderStatusCodes.ALL);
+        assertEquals(3_000, orders.sumAmountCents(january));
+    }
+
+    @Test
+    void testGroupByMonthAcrossYearBoundary() {
+        OrderColumns orders = store.publish().getOrders();
+        DayBuckets months = DayBuckets.lastMonths(TODAY, 3);
+
+        assertEquals("Dec", months.getLabel(0));
+        assertEquals("Feb", months.getLabel(2));
+        assertArrayEquals(new long[]{1_000, 3_000, 10_000}, orders.sumAmountCentsByBucket(null, months));
+        assertArrayEquals(new int[]{1, 2, 1}, orders.countByBucket(null, months));
+    }
+
+    @Test
+    void testPublishedSnapshotIsNotAffectedByLaterWrites() {
+        OrderColumns before = store.publish().getOrders();
+
+        assertTrue(store.updateOrderStatus(2, OrderStatusCodes.SHIPPED));
+        store.appendOrder(9, 13, day(2025, 2, 15), 500, OrderStatusCodes.PENDING);
+        OrderColumns after = store.publish().getOrders();
+
+        assertEquals(5, before.size());
+        assertEquals(OrderStatusCodes.PENDING, before.getStatusCode(before.rowOf(2)));
+        assertEquals(6, after.size());
+        assertEquals(OrderStatusCodes.SHIPPED, after.getStatusCode(after.rowOf(2)));
+        assertFalse(store.updateOrderStatus(4, OrderStatusCodes.SHIPPED));
+    }
+
+    @Test
+    void testAppendRejectsOutOfOrderIds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> store.appendOrder(7, 10, day(2025, 2, 1), 100, OrderStatusCodes.PENDING));
+    }
+
+    @Test
+    void testStatusCodesAndCents() {
+        assertEquals(OrderStatusCodes.CONFIRMED, OrderStatusCodes.of("confirmed"));
+        assertEquals(OrderStatusCodes.OTHER, OrderStatusCodes.of(null));
+        assertEquals("DELIVERED", OrderStatusCodes.name(OrderStatusCodes.DELIVERED));
+        assertEquals(1_999, AnalyticsStore.toCents(new BigDecimal("19.99")));
+        assertEquals(0, AnalyticsStore.toCents(null));
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+}
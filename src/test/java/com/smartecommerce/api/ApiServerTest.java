@@ -0,0 +1,247 @@
+package com.smartecommerce.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.smartecommerce.dao.CatalogVersion;
+import com.smartecommerce.dao.CategoryDAO;
+import com.smartecommerce.dao.UserDAO;
+import com.smartecommerce.models.Order;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.models.User;
+import com.smartecommerce.service.OrderService;
+import com.smartecommerce.service.ProductService;
+import com.smartecommerce.service.ReportService;
+import com.smartecommerce.utils.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiServerTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private ProductService productService;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private ReportService reportService;
+    @Mock
+    private CategoryDAO categoryDAO;
+    @Mock
+    private UserDAO userDAO;
+
+    private final CatalogVersion catalogVersion = CatalogVersion.inMemory();
+    private ApiHandler handler;
+    private ApiServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Map<String, String> tokens = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        handler = new ApiHandler(productService, orderService, reportService, categoryDAO, userDAO, catalogVersion);
+        server = new ApiServer("127.0.0.1", 0, handler);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void testCatalogIsPublicAndStreamedAsJson() throws Exception {
+        Product lamp = new Product(1, "Lamp", "Desk lamp", new BigDecimal("19.99"), 2, 5);
+        lamp.setCreatedAt(LocalDateTime.of(2024, 3, 1, 9, 30));
+        when(productService.getAllProducts()).thenReturn(List.of(lamp, new Product(2, "Chair", "Oak", BigDecimal.TEN, 2, 0)));
+
+        HttpResponse<String> response = send("GET", "/api/products", null, null);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        JsonArray products = JsonParser.parseString(response.body()).getAsJsonArray();
+        assertEquals(2, products.size());
+        assertEquals("Lamp", products.get(0).getAsJsonObject().get("productName").getAsString());
+        assertEquals("2024-03-01T09:30", products.get(0).getAsJsonObject().get("createdAt").getAsString());
+
+        assertEquals(404, send("GET", "/api/products/99", null, null).statusCode());
+        assertEquals(400, send("GET", "/api/products/abc", null, null).statusCode());
+    }
+
+    @Test
+    void testCatalogAnswersConditionalRequestsFromCache() throws Exception {
+        when(productService.getAllProducts()).thenReturn(List.of(new Product(1, "Lamp", "Desk lamp", BigDecimal.ONE, 2, 5)));
+
+        HttpResponse<String> first = send("GET", "/api/products", null, null);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        String lastModified = first.headers().firstValue("Last-Modified").orElseThrow();
+        assertEquals(304, sendWith("/api/products", "If-None-Match", etag).statusCode());
+        assertEquals(304, sendWith("/api/products", "If-Modified-Since", lastModified).statusCode());
+
+        HttpResponse<byte[]> gzipped = client.send(HttpRequest.newBuilder(uri("/api/products"))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            assertEquals(first.body(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        // Served from the cache every time after the first load
+        verify(productService, times(1)).getAllProducts();
+
+        catalogVersion.recordWrite();
+        HttpResponse<String> changed = sendWith("/api/products", "If-None-Match", etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertEquals(200, sendWith("/api/products", "If-Modified-Since", lastModified).statusCode());
+        verify(productService, times(2)).getAllProducts();
+    }
+
+    @Test
+    void testEachUserHasTheirOwnCart() throws Exception {
+        when(userDAO.findForLogin("alice")).thenReturn(user(1, "alice", "a@x.com", "CUSTOMER"));
+        when(userDAO.findForLogin("bob")).thenReturn(user(2, "bob", "b@x.com", "CUSTOMER"));
+        when(productService.getProductById(7)).thenReturn(new Product(7, "Mug", "Blue", new BigDecimal("4.50"), 1, 10));
+
+        HttpResponse<String> anonymous = send("GET", "/api/cart", null, null);
+        assertEquals(401, anonymous.statusCode());
+        assertTrue(anonymous.headers().firstValue("WWW-Authenticate").isPresent());
+
+        assertEquals(201, send("POST", "/api/cart/items", "alice", "{\"productId\":7,\"quantity\":2}").statusCode());
+        assertEquals(201, send("POST", "/api/cart/items", "alice", "{\"productId\":7}").statusCode());
+
+        JsonObject aliceCart = JsonParser.parseString(send("GET", "/api/cart", "alice", null).body()).getAsJsonObject();
+        assertEquals(3, aliceCart.get("totalItems").getAsInt());
+        assertEquals(0, new BigDecimal("13.50").compareTo(aliceCart.get("totalPrice").getAsBigDecimal()));
+        JsonObject bobCart = JsonParser.parseString(send("GET", "/api/cart", "bob", null).body()).getAsJsonObject();
+        assertEquals(0, bobCart.get("totalItems").getAsInt());
+        assertEquals(2, handler.getCartCount());
+    }
+
+    @Test
+    void testLoginIssuesTokenThatLogoutRevokes() throws Exception {
+        when(userDAO.findForLogin("alice")).thenReturn(user(1, "alice", "a@x.com", "CUSTOMER"));
+        when(userDAO.findForLogin("mallory")).thenReturn(null);
+
+        assertEquals(401, send("POST", "/api/auth/login", null, "{\"username\":\"mallory\",\"password\":\"x\"}").statusCode());
+        assertEquals(200, send("GET", "/api/cart", "alice", null).statusCode());
+        // The token alone identifies the caller; the database is only asked at login
+        verify(userDAO, times(1)).findForLogin("alice");
+
+        assertEquals(204, send("POST", "/api/auth/logout", "alice", null).statusCode());
+        HttpResponse<String> revoked = send("GET", "/api/cart", "alice", null);
+        assertEquals(401, revoked.statusCode());
+        assertTrue(revoked.headers().firstValue("WWW-Authenticate").orElse("").startsWith("Bearer"));
+    }
+
+    @Test
+    void testRepeatedFailedLoginsAreRateLimited() throws Exception {
+        when(userDAO.findForLogin("mallory")).thenReturn(null);
+        String credentials = "{\"username\":\"mallory\",\"password\":\"guess\"}";
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            assertEquals(401, send("POST", "/api/auth/login", null, credentials).statusCode());
+        }
+        HttpResponse<String> limited = send("POST", "/api/auth/login", null, credentials);
+        assertEquals(429, limited.statusCode());
+        assertTrue(Long.parseLong(limited.headers().firstValue("Retry-After").orElseThrow()) > 0);
+        // Limited attempts never reach the database, and other names are not affected
+        verify(userDAO, times(5)).findForLogin("mallory");
+        when(userDAO.findForLogin("alice")).thenReturn(user(1, "alice", "a@x.com", "CUSTOMER"));
+        assertEquals(200, send("GET", "/api/cart", "alice", null).statusCode());
+    }
+
+    @Test
+    void testCheckoutPlacesOrderAndEmptiesCart() throws Exception {
+        when(userDAO.findForLogin("alice")).thenReturn(user(1, "alice", "a@x.com", "CUSTOMER"));
+        when(productService.getProductById(7)).thenReturn(new Product(7, "Mug", "Blue", new BigDecimal("4.50"), 1, 10));
+        when(orderService.createOrder(any(Order.class))).thenAnswer(invocation -> {
+            invocation.<Order>getArgument(0).setOrderId(42);
+            return true;
+        });
+
+        assertEquals(400, send("POST", "/api/orders", "alice", null).statusCode());
+        send("POST", "/api/cart/items", "alice", "{\"productId\":7,\"quantity\":2}");
+        HttpResponse<String> placed = send("POST", "/api/orders", "alice", null);
+
+        assertEquals(201, placed.statusCode());
+        JsonObject order = JsonParser.parseString(placed.body()).getAsJsonObject();
+        assertEquals(42, order.get("orderId").getAsInt());
+        assertEquals(1, order.get("userId").getAsInt());
+        assertEquals("PENDING", order.get("status").getAsString());
+        JsonObject cart = JsonParser.parseString(send("GET", "/api/cart", "alice", null).body()).getAsJsonObject();
+        assertEquals(0, cart.get("totalItems").getAsInt());
+    }
+
+    @Test
+    void testReportsAreForAdminsAndHidePasswords() throws Exception {
+        when(userDAO.findForLogin("alice")).thenReturn(user(1, "alice", "a@x.com", "CUSTOMER"));
+        when(userDAO.findForLogin("root")).thenReturn(user(3, "root", "r@x.com", "ADMIN"));
+        when(reportService.generateUserReport()).thenReturn(Map.of(
+                "totalUsers", 1, "recentRegistrations", List.of(new User(1, "alice", "a@x.com", "secret-hash", "CUSTOMER"))));
+
+        assertEquals(403, send("GET", "/api/reports/users", "alice", null).statusCode());
+
+        HttpResponse<String> report = send("GET", "/api/reports/users", "root", null);
+        assertEquals(200, report.statusCode());
+        assertTrue(report.body().contains("\"username\":\"alice\""));
+        assertFalse(report.body().contains("secret-hash"));
+        verify(reportService, times(1)).generateUserReport();
+    }
+
+    private HttpResponse<String> sendWith(String path, String header, String value) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).header(header, value).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+
+    private HttpResponse<String> send(String method, String path, String user, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        if (user != null) {
+            request.header("Authorization", "Bearer " + token(user));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static User user(int userId, String username, String email, String role) {
+        return new User(userId, username, email, SecurityUtils.hashPassword("password"), role);
+    }
+
+    private String token(String user) throws Exception {
+        String token = tokens.get(user);
+        if (token == null) {
+            HttpResponse<String> login = send("POST", "/api/auth/login", null,
+                    "{\"username\":\"" + user + "\",\"password\":\"password\"}");
+            assertEquals(200, login.statusCode(), login.body());
+            token = JsonParser.parseString(login.body()).getAsJsonObject().get("token").getAsString();
+            tokens.put(user, token);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,48 @@
+package com.smartecommerce.api;
+
+import com.smartecommerce.service.CartService;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartRegistryTest {
+
+    @Test
+    void testIdleCartsAreDropped() {
+        AtomicLong now = new AtomicLong();
+        CartRegistry carts = new CartRegistry(1000, 100, now::get);
+        CartService alice = carts.get(1);
+        carts.get(2);
+
+        now.set(999);
+        assertSame(alice, carts.get(1));
+        now.set(1998);
+        assertSame(alice, carts.get(1));
+        now.set(2998);
+        assertNotSame(alice, carts.get(1));
+
+        // A new cart sweeps the idle ones
+        carts.get(3);
+        assertEquals(2, carts.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedCartGoesWhenFull() {
+        AtomicLong now = new AtomicLong();
+        CartRegistry carts = new CartRegistry(60_000, 2, now::get);
+        CartService alice = carts.get(1);
+        now.set(1);
+        CartService bob = carts.get(2);
+        now.set(2);
+        carts.get(1);
+
+        now.set(3);
+        carts.get(3);
+
+        assertEquals(2, carts.size());
+        assertSame(alice, carts.get(1));
+        assertNotSame(bob, carts.get(2));
+    }
+}
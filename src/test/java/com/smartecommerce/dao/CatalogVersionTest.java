@@ -0,0 +1,83 @@
+package com.smartecommerce.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionTest {
+
+    @Test
+    void testWritesOfOtherProcessesAreSeenAfterTheCheckInterval() {
+        AtomicReference<CatalogVersion.Stamp> database = new AtomicReference<>(new CatalogVersion.Stamp(1, 1000));
+        AtomicLong now = new AtomicLong();
+        CatalogVersion catalogVersion = new CatalogVersion(database::get, 1000, now::get);
+        assertEquals(1, catalogVersion.current().getVersion());
+
+        // Another process bumps the row
+        database.set(new CatalogVersion.Stamp(2, 1001));
+        now.set(999);
+        assertEquals(1, catalogVersion.current().getVersion());
+        now.set(1000);
+        assertEquals(2, catalogVersion.current().getVersion());
+
+        // A write of this process is seen right away
+        database.set(new CatalogVersion.Stamp(3, 1002));
+        catalogVersion.recordWrite();
+        assertEquals(3, catalogVersion.current().getVersion());
+
+        // No table: no stamp, and the database is not asked again until the interval is over
+        database.set(null);
+        now.set(2000);
+        assertNull(catalogVersion.current());
+        database.set(new CatalogVersion.Stamp(4, 1003));
+        assertNull(catalogVersion.current());
+    }
+
+    @Test
+    void testInMemoryWritesMoveVersionAndLastModifiedForward() {
+        CatalogVersion catalogVersion = CatalogVersion.inMemory();
+        CatalogVersion.Stamp start = catalogVersion.current();
+
+        catalogVersion.recordWrite();
+        CatalogVersion.Stamp first = catalogVersion.current();
+        catalogVersion.recordWrite();
+        CatalogVersion.Stamp second = catalogVersion.current();
+
+        assertEquals(start.getVersion() + 1, first.getVersion());
+        assertEquals(start.getVersion() + 2, second.getVersion());
+        // Writes within the same second still get distinct HTTP dates
+        assertTrue(first.getLastModifiedSeconds() > start.getLastModifiedSeconds());
+        assertTrue(second.getLastModifiedSeconds() > first.getLastModifiedSeconds());
+    }
+
+    @Test
+    void testBumpMovesLastModifiedForwardWithinOneSecond() throws SQLException {
+        for (String mode : new String[]{"MySQL", "PostgreSQL"}) {
+            try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:catalog" + mode + ";MODE=" + mode);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE CatalogVersion (id INT PRIMARY KEY, version BIGINT NOT NULL DEFAULT 0, "
+                        + "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+                statement.execute("INSERT INTO CatalogVersion (id, version, updated_at) "
+                        + "VALUES (1, 0, CURRENT_TIMESTAMP + INTERVAL '1' HOUR)");
+
+                assertEquals(1, statement.executeUpdate(CatalogVersion.BUMP_SQL));
+                assertEquals(1, statement.executeUpdate(CatalogVersion.BUMP_SQL));
+
+                try (ResultSet rs = statement.executeQuery("SELECT version, "
+                        + "DATEDIFF('SECOND', CURRENT_TIMESTAMP + INTERVAL '1' HOUR, updated_at) FROM CatalogVersion")) {
+                    assertTrue(rs.next());
+                    assertEquals(2, rs.getLong(1), mode);
+                    assertTrue(rs.getLong(2) >= 2, mode);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.smartecommerce.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeriodStatsQueryTest {
+
+    @Test
+    void testDialectFromDatabaseType() {
+        assertEquals(SqlDialect.MYSQL, SqlDialect.fromDatabaseType("mysql"));
+        assertEquals(SqlDialect.POSTGRESQL, SqlDialect.fromDatabaseType("postgresql"));
+        assertEquals(SqlDialect.POSTGRESQL, SqlDialect.fromDatabaseType("Postgres"));
+        assertEquals(SqlDialect.MYSQL, SqlDialect.fromDatabaseType(null));
+    }
+
+    @Test
+    void testMySqlCountAndSumQuery() {
+        String sql = new PeriodStatsQuery(SqlDialect.MYSQL).buildSql("Orders", "order_date", "total_amount");
+
+        assertTrue(sql.startsWith("SELECT COALESCE(SUM(CASE WHEN order_date >= NOW() - INTERVAL 24 HOUR THEN 1 ELSE 0 END), 0) AS count_24h"));
+        assertTrue(sql.contains("THEN total_amount ELSE 0 END), 0) AS sum_30d"));
+        assertTrue(sql.endsWith(" FROM Orders WHERE order_date >= NOW() - INTERVAL 720 HOUR"));
+        assertFalse(sql.contains("ISNULL"));
+        assertFalse(sql.contains("DATEADD"));
+    }
+
+    @Test
+    void testPostgresCountQuery() {
+        String sql = new PeriodStatsQuery(SqlDialect.POSTGRESQL).buildCountSql("Users", "created_at");
+
+        assertTrue(sql.contains("created_at >= NOW() - INTERVAL '168 hours' THEN 1 ELSE 0 END), 0) AS count_7d"));
+        assertFalse(sql.contains("sum_"));
+        assertTrue(sql.endsWith(" FROM Users WHERE created_at >= NOW() - INTERVAL '720 hours'"));
+    }
+
+    @Test
+    void testMapRow() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("count_24h", 2L);
+        row.put("count_7d", 5L);
+        row.put("count_30d", 9L);
+        row.put("sum_24h", new BigDecimal("20.00"));
+        row.put("sum_7d", new BigDecimal("50.00"));
+        row.put("sum_30d", new BigDecimal("90.00"));
+
+        PeriodStatsQuery.PeriodStats stats = PeriodStatsQuery.PeriodStats.fromRow(row);
+
+        assertEquals(2, stats.getCounts().get("last24Hours"));
+        assertEquals(5, stats.getCounts().get("last7Days"));
+        assertEquals(9, stats.getCounts().get("last30Days"));
+        assertEquals(new BigDecimal("90.00"), stats.getSums().get("last30Days"));
+    }
+
+    @Test
+    void testMapMissingRowReturnsZeros() {
+        Map<String, Integer> counts = PeriodStatsQuery.mapCounts(null);
+
+        assertEquals(3, counts.size());
+        assertEquals(0, counts.get("last24Hours"));
+        assertEquals(BigDecimal.ZERO, PeriodStatsQuery.mapSums(null).get("last7Days"));
+    }
+}
@@ -0,0 +1,184 @@
+package com.smartecommerce.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalesRollupDAOTest {
+    private static final Pattern ORDER_ITEM_COLUMN = Pattern.compile("\\boi\\.(\\w+)");
+
+    @Test
+    void testPostgresRollupSqlUsesTheInitScriptColumns() throws IOException {
+        assertSameOrderItemColumns(SqlDialect.POSTGRESQL, Path.of("database/init/03-rollups.sql"));
+    }
+
+    @Test
+    void testMySqlRollupSqlUsesTheRollupScriptColumns() throws IOException {
+        assertSameOrderItemColumns(SqlDialect.MYSQL, Path.of("database/Rollups.sql"));
+    }
+
+    @Test
+    void testDisabledDaoFallsBackWithoutTheDatabase() {
+        SalesRollupDAO disabled = SalesRollupDAO.disabled();
+
+        assertFalse(disabled.hasTables());
+        assertNull(disabled.getSalesTotals());
+        assertTrue(disabled.getTopProductIds(5).isEmpty());
+        assertTrue(disabled.getItemsSoldByCategory(LocalDate.now().minusDays(7), LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    void testItemsAddedAfterCreateReachProductRollupsOnStatusChange() throws SQLException {
+        SalesRollupDAO rollups = new SalesRollupDAO(SqlDialect.MYSQL);
+        OrderDAO orders = new OrderDAO(rollups);
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:h2:mem:rollups;MODE=MySQL;DATABASE_TO_LOWER=TRUE")) {
+            createTables(connection);
+
+            // Create: the order row and its order rollups, in one transaction
+            int orderId = insert(connection, "INSERT INTO Orders (user_id, total_amount, status) VALUES (1, 50.00, 'pending')");
+            List<String> addOrder = rollups.buildAddOrderSql();
+            execute(connection, addOrder, Collections.nCopies(addOrder.size(), new Object[]{orderId}));
+            LocalDate orderDay = LocalDate.parse(rows(connection, "SELECT CAST(order_date AS DATE) FROM Orders").get(0));
+            assertEquals(List.of("pending 1 50.00"), salesRows(connection));
+            assertEquals(List.of(), productRows(connection));
+
+            // Items are written after the order
+            insert(connection, "INSERT INTO OrderItems (order_id, product_id, quantity, unit_price) VALUES (" + orderId + ", 10, 2, 15.00)");
+            insert(connection, "INSERT INTO OrderItems (order_id, product_id, quantity, unit_price) VALUES (" + orderId + ", 11, 1, 20.00)");
+
+            for (String status : List.of("shipped", "delivered")) {
+                List<String> queries = new ArrayList<>();
+                List<Object[]> data = new ArrayList<>();
+                orders.addStatusChange(orderId, status, orderDay, queries, data);
+                execute(connection, queries, data);
+            }
+
+            assertEquals(List.of("delivered 1 50.00"), salesRows(connection));
+            assertEquals(List.of("delivered 10 2 30.00", "delivered 11 1 20.00"), productRows(connection));
+        }
+    }
+
+    /**
+     * Stand-in for MySQL DATE_FORMAT, which H2 lacks; only the hour truncation the rollups use
+     */
+    public static Timestamp dateFormat(Timestamp timestamp, String format) {
+        return Timestamp.valueOf(timestamp.toLocalDateTime().truncatedTo(ChronoUnit.HOURS));
+    }
+
+    private static void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS DATE_FORMAT FOR '" + SalesRollupDAOTest.class.getName() + ".dateFormat'");
+            statement.execute("CREATE TABLE Products (product_id INT PRIMARY KEY, category_id INT)");
+            statement.execute("INSERT INTO Products VALUES (10, 1), (11, 2)");
+            statement.execute("CREATE TABLE Orders (order_id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, " +
+                    "total_amount DECIMAL(10, 2), status VARCHAR(20), order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("CREATE TABLE OrderItems (order_item_id INT AUTO_INCREMENT PRIMARY KEY, order_id INT, " +
+                    "product_id INT, quantity INT, unit_price DECIMAL(10, 2))");
+            statement.execute("CREATE TABLE SalesRollupHourly (bucket_start TIMESTAMP, status VARCHAR(20), " +
+                    "order_count INT, revenue DECIMAL(12, 2), PRIMARY KEY (bucket_start, status))");
+            statement.execute("CREATE TABLE SalesRollupDaily (bucket_date DATE, status VARCHAR(20), " +
+                    "order_count INT, revenue DECIMAL(12, 2), PRIMARY KEY (bucket_date, status))");
+            statement.execute("CREATE TABLE ProductSalesRollupHourly (bucket_start TIMESTAMP, status VARCHAR(20), " +
+                    "product_id INT, category_id INT, items_sold INT, revenue DECIMAL(12, 2), " +
+                    "PRIMARY KEY (bucket_start, status, product_id))");
+            statement.execute("CREATE TABLE ProductSalesRollupDaily (bucket_date DATE, status VARCHAR(20), " +
+                    "product_id INT, category_id INT, items_sold INT, revenue DECIMAL(12, 2), " +
+                    "PRIMARY KEY (bucket_date, status, product_id))");
+        }
+    }
+
+    private static int insert(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql, Statement.RETURN_GENERATED_KEYS);
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Run the statements in one transaction, as JdbcUtils.executePreparedTransaction does
+     */
+    private static void execute(Connection connection, List<String> queries, List<Object[]> data) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            for (int i = 0; i < queries.size(); i++) {
+                try (PreparedStatement statement = connection.prepareStatement(queries.get(i))) {
+                    for (int j = 0; j < data.get(i).length; j++) {
+                        statement.setObject(j + 1, data.get(i)[j]);
+                    }
+                    statement.executeUpdate();
+                }
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static List<String> salesRows(Connection connection) throws SQLException {
+        return rows(connection, "SELECT status, order_count, revenue FROM SalesRollupDaily ORDER BY status");
+    }
+
+    private static List<String> productRows(Connection connection) throws SQLException {
+        List<String> daily = rows(connection,
+                "SELECT status, product_id, items_sold, revenue FROM ProductSalesRollupDaily ORDER BY status, product_id");
+        assertEquals(daily, rows(connection,
+                "SELECT status, product_id, items_sold, revenue FROM ProductSalesRollupHourly ORDER BY status, product_id"));
+        return daily;
+    }
+
+    private static List<String> rows(Connection connection, String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            int columns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                List<String> values = new ArrayList<>();
+                for (int i = 1; i <= columns; i++) {
+                    values.add(resultSet.getString(i));
+                }
+                rows.add(String.join(" ", values));
+            }
+        }
+        return rows;
+    }
+
+    private static void assertSameOrderItemColumns(SqlDialect dialect, Path script) throws IOException {
+        String sql = String.join("\n", new SalesRollupDAO(dialect).buildAggregateSql("o.order_id = ?", true, true));
+
+        Set<String> expected = orderItemColumns(Files.readString(script));
+        assertTrue(expected.contains("quantity"), "No OrderItems columns found in " + script);
+        assertEquals(expected, orderItemColumns(sql));
+    }
+
+    private static Set<String> orderItemColumns(String sql) {
+        Set<String> columns = new TreeSet<>();
+        Matcher matcher = ORDER_ITEM_COLUMN.matcher(sql);
+        while (matcher.find()) {
+            columns.add(matcher.group(1));
+        }
+        return columns;
+    }
+}
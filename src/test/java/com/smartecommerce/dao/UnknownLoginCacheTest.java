@@ -0,0 +1,29 @@
+package com.smartecommerce.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnknownLoginCacheTest {
+
+    @Test
+    void testUnknownLoginsExpireAndAreForgottenOnSignup() {
+        AtomicLong clock = new AtomicLong(0);
+        UnknownLoginCache cache = new UnknownLoginCache(60_000, 100, clock::get);
+        cache.markUnknown("mallory");
+        cache.markUnknown("Eve@x.com");
+
+        assertTrue(cache.isUnknown("mallory"));
+        assertFalse(cache.isUnknown("alice"));
+
+        // A user created with that email, in any case, can sign in right away
+        cache.forget("eve", "eve@x.com");
+        assertFalse(cache.isUnknown("Eve@x.com"));
+
+        clock.addAndGet(60_000);
+        assertFalse(cache.isUnknown("mallory"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,120 @@
+package com.smartecommerce.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    private MetricsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    void testCountersAndGaugesInTextFormat() {
+        Counter hits = registry.counter("cache_lookups_total", "Cache lookups", "cache", "product", "result", "hit");
+        registry.counter("cache_lookups_total", "Cache lookups", "cache", "product", "result", "miss").add(2);
+        hits.inc();
+        hits.inc();
+        registry.gauge("queue_depth", "Queued tasks", () -> 7);
+        Gauge running = registry.gauge("running", "Running tasks");
+        running.inc();
+        running.set(3.5);
+
+        String text = registry.scrape();
+        assertEquals("""
+                # HELP cache_lookups_total Cache lookups
+                # TYPE cache_lookups_total counter
+                cache_lookups_total{cache="product",result="hit"} 2
+                cache_lookups_total{cache="product",result="miss"} 2
+                # HELP queue_depth Queued tasks
+                # TYPE queue_depth gauge
+                queue_depth 7
+                # HELP running Running tasks
+                # TYPE running gauge
+                running 3.5
+                """, text);
+    }
+
+    @Test
+    void testSameNameAndLabelsReturnsSameMetric() {
+        Counter first = registry.counter("requests_total", "Requests", "path", "/a");
+        assertSame(first, registry.counter("requests_total", "Requests", "path", "/a"));
+        assertNotSame(first, registry.counter("requests_total", "Requests", "path", "/b"));
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("requests_total", "Requests"));
+    }
+
+    @Test
+    void testTimerIsSummaryInSeconds() {
+        Timer timer = registry.timer("query_seconds", "Query time", "query", "SELECT \"x\"\n");
+        for (int i = 1; i <= 100; i++) {
+            timer.record(i * 1_000_000L);
+        }
+
+        String text = registry.scrape();
+        assertTrue(text.contains("# TYPE query_seconds summary"));
+        assertTrue(text.contains("query_seconds_count{query=\"SELECT \\\"x\\\"\\n\"} 100\n"), text);
+        assertTrue(text.contains("query_seconds_sum{query=\"SELECT \\\"x\\\"\\n\"} 5.05\n"), text);
+        assertTrue(text.contains("quantile=\"0.99\"} 0.1\n"), text);
+    }
+
+    @Test
+    void testHistogramBucketsAreCumulative() {
+        Histogram sizes = registry.histogram("response_bytes", "Response size", new double[]{100, 1000});
+        sizes.observe(50);
+        sizes.observe(100);
+        sizes.observe(500);
+        sizes.observe(5000);
+
+        String text = registry.scrape();
+        assertTrue(text.contains("response_bytes_bucket{le=\"100.0\"} 2\n"), text);
+        assertTrue(text.contains("response_bytes_bucket{le=\"1000.0\"} 3\n"), text);
+        assertTrue(text.contains("response_bytes_bucket{le=\"+Inf\"} 4\n"), text);
+        assertTrue(text.contains("response_bytes_sum 5650\n"), text);
+        assertTrue(text.contains("response_bytes_count 4\n"), text);
+    }
+
+    @Test
+    void testWriterIsReusedBetweenScrapes() {
+        registry.counter("events_total", "Events").add(-5 + 12_345_678_901L);
+        PrometheusWriter out = new PrometheusWriter(8);
+        registry.writeTo(out);
+        String first = out.toString();
+        out.reset();
+        registry.writeTo(out);
+
+        assertEquals(first, out.toString());
+        assertTrue(first.contains("events_total 12345678896\n"));
+    }
+
+    @Test
+    void testServerExposesMetricsEndpoint() throws Exception {
+        registry.counter("scrapes_total", "Scrapes").inc();
+        MetricsServer server = new MetricsServer(registry, 0);
+        server.start();
+        try {
+            HttpURLConnection connection = (HttpURLConnection) URI
+                    .create("http://127.0.0.1:" + server.getPort() + "/metrics").toURL().openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+            try (InputStream body = connection.getInputStream()) {
+                assertTrue(new String(body.readAllBytes(), StandardCharsets.UTF_8).contains("scrapes_total 1\n"));
+            }
+
+            HttpURLConnection missing = (HttpURLConnection) URI
+                    .create("http://127.0.0.1:" + server.getPort() + "/other").toURL().openConnection();
+            assertEquals(404, missing.getResponseCode());
+        } finally {
+            server.stop();
+        }
+    }
+}
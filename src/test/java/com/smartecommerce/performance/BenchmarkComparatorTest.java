@@ -0,0 +1,118 @@
+package com.smartecommerce.performance;
+
+import com.smartecommerce.performance.BenchmarkComparator.BenchmarkResult;
+import com.smartecommerce.performance.BenchmarkComparator.Finding;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkComparatorTest {
+
+    private static String run(String benchmark, String mode, double score, double error, double alloc) {
+        return """
+                {"benchmark": "%s", "mode": "%s", "params": {"catalogSize": "1000"},
+                 "primaryMetric": {"score": %s, "scoreConfidence": [%s, %s], "scoreUnit": "us/op",
+                                   "scorePercentiles": {"50.0": %s, "90.0": %s, "99.0": %s}},
+                 "secondaryMetrics": {"gc.alloc.rate.norm": {"score": %s, "scoreConfidence": [%s, %s], "scoreUnit": "B/op"}}}
+                """.formatted(benchmark, mode, score, score - error, score + error,
+                score, score * 1.5, score * 2, alloc, alloc - 1, alloc + 1);
+    }
+
+    private static Map<String, BenchmarkResult> parse(String... runs) {
+        return BenchmarkComparator.parse(new StringReader("[" + String.join(",", runs) + "]"));
+    }
+
+    private static List<Finding> regressions(List<Finding> findings) {
+        return findings.stream().filter(Finding::isRegression).toList();
+    }
+
+    @Test
+    void testParseKeysByBenchmarkAndParams() {
+        Map<String, BenchmarkResult> results = parse(run("a.B.sort", "avgt", 100, 5, 4000));
+
+        BenchmarkResult result = results.get("a.B.sort catalogSize=1000");
+        assertNotNull(result);
+        assertEquals(100, result.getPrimary().getScore());
+        assertEquals(4000, result.getAllocation().getScore());
+    }
+
+    @Test
+    void testSlowerAverageTimeBeyondNoiseIsRegression() {
+        List<Finding> findings = BenchmarkComparator.compare(
+                parse(run("a.B.sort", "avgt", 100, 5, 4000)),
+                parse(run("a.B.sort", "avgt", 130, 5, 4000)), 0.10);
+
+        List<Finding> regressions = regressions(findings);
+        assertEquals(1, regressions.size());
+        assertEquals(0.30, regressions.get(0).getChange(), 1e-9);
+    }
+
+    @Test
+    void testOverlappingConfidenceIntervalsAreNotRegressions() {
+        List<Finding> findings = BenchmarkComparator.compare(
+                parse(run("a.B.sort", "avgt", 100, 20, 4000)),
+                parse(run("a.B.sort", "avgt", 115, 20, 4000)), 0.10);
+
+        assertTrue(regressions(findings).isEmpty());
+    }
+
+    @Test
+    void testLowerThroughputIsRegressionAndHigherIsNot() {
+        Map<String, BenchmarkResult> baseline = parse(run("a.B.hash", "thrpt", 1000, 10, 100));
+
+        assertEquals(1, regressions(BenchmarkComparator.compare(baseline,
+                parse(run("a.B.hash", "thrpt", 800, 10, 100)), 0.10)).size());
+        assertTrue(regressions(BenchmarkComparator.compare(baseline,
+                parse(run("a.B.hash", "thrpt", 1500, 10, 100)), 0.10)).isEmpty());
+    }
+
+    @Test
+    void testAllocationRegressionIgnoresTinyAbsoluteChanges() {
+        assertTrue(regressions(BenchmarkComparator.compare(
+                parse(run("a.B.lookup", "avgt", 10, 1, 24)),
+                parse(run("a.B.lookup", "avgt", 10, 1, 32)), 0.10)).isEmpty());
+
+        List<Finding> regressions = regressions(BenchmarkComparator.compare(
+                parse(run("a.B.lookup", "avgt", 10, 1, 1000)),
+                parse(run("a.B.lookup", "avgt", 10, 1, 2000)), 0.10));
+        assertEquals(1, regressions.size());
+        assertEquals("alloc (B/op)", regressions.get(0).getMetric());
+    }
+
+    @Test
+    void testSampleTimePercentilesAreCompared() {
+        List<Finding> findings = BenchmarkComparator.compare(
+                parse(run("a.B.findById", "sample", 100, 50, 500)),
+                parse(run("a.B.findById", "sample", 140, 50, 500)), 0.10);
+
+        // Primary score is within noise, but every percentile moved by 40% (> 2 x threshold)
+        List<String> regressed = regressions(findings).stream().map(Finding::getMetric).toList();
+        assertEquals(List.of("p50", "p90", "p99"), regressed);
+    }
+
+    @Test
+    void testMissingAndNewBenchmarksAreReportedButDoNotFail() {
+        List<Finding> findings = BenchmarkComparator.compare(
+                parse(run("a.B.old", "avgt", 10, 1, 100)),
+                parse(run("a.B.new", "avgt", 10, 1, 100)), 0.10);
+
+        assertEquals(2, findings.size());
+        assertTrue(regressions(findings).isEmpty());
+    }
+
+    @Test
+    void testRunsOnDifferentMajorJdksAreNotCompared() {
+        String jdk21 = run("a.B.sort", "avgt", 100, 5, 4000).replace("{\"benchmark\"", "{\"jdkVersion\": \"21.0.1\", \"benchmark\"");
+        String jdk21Patch = jdk21.replace("21.0.1", "21.0.4");
+        String jdk25 = jdk21.replace("21.0.1", "25");
+
+        assertNull(BenchmarkComparator.jdkMismatch(parse(jdk21), parse(jdk21Patch)));
+        assertNull(BenchmarkComparator.jdkMismatch(parse(jdk21), parse(run("a.B.sort", "avgt", 100, 5, 4000))));
+        assertEquals("Baseline was recorded on JDK 21 but this run used JDK 25",
+                BenchmarkComparator.jdkMismatch(parse(jdk21), parse(jdk25)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartecommerce.performance;
+
+import com.smartecommerce.performance.QueryTimer.QueryStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTimerTest {
+
+    @BeforeEach
+    void setUp() {
+        QueryTimer.reset();
+    }
+
+    @Test
+    void testNormalizesLiteralsAndWhitespace() {
+        assertEquals("SELECT * FROM Products WHERE product_id = ? AND name = ?",
+                QueryTimer.normalize("SELECT *  FROM Products\n WHERE product_id = 42 AND name = 'it''s'"));
+        assertEquals("SELECT * FROM Orders WHERE order_id IN (?...) LIMIT ?",
+                QueryTimer.normalize("SELECT * FROM Orders WHERE order_id IN (1, 2, 3) LIMIT 10"));
+        assertEquals("SELECT col1 FROM Table2", QueryTimer.normalize("SELECT col1 FROM Table2"));
+    }
+
+    @Test
+    void testConcurrentRecordingKeepsExactCounts() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    QueryTimer.record("SELECT * FROM Products WHERE product_id = ?", 1_000, 1, i % 100 == 0);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        QueryStats stats = QueryTimer.getStats("SELECT * FROM Products WHERE product_id = ?");
+        assertEquals(80_000, stats.getExecutions());
+        assertEquals(800, stats.getErrors());
+        assertEquals(80_000, stats.getRows());
+        assertEquals(80_000, QueryTimer.getExecutionCount("SELECT * FROM Products WHERE product_id = ?"));
+    }
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        // 1 ms .. 100 ms in 1 ms steps
+        for (int ms = 1; ms <= 100; ms++) {
+            QueryTimer.record("SELECT 1", ms * 1_000_000L, 0, false);
+        }
+
+        QueryStats stats = QueryTimer.getStats("SELECT 1");
+        assertEquals(50, stats.getPercentileMillis(50), 50 * 0.0625);
+        assertEquals(95, stats.getPercentileMillis(95), 95 * 0.0625);
+        assertEquals(99, stats.getPercentileMillis(99), 99 * 0.0625);
+        assertEquals(100, stats.getMaxMillis(), 0.001);
+        assertEquals(50.5, QueryTimer.getAverageTime("SELECT 1"), 0.001);
+    }
+
+    @Test
+    void testHistogramBucketBoundaries() {
+        for (long value : new long[]{0, 15, 16, 17, 1_000, 123_456_789, 1L << 40}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket < LatencyHistogram.BUCKET_COUNT);
+            assertTrue(LatencyHistogram.highestValueIn(bucket) >= value);
+            assertTrue(LatencyHistogram.highestValueIn(bucket) <= value + value / 16);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartecommerce.performance;
+
+import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.performance.events.AsyncTaskEvent;
+import com.smartecommerce.performance.events.QueryEvent;
+import com.smartecommerce.service.ProductService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecordingAnalyzerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSummarizesApplicationEvents() throws Exception {
+        ProductDAO productDAO = mock(ProductDAO.class);
+        Product product = new Product();
+        product.setProductId(7);
+        when(productDAO.findById(7)).thenReturn(product);
+        when(productDAO.searchByName(anyString())).thenReturn(List.of(product));
+        ProductService productService = new ProductService(productDAO);
+
+        Path file = tempDir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RecordingAnalyzer.QUERY_EVENT);
+            recording.enable(RecordingAnalyzer.CACHE_EVENT);
+            recording.enable(RecordingAnalyzer.ASYNC_EVENT);
+            recording.start();
+
+            emitQuery("SELECT * FROM Products WHERE product_id = 1", 1, false);
+            emitQuery("SELECT * FROM Products WHERE product_id = 2", 1, false);
+            emitQuery("SELECT * FROM Products WHERE product_id = 3", 0, true);
+
+            productService.getProductById(7);
+            productService.getProductById(7);
+            productService.getProductById(7);
+            productService.searchProducts("laptop");
+
+            AsyncTaskEvent task = new AsyncTaskEvent();
+            task.begin();
+            task.task = "com.smartecommerce.controllers.LandingController";
+            task.queueWait = 5_000_000;
+            task.commit();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        RecordingAnalyzer analyzer = new RecordingAnalyzer(5);
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                analyzer.accept(recordingFile.readEvent());
+            }
+        }
+
+        RecordingAnalyzer.Hotspot query = analyzer.getQuery("SELECT * FROM Products WHERE product_id = ?");
+        assertNotNull(query);
+        assertEquals(3, query.count);
+        assertEquals(2, query.rows);
+        assertEquals(1, query.errors);
+
+        assertArrayEquals(new long[]{2, 1}, analyzer.getCacheLookups("product"));
+        assertArrayEquals(new long[]{0, 1}, analyzer.getCacheLookups("search"));
+
+        RecordingAnalyzer.Hotspot asyncTask = analyzer.getAsyncTask("com.smartecommerce.controllers.LandingController");
+        assertNotNull(asyncTask);
+        assertEquals(5_000_000, asyncTask.maxWaitNanos);
+
+        String report = RecordingAnalyzer.analyze(file, 5);
+        assertTrue(report.contains("SELECT * FROM Products WHERE product_id = ?"));
+        assertTrue(report.contains("66.7%"));
+    }
+
+    private static void emitQuery(String sql, long rows, boolean failed) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        event.sql = sql;
+        event.rows = rows;
+        event.failed = failed;
+        event.commit();
+    }
+}
@@ -0,0 +1,154 @@
+package com.smartecommerce.service;
+
+import com.smartecommerce.dao.CategoryDAO;
+import com.smartecommerce.dao.ImportCheckpointDAO;
+import com.smartecommerce.dao.ProductDAO;
+import com.smartecommerce.models.Category;
+import com.smartecommerce.models.Product;
+import com.smartecommerce.service.CatalogImportService.ImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    private static final String HEADER = "name,description,price,category,stock,image_url\n";
+
+    @Mock
+    private ProductDAO productDAO;
+
+    @Mock
+    private CategoryDAO categoryDAO;
+
+    @Mock
+    private ImportCheckpointDAO checkpointDAO;
+
+    @TempDir
+    Path tempDir;
+
+    private CatalogImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new CatalogImportService(productDAO, categoryDAO, checkpointDAO);
+        Category electronics = new Category();
+        electronics.setCategoryId(1);
+        electronics.setCategoryName("Electronics");
+        when(categoryDAO.findAll()).thenReturn(List.of(electronics));
+        lenient().when(checkpointDAO.getSaveSql()).thenReturn("CHECKPOINT");
+    }
+
+    @Test
+    void testImportsValidRowsInChunksWithCheckpoints() throws IOException {
+        Path file = writeFile("products.csv", HEADER +
+                "Laptop,\"Fast, light\",999.99,electronics,5,\n" +
+                "Phone,,499,Electronics,,https://example.com/phone.png\n" +
+                "Tablet,\"Says \"\"hi\"\"\non two lines\",299.50,1,3,\n");
+        when(productDAO.createBatch(anyList(), anyList(), anyList()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        ImportResult result = importService.importFile(file, 2, false);
+
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals(2, result.getChunks());
+        assertFalse(result.isFailed());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> products = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> checkpoints = ArgumentCaptor.forClass(List.class);
+        verify(productDAO, times(2)).createBatch(products.capture(), anyList(), checkpoints.capture());
+
+        Product laptop = products.getAllValues().get(0).get(0);
+        assertEquals("Fast, light", laptop.getDescription());
+        assertEquals(new BigDecimal("999.99"), laptop.getPrice());
+        assertEquals(1, laptop.getCategoryId());
+        assertEquals("Says \"hi\"\non two lines", products.getAllValues().get(1).get(0).getDescription());
+        assertEquals(2L, checkpoints.getAllValues().get(0).get(0)[1]);
+        assertEquals(3L, checkpoints.getAllValues().get(1).get(0)[1]);
+    }
+
+    @Test
+    void testRejectsInvalidRows() throws IOException {
+        Path file = writeFile("products.jsonl",
+                "{\"name\":\"Laptop\",\"price\":999.99,\"category\":\"Electronics\"}\n" +
+                "{\"name\":\"Free\",\"price\":0,\"category\":\"Electronics\"}\n" +
+                "{\"name\":\"Sofa\",\"price\":10,\"category\":\"Furniture\"}\n" +
+                "not json\n");
+        when(productDAO.createBatch(anyList(), anyList(), anyList())).thenReturn(1);
+
+        ImportResult result = importService.importFile(file, 10, false);
+
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("Record 2: price"));
+        assertTrue(result.getErrors().get(1).contains("unknown category 'Furniture'"));
+        assertTrue(result.getErrors().get(2).startsWith("Record 4: Invalid JSON"));
+    }
+
+    @Test
+    void testResumesAfterCommittedRecords() throws IOException {
+        Path file = writeFile("products.csv", HEADER +
+                "A,,1,Electronics,,\nB,,2,Electronics,,\nC,,3,Electronics,,\n");
+        when(checkpointDAO.getRecordsCommitted(anyString())).thenReturn(2L);
+        when(productDAO.createBatch(anyList(), anyList(), anyList())).thenReturn(1);
+
+        ImportResult result = importService.importFile(file, 2, false);
+
+        assertEquals(2, result.getResumedAfter());
+        assertEquals(1, result.getImported());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> products = ArgumentCaptor.forClass(List.class);
+        verify(productDAO).createBatch(products.capture(), anyList(), anyList());
+        assertEquals("C", products.getValue().get(0).getProductName());
+    }
+
+    @Test
+    void testStopsOnFailedChunk() throws IOException {
+        Path file = writeFile("products.csv", HEADER +
+                "A,,1,Electronics,,\nB,,2,Electronics,,\nC,,3,Electronics,,\n");
+        when(productDAO.createBatch(anyList(), anyList(), anyList())).thenReturn(-1);
+
+        ImportResult result = importService.importFile(file, 2, false);
+
+        assertTrue(result.isFailed());
+        assertEquals(0, result.getImported());
+        verify(productDAO, times(1)).createBatch(anyList(), anyList(), anyList());
+    }
+
+    @Test
+    void testRestartClearsCheckpoint() throws IOException {
+        Path file = writeFile("products.csv", HEADER);
+
+        importService.importFile(file, 10, true);
+
+        verify(checkpointDAO).clear(anyString());
+        verify(checkpointDAO, never()).getRecordsCommitted(any());
+    }
+
+    private Path writeFile(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+}
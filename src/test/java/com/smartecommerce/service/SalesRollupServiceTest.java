@@ -0,0 +1,102 @@
+package com.smartecommerce.service;
+
+import com.smartecommerce.dao.SalesRollupDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private SalesRollupDAO salesRollupDAO;
+
+    private SalesRollupService salesRollupService;
+
+    @BeforeEach
+    void setUp() {
+        salesRollupService = new SalesRollupService(salesRollupDAO);
+    }
+
+    @Test
+    void testBackfillInChunks() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 18);
+        when(salesRollupDAO.hasTables()).thenReturn(true);
+        when(salesRollupDAO.rebuildRange(any(), any())).thenReturn(true);
+
+        int chunks = salesRollupService.backfill(from, to, 7);
+
+        assertEquals(3, chunks);
+        verify(salesRollupDAO).rebuildRange(from, LocalDate.of(2025, 1, 8));
+        verify(salesRollupDAO).rebuildRange(LocalDate.of(2025, 1, 8), LocalDate.of(2025, 1, 15));
+        verify(salesRollupDAO).rebuildRange(LocalDate.of(2025, 1, 15), to);
+    }
+
+    @Test
+    void testBackfillStopsOnFailedRange() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        when(salesRollupDAO.hasTables()).thenReturn(true);
+        when(salesRollupDAO.rebuildRange(from, LocalDate.of(2025, 1, 8))).thenReturn(false);
+
+        int chunks = salesRollupService.backfill(from, LocalDate.of(2025, 2, 1), 7);
+
+        assertEquals(-1, chunks);
+        verify(salesRollupDAO, times(1)).rebuildRange(any(), any());
+    }
+
+    @Test
+    void testBackfillWithoutRollupTables() {
+        when(salesRollupDAO.hasTables()).thenReturn(false);
+
+        int chunks = salesRollupService.backfill(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2), 1);
+
+        assertEquals(-1, chunks);
+        verify(salesRollupDAO, never()).rebuildRange(any(), any());
+    }
+
+    @Test
+    void testBackfillWithNoOrders() {
+        when(salesRollupDAO.hasTables()).thenReturn(true);
+        when(salesRollupDAO.getFirstOrderDate()).thenReturn(null);
+        when(salesRollupDAO.recordBackfill()).thenReturn(true);
+
+        assertEquals(0, salesRollupService.backfill());
+        verify(salesRollupDAO, never()).rebuildRange(any(), any());
+        // Empty rollups are complete, so reports may read them
+        verify(salesRollupDAO).recordBackfill();
+    }
+
+    @Test
+    void testFullBackfillIsRecordedOnlyWhenEveryRangeSucceeds() {
+        when(salesRollupDAO.hasTables()).thenReturn(true);
+        when(salesRollupDAO.getFirstOrderDate()).thenReturn(LocalDate.now().minusDays(20));
+        when(salesRollupDAO.rebuildRange(any(), any())).thenReturn(true, false);
+
+        assertEquals(-1, salesRollupService.backfill());
+        verify(salesRollupDAO, never()).recordBackfill();
+
+        when(salesRollupDAO.rebuildRange(any(), any())).thenReturn(true);
+        when(salesRollupDAO.recordBackfill()).thenReturn(true);
+        assertEquals(3, salesRollupService.backfill());
+        verify(salesRollupDAO).recordBackfill();
+    }
+
+    @Test
+    void testBackfillRejectsInvalidChunkSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> salesRollupService.backfill(LocalDate.now(), LocalDate.now(), 0));
+    }
+}
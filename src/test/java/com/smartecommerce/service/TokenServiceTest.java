@@ -0,0 +1,68 @@
+package com.smartecommerce.service;
+
+import com.smartecommerce.models.User;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final Instant NOW = Instant.parse("2025-06-01T10:00:00Z");
+
+    @Test
+    void testVerifiedTokenCarriesUserAndRole() {
+        TokenService tokens = new TokenService(SECRET, Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        TokenSession issued = tokens.issue(new User(7, "root", "root@x.com", "hash", "ADMIN"));
+        TokenSession verified = tokens.verify(issued.getToken());
+
+        assertNotNull(verified);
+        assertEquals(7, verified.getUserId());
+        assertEquals("root", verified.getUsername());
+        assertTrue(verified.isAdmin());
+        assertTrue(verified.hasRole("ADMIN"));
+        assertFalse(verified.hasRole("CUSTOMER"));
+        assertEquals(issued.getTokenId(), verified.getTokenId());
+        assertEquals(NOW.plus(Duration.ofMinutes(30)).toEpochMilli(), verified.getExpiresAtMillis());
+    }
+
+    @Test
+    void testRejectsTamperedForeignAndExpiredTokens() {
+        TokenService tokens = new TokenService(SECRET, Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = tokens.issue(new User(1, "alice", "a@x.com", "hash", "CUSTOMER")).getToken();
+
+        String[] parts = token.split("\\.");
+        String forgedClaims = parts[0] + "." + parts[1].substring(0, parts[1].length() - 2) + "xx." + parts[2];
+        assertNull(tokens.verify(forgedClaims));
+        assertNull(tokens.verify("not-a-token"));
+        assertNull(tokens.verify(null));
+
+        TokenService otherKey = new TokenService("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8),
+                Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+        assertNull(otherKey.verify(token));
+
+        TokenService later = new TokenService(SECRET, Duration.ofMinutes(30),
+                Clock.fixed(NOW.plus(Duration.ofMinutes(31)), ZoneOffset.UTC));
+        assertNull(later.verify(token));
+    }
+
+    @Test
+    void testRevokedTokensAreRejectedUntilTheyExpire() {
+        TokenService tokens = new TokenService(SECRET, Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+        TokenSession first = tokens.issue(new User(1, "alice", "a@x.com", "hash", "CUSTOMER"));
+        TokenSession second = tokens.issue(new User(1, "alice", "a@x.com", "hash", "CUSTOMER"));
+
+        tokens.revoke(first);
+
+        assertNull(tokens.verify(first.getToken()));
+        assertNotNull(tokens.verify(second.getToken()));
+        assertEquals(1, tokens.getRevokedCount());
+    }
+}
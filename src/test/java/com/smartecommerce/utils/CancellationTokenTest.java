@@ -0,0 +1,28 @@
+package com.smartecommerce.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CancellationTokenTest {
+
+    @Test
+    void testCancelsRegisteredFutures() {
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        token.register(pending);
+
+        token.cancel();
+
+        assertTrue(pending.isCancelled());
+        assertTrue(token.isCancelled());
+        CompletableFuture<String> late = new CompletableFuture<>();
+        token.register(late);
+        assertTrue(late.isCancelled());
+
+        CancellationToken.NONE.cancel();
+        assertFalse(CancellationToken.NONE.isCancelled());
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartecommerce.utils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCsvEscapesSpecialCharacters() throws IOException {
+        Path file = tempDir.resolve("products.csv");
+
+        try (ExportWriter writer = ExportWriter.open(file, "id", "name", "price")) {
+            writer.writeRow(1, "Plain", new BigDecimal("9.90"));
+            writer.writeRow(2, "Say \"hi\", world", null);
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(List.of("id,name,price", "1,Plain,9.90", "2,\"Say \"\"hi\"\", world\","), lines);
+    }
+
+    @Test
+    void testGzippedNdjsonWritesOneObjectPerLine() throws IOException {
+        Path file = tempDir.resolve("orders.ndjson.gz");
+        Timestamp orderDate = Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 12, 30));
+
+        try (ExportWriter writer = ExportWriter.open(file, "order_id", "status", "order_date")) {
+            for (int i = 1; i <= 3; i++) {
+                writer.writeRow(i, "PENDING", orderDate);
+            }
+            assertEquals(3, writer.getRowCount());
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            assertEquals(3, lines.size());
+            JsonObject last = JsonParser.parseString(lines.get(2)).getAsJsonObject();
+            assertEquals(3, last.get("order_id").getAsInt());
+            assertEquals("2025-03-01T12:30", last.get("order_date").getAsString());
+        }
+    }
+
+    @Test
+    void testFormatFromFileName() {
+        assertEquals(ExportWriter.Format.CSV, ExportWriter.Format.fromFileName("users.CSV.gz"));
+        assertEquals(ExportWriter.Format.NDJSON, ExportWriter.Format.fromFileName("users.jsonl"));
+        assertThrows(IllegalArgumentException.class, () -> ExportWriter.Format.fromFileName("users.xlsx"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartecommerce.utils;
+
+import javafx.scene.layout.Pane;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FXMLCacheTest {
+    private static final String VIEW = "/com/smartecommerce/utils/cached-view.fxml";
+
+    @AfterEach
+    void tearDown() {
+        FXMLCache.getInstance().clear();
+    }
+
+    @Test
+    void testShownViewIsReusedAndRefreshed() throws IOException {
+        Pane container = new Pane();
+
+        CountingController first = FXMLCache.getInstance().showIn(container, VIEW);
+        assertEquals(0, first.refreshes);
+        CountingController second = FXMLCache.getInstance().showIn(container, VIEW);
+
+        assertSame(first, second);
+        assertEquals(1, second.refreshes);
+        assertEquals(1, container.getChildren().size());
+    }
+
+    @Test
+    void testClearDropsCachedViews() throws IOException {
+        CountingController first = FXMLCache.getInstance().showIn(new Pane(), VIEW);
+        FXMLCache.getInstance().clear();
+
+        assertNotSame(first, FXMLCache.getInstance().showIn(new Pane(), VIEW));
+        assertEquals(1, FXMLCache.getInstance().size());
+    }
+
+    @Test
+    void testMissingViewFails() {
+        assertThrows(IOException.class, () -> FXMLCache.getInstance().showIn(new Pane(), "/missing.fxml"));
+    }
+
+    public static class CountingController implements Refreshable {
+        int refreshes;
+
+        @Override
+        public void refresh() {
+            refreshes++;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.smartecommerce.utils;
+
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<String> loadedUrls = new ArrayList<>();
+
+    private ImageCache newCache(long maxBytes) {
+        return new ImageCache(maxBytes, (url, width, height) -> {
+            loadedUrls.add(url);
+            return mock(Image.class);
+        });
+    }
+
+    @Test
+    void testSameKeyReturnsSameInstance() throws Exception {
+        Path file = Files.createFile(tempDir.resolve("laptop.png"));
+        ImageCache cache = newCache(1_000_000);
+
+        Image first = cache.getThumbnail(file.toString());
+        Image second = cache.getThumbnail(file.toString());
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(1, loadedUrls.size());
+        assertEquals(file.toFile().toURI().toString(), loadedUrls.get(0));
+        assertEquals(200 * 150 * 4, cache.getSizeBytes());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedOverBudget() {
+        // Room for two 10x10 images (400 bytes each)
+        ImageCache cache = newCache(800);
+
+        Image a = cache.get("https://example.com/a.png", 10, 10);
+        cache.get("https://example.com/b.png", 10, 10);
+        assertSame(a, cache.get("https://example.com/a.png", 10, 10));
+        cache.get("https://example.com/c.png", 10, 10);
+
+        assertEquals(2, cache.size());
+        assertEquals(800, cache.getSizeBytes());
+        assertSame(a, cache.get("https://example.com/a.png", 10, 10));
+        cache.get("https://example.com/b.png", 10, 10);
+        assertEquals(List.of("https://example.com/a.png", "https://example.com/b.png",
+                "https://example.com/c.png", "https://example.com/b.png"), loadedUrls);
+    }
+
+    @Test
+    void testUnknownPathResolvedOnce() {
+        ImageCache cache = newCache(1_000_000);
+
+        assertNull(cache.getThumbnail("images/does-not-exist.png"));
+        assertNull(cache.getThumbnail("images/does-not-exist.png"));
+
+        assertTrue(loadedUrls.isEmpty());
+        assertNull(cache.resolve("images/does-not-exist.png"));
+    }
+
+    @Test
+    void testReleaseCancelsLoadOnlyWhenNoHolderIsLeft() {
+        List<Image> created = new ArrayList<>();
+        ImageCache cache = new ImageCache(1_000_000, (url, width, height) -> {
+            Image image = mock(Image.class);
+            when(image.isBackgroundLoading()).thenReturn(true);
+            when(image.errorProperty()).thenReturn(new ReadOnlyBooleanWrapper().getReadOnlyProperty());
+            created.add(image);
+            return image;
+        });
+
+        // Two grid cards hold a; the cart also shows b, through get
+        Image a = cache.acquire("https://example.com/a.png", 10, 10);
+        assertSame(a, cache.acquire("https://example.com/a.png", 10, 10));
+        Image b = cache.acquire("https://example.com/b.png", 10, 10);
+        assertSame(b, cache.get("https://example.com/b.png", 10, 10));
+
+        cache.release(a);
+        cache.release(b);
+        verify(a, never()).cancel();
+        verify(b, never()).cancel();
+        assertEquals(2, cache.size());
+
+        cache.release(a);
+        verify(a).cancel();
+        assertEquals(1, cache.size());
+        // Releasing again, or an image the cache does not know, does nothing
+        cache.release(a);
+        cache.release(mock(Image.class));
+        verify(a, times(1)).cancel();
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    void testPreloadGeneratesThumbnailAndDecodesItFromTheStore() throws Exception {
+        Path desk = tempDir.resolve("desk.png");
+        Path lamp = tempDir.resolve("lamp.png");
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "png", desk.toFile());
+        ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "png", lamp.toFile());
+        List<Path> mapped = new ArrayList<>();
+        List<CompletableFuture<Void>> decodings = new ArrayList<>();
+        ImageCache cache = new ImageCache(1_000_000, new ThumbnailStore(tempDir.resolve("thumbnails")),
+                (url, width, height) -> {
+                    loadedUrls.add(url);
+                    return mock(Image.class);
+                },
+                (thumbnail, decoding) -> {
+                    mapped.add(thumbnail);
+                    decodings.add(decoding);
+                    return mock(Image.class);
+                });
+
+        CompletableFuture<Void> deskReady = cache.preloadThumbnail(desk.toString());
+        CompletableFuture<Void> lampReady = cache.preloadThumbnail(lamp.toString());
+
+        // Both thumbnails were generated up front and are decoded from the store, not the sources
+        assertTrue(loadedUrls.isEmpty());
+        assertEquals(2, mapped.size());
+        assertTrue(Files.isRegularFile(mapped.get(0)));
+        Image image = cache.acquireThumbnail(desk.toString());
+        assertEquals(2, mapped.size());
+        assertFalse(deskReady.isDone());
+
+        decodings.get(0).complete(null);
+        assertTrue(deskReady.isDone());
+        assertSame(image, cache.getThumbnail(desk.toString()));
+
+        // A thumbnail that fails to decode is not kept, and still counts as done for the caller
+        decodings.get(1).completeExceptionally(new IllegalStateException("corrupt"));
+        assertTrue(lampReady.isDone());
+        assertFalse(lampReady.isCompletedExceptionally());
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartecommerce.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityBulkheadTest {
+
+    @Test
+    void testReleasedPermitGoesToHigherLaneFirst() throws Exception {
+        PriorityBulkhead bulkhead = new PriorityBulkhead(1);
+        bulkhead.acquire(TaskPriority.INTERACTIVE);
+
+        List<TaskPriority> order = new CopyOnWriteArrayList<>();
+        Thread bulk = waiter(bulkhead, TaskPriority.BULK, order);
+        awaitQueueLength(bulkhead, 1);
+        Thread interactive = waiter(bulkhead, TaskPriority.INTERACTIVE, order);
+        awaitQueueLength(bulkhead, 2);
+
+        bulkhead.release(TaskPriority.INTERACTIVE);
+        bulk.join(5000);
+        interactive.join(5000);
+
+        assertEquals(List.of(TaskPriority.INTERACTIVE, TaskPriority.BULK), order);
+        assertEquals(1, bulkhead.availablePermits());
+        assertEquals(0, bulkhead.getQueueLength());
+    }
+
+    @Test
+    void testBulkLaneLimitedToHalfThePermits() throws Exception {
+        PriorityBulkhead bulkhead = new PriorityBulkhead(4);
+        bulkhead.acquire(TaskPriority.BULK);
+        bulkhead.acquire(TaskPriority.BULK);
+
+        List<TaskPriority> order = new CopyOnWriteArrayList<>();
+        Thread bulk = waiter(bulkhead, TaskPriority.BULK, order);
+        awaitQueueLength(bulkhead, 1);
+        assertEquals(2, bulkhead.availablePermits());
+
+        // Interactive work still gets the permits the bulk lane may not use
+        bulkhead.acquire(TaskPriority.INTERACTIVE);
+        assertEquals(1, bulkhead.getQueueLength());
+
+        bulkhead.release(TaskPriority.BULK);
+        bulk.join(5000);
+        assertEquals(List.of(TaskPriority.BULK), order);
+    }
+
+    private static Thread waiter(PriorityBulkhead bulkhead, TaskPriority priority, List<TaskPriority> order) {
+        Thread thread = new Thread(() -> {
+            try {
+                bulkhead.acquire(priority);
+                order.add(priority);
+                bulkhead.release(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueueLength(PriorityBulkhead bulkhead, int length) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getQueueLength() < length) {
+            assertTrue(System.nanoTime() < deadline, "Waiter did not queue");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartecommerce.utils;
+
+import com.smartecommerce.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskDeadlineTest {
+
+    @Test
+    void testExpireCancelsRunningStatement() throws Exception {
+        PreparedStatement stm = mock(PreparedStatement.class);
+        TaskDeadline deadline = new TaskDeadline(30, TimeUnit.SECONDS);
+
+        deadline.call(() -> {
+            TaskDeadline.track(stm);
+            deadline.expire();
+            return null;
+        });
+
+        verify(stm).setQueryTimeout(30);
+        verify(stm).cancel();
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void testNoStatementRunsAfterExpiry() throws Exception {
+        PreparedStatement stm = mock(PreparedStatement.class);
+        TaskDeadline deadline = new TaskDeadline(30, TimeUnit.SECONDS);
+
+        assertThrows(SQLTimeoutException.class, () -> deadline.call(() -> {
+            deadline.expire();
+            TaskDeadline.track(stm);
+            return null;
+        }));
+        verify(stm, never()).cancel();
+    }
+
+    @Test
+    void testTimeoutInterruptsTaskAndCountsIt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        CompletableFuture<String> future = AsyncTaskManager.runAsyncWithTimeout(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "finished";
+        }, 50, TimeUnit.MILLISECONDS, null, null);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(MetricsRegistry.getInstance().scrape()
+                .contains("smartecommerce_async_timeouts_total{task=\"com.smartecommerce.utils.TaskDeadlineTest\"} 1"));
+    }
+}
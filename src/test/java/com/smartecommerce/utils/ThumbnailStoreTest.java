@@ -0,0 +1,80 @@
+package com.smartecommerce.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testGeneratesScaledThumbnailOnce() throws IOException {
+        Path source = writeImage(tempDir.resolve("images/sofa.png"), 800, 400, Color.BLUE);
+        String url = source.toUri().toString();
+        ThumbnailStore store = new ThumbnailStore(tempDir.resolve("thumbnails"));
+
+        assertNull(store.find(url, 200, 150));
+        Path thumbnail = store.generate(url, 200, 150);
+
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        assertEquals(200, image.getWidth());
+        assertEquals(100, image.getHeight());
+        assertEquals(thumbnail, store.generate(url, 200, 150));
+
+        // A new store reads the saved index and finds the thumbnail without re-hashing
+        store.generateAll(tempDir.resolve("images"), new int[]{200, 150});
+        assertEquals(thumbnail, new ThumbnailStore(tempDir.resolve("thumbnails")).find(url, 200, 150));
+    }
+
+    @Test
+    void testChangedSourceGetsNewThumbnail() throws IOException {
+        Path source = writeImage(tempDir.resolve("lamp.png"), 300, 300, Color.RED);
+        String url = source.toUri().toString();
+        ThumbnailStore store = new ThumbnailStore(tempDir.resolve("thumbnails"));
+        Path first = store.generate(url, 80, 80);
+
+        writeImage(source, 300, 300, Color.GREEN);
+        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        assertNull(new ThumbnailStore(tempDir.resolve("thumbnails")).find(url, 80, 80));
+        Path second = store.generate(url, 80, 80);
+        assertNotEquals(first, second);
+        assertTrue(Files.isRegularFile(first));
+    }
+
+    @Test
+    void testMapReturnsThumbnailBytes() throws IOException {
+        Path source = writeImage(tempDir.resolve("chair.png"), 400, 300, Color.GRAY);
+        Path thumbnail = new ThumbnailStore(tempDir.resolve("thumbnails")).generate(source.toUri().toString(), 200, 150);
+
+        ByteBuffer mapped = ThumbnailStore.map(thumbnail);
+        byte[] bytes = new byte[mapped.remaining()];
+        mapped.get(bytes);
+
+        assertArrayEquals(Files.readAllBytes(thumbnail), bytes);
+    }
+
+    private static Path writeImage(Path file, int width, int height, Color color) throws IOException {
+        Files.createDirectories(file.getParent());
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ImageIO.write(image, "png", file.toFile());
+        return file;
+    }
+}
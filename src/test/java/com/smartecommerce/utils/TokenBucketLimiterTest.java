@@ -0,0 +1,50 @@
+package com.smartecommerce.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    void testBurstThenOneAttemptPerRefillPeriod() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(10), clock::get);
+
+        assertTrue(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice"));
+        assertFalse(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("bob"), "Keys have buckets of their own");
+
+        // Two half periods add up to one token
+        clock.addAndGet(5_000);
+        assertFalse(limiter.tryAcquire("alice"));
+        clock.addAndGet(5_000);
+        assertTrue(limiter.tryAcquire("alice"));
+        assertFalse(limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void testSweepDropsOnlyRefilledBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(1), clock::get);
+        limiter.tryAcquire("alice");
+        clock.addAndGet(500);
+        limiter.tryAcquire("bob");
+        assertEquals(2, limiter.size());
+
+        clock.addAndGet(600);
+        limiter.sweep();
+
+        assertEquals(1, limiter.size(), "alice is full again, bob is not");
+        // A full bucket is never more than capacity, however long the key was away
+        clock.addAndGet(60_000);
+        assertTrue(limiter.tryAcquire("bob"));
+        assertTrue(limiter.tryAcquire("bob"));
+        assertFalse(limiter.tryAcquire("bob"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.smartecommerce.utils;
+
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualGridTest {
+
+    @Test
+    void testOnlyVisibleRowsAndOverscanAreBound() {
+        List<RecordingCell> cells = new ArrayList<>();
+        VirtualGrid<Integer> grid = grid(cells);
+        grid.setItems(IntStream.range(0, 300).boxed().toList());
+
+        // 100 rows of 100px, 2 in view plus 1 overscan row below
+        grid.resize(300, 200);
+        grid.layout();
+
+        assertEquals(9, grid.getCellCount());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), boundItems(cells));
+        assertEquals(100 * 100, grid.prefHeight(300));
+    }
+
+    @Test
+    void testCellsAreReusedWhenItemsChange() {
+        List<RecordingCell> cells = new ArrayList<>();
+        VirtualGrid<Integer> grid = grid(cells);
+        grid.setItems(IntStream.range(0, 300).boxed().toList());
+        grid.resize(300, 200);
+        grid.layout();
+
+        grid.setItems(IntStream.range(1000, 1300).boxed().toList());
+        grid.layout();
+
+        assertEquals(9, cells.size());
+        assertEquals(List.of(1000, 1001, 1002, 1003, 1004, 1005, 1006, 1007, 1008), boundItems(cells));
+        assertTrue(cells.stream().allMatch(cell -> cell.unbinds == 1));
+    }
+
+    @Test
+    void testShorterListReleasesExtraCells() {
+        List<RecordingCell> cells = new ArrayList<>();
+        VirtualGrid<Integer> grid = grid(cells);
+        grid.setItems(IntStream.range(0, 300).boxed().toList());
+        grid.resize(300, 200);
+        grid.layout();
+
+        grid.setItems(List.of(7, 8));
+        grid.layout();
+
+        assertEquals(List.of(7, 8), boundItems(cells));
+        assertEquals(7, cells.stream().filter(cell -> !cell.getNode().isVisible()).count());
+    }
+
+    private static VirtualGrid<Integer> grid(List<RecordingCell> cells) {
+        return new VirtualGrid<>(3, 100, 0, 1, () -> {
+            RecordingCell cell = new RecordingCell();
+            cells.add(cell);
+            return cell;
+        });
+    }
+
+    private static List<Integer> boundItems(List<RecordingCell> cells) {
+        return cells.stream().filter(cell -> cell.item != null).map(cell -> cell.item).sorted().toList();
+    }
+
+    private static class RecordingCell implements VirtualGrid.Cell<Integer> {
+        private final Pane node = new Pane();
+        private Integer item;
+        private int unbinds;
+
+        @Override
+        public Node getNode() {
+            return node;
+        }
+
+        @Override
+        public void bind(Integer item) {
+            this.item = item;
+        }
+
+        @Override
+        public void unbind() {
+            item = null;
+            unbinds++;
+        }
+    }
+}